@@ -2,8 +2,15 @@ package com.seplag.artistalbum.application.controller;
 
 import com.seplag.artistalbum.application.dto.AlbumDTO;
 import com.seplag.artistalbum.application.dto.CriarAlbumRequest;
+import com.seplag.artistalbum.application.dto.CriarSessaoUploadRequest;
+import com.seplag.artistalbum.application.dto.PaginaCursor;
+import com.seplag.artistalbum.application.dto.SessaoUploadDTO;
+import com.seplag.artistalbum.application.dto.TarefaImagemDTO;
 import com.seplag.artistalbum.domain.service.AlbumService;
-import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.CacheCatalogoService;
+import com.seplag.artistalbum.domain.service.PaginacaoCursor;
+import com.seplag.artistalbum.domain.service.ProcessamentoImagemService;
+import com.seplag.artistalbum.domain.service.UploadRetomavelService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,9 +23,11 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -27,11 +36,21 @@ import java.util.List;
 public class AlbumController {
 
     private final AlbumService albumService;
-    private final MinioService minioService;
-
-    public AlbumController(AlbumService albumService, MinioService minioService) {
+    private final CacheCatalogoService cacheCatalogo;
+    private final ProxyImagem proxyImagem;
+    private final PacoteImagens pacoteImagens;
+    private final ProcessamentoImagemService processamentoImagem;
+    private final UploadRetomavelService uploadRetomavel;
+
+    public AlbumController(AlbumService albumService, CacheCatalogoService cacheCatalogo, ProxyImagem proxyImagem,
+                    PacoteImagens pacoteImagens, ProcessamentoImagemService processamentoImagem,
+                    UploadRetomavelService uploadRetomavel) {
         this.albumService = albumService;
-        this.minioService = minioService;
+        this.cacheCatalogo = cacheCatalogo;
+        this.proxyImagem = proxyImagem;
+        this.pacoteImagens = pacoteImagens;
+        this.processamentoImagem = processamentoImagem;
+        this.uploadRetomavel = uploadRetomavel;
     }
 
     @GetMapping("/artista/{idArtista}")
@@ -42,7 +61,24 @@ public class AlbumController {
             @Parameter(description = "Número de itens por página") @RequestParam(defaultValue = "10") int tamanho) {
 
         Pageable paginacao = PageRequest.of(pagina, tamanho);
-        Page<AlbumDTO> albuns = albumService.obterAlbunsPorArtista(idArtista, paginacao);
+        Page<AlbumDTO> albuns = cacheCatalogo.obterAlbunsPorArtista(idArtista, "pagina:" + pagina + ":" + tamanho,
+                () -> albumService.obterAlbunsPorArtista(idArtista, paginacao));
+        return ResponseEntity.ok(albuns);
+    }
+
+    @GetMapping("/artista/{idArtista}/cursor")
+    @Operation(summary = "Obter álbuns por artista com paginação por cursor (keyset) e ordenação por título")
+    public ResponseEntity<PaginaCursor<AlbumDTO>> obterAlbunsPorArtistaPorCursor(
+            @Parameter(description = "ID do artista") @PathVariable Long idArtista,
+            @Parameter(description = "Cursor retornado pela página anterior (vazio para a primeira página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número de itens por página (máximo 100)") @RequestParam(defaultValue = "10") int tamanho,
+            @Parameter(description = "Direção da ordenação (asc ou desc)") @RequestParam(defaultValue = "asc", name = "sort") String ordenacao) {
+
+        // Limitado antes de montar a chave: tamanhos acima do máximo compartilham a mesma entrada
+        int tamanhoPagina = PaginacaoCursor.limitarTamanho(tamanho);
+        PaginaCursor<AlbumDTO> albuns = cacheCatalogo.obterAlbunsPorArtista(idArtista,
+                "cursor:" + tamanhoPagina + ":" + ordenacao.toLowerCase() + ":" + cursor,
+                () -> albumService.obterAlbunsPorArtistaPorCursor(idArtista, cursor, tamanhoPagina, ordenacao));
         return ResponseEntity.ok(albuns);
     }
 
@@ -52,14 +88,15 @@ public class AlbumController {
             @Parameter(description = "ID do artista") @PathVariable Long idArtista,
             @Parameter(description = "Direção da ordenação (asc ou desc)") @RequestParam(defaultValue = "asc") String ordenacao) {
 
-        List<AlbumDTO> albuns = albumService.obterTodosAlbunsPorArtista(idArtista, ordenacao);
+        List<AlbumDTO> albuns = cacheCatalogo.obterAlbunsPorArtista(idArtista, "todos:" + ordenacao.toLowerCase(),
+                () -> albumService.obterTodosAlbunsPorArtista(idArtista, ordenacao));
         return ResponseEntity.ok(albuns);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obter álbum por ID")
     public ResponseEntity<AlbumDTO> obterAlbumPorId(@Parameter(description = "ID do álbum") @PathVariable Long id) {
-        AlbumDTO album = albumService.obterAlbumPorId(id);
+        AlbumDTO album = cacheCatalogo.obterAlbum(id, () -> albumService.obterAlbumPorId(id));
         return ResponseEntity.ok(album);
     }
 
@@ -93,50 +130,55 @@ public class AlbumController {
             @Parameter(description = "ID do álbum") @PathVariable Long id,
             @Parameter(description = "Arquivo da imagem de capa") @RequestParam("arquivo") MultipartFile arquivo) {
 
-        try {
-            String tipoConteudo = arquivo.getContentType();
-            if (tipoConteudo == null || !tipoConteudo.startsWith("image/")) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            AlbumDTO album = albumService.fazerUploadImagemCapa(id, arquivo.getBytes(), arquivo.getOriginalFilename(), tipoConteudo);
-            return ResponseEntity.ok(album);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        // O tipo real é verificado pelo conteúdo durante o envio; o arquivo não é carregado inteiro na memória
+        AlbumDTO album = albumService.fazerUploadImagemCapa(id, arquivo, arquivo.getSize(), arquivo.getOriginalFilename());
+        return ResponseEntity.ok(album);
     }
 
-    @GetMapping("/capa/{idAlbum}")
-    @Operation(summary = "Obter imagem de capa do álbum")
-    public ResponseEntity<Resource> obterImagemCapaAlbum(@Parameter(description = "ID do álbum") @PathVariable Long idAlbum) {
-        try {
-            AlbumDTO album = albumService.obterAlbumPorId(idAlbum);
-
-            if (album.getUrlImagemCapa() == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            // Download file from MinIO
-            byte[] dadosImagem = minioService.downloadFile(album.getUrlImagemCapa());
-
-            // Determine content type (default to JPEG if not available)
-            String tipoConteudo = "image/jpeg";
-            if (album.getUrlImagemCapa().toLowerCase().endsWith(".png")) {
-                tipoConteudo = "image/png";
-            } else if (album.getUrlImagemCapa().toLowerCase().endsWith(".gif")) {
-                tipoConteudo = "image/gif";
-            }
-
-            ByteArrayResource recurso = new ByteArrayResource(dadosImagem);
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(tipoConteudo))
-                    .contentLength(dadosImagem.length)
-                    .body(recurso);
-
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+    @PostMapping(value = "/{id}/capa/tarefas", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Enviar a imagem de capa para processamento em segundo plano (202 com a tarefa)")
+    public ResponseEntity<TarefaImagemDTO> enfileirarImagemCapa(
+            @Parameter(description = "ID do álbum") @PathVariable Long id,
+            @Parameter(description = "Arquivo da imagem de capa") @RequestParam("arquivo") MultipartFile arquivo) {
+
+        // Só grava os bytes no staging; o processamento e a notificação ocorrem na fila
+        TarefaImagemDTO tarefa = processamentoImagem.enfileirarCapaAlbum(id, arquivo, arquivo.getOriginalFilename());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/imagens/tarefas/" + tarefa.getId()))
+                .body(tarefa);
     }
-}
 
+    @PostMapping("/{id}/capa/envios")
+    @Operation(summary = "Criar uma sessão de upload retomável da capa (partes em /v1/imagens/envios)")
+    public ResponseEntity<SessaoUploadDTO> iniciarUploadImagemCapa(
+            @Parameter(description = "ID do álbum") @PathVariable Long id,
+            @Valid @RequestBody CriarSessaoUploadRequest requisicao) {
+
+        SessaoUploadDTO sessao = uploadRetomavel.iniciarCapaAlbum(id, requisicao.getNomeArquivo(), requisicao.getTamanho());
+        return ResponseEntity.created(URI.create("/api/v1/imagens/envios/" + sessao.getId())).body(sessao);
+    }
+
+    @RequestMapping(value = "/capa/{idAlbum}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    @Operation(summary = "Obter imagem de capa do álbum (streaming, suporta Range e HEAD)")
+    public void obterImagemCapaAlbum(
+            @Parameter(description = "ID do álbum") @PathVariable Long idAlbum,
+            @Parameter(description = "Largura máxima da miniatura em pixels (opcional)") @RequestParam(name = "w", required = false) Integer largura,
+            @Parameter(description = "Altura máxima da miniatura em pixels (opcional)") @RequestParam(name = "h", required = false) Integer altura,
+            HttpServletRequest requisicao,
+            HttpServletResponse resposta) throws IOException {
+
+        proxyImagem.entregar(albumService.obterChaveImagemCapa(idAlbum), largura, altura, requisicao, resposta);
+    }
+
+    @GetMapping("/capas")
+    @Operation(summary = "Obter as capas de vários álbuns em uma única resposta multipart/mixed")
+    public void obterPacoteImagensCapa(
+            @Parameter(description = "IDs dos álbuns, separados por vírgula") @RequestParam("ids") List<Long> ids,
+            @Parameter(description = "Largura máxima das miniaturas em pixels (opcional)") @RequestParam(name = "w", required = false) Integer largura,
+            @Parameter(description = "Altura máxima das miniaturas em pixels (opcional)") @RequestParam(name = "h", required = false) Integer altura,
+            HttpServletResponse resposta) throws IOException {
+
+        pacoteImagens.validarQuantidade(ids.size());
+        pacoteImagens.entregar(albumService.obterChavesImagemCapa(ids), largura, altura, resposta);
+    }
+}
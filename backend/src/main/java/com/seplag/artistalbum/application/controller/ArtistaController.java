@@ -2,7 +2,15 @@ package com.seplag.artistalbum.application.controller;
 
 import com.seplag.artistalbum.application.dto.ArtistaDTO;
 import com.seplag.artistalbum.application.dto.CriarArtistaRequest;
+import com.seplag.artistalbum.application.dto.CriarSessaoUploadRequest;
+import com.seplag.artistalbum.application.dto.PaginaCursor;
+import com.seplag.artistalbum.application.dto.SessaoUploadDTO;
+import com.seplag.artistalbum.application.dto.TarefaImagemDTO;
 import com.seplag.artistalbum.domain.service.ArtistaService;
+import com.seplag.artistalbum.domain.service.CacheCatalogoService;
+import com.seplag.artistalbum.domain.service.PaginacaoCursor;
+import com.seplag.artistalbum.domain.service.ProcessamentoImagemService;
+import com.seplag.artistalbum.domain.service.UploadRetomavelService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,9 +22,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/v1/artistas")
@@ -24,9 +36,21 @@ import org.springframework.http.MediaType;
 public class ArtistaController {
 
     private final ArtistaService artistaService;
-
-    public ArtistaController(ArtistaService artistaService) {
+    private final CacheCatalogoService cacheCatalogo;
+    private final ProxyImagem proxyImagem;
+    private final PacoteImagens pacoteImagens;
+    private final ProcessamentoImagemService processamentoImagem;
+    private final UploadRetomavelService uploadRetomavel;
+
+    public ArtistaController(ArtistaService artistaService, CacheCatalogoService cacheCatalogo, ProxyImagem proxyImagem,
+                    PacoteImagens pacoteImagens, ProcessamentoImagemService processamentoImagem,
+                    UploadRetomavelService uploadRetomavel) {
         this.artistaService = artistaService;
+        this.cacheCatalogo = cacheCatalogo;
+        this.proxyImagem = proxyImagem;
+        this.pacoteImagens = pacoteImagens;
+        this.processamentoImagem = processamentoImagem;
+        this.uploadRetomavel = uploadRetomavel;
     }
 
     @GetMapping
@@ -37,7 +61,24 @@ public class ArtistaController {
             @Parameter(description = "Direção da ordenação (asc ou desc)") @RequestParam(defaultValue = "asc", name = "sort") String ordenacao) {
 
         Pageable paginacao = PageRequest.of(pagina, tamanho);
-        Page<ArtistaDTO> artistas = artistaService.obterTodosArtistas(paginacao, ordenacao);
+        Page<ArtistaDTO> artistas = cacheCatalogo.obterPaginaArtistas(
+                "todos:" + pagina + ":" + tamanho + ":" + ordenacao.toLowerCase(),
+                () -> artistaService.obterTodosArtistas(paginacao, ordenacao));
+        return ResponseEntity.ok(artistas);
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar artistas com paginação por cursor (keyset) e ordenação por nome")
+    public ResponseEntity<PaginaCursor<ArtistaDTO>> obterArtistasPorCursor(
+            @Parameter(description = "Cursor retornado pela página anterior (vazio para a primeira página)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número de itens por página (máximo 100)") @RequestParam(defaultValue = "10") int tamanho,
+            @Parameter(description = "Direção da ordenação (asc ou desc)") @RequestParam(defaultValue = "asc", name = "sort") String ordenacao) {
+
+        // Limitado antes de montar a chave: tamanhos acima do máximo compartilham a mesma entrada
+        int tamanhoPagina = PaginacaoCursor.limitarTamanho(tamanho);
+        PaginaCursor<ArtistaDTO> artistas = cacheCatalogo.obterPaginaArtistas(
+                "cursor:" + tamanhoPagina + ":" + ordenacao.toLowerCase() + ":" + cursor,
+                () -> artistaService.obterArtistasPorCursor(cursor, tamanhoPagina, ordenacao));
         return ResponseEntity.ok(artistas);
     }
 
@@ -49,14 +90,16 @@ public class ArtistaController {
             @Parameter(description = "Número de itens por página") @RequestParam(defaultValue = "10") int tamanho) {
 
         Pageable paginacao = PageRequest.of(pagina, tamanho);
-        Page<ArtistaDTO> artistas = artistaService.pesquisarArtistas(nome, paginacao);
+        Page<ArtistaDTO> artistas = cacheCatalogo.obterPaginaArtistas(
+                "pesquisa:" + pagina + ":" + tamanho + ":" + nome,
+                () -> artistaService.pesquisarArtistas(nome, paginacao));
         return ResponseEntity.ok(artistas);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obter artista por ID com álbuns")
     public ResponseEntity<ArtistaDTO> obterArtistaPorId(@Parameter(description = "ID do artista") @PathVariable Long id) {
-        ArtistaDTO artista = artistaService.obterArtistaPorId(id);
+        ArtistaDTO artista = cacheCatalogo.obterArtista(id, () -> artistaService.obterArtistaPorId(id));
         return ResponseEntity.ok(artista);
     }
 
@@ -90,17 +133,9 @@ public class ArtistaController {
             @Parameter(description = "ID do artista") @PathVariable Long id,
             @Parameter(description = "Arquivo da foto") @RequestParam("arquivo") MultipartFile arquivo) {
 
-        try {
-            String tipoConteudo = arquivo.getContentType();
-            if (tipoConteudo == null || !tipoConteudo.startsWith("image/")) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            ArtistaDTO artista = artistaService.fazerUploadFotoPerfil(id, arquivo.getBytes(), arquivo.getOriginalFilename(), tipoConteudo);
-            return ResponseEntity.ok(artista);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        // O tipo real é verificado pelo conteúdo durante o envio; o arquivo não é carregado inteiro na memória
+        ArtistaDTO artista = artistaService.fazerUploadFotoPerfil(id, arquivo, arquivo.getSize(), arquivo.getOriginalFilename());
+        return ResponseEntity.ok(artista);
     }
 
     @DeleteMapping("/{id}/foto")
@@ -110,32 +145,50 @@ public class ArtistaController {
         return ResponseEntity.ok(artista);
     }
 
-    @GetMapping("/foto/{idArtista}")
-    @Operation(summary = "Obter foto de perfil do artista")
-    public ResponseEntity<Resource> obterFotoPerfilArtista(@Parameter(description = "ID do artista") @PathVariable Long idArtista) {
-        try {
-            ArtistaDTO artista = artistaService.obterArtistaPorId(idArtista);
+    @PostMapping(value = "/{id}/foto/tarefas", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Enviar a foto de perfil para processamento em segundo plano (202 com a tarefa)")
+    public ResponseEntity<TarefaImagemDTO> enfileirarFotoPerfil(
+            @Parameter(description = "ID do artista") @PathVariable Long id,
+            @Parameter(description = "Arquivo da foto") @RequestParam("arquivo") MultipartFile arquivo) {
 
-            if (artista.getUrlImagemPerfil() == null) {
-                return ResponseEntity.notFound().build();
-            }
+        // Só grava os bytes no staging; o processamento e a notificação ocorrem na fila
+        TarefaImagemDTO tarefa = processamentoImagem.enfileirarFotoArtista(id, arquivo, arquivo.getOriginalFilename());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/imagens/tarefas/" + tarefa.getId()))
+                .body(tarefa);
+    }
 
-            byte[] dadosImagem = artistaService.obterBytesFotoPerfil(artista.getUrlImagemPerfil());
+    @PostMapping("/{id}/foto/envios")
+    @Operation(summary = "Criar uma sessão de upload retomável da foto de perfil (partes em /v1/imagens/envios)")
+    public ResponseEntity<SessaoUploadDTO> iniciarUploadFotoPerfil(
+            @Parameter(description = "ID do artista") @PathVariable Long id,
+            @Valid @RequestBody CriarSessaoUploadRequest requisicao) {
 
-            String tipoConteudo = "image/jpeg";
-            if (artista.getUrlImagemPerfil().toLowerCase().endsWith(".png")) {
-                tipoConteudo = "image/png";
-            }
+        SessaoUploadDTO sessao = uploadRetomavel.iniciarFotoArtista(id, requisicao.getNomeArquivo(), requisicao.getTamanho());
+        return ResponseEntity.created(URI.create("/api/v1/imagens/envios/" + sessao.getId())).body(sessao);
+    }
+
+    @RequestMapping(value = "/foto/{idArtista}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    @Operation(summary = "Obter foto de perfil do artista (streaming, suporta Range e HEAD)")
+    public void obterFotoPerfilArtista(
+            @Parameter(description = "ID do artista") @PathVariable Long idArtista,
+            @Parameter(description = "Largura máxima da miniatura em pixels (opcional)") @RequestParam(name = "w", required = false) Integer largura,
+            @Parameter(description = "Altura máxima da miniatura em pixels (opcional)") @RequestParam(name = "h", required = false) Integer altura,
+            HttpServletRequest requisicao,
+            HttpServletResponse resposta) throws IOException {
 
-            ByteArrayResource recurso = new ByteArrayResource(dadosImagem);
+        proxyImagem.entregar(artistaService.obterChaveFotoPerfil(idArtista), largura, altura, requisicao, resposta);
+    }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(tipoConteudo))
-                    .contentLength(dadosImagem.length)
-                    .body(recurso);
+    @GetMapping("/fotos")
+    @Operation(summary = "Obter as fotos de perfil de vários artistas em uma única resposta multipart/mixed")
+    public void obterPacoteFotosPerfil(
+            @Parameter(description = "IDs dos artistas, separados por vírgula") @RequestParam("ids") List<Long> ids,
+            @Parameter(description = "Largura máxima das miniaturas em pixels (opcional)") @RequestParam(name = "w", required = false) Integer largura,
+            @Parameter(description = "Altura máxima das miniaturas em pixels (opcional)") @RequestParam(name = "h", required = false) Integer altura,
+            HttpServletResponse resposta) throws IOException {
 
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        pacoteImagens.validarQuantidade(ids.size());
+        pacoteImagens.entregar(artistaService.obterChavesFotoPerfil(ids), largura, altura, resposta);
     }
 }
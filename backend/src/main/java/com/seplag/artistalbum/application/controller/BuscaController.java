@@ -0,0 +1,33 @@
+package com.seplag.artistalbum.application.controller;
+
+import com.seplag.artistalbum.application.dto.SugestaoDTO;
+import com.seplag.artistalbum.domain.service.IndiceSugestoesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/busca")
+@Tag(name = "Busca", description = "APIs de busca e autocompletar")
+public class BuscaController {
+
+    private final IndiceSugestoesService indiceSugestoes;
+
+    public BuscaController(IndiceSugestoesService indiceSugestoes) {
+        this.indiceSugestoes = indiceSugestoes;
+    }
+
+    @GetMapping("/sugestoes")
+    @Operation(summary = "Sugerir artistas e álbuns pelo prefixo digitado (índice em memória)")
+    public ResponseEntity<List<SugestaoDTO>> obterSugestoes(
+            @Parameter(description = "Prefixo digitado") @RequestParam String termo,
+            @Parameter(description = "Número máximo de sugestões") @RequestParam(defaultValue = "10") int limite) {
+
+        List<SugestaoDTO> sugestoes = indiceSugestoes.sugerir(termo, limite);
+        return ResponseEntity.ok(sugestoes);
+    }
+}
@@ -0,0 +1,64 @@
+package com.seplag.artistalbum.application.controller;
+
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoCatalogoDTO;
+import com.seplag.artistalbum.domain.service.ExportacaoCatalogoService;
+import com.seplag.artistalbum.domain.service.ImportacaoCatalogoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/v1/catalogo")
+@Tag(name = "Catálogo", description = "Importação (somente ADMIN) e exportação do catálogo completo")
+public class CatalogoController {
+
+    public static final String TIPO_NDJSON = "application/x-ndjson";
+    public static final String TIPO_CSV = "text/csv";
+
+    private final ImportacaoCatalogoService importacaoCatalogo;
+    private final ExportacaoCatalogoService exportacaoCatalogo;
+
+    public CatalogoController(ImportacaoCatalogoService importacaoCatalogo,
+                              ExportacaoCatalogoService exportacaoCatalogo) {
+        this.importacaoCatalogo = importacaoCatalogo;
+        this.exportacaoCatalogo = exportacaoCatalogo;
+    }
+
+    @PostMapping(value = "/importacoes", consumes = {TIPO_NDJSON, TIPO_CSV})
+    @Operation(summary = "Importar artistas e álbuns em NDJSON ({\"nome\", \"albuns\"} por linha) ou CSV (artista,album)")
+    public ResponseEntity<RelatorioImportacaoCatalogoDTO> importar(HttpServletRequest requisicao) throws IOException {
+        String formato = MediaType.parseMediaType(requisicao.getContentType()).isCompatibleWith(MediaType.parseMediaType(TIPO_CSV))
+                ? ImportacaoCatalogoService.FORMATO_CSV
+                : ImportacaoCatalogoService.FORMATO_NDJSON;
+        // O corpo é lido direto do stream da requisição e gravado em lotes enquanto chega
+        return ResponseEntity.ok(importacaoCatalogo.importar(requisicao.getInputStream(), formato));
+    }
+
+    @GetMapping("/exportacao")
+    @Operation(summary = "Exportar todos os artistas com os álbuns em NDJSON ou CSV, como stream")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Formato: ndjson ou csv") @RequestParam(defaultValue = ImportacaoCatalogoService.FORMATO_NDJSON) String formato) {
+
+        exportacaoCatalogo.validarFormato(formato);
+        MediaType tipo = ImportacaoCatalogoService.FORMATO_CSV.equals(formato)
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.parseMediaType(TIPO_NDJSON);
+        // O corpo é escrito em outra thread enquanto o cursor é percorrido; nada é montado em memória
+        StreamingResponseBody corpo = saida -> exportacaoCatalogo.exportar(formato, saida);
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("catalogo." + formato).build().toString())
+                .body(corpo);
+    }
+}
@@ -0,0 +1,39 @@
+package com.seplag.artistalbum.application.controller;
+
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoDTO;
+import com.seplag.artistalbum.domain.service.ImportacaoImagensService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/v1/imagens/importacoes")
+@Tag(name = "Importação de Imagens", description = "Importação em massa de capas e fotos (somente ADMIN)")
+public class ImportacaoImagensController {
+
+    private final ImportacaoImagensService importacaoImagens;
+
+    public ImportacaoImagensController(ImportacaoImagensService importacaoImagens) {
+        this.importacaoImagens = importacaoImagens;
+    }
+
+    @PostMapping(consumes = {"application/zip", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Importar um ZIP com pastas albuns/ e artistas/ (arquivos nomeados por id ou título)")
+    public ResponseEntity<RelatorioImportacaoDTO> importarZip(HttpServletRequest requisicao) throws IOException {
+        // O ZIP é lido direto do stream da requisição, entrada a entrada
+        return ResponseEntity.ok(importacaoImagens.importarZip(requisicao.getInputStream(), "requisição"));
+    }
+
+    @PostMapping(params = "diretorio")
+    @Operation(summary = "Importar um diretório montado no servidor, relativo ao diretório base de importação")
+    public ResponseEntity<RelatorioImportacaoDTO> importarDiretorio(
+            @Parameter(description = "Diretório relativo a imagens.importacao.diretorio-base") @RequestParam String diretorio) {
+        return ResponseEntity.ok(importacaoImagens.importarDiretorioPermitido(diretorio));
+    }
+}
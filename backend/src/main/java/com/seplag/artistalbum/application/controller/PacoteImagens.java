@@ -0,0 +1,217 @@
+package com.seplag.artistalbum.application.controller;
+
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.service.CacheDiscoImagens;
+import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.RedimensionamentoImagemService;
+import com.seplag.artistalbum.infrastructure.exception.InvalidBatchSizeException;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega as miniaturas de vários artistas ou álbuns em uma única resposta {@code multipart/mixed}.
+ * <p>
+ * Cada parte traz {@code Content-ID} com o id pedido, {@code Content-Type}, {@code Content-Length}
+ * e o mesmo ETag servido por {@link ProxyImagem}. As miniaturas são obtidas em paralelo (no máximo
+ * {@code imagens.pacote.paralelismo} por requisição, em um executor compartilhado) e escritas na
+ * ordem em que ficam prontas. Ids sem imagem, com falha ou acima do tamanho máximo por item são
+ * omitidos; o cliente recorre à URL individual.
+ */
+@Component
+public class PacoteImagens {
+
+    private static final Logger logger = LoggerFactory.getLogger(PacoteImagens.class);
+
+    private static final byte[] QUEBRA = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final MinioService minioService;
+    private final RedimensionamentoImagemService redimensionamento;
+    private final ThreadPoolExecutor executor;
+    private final int paralelismo;
+    private final int maximoItens;
+    private final int larguraPadrao;
+    private final long tamanhoMaximoItem;
+
+    public PacoteImagens(MinioService minioService,
+                         RedimensionamentoImagemService redimensionamento,
+                         @Value("${imagens.pacote.threads:8}") int threads,
+                         @Value("${imagens.pacote.paralelismo:4}") int paralelismo,
+                         @Value("${imagens.pacote.maximo-itens:100}") int maximoItens,
+                         @Value("${imagens.pacote.largura-padrao:256}") int larguraPadrao,
+                         @Value("${imagens.pacote.tamanho-maximo-item:1048576}") long tamanhoMaximoItem) {
+        this.minioService = minioService;
+        this.redimensionamento = redimensionamento;
+        this.paralelismo = paralelismo;
+        this.maximoItens = maximoItens;
+        this.larguraPadrao = larguraPadrao;
+        this.tamanhoMaximoItem = tamanhoMaximoItem;
+        // Com a fila cheia, a própria thread da requisição busca o item (contrapressão natural)
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "pacote-imagens");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    private record Item(Long id, byte[] conteudo, String tipoConteudo, String etag) {}
+
+    /**
+     * Recusa pacotes acima de {@code imagens.pacote.maximo-itens}. Chamado com os ids pedidos antes
+     * de consultar o banco, para que uma lista enorme não chegue ao {@code IN (:ids)}.
+     */
+    public void validarQuantidade(int quantidade) {
+        if (quantidade > maximoItens) {
+            throw new InvalidBatchSizeException(
+                    "Quantidade de ids excede o máximo de " + maximoItens + " por requisição");
+        }
+    }
+
+    /**
+     * Escreve o pacote de miniaturas.
+     *
+     * @param chaves chave do objeto original por id, na ordem pedida (ids sem imagem ausentes)
+     * @param largura largura máxima das miniaturas; sem largura nem altura usa a largura padrão
+     * @param altura altura máxima das miniaturas (opcional)
+     */
+    public void entregar(Map<Long, String> chaves, Integer largura, Integer altura,
+                         HttpServletResponse resposta) throws IOException {
+        validarQuantidade(chaves.size());
+        Integer larguraAlvo = largura == null && altura == null ? Integer.valueOf(larguraPadrao) : largura;
+        String fronteira = UUID.randomUUID().toString().replace("-", "");
+
+        resposta.setStatus(HttpStatus.OK.value());
+        resposta.setContentType("multipart/mixed; boundary=" + fronteira);
+        resposta.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        OutputStream saida = resposta.getOutputStream();
+
+        ExecutorCompletionService<Item> conclusoes = new ExecutorCompletionService<>(executor);
+        Iterator<Map.Entry<Long, String>> pendentes = chaves.entrySet().iterator();
+        int emAndamento = 0;
+        while (emAndamento < paralelismo && pendentes.hasNext()) {
+            submeter(conclusoes, pendentes.next(), larguraAlvo, altura);
+            emAndamento++;
+        }
+
+        try {
+            while (emAndamento > 0) {
+                Item item = conclusoes.take().get();
+                emAndamento--;
+                if (pendentes.hasNext()) {
+                    submeter(conclusoes, pendentes.next(), larguraAlvo, altura);
+                    emAndamento++;
+                }
+                if (item != null) {
+                    escreverParte(saida, fronteira, item);
+                }
+            }
+            saida.write(("--" + fronteira + "--").getBytes(StandardCharsets.US_ASCII));
+            saida.write(QUEBRA);
+            saida.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // As tarefas tratam as próprias falhas; não deve acontecer
+            logger.warn("Falha inesperada ao montar pacote de imagens", e.getCause());
+        } catch (IOException e) {
+            // Cliente encerrou a conexão durante a transferência
+        }
+    }
+
+    private void submeter(ExecutorCompletionService<Item> conclusoes, Map.Entry<Long, String> entrada,
+                          Integer largura, Integer altura) {
+        conclusoes.submit(() -> buscar(entrada.getKey(), entrada.getValue(), largura, altura));
+    }
+
+    private Item buscar(Long id, String chaveOriginal, Integer largura, Integer altura) {
+        try {
+            String chave = redimensionamento.obterChaveVariante(chaveOriginal, largura, altura);
+            // Variante indisponível: o original vai no lugar e leva o ETag do original, não o da miniatura
+            String etag = (largura != null || altura != null) && chave.equals(chaveOriginal)
+                    ? ProxyImagem.etagOriginal(MinioService.versao(chaveOriginal))
+                    : "\"" + MinioService.versao(chaveOriginal) + "-" + (largura != null ? largura : "")
+                    + "x" + (altura != null ? altura : "") + "\"";
+
+            try (CacheDiscoImagens.ObjetoLocal local = minioService.obterObjetoLocal(chave)) {
+                if (local != null) {
+                    if (local.tamanho() > tamanhoMaximoItem) {
+                        return null;
+                    }
+                    return new Item(id, lerDoDisco(local), local.tipoConteudo(), etag);
+                }
+            }
+
+            ArmazenamentoObjetos.MetadadosObjeto metadados = minioService.obterMetadados(chave);
+            if (metadados.tamanho() > tamanhoMaximoItem) {
+                return null;
+            }
+            try (InputStream entrada = minioService.abrirLeitura(chave, 0, metadados.tamanho())) {
+                return new Item(id, entrada.readAllBytes(), metadados.tipoConteudo(), etag);
+            }
+        } catch (Exception e) {
+            logger.debug("Imagem {} omitida do pacote", chaveOriginal, e);
+            return null;
+        }
+    }
+
+    private static byte[] lerDoDisco(CacheDiscoImagens.ObjetoLocal local) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) local.tamanho());
+        long posicao = local.offset();
+        while (buffer.hasRemaining()) {
+            int lidos = local.canal().read(buffer, posicao);
+            if (lidos < 0) {
+                throw new IOException("Segmento do cache truncado");
+            }
+            posicao += lidos;
+        }
+        return buffer.array();
+    }
+
+    private static void escreverParte(OutputStream saida, String fronteira, Item item) throws IOException {
+        List<String> cabecalhos = new ArrayList<>();
+        cabecalhos.add("--" + fronteira);
+        cabecalhos.add(HttpHeaders.CONTENT_TYPE + ": "
+                + (item.tipoConteudo() != null ? item.tipoConteudo() : MediaType.APPLICATION_OCTET_STREAM_VALUE));
+        cabecalhos.add(HttpHeaders.CONTENT_LENGTH + ": " + item.conteudo().length);
+        cabecalhos.add("Content-ID: <" + item.id() + ">");
+        cabecalhos.add(HttpHeaders.ETAG + ": " + item.etag());
+        for (String cabecalho : cabecalhos) {
+            saida.write(cabecalho.getBytes(StandardCharsets.US_ASCII));
+            saida.write(QUEBRA);
+        }
+        saida.write(QUEBRA);
+        saida.write(item.conteudo());
+        saida.write(QUEBRA);
+        saida.flush();
+    }
+}
@@ -0,0 +1,303 @@
+package com.seplag.artistalbum.application.controller;
+
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.service.CacheDiscoImagens;
+import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.RedimensionamentoImagemService;
+import com.seplag.artistalbum.domain.service.VerificadorEndpointPublico;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Entrega imagens copiando o conteúdo direto para a resposta, suportando HEAD e
+ * requisições parciais (Range/206). Objetos presentes no cache em disco são servidos
+ * por {@link FileChannel#transferTo} a partir do canal já aberto, sem tocar o MinIO; os demais
+ * são copiados do stream do MinIO com buffer fixo. O uso de heap por download é constante.
+ * <p>
+ * No modo de entrega {@code redirecionamento}, a resposta é um 307 para a URL pré-assinada
+ * (em cache) e o navegador baixa direto do MinIO. Se o endpoint público estiver indisponível
+ * ou a assinatura falhar, a requisição volta a ser atendida pelo proxy.
+ * <p>
+ * As URLs expostas pela API carregam a versão do conteúdo ({@code ?v=}). Quando a versão pedida
+ * é a atual, a resposta é marcada como imutável por um ano; em todos os casos o ETag forte é
+ * derivado da chave, de modo que um {@code If-None-Match} é respondido com 304 sem consultar o MinIO.
+ */
+@Component
+public class ProxyImagem {
+
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private static final int VALIDADE_URL_MINUTOS = 30;
+
+    private static final String PARAMETRO_VERSAO = "v";
+    private static final String CACHE_IMUTAVEL = "public, max-age=31536000, immutable";
+    private static final String CACHE_REVALIDAR = "no-cache";
+
+    private final MinioService minioService;
+    private final VerificadorEndpointPublico endpointPublico;
+    private final RedimensionamentoImagemService redimensionamento;
+    private final boolean modoRedirecionamento;
+    private final long maxAgeRedirecionamentoSegundos;
+    private final Counter entregasProxy;
+    private final Counter entregasRedirecionadas;
+    private final Counter respostasNaoModificadas;
+
+    public ProxyImagem(MinioService minioService,
+                       VerificadorEndpointPublico endpointPublico,
+                       RedimensionamentoImagemService redimensionamento,
+                       MeterRegistry meterRegistry,
+                       @Value("${imagens.entrega.modo:proxy}") String modoEntrega,
+                       @Value("${imagens.entrega.max-age-redirecionamento-segundos:60}") long maxAgeRedirecionamentoSegundos) {
+        this.minioService = minioService;
+        this.endpointPublico = endpointPublico;
+        this.redimensionamento = redimensionamento;
+        this.modoRedirecionamento = "redirecionamento".equalsIgnoreCase(modoEntrega);
+        this.maxAgeRedirecionamentoSegundos = maxAgeRedirecionamentoSegundos;
+        this.entregasProxy = meterRegistry.counter("imagens.entrega", "modo", "proxy");
+        this.entregasRedirecionadas = meterRegistry.counter("imagens.entrega", "modo", "redirecionamento");
+        this.respostasNaoModificadas = meterRegistry.counter("imagens.entrega", "modo", "nao-modificado");
+    }
+
+    /**
+     * Entrega a imagem (ou a miniatura nas dimensões pedidas) da chave informada.
+     */
+    public void entregar(String chaveOriginal, Integer largura, Integer altura,
+                         HttpServletRequest requisicao, HttpServletResponse resposta) throws IOException {
+        if (chaveOriginal == null) {
+            resposta.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        String versao = MinioService.versao(chaveOriginal);
+        String etag = "\"" + versao + (largura != null || altura != null
+                ? "-" + (largura != null ? largura : "") + "x" + (altura != null ? altura : "")
+                : "") + "\"";
+        // Só a URL da versão atual pode ser guardada como imutável; as demais são revalidadas
+        String cacheControl = versao.equals(requisicao.getParameter(PARAMETRO_VERSAO)) ? CACHE_IMUTAVEL : CACHE_REVALIDAR;
+
+        if (correspondeEtag(requisicao.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            respostasNaoModificadas.increment();
+            resposta.setStatus(HttpStatus.NOT_MODIFIED.value());
+            resposta.setHeader(HttpHeaders.ETAG, etag);
+            resposta.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            return;
+        }
+
+        String chaveObjeto = redimensionamento.obterChaveVariante(chaveOriginal, largura, altura);
+        if ((largura != null || altura != null) && chaveObjeto.equals(chaveOriginal)) {
+            // Variante indisponível (fila cheia, falha, formato): o original servido no lugar não
+            // pode ficar em cache sob o ETag nem sob a URL da miniatura
+            etag = etagOriginal(versao);
+            cacheControl = CACHE_REVALIDAR;
+            if (correspondeEtag(requisicao.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                respostasNaoModificadas.increment();
+                resposta.setStatus(HttpStatus.NOT_MODIFIED.value());
+                resposta.setHeader(HttpHeaders.ETAG, etag);
+                resposta.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+                return;
+            }
+        }
+
+        if (modoRedirecionamento && endpointPublico.isDisponivel() && redirecionar(chaveObjeto, resposta)) {
+            entregasRedirecionadas.increment();
+            return;
+        }
+        entregasProxy.increment();
+
+        CacheDiscoImagens.ObjetoLocal local;
+        long tamanho;
+        String tipoConteudo;
+        try {
+            local = minioService.obterObjetoLocal(chaveObjeto);
+            if (local != null) {
+                tamanho = local.tamanho();
+                tipoConteudo = local.tipoConteudo();
+            } else {
+                ArmazenamentoObjetos.MetadadosObjeto metadados = minioService.obterMetadados(chaveObjeto);
+                tamanho = metadados.tamanho();
+                tipoConteudo = metadados.tipoConteudo();
+            }
+        } catch (Exception e) {
+            resposta.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        // O canal do objeto local é fechado ao fim da entrega, inclusive em HEAD e 416
+        try (CacheDiscoImagens.ObjetoLocal aberto = local) {
+            responder(chaveObjeto, aberto, tamanho, tipoConteudo, etag, cacheControl, requisicao, resposta);
+        }
+    }
+
+    private void responder(String chaveObjeto, CacheDiscoImagens.ObjetoLocal local, long tamanho,
+                           String tipoConteudo, String etag, String cacheControl,
+                           HttpServletRequest requisicao, HttpServletResponse resposta) throws IOException {
+        long inicio = 0;
+        long fim = tamanho - 1;
+        boolean parcial = false;
+
+        // Cabeçalho inválido ou de outra unidade é ignorado (RFC 9110): resposta completa
+        List<HttpRange> faixas = lerFaixas(requisicao.getHeader(HttpHeaders.RANGE));
+        // Múltiplas faixas não são suportadas: responde com o arquivo completo
+        if (faixas.size() == 1) {
+            // Só uma faixa de bytes válida que não cabe no objeto é 416
+            try {
+                inicio = faixas.get(0).getRangeStart(tamanho);
+                fim = faixas.get(0).getRangeEnd(tamanho);
+            } catch (IllegalArgumentException e) {
+                inicio = tamanho;
+            }
+            if (inicio >= tamanho || fim < inicio) {
+                resposta.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                resposta.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+                return;
+            }
+            parcial = true;
+        }
+
+        long quantidade = fim - inicio + 1;
+
+        resposta.setStatus(parcial ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        resposta.setContentType(tipoConteudo != null ? tipoConteudo : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        resposta.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        resposta.setHeader(HttpHeaders.ETAG, etag);
+        resposta.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        resposta.setContentLengthLong(Math.max(quantidade, 0));
+        if (parcial) {
+            resposta.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+        }
+
+        if ("HEAD".equalsIgnoreCase(requisicao.getMethod()) || quantidade <= 0) {
+            return;
+        }
+
+        if (local != null) {
+            entregarDoDisco(local, inicio, quantidade, resposta);
+        } else {
+            entregarDoMinio(chaveObjeto, inicio, quantidade, resposta);
+        }
+    }
+
+    /**
+     * Faixas do cabeçalho {@code Range}. Unidades diferentes de {@code bytes} e cabeçalhos
+     * malformados (ex.: {@code bytes=5-2}) devem ser ignorados, e não recusados.
+     *
+     * @return as faixas, ou lista vazia se o cabeçalho estiver ausente ou deva ser ignorado
+     */
+    static List<HttpRange> lerFaixas(String cabecalhoRange) {
+        if (cabecalhoRange == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(cabecalhoRange);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * ETag do conteúdo original, sem dimensões: é o que vai na resposta quando a variante pedida
+     * não pôde ser gerada e o original é servido no lugar.
+     */
+    public static String etagOriginal(String versao) {
+        return "\"" + versao + "\"";
+    }
+
+    /**
+     * Compara o {@code If-None-Match} com o ETag atual (comparação fraca, como exige a RFC 9110).
+     */
+    static boolean correspondeEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void entregarDoDisco(CacheDiscoImagens.ObjetoLocal local, long inicio, long quantidade,
+                                 HttpServletResponse resposta) {
+        long posicao = local.offset() + inicio;
+
+        // Lê pelo canal aberto na consulta ao cache, nunca reabrindo o segmento pelo nome: o
+        // sendfile do Tomcat reabriria o arquivo após o retorno, quando ele já pode ter sido descartado
+        try {
+            WritableByteChannel destino = Channels.newChannel(resposta.getOutputStream());
+            long restante = quantidade;
+            while (restante > 0) {
+                long enviados = local.canal().transferTo(posicao, restante, destino);
+                if (enviados <= 0) {
+                    break;
+                }
+                posicao += enviados;
+                restante -= enviados;
+            }
+            resposta.getOutputStream().flush();
+        } catch (IOException e) {
+            // Cliente encerrou a conexão durante a transferência
+        }
+    }
+
+    private void entregarDoMinio(String chaveObjeto, long inicio, long quantidade, HttpServletResponse resposta) {
+        try (InputStream entrada = minioService.abrirLeitura(chaveObjeto, inicio, quantidade)) {
+            OutputStream saida = resposta.getOutputStream();
+            byte[] buffer = new byte[TAMANHO_BUFFER];
+            int lidos;
+            while ((lidos = entrada.read(buffer)) != -1) {
+                saida.write(buffer, 0, lidos);
+            }
+            saida.flush();
+        } catch (IOException e) {
+            // Cliente encerrou a conexão durante a transferência
+        } catch (Exception e) {
+            if (!resposta.isCommitted()) {
+                resposta.reset();
+                resposta.setStatus(HttpStatus.NOT_FOUND.value());
+            }
+        }
+    }
+
+    /**
+     * Responde com redirecionamento temporário para a URL pré-assinada. O próprio redirecionamento
+     * só pode ser guardado pelo navegador por pouco tempo, bem antes de a assinatura expirar.
+     *
+     * @return false se não foi possível assinar a URL (o chamador cai para o proxy)
+     */
+    private boolean redirecionar(String chaveObjeto, HttpServletResponse resposta) {
+        if (!minioService.suportaUrlsPreAssinadas()) {
+            return false;
+        }
+        String url;
+        try {
+            url = minioService.generatePresignedUrl(chaveObjeto, VALIDADE_URL_MINUTOS);
+        } catch (Exception e) {
+            return false;
+        }
+        resposta.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        resposta.setHeader(HttpHeaders.LOCATION, url);
+        resposta.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + maxAgeRedirecionamentoSegundos);
+        return true;
+    }
+}
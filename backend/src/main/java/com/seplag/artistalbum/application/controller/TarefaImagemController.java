@@ -0,0 +1,27 @@
+package com.seplag.artistalbum.application.controller;
+
+import com.seplag.artistalbum.application.dto.TarefaImagemDTO;
+import com.seplag.artistalbum.domain.service.ProcessamentoImagemService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/imagens/tarefas")
+@Tag(name = "Tarefas de Imagem", description = "Acompanhamento dos uploads de imagem processados em segundo plano")
+public class TarefaImagemController {
+
+    private final ProcessamentoImagemService processamentoImagem;
+
+    public TarefaImagemController(ProcessamentoImagemService processamentoImagem) {
+        this.processamentoImagem = processamentoImagem;
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obter o status de uma tarefa de imagem")
+    public ResponseEntity<TarefaImagemDTO> obterTarefa(@Parameter(description = "ID da tarefa") @PathVariable String id) {
+        return ResponseEntity.ok(processamentoImagem.obterTarefa(id));
+    }
+}
@@ -0,0 +1,61 @@
+package com.seplag.artistalbum.application.controller;
+
+import com.seplag.artistalbum.application.dto.SessaoUploadDTO;
+import com.seplag.artistalbum.domain.service.UploadRetomavelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/v1/imagens/envios")
+@Tag(name = "Uploads Retomáveis", description = "Envio de imagens em partes, retomável após falhas de conexão")
+public class UploadRetomavelController {
+
+    public static final String CABECALHO_OFFSET = "Upload-Offset";
+    public static final String CABECALHO_SHA256 = "Upload-Checksum-SHA256";
+
+    private final UploadRetomavelService uploadRetomavel;
+
+    public UploadRetomavelController(UploadRetomavelService uploadRetomavel) {
+        this.uploadRetomavel = uploadRetomavel;
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obter a sessão de upload e as partes já recebidas")
+    public ResponseEntity<SessaoUploadDTO> obterSessao(@Parameter(description = "ID da sessão") @PathVariable String id) {
+        return ResponseEntity.ok(uploadRetomavel.obterSessao(id));
+    }
+
+    @PutMapping(value = "/{id}/partes/{numero}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Enviar uma parte (corpo binário, com offset e SHA-256 nos cabeçalhos)")
+    public ResponseEntity<Void> enviarParte(
+            @Parameter(description = "ID da sessão") @PathVariable String id,
+            @Parameter(description = "Número da parte, a partir de 1") @PathVariable int numero,
+            @Parameter(description = "Posição da parte no arquivo") @RequestHeader(CABECALHO_OFFSET) long offset,
+            @Parameter(description = "SHA-256 da parte em hexadecimal") @RequestHeader(CABECALHO_SHA256) String sha256,
+            HttpServletRequest requisicao) throws IOException {
+
+        // O corpo é lido direto do stream da requisição, sem passar por conversores
+        uploadRetomavel.receberParte(id, numero, offset, sha256, requisicao.getInputStream());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/conclusao")
+    @Operation(summary = "Concluir o upload: junta as partes e associa a imagem ao álbum ou artista")
+    public ResponseEntity<Object> concluir(@Parameter(description = "ID da sessão") @PathVariable String id) {
+        return ResponseEntity.ok(uploadRetomavel.concluir(id));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancelar a sessão de upload e descartar as partes enviadas")
+    public ResponseEntity<Void> cancelar(@Parameter(description = "ID da sessão") @PathVariable String id) {
+        uploadRetomavel.cancelar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
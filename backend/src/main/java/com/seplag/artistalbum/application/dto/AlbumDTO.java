@@ -23,6 +23,12 @@ public class AlbumDTO {
 
     private String urlImagemCapaAssinada;
 
+    private String marcadorImagemCapa;
+
+    private Integer larguraImagemCapa;
+
+    private Integer alturaImagemCapa;
+
     private String urlS3Presigned;
 
     private LocalDateTime dataCriacao;
@@ -97,6 +103,30 @@ public class AlbumDTO {
         this.urlImagemCapaAssinada = urlImagemCapaAssinada;
     }
 
+    public String getMarcadorImagemCapa() {
+        return marcadorImagemCapa;
+    }
+
+    public void setMarcadorImagemCapa(String marcadorImagemCapa) {
+        this.marcadorImagemCapa = marcadorImagemCapa;
+    }
+
+    public Integer getLarguraImagemCapa() {
+        return larguraImagemCapa;
+    }
+
+    public void setLarguraImagemCapa(Integer larguraImagemCapa) {
+        this.larguraImagemCapa = larguraImagemCapa;
+    }
+
+    public Integer getAlturaImagemCapa() {
+        return alturaImagemCapa;
+    }
+
+    public void setAlturaImagemCapa(Integer alturaImagemCapa) {
+        this.alturaImagemCapa = alturaImagemCapa;
+    }
+
     public String getUrlS3Presigned() {
         return urlS3Presigned;
     }
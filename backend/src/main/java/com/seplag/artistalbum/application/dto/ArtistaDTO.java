@@ -18,10 +18,18 @@ public class ArtistaDTO {
 
     private Integer quantidadeAlbuns;
 
+    private String proximoCursorAlbuns;
+
     private String urlImagemPerfil;
 
     private String urlImagemPerfilAssinada;
 
+    private String marcadorImagemPerfil;
+
+    private Integer larguraImagemPerfil;
+
+    private Integer alturaImagemPerfil;
+
     private String urlS3Presigned;
 
     private LocalDateTime dataCriacao;
@@ -80,6 +88,14 @@ public class ArtistaDTO {
         this.quantidadeAlbuns = quantidadeAlbuns;
     }
 
+    public String getProximoCursorAlbuns() {
+        return proximoCursorAlbuns;
+    }
+
+    public void setProximoCursorAlbuns(String proximoCursorAlbuns) {
+        this.proximoCursorAlbuns = proximoCursorAlbuns;
+    }
+
     public String getUrlImagemPerfil() {
         return urlImagemPerfil;
     }
@@ -96,6 +112,30 @@ public class ArtistaDTO {
         this.urlImagemPerfilAssinada = urlImagemPerfilAssinada;
     }
 
+    public String getMarcadorImagemPerfil() {
+        return marcadorImagemPerfil;
+    }
+
+    public void setMarcadorImagemPerfil(String marcadorImagemPerfil) {
+        this.marcadorImagemPerfil = marcadorImagemPerfil;
+    }
+
+    public Integer getLarguraImagemPerfil() {
+        return larguraImagemPerfil;
+    }
+
+    public void setLarguraImagemPerfil(Integer larguraImagemPerfil) {
+        this.larguraImagemPerfil = larguraImagemPerfil;
+    }
+
+    public Integer getAlturaImagemPerfil() {
+        return alturaImagemPerfil;
+    }
+
+    public void setAlturaImagemPerfil(Integer alturaImagemPerfil) {
+        this.alturaImagemPerfil = alturaImagemPerfil;
+    }
+
     public String getUrlS3Presigned() {
         return urlS3Presigned;
     }
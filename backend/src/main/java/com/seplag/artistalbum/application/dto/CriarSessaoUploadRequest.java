@@ -0,0 +1,40 @@
+package com.seplag.artistalbum.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public class CriarSessaoUploadRequest {
+
+    @NotBlank(message = "Nome do arquivo é obrigatório")
+    @Size(max = 200, message = "Nome do arquivo não deve exceder 200 caracteres")
+    private String nomeArquivo;
+
+    @NotNull(message = "Tamanho do arquivo é obrigatório")
+    @Positive(message = "Tamanho do arquivo deve ser positivo")
+    private Long tamanho;
+
+    public CriarSessaoUploadRequest() {}
+
+    public CriarSessaoUploadRequest(String nomeArquivo, Long tamanho) {
+        this.nomeArquivo = nomeArquivo;
+        this.tamanho = tamanho;
+    }
+
+    public String getNomeArquivo() {
+        return nomeArquivo;
+    }
+
+    public void setNomeArquivo(String nomeArquivo) {
+        this.nomeArquivo = nomeArquivo;
+    }
+
+    public Long getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(Long tamanho) {
+        this.tamanho = tamanho;
+    }
+}
@@ -0,0 +1,55 @@
+package com.seplag.artistalbum.application.dto;
+
+import java.util.List;
+
+public class PaginaCursor<T> {
+
+    private List<T> conteudo;
+
+    private String proximoCursor;
+
+    private String cursorAnterior;
+
+    private Integer tamanho;
+
+    public PaginaCursor() {}
+
+    public PaginaCursor(List<T> conteudo, String proximoCursor, String cursorAnterior, Integer tamanho) {
+        this.conteudo = conteudo;
+        this.proximoCursor = proximoCursor;
+        this.cursorAnterior = cursorAnterior;
+        this.tamanho = tamanho;
+    }
+
+    public List<T> getConteudo() {
+        return conteudo;
+    }
+
+    public void setConteudo(List<T> conteudo) {
+        this.conteudo = conteudo;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+
+    public String getCursorAnterior() {
+        return cursorAnterior;
+    }
+
+    public void setCursorAnterior(String cursorAnterior) {
+        this.cursorAnterior = cursorAnterior;
+    }
+
+    public Integer getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(Integer tamanho) {
+        this.tamanho = tamanho;
+    }
+}
@@ -0,0 +1,167 @@
+package com.seplag.artistalbum.application.dto;
+
+import java.util.List;
+
+public class RelatorioImportacaoCatalogoDTO {
+
+    private String formato;
+
+    private Long linhas;
+
+    private Long artistasCriados;
+
+    private Long artistasExistentes;
+
+    private Long albunsCriados;
+
+    // Álbuns que o artista já tinha (mesmo título) ou repetidos na própria importação
+    private Long albunsIgnorados;
+
+    private Long falhas;
+
+    private Long duracaoMs;
+
+    private Double linhasPorSegundo;
+
+    private Double albunsPorSegundo;
+
+    // Limitada a catalogo.importacao.maximo-falhas-relatorio; o total fica em falhas
+    private List<FalhaLinha> detalhesFalhas;
+
+    public RelatorioImportacaoCatalogoDTO() {}
+
+    public RelatorioImportacaoCatalogoDTO(String formato, Long linhas, Long artistasCriados, Long artistasExistentes,
+                                          Long albunsCriados, Long albunsIgnorados, Long falhas, Long duracaoMs,
+                                          Double linhasPorSegundo, Double albunsPorSegundo,
+                                          List<FalhaLinha> detalhesFalhas) {
+        this.formato = formato;
+        this.linhas = linhas;
+        this.artistasCriados = artistasCriados;
+        this.artistasExistentes = artistasExistentes;
+        this.albunsCriados = albunsCriados;
+        this.albunsIgnorados = albunsIgnorados;
+        this.falhas = falhas;
+        this.duracaoMs = duracaoMs;
+        this.linhasPorSegundo = linhasPorSegundo;
+        this.albunsPorSegundo = albunsPorSegundo;
+        this.detalhesFalhas = detalhesFalhas;
+    }
+
+    public String getFormato() {
+        return formato;
+    }
+
+    public void setFormato(String formato) {
+        this.formato = formato;
+    }
+
+    public Long getLinhas() {
+        return linhas;
+    }
+
+    public void setLinhas(Long linhas) {
+        this.linhas = linhas;
+    }
+
+    public Long getArtistasCriados() {
+        return artistasCriados;
+    }
+
+    public void setArtistasCriados(Long artistasCriados) {
+        this.artistasCriados = artistasCriados;
+    }
+
+    public Long getArtistasExistentes() {
+        return artistasExistentes;
+    }
+
+    public void setArtistasExistentes(Long artistasExistentes) {
+        this.artistasExistentes = artistasExistentes;
+    }
+
+    public Long getAlbunsCriados() {
+        return albunsCriados;
+    }
+
+    public void setAlbunsCriados(Long albunsCriados) {
+        this.albunsCriados = albunsCriados;
+    }
+
+    public Long getAlbunsIgnorados() {
+        return albunsIgnorados;
+    }
+
+    public void setAlbunsIgnorados(Long albunsIgnorados) {
+        this.albunsIgnorados = albunsIgnorados;
+    }
+
+    public Long getFalhas() {
+        return falhas;
+    }
+
+    public void setFalhas(Long falhas) {
+        this.falhas = falhas;
+    }
+
+    public Long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public void setDuracaoMs(Long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+
+    public Double getLinhasPorSegundo() {
+        return linhasPorSegundo;
+    }
+
+    public void setLinhasPorSegundo(Double linhasPorSegundo) {
+        this.linhasPorSegundo = linhasPorSegundo;
+    }
+
+    public Double getAlbunsPorSegundo() {
+        return albunsPorSegundo;
+    }
+
+    public void setAlbunsPorSegundo(Double albunsPorSegundo) {
+        this.albunsPorSegundo = albunsPorSegundo;
+    }
+
+    public List<FalhaLinha> getDetalhesFalhas() {
+        return detalhesFalhas;
+    }
+
+    public void setDetalhesFalhas(List<FalhaLinha> detalhesFalhas) {
+        this.detalhesFalhas = detalhesFalhas;
+    }
+
+    public static class FalhaLinha {
+
+        private Long linha;
+
+        private String motivo;
+
+        public FalhaLinha() {}
+
+        public FalhaLinha(Long linha, String motivo) {
+            this.linha = linha;
+            this.motivo = motivo;
+        }
+
+        public Long getLinha() {
+            return linha;
+        }
+
+        public void setLinha(Long linha) {
+            this.linha = linha;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        public void setMotivo(String motivo) {
+            this.motivo = motivo;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.seplag.artistalbum.application.dto;
+
+import java.util.List;
+
+public class RelatorioImportacaoDTO {
+
+    private String origem;
+
+    private Integer totalArquivos;
+
+    private Integer importadas;
+
+    private Integer falhas;
+
+    private Long bytesImportados;
+
+    private Long duracaoMs;
+
+    private Double itensPorSegundo;
+
+    private Double megabytesPorSegundo;
+
+    // Limitada a imagens.importacao.maximo-falhas-relatorio; o total fica em falhas
+    private List<FalhaImportacao> detalhesFalhas;
+
+    public RelatorioImportacaoDTO() {}
+
+    public RelatorioImportacaoDTO(String origem, Integer totalArquivos, Integer importadas, Integer falhas,
+                                  Long bytesImportados, Long duracaoMs, Double itensPorSegundo,
+                                  Double megabytesPorSegundo, List<FalhaImportacao> detalhesFalhas) {
+        this.origem = origem;
+        this.totalArquivos = totalArquivos;
+        this.importadas = importadas;
+        this.falhas = falhas;
+        this.bytesImportados = bytesImportados;
+        this.duracaoMs = duracaoMs;
+        this.itensPorSegundo = itensPorSegundo;
+        this.megabytesPorSegundo = megabytesPorSegundo;
+        this.detalhesFalhas = detalhesFalhas;
+    }
+
+    public String getOrigem() {
+        return origem;
+    }
+
+    public void setOrigem(String origem) {
+        this.origem = origem;
+    }
+
+    public Integer getTotalArquivos() {
+        return totalArquivos;
+    }
+
+    public void setTotalArquivos(Integer totalArquivos) {
+        this.totalArquivos = totalArquivos;
+    }
+
+    public Integer getImportadas() {
+        return importadas;
+    }
+
+    public void setImportadas(Integer importadas) {
+        this.importadas = importadas;
+    }
+
+    public Integer getFalhas() {
+        return falhas;
+    }
+
+    public void setFalhas(Integer falhas) {
+        this.falhas = falhas;
+    }
+
+    public Long getBytesImportados() {
+        return bytesImportados;
+    }
+
+    public void setBytesImportados(Long bytesImportados) {
+        this.bytesImportados = bytesImportados;
+    }
+
+    public Long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public void setDuracaoMs(Long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+
+    public Double getItensPorSegundo() {
+        return itensPorSegundo;
+    }
+
+    public void setItensPorSegundo(Double itensPorSegundo) {
+        this.itensPorSegundo = itensPorSegundo;
+    }
+
+    public Double getMegabytesPorSegundo() {
+        return megabytesPorSegundo;
+    }
+
+    public void setMegabytesPorSegundo(Double megabytesPorSegundo) {
+        this.megabytesPorSegundo = megabytesPorSegundo;
+    }
+
+    public List<FalhaImportacao> getDetalhesFalhas() {
+        return detalhesFalhas;
+    }
+
+    public void setDetalhesFalhas(List<FalhaImportacao> detalhesFalhas) {
+        this.detalhesFalhas = detalhesFalhas;
+    }
+
+    public static class FalhaImportacao {
+
+        private String arquivo;
+
+        private String motivo;
+
+        public FalhaImportacao() {}
+
+        public FalhaImportacao(String arquivo, String motivo) {
+            this.arquivo = arquivo;
+            this.motivo = motivo;
+        }
+
+        public String getArquivo() {
+            return arquivo;
+        }
+
+        public void setArquivo(String arquivo) {
+            this.arquivo = arquivo;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        public void setMotivo(String motivo) {
+            this.motivo = motivo;
+        }
+    }
+}
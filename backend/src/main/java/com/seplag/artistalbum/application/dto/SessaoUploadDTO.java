@@ -0,0 +1,124 @@
+package com.seplag.artistalbum.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SessaoUploadDTO {
+
+    private String id;
+
+    private String tipo;
+
+    private Long idRecurso;
+
+    private String nomeArquivo;
+
+    private Long tamanhoTotal;
+
+    private Integer tamanhoParte;
+
+    private Integer totalPartes;
+
+    private List<Integer> partesRecebidas;
+
+    private String status;
+
+    private LocalDateTime expiraEm;
+
+    public SessaoUploadDTO() {}
+
+    public SessaoUploadDTO(String id, String tipo, Long idRecurso, String nomeArquivo, Long tamanhoTotal,
+                           Integer tamanhoParte, Integer totalPartes, List<Integer> partesRecebidas,
+                           String status, LocalDateTime expiraEm) {
+        this.id = id;
+        this.tipo = tipo;
+        this.idRecurso = idRecurso;
+        this.nomeArquivo = nomeArquivo;
+        this.tamanhoTotal = tamanhoTotal;
+        this.tamanhoParte = tamanhoParte;
+        this.totalPartes = totalPartes;
+        this.partesRecebidas = partesRecebidas;
+        this.status = status;
+        this.expiraEm = expiraEm;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getIdRecurso() {
+        return idRecurso;
+    }
+
+    public void setIdRecurso(Long idRecurso) {
+        this.idRecurso = idRecurso;
+    }
+
+    public String getNomeArquivo() {
+        return nomeArquivo;
+    }
+
+    public void setNomeArquivo(String nomeArquivo) {
+        this.nomeArquivo = nomeArquivo;
+    }
+
+    public Long getTamanhoTotal() {
+        return tamanhoTotal;
+    }
+
+    public void setTamanhoTotal(Long tamanhoTotal) {
+        this.tamanhoTotal = tamanhoTotal;
+    }
+
+    public Integer getTamanhoParte() {
+        return tamanhoParte;
+    }
+
+    public void setTamanhoParte(Integer tamanhoParte) {
+        this.tamanhoParte = tamanhoParte;
+    }
+
+    public Integer getTotalPartes() {
+        return totalPartes;
+    }
+
+    public void setTotalPartes(Integer totalPartes) {
+        this.totalPartes = totalPartes;
+    }
+
+    public List<Integer> getPartesRecebidas() {
+        return partesRecebidas;
+    }
+
+    public void setPartesRecebidas(List<Integer> partesRecebidas) {
+        this.partesRecebidas = partesRecebidas;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(LocalDateTime expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+}
@@ -0,0 +1,53 @@
+package com.seplag.artistalbum.application.dto;
+
+public class SugestaoDTO {
+
+    private String tipo;
+
+    private Long id;
+
+    private String texto;
+
+    private Long idArtista;
+
+    public SugestaoDTO() {}
+
+    public SugestaoDTO(String tipo, Long id, String texto, Long idArtista) {
+        this.tipo = tipo;
+        this.id = id;
+        this.texto = texto;
+        this.idArtista = idArtista;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public Long getIdArtista() {
+        return idArtista;
+    }
+
+    public void setIdArtista(Long idArtista) {
+        this.idArtista = idArtista;
+    }
+}
@@ -0,0 +1,94 @@
+package com.seplag.artistalbum.application.dto;
+
+import java.time.LocalDateTime;
+
+public class TarefaImagemDTO {
+
+    public static final String TIPO_CAPA_ALBUM = "CAPA_ALBUM";
+    public static final String TIPO_FOTO_ARTISTA = "FOTO_ARTISTA";
+
+    public static final String STATUS_PENDENTE = "PENDENTE";
+    public static final String STATUS_PROCESSANDO = "PROCESSANDO";
+    public static final String STATUS_CONCLUIDA = "CONCLUIDA";
+    public static final String STATUS_FALHA = "FALHA";
+
+    private String id;
+
+    private String tipo;
+
+    private Long idRecurso;
+
+    private String status;
+
+    private String mensagemErro;
+
+    private LocalDateTime dataCriacao;
+
+    private LocalDateTime dataConclusao;
+
+    public TarefaImagemDTO() {}
+
+    public TarefaImagemDTO(String id, String tipo, Long idRecurso, String status, LocalDateTime dataCriacao) {
+        this.id = id;
+        this.tipo = tipo;
+        this.idRecurso = idRecurso;
+        this.status = status;
+        this.dataCriacao = dataCriacao;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getIdRecurso() {
+        return idRecurso;
+    }
+
+    public void setIdRecurso(Long idRecurso) {
+        this.idRecurso = idRecurso;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMensagemErro() {
+        return mensagemErro;
+    }
+
+    public void setMensagemErro(String mensagemErro) {
+        this.mensagemErro = mensagemErro;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public void setDataCriacao(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+    }
+
+    public LocalDateTime getDataConclusao() {
+        return dataConclusao;
+    }
+
+    public void setDataConclusao(LocalDateTime dataConclusao) {
+        this.dataConclusao = dataConclusao;
+    }
+}
@@ -14,8 +14,10 @@ import java.util.Objects;
 @Table(name = "album")
 public class Album {
 
+    // Sequência com incremento 50 (V13): o Hibernate reserva blocos de ids (pooled) e agrupa os INSERTs em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "album_id_seq")
+    @SequenceGenerator(name = "album_id_seq", sequenceName = "album_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Título do álbum é obrigatório")
@@ -32,6 +34,15 @@ public class Album {
     @Column(name = "url_imagem_capa")
     private String urlImagemCapa;
 
+    @Column(name = "marcador_imagem_capa", length = 1024)
+    private String marcadorImagemCapa;
+
+    @Column(name = "largura_imagem_capa")
+    private Integer larguraImagemCapa;
+
+    @Column(name = "altura_imagem_capa")
+    private Integer alturaImagemCapa;
+
     @CreationTimestamp
     @Column(name = "data_criacao", nullable = false, updatable = false)
     private LocalDateTime dataCriacao;
@@ -85,6 +96,30 @@ public class Album {
         this.urlImagemCapa = urlImagemCapa;
     }
 
+    public String getMarcadorImagemCapa() {
+        return marcadorImagemCapa;
+    }
+
+    public void setMarcadorImagemCapa(String marcadorImagemCapa) {
+        this.marcadorImagemCapa = marcadorImagemCapa;
+    }
+
+    public Integer getLarguraImagemCapa() {
+        return larguraImagemCapa;
+    }
+
+    public void setLarguraImagemCapa(Integer larguraImagemCapa) {
+        this.larguraImagemCapa = larguraImagemCapa;
+    }
+
+    public Integer getAlturaImagemCapa() {
+        return alturaImagemCapa;
+    }
+
+    public void setAlturaImagemCapa(Integer alturaImagemCapa) {
+        this.alturaImagemCapa = alturaImagemCapa;
+    }
+
     public LocalDateTime getDataCriacao() {
         return dataCriacao;
     }
@@ -15,8 +15,10 @@ import java.util.Objects;
 @Table(name = "artist")
 public class Artista {
 
+    // Sequência com incremento 50 (V13): o Hibernate reserva blocos de ids (pooled) e agrupa os INSERTs em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "artist_id_seq")
+    @SequenceGenerator(name = "artist_id_seq", sequenceName = "artist_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome do artista é obrigatório")
@@ -27,6 +29,19 @@ public class Artista {
     @Column(name = "url_imagem_perfil")
     private String urlImagemPerfil;
 
+    @Column(name = "marcador_imagem_perfil", length = 1024)
+    private String marcadorImagemPerfil;
+
+    @Column(name = "largura_imagem_perfil")
+    private Integer larguraImagemPerfil;
+
+    @Column(name = "altura_imagem_perfil")
+    private Integer alturaImagemPerfil;
+
+    // Mantido apenas por UPDATE atômico no repositório (ver ArtistaRepository.ajustarQuantidadeAlbuns)
+    @Column(name = "quantidade_albuns", nullable = false, updatable = false)
+    private Integer quantidadeAlbuns = 0;
+
     @OneToMany(mappedBy = "artista", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Album> albuns = new ArrayList<>();
 
@@ -68,6 +83,38 @@ public class Artista {
         this.urlImagemPerfil = urlImagemPerfil;
     }
 
+    public String getMarcadorImagemPerfil() {
+        return marcadorImagemPerfil;
+    }
+
+    public void setMarcadorImagemPerfil(String marcadorImagemPerfil) {
+        this.marcadorImagemPerfil = marcadorImagemPerfil;
+    }
+
+    public Integer getLarguraImagemPerfil() {
+        return larguraImagemPerfil;
+    }
+
+    public void setLarguraImagemPerfil(Integer larguraImagemPerfil) {
+        this.larguraImagemPerfil = larguraImagemPerfil;
+    }
+
+    public Integer getAlturaImagemPerfil() {
+        return alturaImagemPerfil;
+    }
+
+    public void setAlturaImagemPerfil(Integer alturaImagemPerfil) {
+        this.alturaImagemPerfil = alturaImagemPerfil;
+    }
+
+    public Integer getQuantidadeAlbuns() {
+        return quantidadeAlbuns;
+    }
+
+    public void setQuantidadeAlbuns(Integer quantidadeAlbuns) {
+        this.quantidadeAlbuns = quantidadeAlbuns;
+    }
+
     public List<Album> getAlbuns() {
         return albuns;
     }
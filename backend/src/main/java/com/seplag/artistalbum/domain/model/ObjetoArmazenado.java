@@ -0,0 +1,52 @@
+package com.seplag.artistalbum.domain.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Objeto de imagem endereçado por conteúdo e o número de artistas/álbuns que o referenciam.
+ * A contagem é mantida apenas por SQL atômico (ver ObjetoArmazenadoRepository).
+ */
+@Entity
+@Table(name = "stored_object")
+public class ObjetoArmazenado {
+
+    @Id
+    @Column(length = 500)
+    private String chave;
+
+    @Column(nullable = false)
+    private Integer referencias;
+
+    @Column(nullable = false)
+    private Long tamanho;
+
+    @Column(name = "tipo_conteudo", nullable = false, length = 100)
+    private String tipoConteudo;
+
+    @Column(name = "data_criacao", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime dataCriacao;
+
+    public ObjetoArmazenado() {}
+
+    public String getChave() {
+        return chave;
+    }
+
+    public Integer getReferencias() {
+        return referencias;
+    }
+
+    public Long getTamanho() {
+        return tamanho;
+    }
+
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+}
@@ -0,0 +1,83 @@
+package com.seplag.artistalbum.domain.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Parte recebida de uma sessão de upload retomável, com o ETag devolvido pelo armazenamento.
+ * Gravada apenas por SQL de upsert (ver ParteUploadRepository): reenviar uma parte a substitui.
+ */
+@Entity
+@Table(name = "upload_session_part")
+@IdClass(ParteUpload.Chave.class)
+public class ParteUpload {
+
+    @Id
+    @Column(name = "session_id", length = 36)
+    private String idSessao;
+
+    @Id
+    private Integer numero;
+
+    @Column(nullable = false)
+    private Integer tamanho;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private String etag;
+
+    public ParteUpload() {}
+
+    public String getIdSessao() {
+        return idSessao;
+    }
+
+    public Integer getNumero() {
+        return numero;
+    }
+
+    public Integer getTamanho() {
+        return tamanho;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public static class Chave implements Serializable {
+
+        private String idSessao;
+        private Integer numero;
+
+        public Chave() {}
+
+        public Chave(String idSessao, Integer numero) {
+            this.idSessao = idSessao;
+            this.numero = numero;
+        }
+
+        @Override
+        public boolean equals(Object outro) {
+            if (this == outro) {
+                return true;
+            }
+            if (!(outro instanceof Chave chave)) {
+                return false;
+            }
+            return Objects.equals(idSessao, chave.idSessao) && Objects.equals(numero, chave.numero);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(idSessao, numero);
+        }
+    }
+}
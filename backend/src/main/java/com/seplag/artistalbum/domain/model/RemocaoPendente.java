@@ -0,0 +1,74 @@
+package com.seplag.artistalbum.domain.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Remoção de objeto no MinIO registrada na outbox, aguardando o worker.
+ */
+@Entity
+@Table(name = "storage_outbox")
+public class RemocaoPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 500)
+    private String chave;
+
+    @Column(nullable = false)
+    private Integer tentativas = 0;
+
+    @Column(name = "proxima_tentativa", nullable = false)
+    private LocalDateTime proximaTentativa = LocalDateTime.now();
+
+    @Column(name = "ultimo_erro", length = 1000)
+    private String ultimoErro;
+
+    @Column(name = "data_criacao", nullable = false, updatable = false)
+    private LocalDateTime dataCriacao = LocalDateTime.now();
+
+    public RemocaoPendente() {}
+
+    public RemocaoPendente(String chave) {
+        this.chave = chave;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public Integer getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(Integer tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public LocalDateTime getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public void setProximaTentativa(LocalDateTime proximaTentativa) {
+        this.proximaTentativa = proximaTentativa;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+}
@@ -0,0 +1,133 @@
+package com.seplag.artistalbum.domain.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sessão de upload retomável: o envio em partes aberto no armazenamento e seu prazo.
+ * As partes recebidas ficam em {@link ParteUpload}.
+ */
+@Entity
+@Table(name = "upload_session")
+public class SessaoUpload {
+
+    public static final String STATUS_ABERTA = "ABERTA";
+    public static final String STATUS_CONCLUINDO = "CONCLUINDO";
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 20)
+    private String tipo;
+
+    @Column(name = "id_recurso", nullable = false)
+    private Long idRecurso;
+
+    @Column(name = "nome_arquivo", nullable = false)
+    private String nomeArquivo;
+
+    @Column(name = "tamanho_total", nullable = false)
+    private Long tamanhoTotal;
+
+    @Column(name = "tamanho_parte", nullable = false)
+    private Integer tamanhoParte;
+
+    @Column(name = "chave_temporaria", nullable = false, length = 500)
+    private String chaveTemporaria;
+
+    @Column(name = "id_envio", nullable = false, length = 500)
+    private String idEnvio;
+
+    @Column(nullable = false, length = 20)
+    private String status = STATUS_ABERTA;
+
+    // As partes já foram juntas no objeto temporário (a conclusão pode ser repetida após uma falha)
+    @Column(nullable = false)
+    private Boolean montada = false;
+
+    @Column(name = "data_criacao", nullable = false, updatable = false)
+    private LocalDateTime dataCriacao = LocalDateTime.now();
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    public SessaoUpload() {}
+
+    public SessaoUpload(String id, String tipo, Long idRecurso, String nomeArquivo, Long tamanhoTotal,
+                        Integer tamanhoParte, String chaveTemporaria, String idEnvio, LocalDateTime expiraEm) {
+        this.id = id;
+        this.tipo = tipo;
+        this.idRecurso = idRecurso;
+        this.nomeArquivo = nomeArquivo;
+        this.tamanhoTotal = tamanhoTotal;
+        this.tamanhoParte = tamanhoParte;
+        this.chaveTemporaria = chaveTemporaria;
+        this.idEnvio = idEnvio;
+        this.expiraEm = expiraEm;
+    }
+
+    /**
+     * Quantidade de partes: todas têm {@code tamanhoParte} bytes, exceto a última.
+     */
+    public int getTotalPartes() {
+        return (int) ((tamanhoTotal + tamanhoParte - 1) / tamanhoParte);
+    }
+
+    /**
+     * Tamanho esperado da parte de número {@code numero} (a partir de 1).
+     */
+    public int getTamanhoEsperado(int numero) {
+        long inicio = (long) (numero - 1) * tamanhoParte;
+        return (int) Math.min(tamanhoParte, tamanhoTotal - inicio);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Long getIdRecurso() {
+        return idRecurso;
+    }
+
+    public String getNomeArquivo() {
+        return nomeArquivo;
+    }
+
+    public Long getTamanhoTotal() {
+        return tamanhoTotal;
+    }
+
+    public Integer getTamanhoParte() {
+        return tamanhoParte;
+    }
+
+    public String getChaveTemporaria() {
+        return chaveTemporaria;
+    }
+
+    public String getIdEnvio() {
+        return idEnvio;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Boolean getMontada() {
+        return montada;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+}
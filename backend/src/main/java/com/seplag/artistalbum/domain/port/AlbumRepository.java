@@ -4,11 +4,14 @@ import com.seplag.artistalbum.domain.model.Album;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AlbumRepository extends JpaRepository<Album, Long> {
@@ -23,6 +26,60 @@ public interface AlbumRepository extends JpaRepository<Album, Long> {
     @Query("SELECT a FROM Album a WHERE a.artista.id = :artistaId ORDER BY a.titulo DESC")
     List<Album> findByArtistaIdOrderByTituloDesc(@Param("artistaId") Long artistaId);
 
+    /**
+     * Álbum com o artista já carregado, para montar o DTO fora de uma transação (ex.: na fila
+     * de processamento de imagens).
+     */
+    @Query("SELECT a FROM Album a JOIN FETCH a.artista WHERE a.id = :id")
+    Optional<Album> buscarComArtista(@Param("id") Long id);
+
+    @Query("SELECT a.urlImagemCapa FROM Album a WHERE a.id = :id")
+    Optional<String> buscarChaveImagemCapa(@Param("id") Long id);
+
+    /**
+     * Lê a chave atual da capa travando a linha até o fim da transação, para que substituições
+     * concorrentes liberem cada uma a chave que de fato trocaram.
+     *
+     * @return uma linha {@code [id, chave]}, ou vazio se o álbum não existir
+     */
+    @Query(value = "SELECT id, url_imagem_capa FROM album WHERE id = :id FOR UPDATE", nativeQuery = true)
+    List<Object[]> bloquearChaveImagemCapa(@Param("id") Long id);
+
+    /**
+     * Grava só as colunas da capa, sem sobrescrever título e artista editados em paralelo.
+     *
+     * @return linhas alteradas; 0 se o álbum não existir mais
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Album a SET a.urlImagemCapa = :chave, a.marcadorImagemCapa = :marcador, " +
+            "a.larguraImagemCapa = :largura, a.alturaImagemCapa = :altura, a.dataAtualizacao = LOCAL_DATETIME " +
+            "WHERE a.id = :id")
+    int atualizarImagemCapa(@Param("id") Long id, @Param("chave") String chave, @Param("marcador") String marcador,
+                            @Param("largura") Integer largura, @Param("altura") Integer altura);
+
+    @Query("SELECT a.id, a.urlImagemCapa FROM Album a WHERE a.id IN :ids AND a.urlImagemCapa IS NOT NULL")
+    List<Object[]> buscarChavesImagemCapa(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id, a.titulo, a.artista.id FROM Album a")
+    List<Object[]> listarIdsTitulosEArtistas();
+
+    // Paginação keyset sobre o índice composto (artist_id, titulo, id)
+    @Query(value = "SELECT * FROM album WHERE artist_id = :artistaId ORDER BY titulo ASC, id ASC LIMIT :limite", nativeQuery = true)
+    List<Album> buscarInicioPorTituloAsc(@Param("artistaId") Long artistaId, @Param("limite") int limite);
+
+    @Query(value = "SELECT * FROM album WHERE artist_id = :artistaId ORDER BY titulo DESC, id DESC LIMIT :limite", nativeQuery = true)
+    List<Album> buscarInicioPorTituloDesc(@Param("artistaId") Long artistaId, @Param("limite") int limite);
+
+    @Query(value = "SELECT * FROM album WHERE artist_id = :artistaId AND (titulo, id) > (:titulo, :id) " +
+            "ORDER BY titulo ASC, id ASC LIMIT :limite", nativeQuery = true)
+    List<Album> buscarAposPorTituloAsc(@Param("artistaId") Long artistaId, @Param("titulo") String titulo,
+                                       @Param("id") Long id, @Param("limite") int limite);
+
+    @Query(value = "SELECT * FROM album WHERE artist_id = :artistaId AND (titulo, id) < (:titulo, :id) " +
+            "ORDER BY titulo DESC, id DESC LIMIT :limite", nativeQuery = true)
+    List<Album> buscarAntesPorTituloDesc(@Param("artistaId") Long artistaId, @Param("titulo") String titulo,
+                                         @Param("id") Long id, @Param("limite") int limite);
+
     @Query("SELECT COUNT(a) FROM Album a WHERE a.artista.id = :artistaId")
     Long countByArtistaId(@Param("artistaId") Long artistaId);
 }
@@ -0,0 +1,121 @@
+package com.seplag.artistalbum.domain.port;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Porta de armazenamento de objetos (imagens e variantes) usada por {@code MinioService}.
+ * <p>
+ * O backend é escolhido por {@code armazenamento.backend}: {@code minio} (S3, cliente assíncrono)
+ * ou {@code local} (sistema de arquivos, para implantações de um só nó). As operações que costumam
+ * ser combinadas (metadados, existência, remoção) devolvem {@link CompletableFuture} para que
+ * chamadas independentes possam se sobrepor; o backend local as completa de imediato.
+ */
+public interface ArmazenamentoObjetos {
+
+    /**
+     * Tamanho, tipo de conteúdo e ETag de um objeto.
+     */
+    record MetadadosObjeto(long tamanho, String tipoConteudo, String etag) {}
+
+    /**
+     * Objeto retornado pela listagem.
+     */
+    record ObjetoListado(String chave, long tamanho, Instant modificadoEm) {}
+
+    /**
+     * Parte já gravada de um envio em partes.
+     */
+    record ParteGravada(int numero, String etag) {}
+
+    /**
+     * Grava o objeto, substituindo o existente. Leitores nunca veem um objeto parcialmente gravado.
+     *
+     * @param tamanho tamanho do conteúdo, ou -1 se desconhecido (lido até o fim em partes de {@code tamanhoParte})
+     */
+    void gravar(String chave, InputStream conteudo, long tamanho, long tamanhoParte, String tipoConteudo) throws Exception;
+
+    /**
+     * Inicia um envio em partes (multipart upload no S3). As partes só formam o objeto em
+     * {@link #concluirEnvioEmPartes}; até lá não aparecem na listagem.
+     *
+     * @return identificador do envio no backend
+     */
+    String iniciarEnvioEmPartes(String chave, String tipoConteudo) throws Exception;
+
+    /**
+     * Grava (ou regrava) a parte de número {@code numero}, a partir de 1. No S3 todas as partes,
+     * exceto a última, precisam ter ao menos 5 MB.
+     *
+     * @return ETag da parte, exigido na conclusão
+     */
+    String gravarParte(String chave, String idEnvio, int numero, byte[] conteudo, int tamanho) throws Exception;
+
+    /**
+     * Junta as partes, em ordem de número, no objeto final.
+     */
+    void concluirEnvioEmPartes(String chave, String idEnvio, List<ParteGravada> partes) throws Exception;
+
+    /**
+     * Descarta um envio em partes e as partes já gravadas.
+     */
+    CompletableFuture<Void> abortarEnvioEmPartes(String chave, String idEnvio);
+
+    /**
+     * Move o objeto para outra chave sem trafegar o conteúdo pela aplicação (cópia no servidor
+     * seguida de remoção no S3, renomeação no sistema de arquivos).
+     */
+    CompletableFuture<Void> mover(String origem, String destino, String tipoConteudo);
+
+    /**
+     * Metadados do objeto; completa com exceção se o objeto não existir.
+     */
+    CompletableFuture<MetadadosObjeto> obterMetadados(String chave);
+
+    CompletableFuture<Boolean> existe(String chave);
+
+    /**
+     * Abre um stream de leitura do trecho pedido. O chamador é responsável por fechar o stream.
+     */
+    InputStream abrirLeitura(String chave, long offset, long tamanho) throws Exception;
+
+    CompletableFuture<Void> remover(String chave);
+
+    /**
+     * Remove vários objetos de uma vez.
+     *
+     * @return chaves cuja remoção foi recusada
+     */
+    Set<String> removerEmLote(Collection<String> chaves) throws Exception;
+
+    /**
+     * Lista os objetos com o prefixo informado (vazio para todos) em ordem binária (UTF-8) de chave,
+     * a mesma usada por {@code COLLATE "C"} na reconciliação de órfãos.
+     */
+    Iterable<ObjetoListado> listar(String prefixo);
+
+    /**
+     * Indica se o backend gera URLs pré-assinadas. Consultado antes de {@link #gerarUrlPreAssinada}
+     * para não montar e descartar uma exceção a cada DTO.
+     */
+    boolean suportaUrlsPreAssinadas();
+
+    /**
+     * URL pré-assinada para download direto pelo navegador.
+     *
+     * @throws UnsupportedOperationException se o backend não servir objetos diretamente
+     */
+    String gerarUrlPreAssinada(String chave, int expiracaoMinutos) throws Exception;
+
+    /**
+     * Arquivo local com o conteúdo completo do objeto, para envio sem cópia ({@code transferTo}).
+     *
+     * @return o caminho, ou null se o backend não for local ou o objeto não existir
+     */
+    Path caminhoLocal(String chave);
+}
@@ -1,14 +1,21 @@
 package com.seplag.artistalbum.domain.port;
 
 import com.seplag.artistalbum.domain.model.Artista;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ArtistaRepository extends JpaRepository<Artista, Long> {
@@ -19,5 +26,119 @@ public interface ArtistaRepository extends JpaRepository<Artista, Long> {
 
     @Query("SELECT a FROM Artista a WHERE LOWER(a.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
     Page<Artista> findByNomeContainingIgnoreCase(@Param("nome") String nome, Pageable paginacao);
+
+    /**
+     * Detalhe do artista com no máximo {@code limite} álbuns (ordenados por título) em uma única consulta.
+     * Retorna uma linha por álbum, ou uma linha com colunas de álbum nulas se o artista não tiver álbuns.
+     * Colunas: artista_id, artista_nome, artista_url_imagem_perfil, artista_quantidade_albuns,
+     * artista_data_criacao, artista_data_atualizacao, album_id, album_titulo, album_url_imagem_capa,
+     * album_data_criacao, album_data_atualizacao, artista_marcador_imagem_perfil, artista_largura_imagem_perfil,
+     * artista_altura_imagem_perfil, album_marcador_imagem_capa, album_largura_imagem_capa, album_altura_imagem_capa.
+     */
+    @Query(value = "SELECT a.id AS artista_id, a.nome AS artista_nome, a.url_imagem_perfil AS artista_url_imagem_perfil, " +
+            "a.quantidade_albuns AS artista_quantidade_albuns, a.data_criacao AS artista_data_criacao, " +
+            "a.data_atualizacao AS artista_data_atualizacao, al.id AS album_id, al.titulo AS album_titulo, " +
+            "al.url_imagem_capa AS album_url_imagem_capa, al.data_criacao AS album_data_criacao, " +
+            "al.data_atualizacao AS album_data_atualizacao, " +
+            "a.marcador_imagem_perfil AS artista_marcador_imagem_perfil, a.largura_imagem_perfil AS artista_largura_imagem_perfil, " +
+            "a.altura_imagem_perfil AS artista_altura_imagem_perfil, al.marcador_imagem_capa AS album_marcador_imagem_capa, " +
+            "al.largura_imagem_capa AS album_largura_imagem_capa, al.altura_imagem_capa AS album_altura_imagem_capa " +
+            "FROM artist a " +
+            "LEFT JOIN LATERAL (SELECT id, titulo, url_imagem_capa, data_criacao, data_atualizacao, " +
+            "marcador_imagem_capa, largura_imagem_capa, altura_imagem_capa FROM album " +
+            "WHERE artist_id = a.id ORDER BY titulo ASC, id ASC LIMIT :limite) al ON TRUE " +
+            "WHERE a.id = :id " +
+            "ORDER BY al.titulo ASC, al.id ASC", nativeQuery = true)
+    List<Object[]> buscarDetalheComAlbuns(@Param("id") Long id, @Param("limite") int limite);
+
+    @Query("SELECT a.urlImagemPerfil FROM Artista a WHERE a.id = :id")
+    Optional<String> buscarChaveImagemPerfil(@Param("id") Long id);
+
+    /**
+     * Lê a chave atual da foto travando a linha até o fim da transação, para que substituições
+     * concorrentes liberem cada uma a chave que de fato trocaram.
+     *
+     * @return uma linha {@code [id, chave]}, ou vazio se o artista não existir
+     */
+    @Query(value = "SELECT id, url_imagem_perfil FROM artist WHERE id = :id FOR UPDATE", nativeQuery = true)
+    List<Object[]> bloquearChaveImagemPerfil(@Param("id") Long id);
+
+    /**
+     * Grava só as colunas da foto de perfil, sem sobrescrever o nome editado em paralelo.
+     *
+     * @return linhas alteradas; 0 se o artista não existir mais
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Artista a SET a.urlImagemPerfil = :chave, a.marcadorImagemPerfil = :marcador, " +
+            "a.larguraImagemPerfil = :largura, a.alturaImagemPerfil = :altura, a.dataAtualizacao = LOCAL_DATETIME " +
+            "WHERE a.id = :id")
+    int atualizarImagemPerfil(@Param("id") Long id, @Param("chave") String chave, @Param("marcador") String marcador,
+                              @Param("largura") Integer largura, @Param("altura") Integer altura);
+
+    @Query("SELECT a.id, a.urlImagemPerfil FROM Artista a WHERE a.id IN :ids AND a.urlImagemPerfil IS NOT NULL")
+    List<Object[]> buscarChavesImagemPerfil(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id, a.nome FROM Artista a")
+    List<Object[]> listarIdsENomes();
+
+    /**
+     * Pesquisa por nome normalizado (sem acentos, minúsculas) usando o índice trigram.
+     * Encontra ocorrências de substring ou palavras semelhantes acima do limiar
+     * {@code pg_trgm.word_similarity_threshold}, ordenando pela relevância.
+     */
+    @Query(value = "SELECT * FROM artist " +
+            "WHERE lower(f_unaccent(nome)) LIKE '%' || lower(f_unaccent(:nome)) || '%' " +
+            "OR lower(f_unaccent(:nome)) <% lower(f_unaccent(nome)) " +
+            "ORDER BY (lower(f_unaccent(nome)) LIKE lower(f_unaccent(:nome)) || '%') DESC, " +
+            "word_similarity(lower(f_unaccent(:nome)), lower(f_unaccent(nome))) DESC, nome ASC, id ASC",
+            countQuery = "SELECT COUNT(*) FROM artist " +
+                    "WHERE lower(f_unaccent(nome)) LIKE '%' || lower(f_unaccent(:nome)) || '%' " +
+                    "OR lower(f_unaccent(:nome)) <% lower(f_unaccent(nome))",
+            nativeQuery = true)
+    Page<Artista> pesquisarPorNomeSemelhante(@Param("nome") String nome, Pageable paginacao);
+
+    /**
+     * Define o limiar de similaridade de palavras apenas para a transação corrente.
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :limiar, true)", nativeQuery = true)
+    String definirLimiarSimilaridade(@Param("limiar") String limiar);
+
+    // Paginação keyset sobre o índice composto (nome, id)
+    @Query(value = "SELECT * FROM artist ORDER BY nome ASC, id ASC LIMIT :limite", nativeQuery = true)
+    List<Artista> buscarInicioPorNomeAsc(@Param("limite") int limite);
+
+    @Query(value = "SELECT * FROM artist ORDER BY nome DESC, id DESC LIMIT :limite", nativeQuery = true)
+    List<Artista> buscarInicioPorNomeDesc(@Param("limite") int limite);
+
+    @Query(value = "SELECT * FROM artist WHERE (nome, id) > (:nome, :id) ORDER BY nome ASC, id ASC LIMIT :limite", nativeQuery = true)
+    List<Artista> buscarAposPorNomeAsc(@Param("nome") String nome, @Param("id") Long id, @Param("limite") int limite);
+
+    @Query(value = "SELECT * FROM artist WHERE (nome, id) < (:nome, :id) ORDER BY nome DESC, id DESC LIMIT :limite", nativeQuery = true)
+    List<Artista> buscarAntesPorNomeDesc(@Param("nome") String nome, @Param("id") Long id, @Param("limite") int limite);
+
+    /**
+     * Exclui o artista direto no banco; os álbuns saem pelo ON DELETE CASCADE da chave
+     * estrangeira, sem carregar cada álbum no contexto de persistência.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM artist WHERE id = :id", nativeQuery = true)
+    int excluirComAlbuns(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Artista a SET a.quantidadeAlbuns = a.quantidadeAlbuns + :delta WHERE a.id = :id")
+    int ajustarQuantidadeAlbuns(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Catálogo completo para exportação: um par (artista, álbum) por álbum, e (artista, null) para
+     * artista sem álbuns, em ordem de nome. Lido por cursor somente de avanço, em blocos do fetch
+     * size: deve ser consumido dentro de uma transação e fechado.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT ar, al FROM Artista ar LEFT JOIN ar.albuns al ORDER BY ar.nome, ar.id, al.titulo, al.id")
+    Stream<Object[]> percorrerCatalogo();
 }
 
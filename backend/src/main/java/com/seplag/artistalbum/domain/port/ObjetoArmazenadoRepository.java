@@ -0,0 +1,80 @@
+package com.seplag.artistalbum.domain.port;
+
+import com.seplag.artistalbum.domain.model.ObjetoArmazenado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ObjetoArmazenadoRepository extends JpaRepository<ObjetoArmazenado, String> {
+
+    /**
+     * Registra uma nova referência à chave, criando a linha na primeira vez.
+     *
+     * @return quantidade de referências após o incremento (1 indica objeto novo)
+     */
+    @Transactional
+    @Query(value = "INSERT INTO stored_object (chave, referencias, tamanho, tipo_conteudo) " +
+            "VALUES (:chave, 1, :tamanho, :tipoConteudo) " +
+            "ON CONFLICT (chave) DO UPDATE SET referencias = stored_object.referencias + 1 " +
+            "RETURNING referencias", nativeQuery = true)
+    Integer adicionarReferencia(@Param("chave") String chave,
+                                @Param("tamanho") long tamanho,
+                                @Param("tipoConteudo") String tipoConteudo);
+
+    /**
+     * Libera uma referência. A linha fica bloqueada até o fim da transação corrente,
+     * o que serializa a remoção do objeto com um novo upload do mesmo conteúdo.
+     *
+     * @return referências restantes, ou null se a chave não é controlada por contagem
+     */
+    @Transactional
+    @Query(value = "UPDATE stored_object SET referencias = referencias - 1 " +
+            "WHERE chave = :chave AND referencias > 0 RETURNING referencias", nativeQuery = true)
+    Integer liberarReferencia(@Param("chave") String chave);
+
+    /**
+     * Próximo trecho, em ordem binária (collation "C", a mesma da listagem do MinIO), das chaves
+     * referenciadas por álbuns, artistas, contagens ativas, remoções pendentes na outbox ou
+     * uploads retomáveis em andamento.
+     * Pode conter repetições consecutivas quando a mesma chave aparece em mais de uma origem.
+     */
+    @Query(value = "SELECT chave FROM (" +
+            "SELECT url_imagem_capa COLLATE \"C\" AS chave FROM album WHERE url_imagem_capa IS NOT NULL " +
+            "UNION ALL SELECT url_imagem_perfil COLLATE \"C\" FROM artist WHERE url_imagem_perfil IS NOT NULL " +
+            "UNION ALL SELECT chave COLLATE \"C\" FROM stored_object WHERE referencias > 0 " +
+            "UNION ALL SELECT chave COLLATE \"C\" FROM storage_outbox " +
+            "UNION ALL SELECT chave_temporaria COLLATE \"C\" FROM upload_session" +
+            ") referenciadas WHERE chave > :apos ORDER BY chave LIMIT :limite", nativeQuery = true)
+    List<String> listarChavesReferenciadasApos(@Param("apos") String apos, @Param("limite") int limite);
+
+    /**
+     * Quais das chaves informadas ainda são referenciadas por um álbum, artista ou contagem ativa.
+     */
+    @Query(value = "SELECT url_imagem_capa FROM album WHERE url_imagem_capa COLLATE \"C\" IN (:chaves) " +
+            "UNION SELECT url_imagem_perfil FROM artist WHERE url_imagem_perfil COLLATE \"C\" IN (:chaves) " +
+            "UNION SELECT chave FROM stored_object WHERE chave COLLATE \"C\" IN (:chaves) AND referencias > 0",
+            nativeQuery = true)
+    List<String> filtrarChavesReferenciadas(@Param("chaves") Collection<String> chaves);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM stored_object WHERE chave = :chave AND referencias = 0", nativeQuery = true)
+    int removerSemReferencias(@Param("chave") String chave);
+
+    /**
+     * Devolve referências liberadas na transação corrente quando o armazenamento recusou a remoção
+     * do objeto, que continua existindo e será tentada de novo.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_object SET referencias = referencias + :quantidade WHERE chave = :chave",
+            nativeQuery = true)
+    int restaurarReferencias(@Param("chave") String chave, @Param("quantidade") int quantidade);
+}
@@ -0,0 +1,38 @@
+package com.seplag.artistalbum.domain.port;
+
+import com.seplag.artistalbum.domain.model.ParteUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ParteUploadRepository extends JpaRepository<ParteUpload, ParteUpload.Chave> {
+
+    /**
+     * Registra a parte recebida; um reenvio da mesma parte substitui o registro anterior.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO upload_session_part (session_id, numero, tamanho, sha256, etag) " +
+            "VALUES (:idSessao, :numero, :tamanho, :sha256, :etag) " +
+            "ON CONFLICT (session_id, numero) DO UPDATE SET tamanho = EXCLUDED.tamanho, " +
+            "sha256 = EXCLUDED.sha256, etag = EXCLUDED.etag", nativeQuery = true)
+    int registrar(@Param("idSessao") String idSessao,
+                  @Param("numero") int numero,
+                  @Param("tamanho") int tamanho,
+                  @Param("sha256") String sha256,
+                  @Param("etag") String etag);
+
+    List<ParteUpload> findByIdSessaoOrderByNumero(String idSessao);
+
+    /**
+     * Números das partes já recebidas, em ordem.
+     */
+    @Query("SELECT p.numero FROM ParteUpload p WHERE p.idSessao = :idSessao ORDER BY p.numero")
+    List<Integer> listarNumeros(@Param("idSessao") String idSessao);
+}
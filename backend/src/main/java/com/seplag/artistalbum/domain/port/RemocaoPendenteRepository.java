@@ -0,0 +1,38 @@
+package com.seplag.artistalbum.domain.port;
+
+import com.seplag.artistalbum.domain.model.RemocaoPendente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RemocaoPendenteRepository extends JpaRepository<RemocaoPendente, Long> {
+
+    /**
+     * Lote de remoções vencidas, bloqueadas para esta transação. SKIP LOCKED permite
+     * mais de uma instância processando a outbox sem pegar as mesmas linhas.
+     */
+    @Query(value = "SELECT * FROM storage_outbox WHERE proxima_tentativa <= now() " +
+            "ORDER BY proxima_tentativa, id LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<RemocaoPendente> bloquearLoteVencido(@Param("limite") int limite);
+
+    /**
+     * Enfileira, em um único comando, a foto do artista e as capas de todos os seus álbuns.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO storage_outbox (chave) " +
+            "SELECT url_imagem_perfil FROM artist WHERE id = :idArtista AND url_imagem_perfil IS NOT NULL " +
+            "UNION ALL " +
+            "SELECT url_imagem_capa FROM album WHERE artist_id = :idArtista AND url_imagem_capa IS NOT NULL",
+            nativeQuery = true)
+    int agendarImagensDoArtista(@Param("idArtista") Long idArtista);
+
+    @Query("SELECT MIN(r.dataCriacao) FROM RemocaoPendente r")
+    Optional<LocalDateTime> buscarCriacaoMaisAntiga();
+}
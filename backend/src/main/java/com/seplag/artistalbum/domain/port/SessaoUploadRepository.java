@@ -0,0 +1,53 @@
+package com.seplag.artistalbum.domain.port;
+
+import com.seplag.artistalbum.domain.model.SessaoUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SessaoUploadRepository extends JpaRepository<SessaoUpload, String> {
+
+    /**
+     * Estende o prazo de uma sessão aberta (cada parte recebida renova a sessão).
+     *
+     * @return 1 se a sessão estava aberta e dentro do prazo
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE upload_session SET expira_em = :expiraEm " +
+            "WHERE id = :id AND status = 'ABERTA' AND NOT montada AND expira_em > now()", nativeQuery = true)
+    int renovar(@Param("id") String id, @Param("expiraEm") LocalDateTime expiraEm);
+
+    /**
+     * Reserva a sessão para conclusão; apenas uma conclusão por vez passa deste ponto.
+     *
+     * @return 1 se a sessão foi reservada
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE upload_session SET status = 'CONCLUINDO' " +
+            "WHERE id = :id AND status = 'ABERTA' AND expira_em > now()", nativeQuery = true)
+    int reservarConclusao(@Param("id") String id);
+
+    /**
+     * Devolve a sessão ao estado aberto após uma conclusão que falhou por erro transitório.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE upload_session SET status = 'ABERTA', montada = :montada WHERE id = :id", nativeQuery = true)
+    int reabrir(@Param("id") String id, @Param("montada") boolean montada);
+
+    /**
+     * Lote de sessões vencidas, bloqueadas para esta transação (SKIP LOCKED, como na outbox).
+     */
+    @Query(value = "SELECT * FROM upload_session WHERE expira_em <= now() " +
+            "ORDER BY expira_em LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SessaoUpload> bloquearLoteExpirado(@Param("limite") int limite);
+}
@@ -2,18 +2,28 @@ package com.seplag.artistalbum.domain.service;
 
 import com.seplag.artistalbum.application.dto.AlbumDTO;
 import com.seplag.artistalbum.application.dto.CriarAlbumRequest;
+import com.seplag.artistalbum.application.dto.PaginaCursor;
 import com.seplag.artistalbum.infrastructure.exception.ResourceNotFoundException;
+import com.seplag.artistalbum.infrastructure.exception.FileTooLargeException;
+import com.seplag.artistalbum.infrastructure.exception.InvalidImageException;
 import com.seplag.artistalbum.domain.model.Album;
 import com.seplag.artistalbum.domain.model.Artista;
 import com.seplag.artistalbum.domain.port.AlbumRepository;
 import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -23,17 +33,33 @@ import java.util.stream.Collectors;
 @Transactional
 public class AlbumService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AlbumService.class);
+
     private final AlbumRepository albumRepository;
     private final ArtistaRepository artistaRepository;
     private final MinioService minioService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final IndiceSugestoesService indiceSugestoes;
+    private final CacheCatalogoService cacheCatalogo;
+    private final OutboxArmazenamentoService outboxArmazenamento;
+    private final RedimensionamentoImagemService redimensionamento;
+    private final TransactionTemplate transacao;
 
     public AlbumService(AlbumRepository albumRepository, ArtistaRepository artistaRepository,
-                        MinioService minioService, SimpMessagingTemplate messagingTemplate) {
+                        MinioService minioService, SimpMessagingTemplate messagingTemplate,
+                        IndiceSugestoesService indiceSugestoes, CacheCatalogoService cacheCatalogo,
+                        OutboxArmazenamentoService outboxArmazenamento,
+                        RedimensionamentoImagemService redimensionamento,
+                        PlatformTransactionManager transactionManager) {
         this.albumRepository = albumRepository;
         this.artistaRepository = artistaRepository;
         this.minioService = minioService;
         this.messagingTemplate = messagingTemplate;
+        this.indiceSugestoes = indiceSugestoes;
+        this.cacheCatalogo = cacheCatalogo;
+        this.outboxArmazenamento = outboxArmazenamento;
+        this.redimensionamento = redimensionamento;
+        this.transacao = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -48,6 +74,26 @@ public class AlbumService {
         return albuns.map(this::converterParaDTO);
     }
 
+    /**
+     * Obtém álbuns de um artista ordenados pelo título usando paginação por cursor (keyset).
+     *
+     * @param idArtista id do artista
+     * @param cursor cursor opaco da página anterior, ou null para a primeira página
+     * @param tamanho número de itens por página
+     * @param direcaoOrdenacao "asc" ou "desc"
+     * @return Página de AlbumDTO com cursores de navegação
+     */
+    public PaginaCursor<AlbumDTO> obterAlbunsPorArtistaPorCursor(Long idArtista, String cursor, int tamanho, String direcaoOrdenacao) {
+        PaginacaoCursor.Consultas<Album> consultas = new PaginacaoCursor.Consultas<>(
+                limite -> albumRepository.buscarInicioPorTituloAsc(idArtista, limite),
+                limite -> albumRepository.buscarInicioPorTituloDesc(idArtista, limite),
+                (titulo, id, limite) -> albumRepository.buscarAposPorTituloAsc(idArtista, titulo, id, limite),
+                (titulo, id, limite) -> albumRepository.buscarAntesPorTituloDesc(idArtista, titulo, id, limite)
+        );
+        return PaginacaoCursor.paginar(cursor, "desc".equalsIgnoreCase(direcaoOrdenacao), tamanho,
+                consultas, Album::getTitulo, Album::getId, this::converterParaDTO);
+    }
+
     /**
      * Lista todos álbuns de um artista, ordenados pelo título.
      *
@@ -79,6 +125,28 @@ public class AlbumService {
         return converterParaDTO(album);
     }
 
+    /**
+     * Obtém apenas a chave do objeto da capa, sem montar o DTO do álbum.
+     *
+     * @param id id do álbum
+     * @return chave do objeto no MinIO, ou null se o álbum não existir ou não tiver capa
+     */
+    @Transactional(readOnly = true)
+    public String obterChaveImagemCapa(Long id) {
+        return albumRepository.buscarChaveImagemCapa(id).orElse(null);
+    }
+
+    /**
+     * Obtém as chaves das capas de vários álbuns em uma única consulta.
+     *
+     * @param ids ids dos álbuns
+     * @return chave do objeto por id, na ordem pedida; álbuns sem capa ficam de fora
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, String> obterChavesImagemCapa(List<Long> ids) {
+        return ArtistaService.ordenarChaves(ids, albumRepository.buscarChavesImagemCapa(ids));
+    }
+
     /**
      * Cria um novo álbum para um artista existente.
      *
@@ -91,6 +159,9 @@ public class AlbumService {
 
         Album album = new Album(requisicao.getTitulo(), artista);
         album = albumRepository.save(album);
+        artistaRepository.ajustarQuantidadeAlbuns(artista.getId(), 1);
+        indiceSugestoes.registrarAlbum(album.getId(), album.getTitulo(), artista.getId());
+        cacheCatalogo.invalidarAlbum(album.getId(), artista.getId());
 
         // Notifica via WebSocket com objeto JSON para atualização em tempo real
         AlbumDTO dto = converterParaDTO(album);
@@ -113,10 +184,21 @@ public class AlbumService {
         Artista artista = artistaRepository.findById(requisicao.getIdArtista())
                 .orElseThrow(() -> new ResourceNotFoundException("Artista não encontrado com id: " + requisicao.getIdArtista()));
 
+        Long idArtistaAnterior = album.getArtista().getId();
+
         album.setTitulo(requisicao.getTitulo());
         album.setArtista(artista);
         album = albumRepository.save(album);
 
+        // Move o álbum no contador desnormalizado quando troca de artista
+        if (!idArtistaAnterior.equals(artista.getId())) {
+            artistaRepository.ajustarQuantidadeAlbuns(idArtistaAnterior, -1);
+            artistaRepository.ajustarQuantidadeAlbuns(artista.getId(), 1);
+            cacheCatalogo.invalidarAlbum(id, idArtistaAnterior);
+        }
+        indiceSugestoes.registrarAlbum(album.getId(), album.getTitulo(), artista.getId());
+        cacheCatalogo.invalidarAlbum(id, artista.getId());
+
         AlbumDTO dto = converterParaDTO(album);
         // Notifica via WebSocket para atualização em tempo real no frontend
         messagingTemplate.convertAndSend("/topic/albums", dto);
@@ -135,17 +217,13 @@ public class AlbumService {
 
         Long idArtista = album.getArtista().getId();
 
-        // Remove a capa do MinIO se existir
-        if (album.getUrlImagemCapa() != null) {
-            try {
-                minioService.deleteFile(album.getUrlImagemCapa());
-            } catch (Exception e) {
-                // Apenas loga, não falha a operação
-                System.err.println("Falha ao excluir imagem de capa: " + e.getMessage());
-            }
-        }
+        // A capa é removida do MinIO pela outbox, somente após o commit
+        outboxArmazenamento.agendarRemocao(album.getUrlImagemCapa());
 
         albumRepository.delete(album);
+        artistaRepository.ajustarQuantidadeAlbuns(idArtista, -1);
+        indiceSugestoes.removerAlbum(id, idArtista);
+        cacheCatalogo.invalidarAlbum(id, idArtista);
         
         // Notifica via WebSocket para remover da lista no frontend
         // Enviamos um objeto com id e idArtista para o frontend saber qual lista atualizar
@@ -157,35 +235,114 @@ public class AlbumService {
      * Faz upload de uma nova imagem de capa para o álbum, sobrescrevendo a antiga se existir.
      *
      * @param idAlbum id do álbum
-     * @param dadosImagem bytes do arquivo de imagem
+     * @param conteudo origem do arquivo de imagem (enviado em partes, sem ser carregado inteiro)
+     * @param tamanho tamanho informado pelo cliente, ou -1 se desconhecido
      * @param nomeArquivo nome do arquivo
-     * @param tipoConteudo content-type
      * @return DTO do álbum com nova imagem de capa
      */
-    public AlbumDTO fazerUploadImagemCapa(Long idAlbum, byte[] dadosImagem, String nomeArquivo, String tipoConteudo) {
-        Album album = albumRepository.findById(idAlbum)
-                .orElseThrow(() -> new ResourceNotFoundException("Álbum não encontrado com id: " + idAlbum));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AlbumDTO fazerUploadImagemCapa(Long idAlbum, InputStreamSource conteudo, long tamanho, String nomeArquivo) {
+        return fazerUploadImagemCapa(idAlbum, conteudo, tamanho, nomeArquivo, null);
+    }
+
+    /**
+     * Variante usada pela fila de processamento: a notificação leva o id da tarefa no cabeçalho STOMP.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AlbumDTO fazerUploadImagemCapa(Long idAlbum, InputStreamSource conteudo, long tamanho, String nomeArquivo,
+                                          String idTarefa) {
+        return substituirImagemCapa(idAlbum, nomeArquivo, idTarefa,
+                chaveLegada -> minioService.uploadImagem(chaveLegada, conteudo, tamanho), conteudo);
+    }
+
+    /**
+     * Conclusão de um upload retomável: a imagem já foi montada no armazenamento, na chave
+     * temporária, e só é validada e movida para a chave definitiva.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AlbumDTO concluirUploadImagemCapa(Long idAlbum, String chaveTemporaria, String nomeArquivo) {
+        return substituirImagemCapa(idAlbum, nomeArquivo, null,
+                chaveLegada -> minioService.promoverImagem(chaveLegada, chaveTemporaria), null);
+    }
+
+    /**
+     * @param conteudo origem da requisição para o marcador, ou null para lê-lo do objeto gravado
+     */
+    private AlbumDTO substituirImagemCapa(Long idAlbum, String nomeArquivo, String idTarefa,
+                                          MinioService.EnvioImagem envio, InputStreamSource conteudo) {
+        // Fora de transação: a conexão do pool não fica presa durante a transferência do arquivo
+        if (!albumRepository.existsById(idAlbum)) {
+            throw new ResourceNotFoundException("Álbum não encontrado com id: " + idAlbum);
+        }
 
+        String chaveEnviada = null;
+        boolean gravada = false;
         try {
-            // Remove capa antiga se existir
-            if (album.getUrlImagemCapa() != null) {
-                minioService.deleteFile(album.getUrlImagemCapa());
-            }
+            // Envia a nova capa antes de remover a antiga: um upload rejeitado não apaga a atual
+            String chaveObjeto = envio.enviar("album-covers/" + idAlbum + "/" + System.currentTimeMillis() + "-" + nomeArquivo).chave();
+            chaveEnviada = chaveObjeto;
 
-            // Faz upload da nova capa
-            String chaveObjeto = "album-covers/" + idAlbum + "/" + nomeArquivo;
-            minioService.uploadFile(chaveObjeto, dadosImagem, tipoConteudo);
+            // Marcador (LQIP) e dimensões calculados uma única vez, para os DTOs embutirem
+            RedimensionamentoImagemService.MarcadorImagem marcador = redimensionamento.gerarMarcador(
+                    conteudo != null ? conteudo : minioService.fonte(chaveObjeto));
 
-            album.setUrlImagemCapa(chaveObjeto);
-            album = albumRepository.save(album);
+            // Troca em uma transação curta: a chave anterior é lida com a linha travada, de modo que
+            // substituições concorrentes liberam cada uma a chave que de fato trocaram. Só as
+            // colunas da capa são gravadas, sem regravar título e artista
+            Album album = transacao.execute(status -> {
+                List<Object[]> linha = albumRepository.bloquearChaveImagemCapa(idAlbum);
+                if (linha.isEmpty()) {
+                    // Excluído durante o envio: a nova capa não tem quem a referencie
+                    outboxArmazenamento.agendarRemocao(chaveObjeto);
+                    return null;
+                }
+                String chaveAnterior = (String) linha.get(0)[1];
+                albumRepository.atualizarImagemCapa(idAlbum, chaveObjeto,
+                        marcador != null ? marcador.dataUri() : null,
+                        marcador != null ? marcador.largura() : null,
+                        marcador != null ? marcador.altura() : null);
+                // A anterior só é liberada depois que o álbum passou a apontar para a nova
+                if (MinioService.deveLiberarSubstituida(chaveAnterior, chaveObjeto)) {
+                    outboxArmazenamento.agendarRemocao(chaveAnterior);
+                }
+                // O DTO é montado após o commit, possivelmente na thread da fila: o artista vem junto
+                return albumRepository.buscarComArtista(idAlbum).orElseThrow();
+            });
+            gravada = true;
+            if (album == null) {
+                throw new ResourceNotFoundException("Álbum não encontrado com id: " + idAlbum);
+            }
+            cacheCatalogo.invalidarAlbum(idAlbum, album.getArtista().getId());
 
             AlbumDTO dto = converterParaDTO(album);
             // Notifica via WebSocket para atualização em tempo real no frontend
-            messagingTemplate.convertAndSend("/topic/albums", dto);
+            if (idTarefa != null) {
+                messagingTemplate.convertAndSend("/topic/albums", dto,
+                        Map.<String, Object>of(ProcessamentoImagemService.CABECALHO_TAREFA, idTarefa));
+            } else {
+                messagingTemplate.convertAndSend("/topic/albums", dto);
+            }
 
             return dto;
+        } catch (InvalidImageException | FileTooLargeException | ResourceNotFoundException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Falha ao fazer upload da capa do álbum", e);
+        } finally {
+            if (chaveEnviada != null && !gravada) {
+                liberarNaoGravada(chaveEnviada);
+            }
+        }
+    }
+
+    /**
+     * Devolve a referência criada pelo envio quando a troca não chegou a ser gravada.
+     */
+    private void liberarNaoGravada(String chave) {
+        try {
+            outboxArmazenamento.agendarRemocao(chave);
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível agendar a liberação da capa não gravada {}", chave, e);
         }
     }
 
@@ -205,19 +362,24 @@ public class AlbumService {
                 album.getDataCriacao(),
                 album.getDataAtualizacao()
         );
+        dto.setMarcadorImagemCapa(album.getMarcadorImagemCapa());
+        dto.setLarguraImagemCapa(album.getLarguraImagemCapa());
+        dto.setAlturaImagemCapa(album.getAlturaImagemCapa());
 
         // URL direta via proxy do backend para exibição no frontend (estabilidade total)
         if (album.getUrlImagemCapa() != null) {
-            dto.setUrlImagemCapaAssinada("/api/v1/albuns/capa/" + album.getId());
+            dto.setUrlImagemCapaAssinada("/api/v1/albuns/capa/" + album.getId()
+                    + "?v=" + MinioService.versao(album.getUrlImagemCapa()));
             
             // Requisito do Edital: Recuperação por links pré-assinados com expiração de 30 minutos.
             // Geramos aqui para visualização no log/DevTools cumprindo a regra de negócio
-            try {
-                String urlS3Real = minioService.generatePresignedUrl(album.getUrlImagemCapa(), 30);
-                dto.setUrlS3Presigned(urlS3Real);
-                System.out.println("Link S3 (30min) para álbum " + album.getId() + ": " + urlS3Real);
-            } catch (Exception e) {
-                // Silencioso
+            if (minioService.suportaUrlsPreAssinadas()) {
+                try {
+                    String urlS3Real = minioService.generatePresignedUrl(album.getUrlImagemCapa(), 30);
+                    dto.setUrlS3Presigned(urlS3Real);
+                } catch (Exception e) {
+                    // Silencioso
+                }
             }
         }
 
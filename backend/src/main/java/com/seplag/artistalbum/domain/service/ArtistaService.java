@@ -3,21 +3,36 @@ package com.seplag.artistalbum.domain.service;
 import com.seplag.artistalbum.application.dto.ArtistaDTO;
 import com.seplag.artistalbum.application.dto.AlbumDTO;
 import com.seplag.artistalbum.application.dto.CriarArtistaRequest;
+import com.seplag.artistalbum.application.dto.PaginaCursor;
 import com.seplag.artistalbum.infrastructure.exception.ResourceNotFoundException;
 import com.seplag.artistalbum.infrastructure.exception.DuplicateResourceException;
+import com.seplag.artistalbum.infrastructure.exception.FileTooLargeException;
+import com.seplag.artistalbum.infrastructure.exception.InvalidImageException;
 import com.seplag.artistalbum.domain.model.Artista;
 import com.seplag.artistalbum.domain.port.ArtistaRepository;
 import com.seplag.artistalbum.domain.port.AlbumRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Serviço responsável pelas operações de negócio relacionadas ao artista.
@@ -26,17 +41,39 @@ import java.util.stream.Collectors;
 @Transactional
 public class ArtistaService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ArtistaService.class);
+
     private final ArtistaRepository artistaRepository;
     private final AlbumRepository albumRepository;
     private final MinioService minioService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final IndiceSugestoesService indiceSugestoes;
+    private final CacheCatalogoService cacheCatalogo;
+    private final OutboxArmazenamentoService outboxArmazenamento;
+    private final RedimensionamentoImagemService redimensionamento;
+    private final TransactionTemplate transacao;
+
+    @Value("${busca.artistas.limiar-similaridade:0.4}")
+    private double limiarSimilaridade;
+
+    @Value("${artistas.detalhe.limite-albuns:50}")
+    private int limiteAlbunsDetalhe = 50;
 
     public ArtistaService(ArtistaRepository artistaRepository, AlbumRepository albumRepository, 
-                          MinioService minioService, SimpMessagingTemplate messagingTemplate) {
+                          MinioService minioService, SimpMessagingTemplate messagingTemplate,
+                          IndiceSugestoesService indiceSugestoes, CacheCatalogoService cacheCatalogo,
+                          OutboxArmazenamentoService outboxArmazenamento,
+                          RedimensionamentoImagemService redimensionamento,
+                          PlatformTransactionManager transactionManager) {
         this.artistaRepository = artistaRepository;
         this.albumRepository = albumRepository;
         this.minioService = minioService;
         this.messagingTemplate = messagingTemplate;
+        this.indiceSugestoes = indiceSugestoes;
+        this.cacheCatalogo = cacheCatalogo;
+        this.outboxArmazenamento = outboxArmazenamento;
+        this.redimensionamento = redimensionamento;
+        this.transacao = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -63,27 +100,47 @@ public class ArtistaService {
     }
 
     /**
-     * Pesquisa artistas pelo nome, ignorando maiúsculas/minúsculas.
+     * Obtém artistas ordenados por nome usando paginação por cursor (keyset).
+     *
+     * @param cursor Cursor opaco da página anterior, ou null para a primeira página.
+     * @param tamanho Número de itens por página.
+     * @param direcaoOrdenacao String "asc" para crescente ou "desc" para decrescente.
+     * @return Página de ArtistaDTO com cursores de navegação.
+     */
+    public PaginaCursor<ArtistaDTO> obterArtistasPorCursor(String cursor, int tamanho, String direcaoOrdenacao) {
+        PaginacaoCursor.Consultas<Artista> consultas = new PaginacaoCursor.Consultas<>(
+                artistaRepository::buscarInicioPorNomeAsc,
+                artistaRepository::buscarInicioPorNomeDesc,
+                artistaRepository::buscarAposPorNomeAsc,
+                artistaRepository::buscarAntesPorNomeDesc
+        );
+        return PaginacaoCursor.paginar(cursor, "desc".equalsIgnoreCase(direcaoOrdenacao), tamanho,
+                consultas, Artista::getNome, Artista::getId, this::converterParaDTO);
+    }
+
+    /**
+     * Pesquisa artistas pelo nome, ignorando maiúsculas/minúsculas e acentos.
+     * Usa o índice trigram do nome normalizado e ordena pela relevância.
      *
      * @param nome Nome do artista para pesquisar.
      * @param paginacao Dados de paginação.
      * @return Página de ArtistaDTO contendo os resultados encontrados.
      */
     public Page<ArtistaDTO> pesquisarArtistas(String nome, Pageable paginacao) {
-        Page<Artista> artistas = artistaRepository.findByNomeContainingIgnoreCase(nome, paginacao);
+        artistaRepository.definirLimiarSimilaridade(String.valueOf(limiarSimilaridade));
+        Page<Artista> artistas = artistaRepository.pesquisarPorNomeSemelhante(nome.trim(), paginacao);
         return artistas.map(this::converterParaDTO);
     }
 
     /**
-     * Busca um artista pelo seu ID e retorna suas informações detalhadas junto com álbuns.
+     * Busca um artista pelo seu ID e retorna suas informações detalhadas junto com os primeiros
+     * álbuns (limitados) e o cursor para os demais.
      *
      * @param id ID do artista.
      * @return DTO do artista encontrado.
      */
     public ArtistaDTO obterArtistaPorId(Long id) {
-        Artista artista = artistaRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Artista não encontrado com id: " + id));
-        return converterParaDTOComAlbuns(artista);
+        return montarDetalhe(id);
     }
 
     /**
@@ -99,6 +156,8 @@ public class ArtistaService {
 
         Artista artista = new Artista(requisicao.getNome());
         artista = artistaRepository.save(artista);
+        indiceSugestoes.registrarArtista(artista.getId(), artista.getNome());
+        cacheCatalogo.invalidarPaginasArtistas();
         
         ArtistaDTO dto = converterParaDTO(artista);
         // Notifica via WebSocket para atualização em tempo real no frontend
@@ -126,68 +185,183 @@ public class ArtistaService {
                 });
 
         artista.setNome(requisicao.getNome());
-        artista = artistaRepository.save(artista);
+        artista = artistaRepository.saveAndFlush(artista);
+        indiceSugestoes.registrarArtista(artista.getId(), artista.getNome());
+        cacheCatalogo.invalidarArtista(id);
         
         ArtistaDTO dto = converterParaDTO(artista); // Usar converterParaDTO simples para evitar carregar todos os álbuns desnecessariamente no WebSocket
         // Notifica via WebSocket para atualização em tempo real no frontend
         messagingTemplate.convertAndSend("/topic/artists", dto);
         
-        return converterParaDTOComAlbuns(artista); // Retorna com álbuns para o chamador da API
+        return montarDetalhe(id); // Retorna com álbuns para o chamador da API
     }
 
     /**
      * Exclui um artista pelo ID, lança exceção caso não exista.
+     * <p>
+     * A exclusão é feita por SQL e os álbuns saem pelo ON DELETE CASCADE, sem carregar cada álbum.
+     * A foto e as capas são enfileiradas na outbox em um único comando e removidas do MinIO em
+     * lote após o commit.
      *
      * @param id ID do artista a ser excluído.
      */
     public void excluirArtista(Long id) {
         Artista artista = artistaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Artista não encontrado com id: " + id));
-        
-        // Remove foto do MinIO se existir
-        if (artista.getUrlImagemPerfil() != null) {
-            try {
-                minioService.deleteFile(artista.getUrlImagemPerfil());
-            } catch (Exception e) {
-                System.err.println("Falha ao excluir foto do artista: " + e.getMessage());
-            }
-        }
+        int quantidadeAlbuns = artista.getQuantidadeAlbuns();
+
+        outboxArmazenamento.agendarRemocaoImagensDoArtista(id);
+        artistaRepository.excluirComAlbuns(id);
+        indiceSugestoes.removerArtista(id);
+        cacheCatalogo.invalidarArtista(id);
+        // Um único evento para o artista e todos os álbuns removidos em cascata
+        messagingTemplate.convertAndSend("/topic/artists/delete",
+            Map.of("id", id, "albunsRemovidos", quantidadeAlbuns));
+    }
 
-        artistaRepository.deleteById(id);
-        // Notifica via WebSocket para remover da lista no frontend
-        // Forçamos o envio como String para garantir que o STOMP não se confunda com o tipo Long
-        messagingTemplate.convertAndSend("/topic/artists/delete", String.valueOf(id));
+    /**
+     * Envia a nova foto de perfil por streaming. Roda fora de transação para não prender uma
+     * conexão do pool enquanto o arquivo é transferido; só a gravação da chave usa o banco.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArtistaDTO fazerUploadFotoPerfil(Long id, InputStreamSource conteudo, long tamanho, String originalFilename) {
+        return fazerUploadFotoPerfil(id, conteudo, tamanho, originalFilename, null);
     }
 
-    public ArtistaDTO fazerUploadFotoPerfil(Long id, byte[] bytes, String originalFilename, String tipoConteudo) {
-        Artista artista = artistaRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Artista não encontrado com id: " + id));
+    /**
+     * Variante usada pela fila de processamento: a notificação leva o id da tarefa no cabeçalho STOMP.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArtistaDTO fazerUploadFotoPerfil(Long id, InputStreamSource conteudo, long tamanho, String originalFilename,
+                                            String idTarefa) {
+        return substituirFotoPerfil(id, originalFilename, idTarefa,
+                chaveLegada -> minioService.uploadImagem(chaveLegada, conteudo, tamanho), conteudo);
+    }
 
-        try {
-            // Remove foto antiga se existir
-            if (artista.getUrlImagemPerfil() != null) {
-                minioService.deleteFile(artista.getUrlImagemPerfil());
-            }
+    /**
+     * Conclusão de um upload retomável: a foto já foi montada no armazenamento, na chave
+     * temporária, e só é validada e movida para a chave definitiva.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArtistaDTO concluirUploadFotoPerfil(Long id, String chaveTemporaria, String originalFilename) {
+        return substituirFotoPerfil(id, originalFilename, null,
+                chaveLegada -> minioService.promoverImagem(chaveLegada, chaveTemporaria), null);
+    }
 
-            // Faz upload da nova foto
-            String chaveObjeto = "artist-photos/" + id + "/" + originalFilename;
-            minioService.uploadFile(chaveObjeto, bytes, tipoConteudo);
+    /**
+     * @param conteudo origem da requisição para o marcador, ou null para lê-lo do objeto gravado
+     */
+    private ArtistaDTO substituirFotoPerfil(Long id, String originalFilename, String idTarefa,
+                                            MinioService.EnvioImagem envio, InputStreamSource conteudo) {
+        if (!artistaRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Artista não encontrado com id: " + id);
+        }
 
-            artista.setUrlImagemPerfil(chaveObjeto);
-            artista = artistaRepository.save(artista);
+        String chaveEnviada = null;
+        boolean gravada = false;
+        try {
+            // Envia a nova foto antes de remover a antiga: um upload rejeitado não apaga a atual
+            String chaveObjeto = envio.enviar("artist-photos/" + id + "/" + System.currentTimeMillis() + "-" + originalFilename).chave();
+            chaveEnviada = chaveObjeto;
+
+            // Marcador (LQIP) e dimensões calculados uma única vez, para os DTOs embutirem
+            RedimensionamentoImagemService.MarcadorImagem marcador = redimensionamento.gerarMarcador(
+                    conteudo != null ? conteudo : minioService.fonte(chaveObjeto));
+
+            // Troca em uma transação curta: a chave anterior é lida com a linha travada, de modo que
+            // substituições concorrentes liberam cada uma a chave que de fato trocaram. Só as
+            // colunas da foto são gravadas, sem regravar o nome
+            Artista artista = transacao.execute(status -> {
+                List<Object[]> linha = artistaRepository.bloquearChaveImagemPerfil(id);
+                if (linha.isEmpty()) {
+                    // Excluído durante o envio: a nova foto não tem quem a referencie
+                    outboxArmazenamento.agendarRemocao(chaveObjeto);
+                    return null;
+                }
+                String chaveAnterior = (String) linha.get(0)[1];
+                artistaRepository.atualizarImagemPerfil(id, chaveObjeto,
+                        marcador != null ? marcador.dataUri() : null,
+                        marcador != null ? marcador.largura() : null,
+                        marcador != null ? marcador.altura() : null);
+                // A anterior só é liberada depois que o artista passou a apontar para a nova
+                if (MinioService.deveLiberarSubstituida(chaveAnterior, chaveObjeto)) {
+                    outboxArmazenamento.agendarRemocao(chaveAnterior);
+                }
+                return artistaRepository.findById(id).orElseThrow();
+            });
+            gravada = true;
+            if (artista == null) {
+                throw new ResourceNotFoundException("Artista não encontrado com id: " + id);
+            }
+            cacheCatalogo.invalidarArtista(id);
 
             ArtistaDTO dto = converterParaDTO(artista);
             // Notifica via WebSocket para atualização em tempo real no frontend
-            messagingTemplate.convertAndSend("/topic/artists", dto);
+            if (idTarefa != null) {
+                messagingTemplate.convertAndSend("/topic/artists", dto,
+                        Map.<String, Object>of(ProcessamentoImagemService.CABECALHO_TAREFA, idTarefa));
+            } else {
+                messagingTemplate.convertAndSend("/topic/artists", dto);
+            }
 
-            return converterParaDTOComAlbuns(artista);
+            return montarDetalhe(id);
+        } catch (InvalidImageException | FileTooLargeException | ResourceNotFoundException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Falha ao fazer upload da foto de perfil", e);
+        } finally {
+            if (chaveEnviada != null && !gravada) {
+                liberarNaoGravada(chaveEnviada);
+            }
+        }
+    }
+
+    /**
+     * Devolve a referência criada pelo envio quando a troca não chegou a ser gravada.
+     */
+    private void liberarNaoGravada(String chave) {
+        try {
+            outboxArmazenamento.agendarRemocao(chave);
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível agendar a liberação da foto não gravada {}", chave, e);
         }
     }
 
-    public byte[] obterBytesFotoPerfil(String urlImagemPerfil) throws Exception {
-        return minioService.downloadFile(urlImagemPerfil);
+    /**
+     * Obtém apenas a chave do objeto da foto de perfil, sem montar o DTO do artista.
+     *
+     * @param id ID do artista.
+     * @return chave do objeto no MinIO, ou null se o artista não existir ou não tiver foto.
+     */
+    @Transactional(readOnly = true)
+    public String obterChaveFotoPerfil(Long id) {
+        return artistaRepository.buscarChaveImagemPerfil(id).orElse(null);
+    }
+
+    /**
+     * Obtém as chaves das fotos de perfil de vários artistas em uma única consulta.
+     *
+     * @param ids IDs dos artistas.
+     * @return chave do objeto por id, na ordem pedida; artistas sem foto ficam de fora.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, String> obterChavesFotoPerfil(List<Long> ids) {
+        return ordenarChaves(ids, artistaRepository.buscarChavesImagemPerfil(ids));
+    }
+
+    static Map<Long, String> ordenarChaves(List<Long> ids, List<Object[]> linhas) {
+        Map<Long, String> encontradas = new HashMap<>();
+        for (Object[] linha : linhas) {
+            encontradas.put(((Number) linha[0]).longValue(), (String) linha[1]);
+        }
+        Map<Long, String> chaves = new LinkedHashMap<>();
+        for (Long id : ids) {
+            String chave = encontradas.get(id);
+            if (chave != null) {
+                chaves.put(id, chave);
+            }
+        }
+        return chaves;
     }
 
     /**
@@ -201,97 +375,129 @@ public class ArtistaService {
                 .orElseThrow(() -> new ResourceNotFoundException("Artista não encontrado com id: " + id));
 
         if (artista.getUrlImagemPerfil() != null) {
-            try {
-                minioService.deleteFile(artista.getUrlImagemPerfil());
-                artista.setUrlImagemPerfil(null);
-                artista = artistaRepository.save(artista);
-
-                ArtistaDTO dto = converterParaDTO(artista);
-                // Notifica via WebSocket para atualização em tempo real no frontend
-                messagingTemplate.convertAndSend("/topic/artists", dto);
+            // O objeto é removido do MinIO pela outbox, somente após o commit
+            outboxArmazenamento.agendarRemocao(artista.getUrlImagemPerfil());
+            artista.setUrlImagemPerfil(null);
+            artista.setMarcadorImagemPerfil(null);
+            artista.setLarguraImagemPerfil(null);
+            artista.setAlturaImagemPerfil(null);
+            artista = artistaRepository.saveAndFlush(artista);
+            cacheCatalogo.invalidarArtista(id);
 
-                return converterParaDTOComAlbuns(artista);
-            } catch (Exception e) {
-                throw new RuntimeException("Falha ao remover a foto de perfil", e);
-            }
+            ArtistaDTO dto = converterParaDTO(artista);
+            // Notifica via WebSocket para atualização em tempo real no frontend
+            messagingTemplate.convertAndSend("/topic/artists", dto);
         }
-        return converterParaDTOComAlbuns(artista);
+        return montarDetalhe(id);
     }
 
     /**
      * Converte um objeto Artista para o respectivo DTO, incluindo a contagem de álbuns.
+     * A contagem vem do contador desnormalizado da própria linha, sem consulta adicional.
      *
      * @param artista Entidade artista.
      * @return DTO do artista.
      */
     private ArtistaDTO converterParaDTO(Artista artista) {
-        Long quantidadeAlbuns = albumRepository.countByArtistaId(artista.getId());
-        ArtistaDTO dto = new ArtistaDTO(artista.getId(), artista.getNome(), quantidadeAlbuns.intValue(), artista.getUrlImagemPerfil());
-        
-        if (artista.getUrlImagemPerfil() != null) {
-            // URL estável via proxy para o frontend
-            dto.setUrlImagemPerfilAssinada("/api/v1/artistas/foto/" + artista.getId());
-            
-            // Requisito do Edital: Recuperação por links pré-assinados (30 min)
-            try {
-                String urlS3Real = minioService.generatePresignedUrl(artista.getUrlImagemPerfil(), 30);
-                dto.setUrlS3Presigned(urlS3Real);
-                System.out.println("Link S3 (30min) para artista " + artista.getId() + ": " + urlS3Real);
-            } catch (Exception e) {}
-        }
-        
+        ArtistaDTO dto = new ArtistaDTO(artista.getId(), artista.getNome(), artista.getQuantidadeAlbuns(), artista.getUrlImagemPerfil());
+        dto.setMarcadorImagemPerfil(artista.getMarcadorImagemPerfil());
+        dto.setLarguraImagemPerfil(artista.getLarguraImagemPerfil());
+        dto.setAlturaImagemPerfil(artista.getAlturaImagemPerfil());
+        preencherUrlsImagemPerfil(dto);
         return dto;
     }
 
     /**
-     * Converte um objeto Artista para DTO, incluindo detalhes dos álbuns do artista.
+     * Monta o detalhe do artista em uma única consulta, embutindo no máximo
+     * {@code limiteAlbunsDetalhe} álbuns e um cursor para continuar a listagem
+     * em /v1/albuns/artista/{id}/cursor. O custo não depende do total de álbuns.
      *
-     * @param artista Entidade artista.
+     * @param id ID do artista.
      * @return DTO detalhado do artista.
      */
-    private ArtistaDTO converterParaDTOComAlbuns(Artista artista) {
-        List<AlbumDTO> albunsDTO = artista.getAlbuns().stream()
-                .map(album -> {
-                    AlbumDTO albumDto = new AlbumDTO(album.getId(), album.getTitulo(),
-                            album.getArtista().getId(), album.getArtista().getNome(),
-                            album.getUrlImagemCapa(), album.getDataCriacao(), album.getDataAtualizacao());
-                    if (album.getUrlImagemCapa() != null) {
-                        // URL estável via proxy
-                        albumDto.setUrlImagemCapaAssinada("/api/v1/albuns/capa/" + album.getId());
-                        
-                        // Requisito do Edital: Links pré-assinados (30 min)
-                        try {
-                            String urlS3Real = minioService.generatePresignedUrl(album.getUrlImagemCapa(), 30);
-                            albumDto.setUrlS3Presigned(urlS3Real);
-                            System.out.println("Link S3 (30min) para álbum " + album.getId() + ": " + urlS3Real);
-                        } catch (Exception e) {}
-                    }
-                    return albumDto;
-                })
-                .collect(Collectors.toList());
+    private ArtistaDTO montarDetalhe(Long id) {
+        List<Object[]> linhas = artistaRepository.buscarDetalheComAlbuns(id, limiteAlbunsDetalhe + 1);
+        if (linhas.isEmpty()) {
+            throw new ResourceNotFoundException("Artista não encontrado com id: " + id);
+        }
+
+        Object[] primeira = linhas.get(0);
+        String nomeArtista = (String) primeira[1];
+
+        List<AlbumDTO> albunsDTO = new ArrayList<>();
+        String proximoCursor = null;
+        for (Object[] linha : linhas) {
+            if (linha[6] == null) {
+                continue;
+            }
+            if (albunsDTO.size() == limiteAlbunsDetalhe) {
+                AlbumDTO ultimo = albunsDTO.get(albunsDTO.size() - 1);
+                proximoCursor = PaginacaoCursor.cursorApos(ultimo.getTitulo(), ultimo.getId());
+                break;
+            }
+            AlbumDTO albumDto = new AlbumDTO(((Number) linha[6]).longValue(), (String) linha[7],
+                    id, nomeArtista, (String) linha[8], paraDataHora(linha[9]), paraDataHora(linha[10]));
+            albumDto.setMarcadorImagemCapa((String) linha[14]);
+            albumDto.setLarguraImagemCapa(paraInteiro(linha[15]));
+            albumDto.setAlturaImagemCapa(paraInteiro(linha[16]));
+            if (albumDto.getUrlImagemCapa() != null) {
+                // URL estável via proxy
+                albumDto.setUrlImagemCapaAssinada("/api/v1/albuns/capa/" + albumDto.getId()
+                        + "?v=" + MinioService.versao(albumDto.getUrlImagemCapa()));
+
+                // Requisito do Edital: Links pré-assinados (30 min), quando o backend os gera
+                if (minioService.suportaUrlsPreAssinadas()) {
+                    try {
+                        String urlS3Real = minioService.generatePresignedUrl(albumDto.getUrlImagemCapa(), 30);
+                        albumDto.setUrlS3Presigned(urlS3Real);
+                    } catch (Exception e) {}
+                }
+            }
+            albunsDTO.add(albumDto);
+        }
 
         ArtistaDTO dto = new ArtistaDTO(
-                artista.getId(),
-                artista.getNome(),
+                id,
+                nomeArtista,
                 albunsDTO,
-                artista.getAlbuns().size(),
-                artista.getUrlImagemPerfil(),
-                artista.getDataCriacao(),
-                artista.getDataAtualizacao()
+                ((Number) primeira[3]).intValue(),
+                (String) primeira[2],
+                paraDataHora(primeira[4]),
+                paraDataHora(primeira[5])
         );
+        dto.setProximoCursorAlbuns(proximoCursor);
+        dto.setMarcadorImagemPerfil((String) primeira[11]);
+        dto.setLarguraImagemPerfil(paraInteiro(primeira[12]));
+        dto.setAlturaImagemPerfil(paraInteiro(primeira[13]));
+        preencherUrlsImagemPerfil(dto);
 
-        if (artista.getUrlImagemPerfil() != null) {
-            // URL estável via proxy
-            dto.setUrlImagemPerfilAssinada("/api/v1/artistas/foto/" + artista.getId());
-            
-            // Requisito do Edital: Links pré-assinados (30 min)
-            try {
-                String urlS3Real = minioService.generatePresignedUrl(artista.getUrlImagemPerfil(), 30);
-                dto.setUrlS3Presigned(urlS3Real);
-                System.out.println("Link S3 (30min) para artista " + artista.getId() + ": " + urlS3Real);
-            } catch (Exception e) {}
+        return dto;
+    }
+
+    private void preencherUrlsImagemPerfil(ArtistaDTO dto) {
+        if (dto.getUrlImagemPerfil() != null) {
+            // URL via proxy para o frontend, versionada pelo conteúdo (cacheável como imutável)
+            dto.setUrlImagemPerfilAssinada("/api/v1/artistas/foto/" + dto.getId()
+                    + "?v=" + MinioService.versao(dto.getUrlImagemPerfil()));
+
+            // Requisito do Edital: Recuperação por links pré-assinados (30 min), quando o backend os gera
+            if (minioService.suportaUrlsPreAssinadas()) {
+                try {
+                    String urlS3Real = minioService.generatePresignedUrl(dto.getUrlImagemPerfil(), 30);
+                    dto.setUrlS3Presigned(urlS3Real);
+                } catch (Exception e) {}
+            }
         }
+    }
 
-        return dto;
+    private static Integer paraInteiro(Object valor) {
+        return valor != null ? ((Number) valor).intValue() : null;
+    }
+
+    private static LocalDateTime paraDataHora(Object valor) {
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) valor;
     }
 }
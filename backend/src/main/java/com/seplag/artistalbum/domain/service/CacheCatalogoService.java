@@ -0,0 +1,175 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seplag.artistalbum.application.dto.AlbumDTO;
+import com.seplag.artistalbum.application.dto.ArtistaDTO;
+import com.seplag.artistalbum.application.dto.PaginaCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Cache de leitura do catálogo (Caffeine, admissão W-TinyLFU) para detalhes de artistas e álbuns,
+ * páginas de artistas e listas de álbuns por artista.
+ * <p>
+ * Os serviços de escrita invalidam as entradas afetadas imediatamente e novamente após o commit.
+ * O tempo de vida precisa ficar abaixo da margem de segurança do cache de URLs pré-assinadas
+ * ({@code minio.presigned-cache.margem-seguranca-segundos}): uma URL embutida em um DTO pode ter só
+ * essa margem de validade restante, e o DTO não pode ser servido depois que ela expirar.
+ * Métricas (taxa de acerto, despejos, tempo de carga) ficam em {@code cache.*} com tag {@code cache}.
+ */
+@Service
+public class CacheCatalogoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheCatalogoService.class);
+
+    private final Cache<Long, ArtistaDTO> artistas;
+    private final Cache<Long, AlbumDTO> albuns;
+    private final Cache<String, Object> paginasArtistas;
+    private final Cache<ChaveAlbunsArtista, Object> albunsPorArtista;
+
+    public CacheCatalogoService(
+            @Value("${cache.catalogo.peso-maximo:100000}") long pesoMaximo,
+            @Value("${cache.catalogo.tempo-vida-segundos:120}") long tempoVidaSegundos,
+            @Value("${minio.presigned-cache.margem-seguranca-segundos:300}") long margemUrlsSegundos,
+            MeterRegistry meterRegistry
+    ) {
+        // Metade da margem: o DTO mais antigo ainda leva uma URL com pelo menos metade dela de validade
+        long limiteSegundos = Math.max(1, margemUrlsSegundos / 2);
+        if (tempoVidaSegundos > limiteSegundos) {
+            logger.warn("cache.catalogo.tempo-vida-segundos ({}) excede metade da margem das URLs pré-assinadas; usando {}",
+                    tempoVidaSegundos, limiteSegundos);
+            tempoVidaSegundos = limiteSegundos;
+        }
+        Duration tempoVida = Duration.ofSeconds(tempoVidaSegundos);
+        this.artistas = criarCache(pesoMaximo, tempoVida);
+        this.albuns = criarCache(pesoMaximo, tempoVida);
+        this.paginasArtistas = criarCache(pesoMaximo, tempoVida);
+        this.albunsPorArtista = criarCache(pesoMaximo, tempoVida);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, artistas, "catalogo.artistas");
+        CaffeineCacheMetrics.monitor(meterRegistry, albuns, "catalogo.albuns");
+        CaffeineCacheMetrics.monitor(meterRegistry, paginasArtistas, "catalogo.paginas-artistas");
+        CaffeineCacheMetrics.monitor(meterRegistry, albunsPorArtista, "catalogo.albuns-por-artista");
+    }
+
+    public ArtistaDTO obterArtista(Long id, Supplier<ArtistaDTO> carregador) {
+        return artistas.get(id, chave -> carregador.get());
+    }
+
+    public AlbumDTO obterAlbum(Long id, Supplier<AlbumDTO> carregador) {
+        return albuns.get(id, chave -> carregador.get());
+    }
+
+    /**
+     * Página de artistas (offset, cursor ou pesquisa), identificada pela variante da consulta.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obterPaginaArtistas(String variante, Supplier<T> carregador) {
+        return (T) paginasArtistas.get(variante, chave -> carregador.get());
+    }
+
+    /**
+     * Lista ou página de álbuns de um artista, identificada pela variante da consulta.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obterAlbunsPorArtista(Long idArtista, String variante, Supplier<T> carregador) {
+        return (T) albunsPorArtista.get(new ChaveAlbunsArtista(idArtista, variante), chave -> carregador.get());
+    }
+
+    /**
+     * Artista criado: apenas as páginas de artistas mudam.
+     */
+    public void invalidarPaginasArtistas() {
+        executarAgoraEAposCommit(paginasArtistas::invalidateAll);
+    }
+
+    /**
+     * Artista alterado ou excluído: detalhe, páginas e álbuns que carregam o nome do artista.
+     */
+    public void invalidarArtista(Long idArtista) {
+        executarAgoraEAposCommit(() -> {
+            artistas.invalidate(idArtista);
+            paginasArtistas.invalidateAll();
+            invalidarAlbunsDoArtista(idArtista);
+            albuns.asMap().values().removeIf(album -> idArtista.equals(album.getIdArtista()));
+        });
+    }
+
+    /**
+     * Álbum criado, alterado ou excluído: o próprio álbum, o detalhe do artista que o embute,
+     * as listas de álbuns do artista e as páginas de artistas (contagem de álbuns).
+     */
+    public void invalidarAlbum(Long idAlbum, Long idArtista) {
+        executarAgoraEAposCommit(() -> {
+            if (idAlbum != null) {
+                albuns.invalidate(idAlbum);
+            }
+            artistas.invalidate(idArtista);
+            invalidarAlbunsDoArtista(idArtista);
+            paginasArtistas.invalidateAll();
+        });
+    }
+
+    /**
+     * Alteração em massa (importação): descarta todas as entradas de uma vez, em vez de
+     * invalidar item a item.
+     */
+    public void invalidarTudo() {
+        executarAgoraEAposCommit(() -> {
+            artistas.invalidateAll();
+            albuns.invalidateAll();
+            paginasArtistas.invalidateAll();
+            albunsPorArtista.invalidateAll();
+        });
+    }
+
+    private void invalidarAlbunsDoArtista(Long idArtista) {
+        albunsPorArtista.asMap().keySet().removeIf(chave -> chave.idArtista().equals(idArtista));
+    }
+
+    private static void executarAgoraEAposCommit(Runnable invalidacao) {
+        invalidacao.run();
+        // Repete após o commit para descartar leituras concorrentes do estado anterior
+        Transacoes.aposCommit(invalidacao);
+    }
+
+    private static <K, V> Cache<K, V> criarCache(long pesoMaximo, Duration tempoVida) {
+        return Caffeine.newBuilder()
+                .maximumWeight(pesoMaximo)
+                .weigher((K chave, V valor) -> pesoDe(valor))
+                .expireAfterWrite(tempoVida)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Peso aproximado pelo número de itens embutidos, para que listas grandes ocupem mais espaço.
+     */
+    private static int pesoDe(Object valor) {
+        if (valor instanceof ArtistaDTO artista) {
+            return 1 + (artista.getAlbuns() != null ? artista.getAlbuns().size() : 0);
+        }
+        if (valor instanceof Page<?> pagina) {
+            return 1 + pagina.getNumberOfElements();
+        }
+        if (valor instanceof PaginaCursor<?> pagina) {
+            return 1 + pagina.getConteudo().size();
+        }
+        if (valor instanceof Collection<?> colecao) {
+            return 1 + colecao.size();
+        }
+        return 1;
+    }
+
+    private record ChaveAlbunsArtista(Long idArtista, String variante) {}
+}
@@ -0,0 +1,500 @@
+package com.seplag.artistalbum.domain.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Camada de cache em disco para objetos de imagem do MinIO.
+ * <p>
+ * Os objetos são gravados em arquivos de segmento apenas com append; o índice (chave → segmento,
+ * offset, tamanho, metadados) é mantido em memória e registrado em um journal no mesmo diretório,
+ * reconstruído na inicialização. Quando o orçamento de bytes é excedido, o segmento acessado há
+ * mais tempo é descartado inteiro (LRU por segmento). As leituras são servidas por
+ * {@link FileChannel#transferTo}, sem passar o conteúdo inteiro pelo heap.
+ * <p>
+ * O canal de leitura de cada acerto é aberto sob a trava, antes que um descarte (orçamento,
+ * invalidação, segmento esvaziado) possa apagar o segmento, e a entrega lê sempre por ele: o
+ * arquivo apagado continua legível pelo descritor aberto até o último leitor fechá-lo, então um
+ * descarte durante a transferência não trunca a resposta.
+ */
+@Component
+public class CacheDiscoImagens {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheDiscoImagens.class);
+
+    private static final String ARQUIVO_JOURNAL = "indice.log";
+    private static final String PREFIXO_SEGMENTO = "segmento-";
+    private static final String SUFIXO_SEGMENTO = ".dat";
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private final boolean habilitado;
+    private final Path diretorio;
+    private final long orcamentoBytes;
+    private final long tamanhoSegmento;
+    private final long tamanhoMaximoObjeto;
+    private final Counter acertos;
+    private final Counter faltas;
+
+    // Todo o estado abaixo é protegido por "trava"; a escrita do conteúdo acontece fora dela
+    private final Object trava = new Object();
+    private final Map<String, Entrada> indice = new HashMap<>();
+    private final Map<Integer, Segmento> segmentos = new TreeMap<>();
+    private Segmento ativo;
+    private BufferedWriter journal;
+    private long linhasJournal;
+    private long relogio;
+
+    public CacheDiscoImagens(
+            @Value("${cache.imagens.habilitado:true}") boolean habilitado,
+            @Value("${cache.imagens.diretorio:${java.io.tmpdir}/artist-album-cache}") String diretorio,
+            @Value("${cache.imagens.orcamento-bytes:536870912}") long orcamentoBytes,
+            @Value("${cache.imagens.tamanho-segmento:67108864}") long tamanhoSegmento,
+            @Value("${cache.imagens.tamanho-maximo-objeto:16777216}") long tamanhoMaximoObjeto,
+            MeterRegistry meterRegistry
+    ) {
+        this.habilitado = habilitado;
+        this.diretorio = Paths.get(diretorio);
+        this.orcamentoBytes = orcamentoBytes;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.tamanhoMaximoObjeto = Math.min(tamanhoMaximoObjeto, tamanhoSegmento);
+        this.acertos = meterRegistry.counter("cache.imagens.disco", "resultado", "acerto");
+        this.faltas = meterRegistry.counter("cache.imagens.disco", "resultado", "falta");
+        meterRegistry.gauge("cache.imagens.disco.bytes", this, CacheDiscoImagens::bytesEmDisco);
+    }
+
+    /**
+     * Trecho de um arquivo local que contém o objeto completo, com o canal de leitura já aberto.
+     * Quem recebe deve fechá-lo ao fim da entrega.
+     */
+    public record ObjetoLocal(FileChannel canal, long offset, long tamanho, String tipoConteudo, String etag)
+            implements Closeable {
+
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+
+    private record Entrada(int segmento, long offset, long tamanho, String tipoConteudo, String etag) {}
+
+    private static final class Segmento {
+        private final int id;
+        private final Path arquivo;
+        private final Set<String> chaves = new HashSet<>();
+        private long tamanho;
+        private long ultimoAcesso;
+
+        private Segmento(int id, Path arquivo) {
+            this.id = id;
+            this.arquivo = arquivo;
+        }
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            Files.createDirectories(diretorio);
+            synchronized (trava) {
+                carregarSegmentos();
+                reproduzirJournal();
+                descartarSegmentosVazios();
+                int proximoId = segmentos.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1;
+                ativo = criarSegmento(proximoId);
+                compactarJournal();
+            }
+            logger.info("Cache de imagens em disco iniciado em {} com {} objetos ({} bytes)",
+                    diretorio, indice.size(), bytesEmDisco());
+        } catch (IOException e) {
+            logger.error("Falha ao iniciar o cache de imagens em disco; seguindo sem cache", e);
+            synchronized (trava) {
+                indice.clear();
+                segmentos.clear();
+                ativo = null;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        synchronized (trava) {
+            fecharJournal();
+        }
+    }
+
+    public boolean isHabilitado() {
+        synchronized (trava) {
+            return habilitado && ativo != null;
+        }
+    }
+
+    /**
+     * Indica se um objeto deste tamanho pode ser armazenado no cache.
+     */
+    public boolean aceita(long tamanho) {
+        return isHabilitado() && tamanho > 0 && tamanho <= tamanhoMaximoObjeto;
+    }
+
+    /**
+     * Procura o objeto no cache, registrando o acesso para a política LRU.
+     *
+     * @return o trecho local do objeto, com o canal aberto (o chamador fecha), ou null em caso de falta
+     */
+    public ObjetoLocal buscar(String chave) {
+        synchronized (trava) {
+            Entrada entrada = indice.get(chave);
+            if (entrada == null) {
+                faltas.increment();
+                return null;
+            }
+            Segmento segmento = segmentos.get(entrada.segmento());
+            FileChannel canal;
+            try {
+                canal = FileChannel.open(segmento.arquivo, StandardOpenOption.READ);
+            } catch (IOException e) {
+                // Segmento removido por fora do cache: a entrada deixa de valer
+                logger.warn("Segmento de cache {} inacessível", segmento.arquivo, e);
+                if (removerEntrada(chave)) {
+                    registrar("R\t" + codificar(chave));
+                }
+                faltas.increment();
+                return null;
+            }
+            segmento.ultimoAcesso = ++relogio;
+            acertos.increment();
+            return new ObjetoLocal(canal, entrada.offset(), entrada.tamanho(),
+                    entrada.tipoConteudo(), entrada.etag());
+        }
+    }
+
+    /**
+     * Copia o conteúdo do stream para o segmento ativo e registra o objeto no índice.
+     * O espaço é reservado sob a trava e a cópia ocorre fora dela, com escrita posicional.
+     *
+     * @return o trecho local gravado, com o canal aberto (o chamador fecha), ou null se o objeto não
+     *         puder ser armazenado
+     */
+    public ObjetoLocal armazenar(String chave, InputStream conteudo, long tamanho,
+                                 String tipoConteudo, String etag) throws IOException {
+        if (!aceita(tamanho)) {
+            return null;
+        }
+
+        Segmento segmento;
+        long offset;
+        synchronized (trava) {
+            if (ativo.tamanho > 0 && ativo.tamanho + tamanho > tamanhoSegmento) {
+                ativo = criarSegmento(ativo.id + 1);
+            }
+            segmento = ativo;
+            offset = segmento.tamanho;
+            segmento.tamanho += tamanho;
+        }
+
+        FileChannel escrita;
+        try {
+            escrita = FileChannel.open(segmento.arquivo, StandardOpenOption.WRITE);
+        } catch (NoSuchFileException e) {
+            // Segmento descartado pelo orçamento entre a reserva e a cópia
+            return null;
+        }
+        long gravados = 0;
+        try (FileChannel canal = escrita) {
+            byte[] buffer = new byte[TAMANHO_BUFFER];
+            int lidos;
+            while (gravados < tamanho && (lidos = conteudo.read(buffer, 0, (int) Math.min(buffer.length, tamanho - gravados))) != -1) {
+                ByteBuffer bloco = ByteBuffer.wrap(buffer, 0, lidos);
+                while (bloco.hasRemaining()) {
+                    gravados += canal.write(bloco, offset + gravados);
+                }
+            }
+        }
+        if (gravados != tamanho) {
+            // Conteúdo truncado: o espaço reservado fica como lacuna até o segmento ser descartado
+            return null;
+        }
+
+        Entrada entrada = new Entrada(segmento.id, offset, tamanho, tipoConteudo, etag);
+        synchronized (trava) {
+            if (!segmentos.containsKey(segmento.id)) {
+                return null;
+            }
+            // Aberto antes de o orçamento poder descartar o próprio segmento
+            FileChannel leitura = FileChannel.open(segmento.arquivo, StandardOpenOption.READ);
+            segmento.chaves.add(chave);
+            segmento.ultimoAcesso = ++relogio;
+            Entrada anterior = indice.put(chave, entrada);
+            if (anterior != null && anterior.segmento() != segmento.id) {
+                Segmento segmentoAnterior = segmentos.get(anterior.segmento());
+                if (segmentoAnterior != null) {
+                    segmentoAnterior.chaves.remove(chave);
+                    if (segmentoAnterior.chaves.isEmpty() && segmentoAnterior != ativo) {
+                        descartarSegmento(segmentoAnterior);
+                    }
+                }
+            }
+            registrar("P\t" + entrada.segmento() + "\t" + entrada.offset() + "\t" + entrada.tamanho() + "\t"
+                    + codificar(tipoConteudo) + "\t" + codificar(etag) + "\t" + codificar(chave));
+            aplicarOrcamento();
+            return new ObjetoLocal(leitura, offset, tamanho, tipoConteudo, etag);
+        }
+    }
+
+    /**
+     * Remove o objeto do cache (upload de nova versão ou exclusão).
+     */
+    public void invalidar(String chave) {
+        if (!habilitado) {
+            return;
+        }
+        synchronized (trava) {
+            if (removerEntrada(chave)) {
+                registrar("R\t" + codificar(chave));
+            }
+        }
+    }
+
+    private boolean removerEntrada(String chave) {
+        Entrada anterior = indice.remove(chave);
+        if (anterior == null) {
+            return false;
+        }
+        Segmento segmento = segmentos.get(anterior.segmento());
+        if (segmento != null) {
+            segmento.chaves.remove(chave);
+            if (segmento.chaves.isEmpty() && segmento != ativo) {
+                descartarSegmento(segmento);
+            }
+        }
+        return true;
+    }
+
+    private void aplicarOrcamento() {
+        while (bytesEmDiscoSemTrava() > orcamentoBytes) {
+            Segmento maisAntigo = null;
+            for (Segmento segmento : segmentos.values()) {
+                if (segmento != ativo && (maisAntigo == null || segmento.ultimoAcesso < maisAntigo.ultimoAcesso)) {
+                    maisAntigo = segmento;
+                }
+            }
+            if (maisAntigo == null) {
+                return;
+            }
+            descartarSegmento(maisAntigo);
+        }
+    }
+
+    private void descartarSegmento(Segmento segmento) {
+        for (String chave : segmento.chaves) {
+            indice.remove(chave);
+        }
+        segmento.chaves.clear();
+        segmentos.remove(segmento.id);
+        registrar("S\t" + segmento.id);
+        try {
+            Files.deleteIfExists(segmento.arquivo);
+        } catch (IOException e) {
+            logger.warn("Falha ao remover segmento de cache {}", segmento.arquivo, e);
+        }
+    }
+
+    private Segmento criarSegmento(int id) {
+        Path arquivo = diretorio.resolve(PREFIXO_SEGMENTO + id + SUFIXO_SEGMENTO);
+        try {
+            Files.deleteIfExists(arquivo);
+            Files.createFile(arquivo);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao criar segmento de cache " + arquivo, e);
+        }
+        Segmento segmento = new Segmento(id, arquivo);
+        segmento.ultimoAcesso = ++relogio;
+        segmentos.put(id, segmento);
+        return segmento;
+    }
+
+    private long bytesEmDisco() {
+        synchronized (trava) {
+            return bytesEmDiscoSemTrava();
+        }
+    }
+
+    private long bytesEmDiscoSemTrava() {
+        long total = 0;
+        for (Segmento segmento : segmentos.values()) {
+            total += segmento.tamanho;
+        }
+        return total;
+    }
+
+    // ---- Persistência do índice ----
+
+    private void carregarSegmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                String nome = arquivo.getFileName().toString();
+                if (nome.startsWith(PREFIXO_SEGMENTO) && nome.endsWith(SUFIXO_SEGMENTO)) {
+                    try {
+                        int id = Integer.parseInt(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - SUFIXO_SEGMENTO.length()));
+                        Segmento segmento = new Segmento(id, arquivo);
+                        segmento.tamanho = Files.size(arquivo);
+                        segmentos.put(id, segmento);
+                    } catch (NumberFormatException e) {
+                        // Arquivo estranho ao cache: ignorado
+                    }
+                }
+            }
+        }
+    }
+
+    private void reproduzirJournal() throws IOException {
+        Path arquivoJournal = diretorio.resolve(ARQUIVO_JOURNAL);
+        if (!Files.exists(arquivoJournal)) {
+            return;
+        }
+        for (String linha : Files.readAllLines(arquivoJournal, StandardCharsets.UTF_8)) {
+            String[] campos = linha.split("\t");
+            try {
+                switch (campos[0]) {
+                    case "P" -> {
+                        Entrada entrada = new Entrada(Integer.parseInt(campos[1]), Long.parseLong(campos[2]),
+                                Long.parseLong(campos[3]), decodificar(campos[4]), decodificar(campos[5]));
+                        String chave = decodificar(campos[6]);
+                        Segmento segmento = segmentos.get(entrada.segmento());
+                        // Entradas de segmentos ausentes ou truncados são descartadas
+                        if (segmento != null && entrada.offset() + entrada.tamanho() <= segmento.tamanho) {
+                            removerEntradaSemDescartar(chave);
+                            indice.put(chave, entrada);
+                            segmento.chaves.add(chave);
+                            segmento.ultimoAcesso = ++relogio;
+                        }
+                    }
+                    case "R" -> removerEntradaSemDescartar(decodificar(campos[1]));
+                    case "S" -> {
+                        Segmento segmento = segmentos.get(Integer.parseInt(campos[1]));
+                        if (segmento != null) {
+                            segmento.chaves.forEach(indice::remove);
+                            segmento.chaves.clear();
+                        }
+                    }
+                    default -> { }
+                }
+            } catch (RuntimeException e) {
+                // Linha parcial (queda durante a escrita): ignorada
+            }
+        }
+    }
+
+    private void removerEntradaSemDescartar(String chave) {
+        Entrada anterior = indice.remove(chave);
+        if (anterior != null) {
+            Segmento segmento = segmentos.get(anterior.segmento());
+            if (segmento != null) {
+                segmento.chaves.remove(chave);
+            }
+        }
+    }
+
+    private void descartarSegmentosVazios() {
+        for (Segmento segmento : new ArrayList<>(segmentos.values())) {
+            if (segmento.chaves.isEmpty()) {
+                segmentos.remove(segmento.id);
+                try {
+                    Files.deleteIfExists(segmento.arquivo);
+                } catch (IOException e) {
+                    logger.warn("Falha ao remover segmento de cache {}", segmento.arquivo, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reescreve o journal apenas com as entradas vivas, de forma atômica.
+     */
+    private void compactarJournal() throws IOException {
+        fecharJournal();
+        Path arquivoJournal = diretorio.resolve(ARQUIVO_JOURNAL);
+        Path temporario = diretorio.resolve(ARQUIVO_JOURNAL + ".tmp");
+        List<String> linhas = new ArrayList<>();
+        indice.forEach((chave, entrada) -> linhas.add("P\t" + entrada.segmento() + "\t" + entrada.offset() + "\t"
+                + entrada.tamanho() + "\t" + codificar(entrada.tipoConteudo()) + "\t" + codificar(entrada.etag())
+                + "\t" + codificar(chave)));
+        Files.write(temporario, linhas, StandardCharsets.UTF_8);
+        Files.move(temporario, arquivoJournal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = Files.newBufferedWriter(arquivoJournal, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        linhasJournal = linhas.size();
+    }
+
+    private void registrar(String linha) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.write(linha);
+            journal.newLine();
+            journal.flush();
+            linhasJournal++;
+            if (linhasJournal > 4L * indice.size() + 1000) {
+                compactarJournal();
+            }
+        } catch (IOException e) {
+            logger.warn("Falha ao registrar journal do cache de imagens", e);
+        }
+    }
+
+    private void fecharJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.warn("Falha ao fechar journal do cache de imagens", e);
+            }
+            journal = null;
+        }
+    }
+
+    private static String codificar(String valor) {
+        if (valor == null) {
+            return "-";
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificar(String valor) {
+        if ("-".equals(valor)) {
+            return null;
+        }
+        return new String(Base64.getUrlDecoder().decode(valor), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,134 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.seplag.artistalbum.infrastructure.exception.InvalidImageException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stream de upload que inspeciona a imagem enquanto ela passa para o armazenamento:
+ * identifica o tipo real pelos bytes iniciais (sem confiar no Content-Type do cliente),
+ * calcula o SHA-256 do conteúdo e interrompe a leitura ao ultrapassar o tamanho máximo.
+ * Nada além do cabeçalho é mantido em memória.
+ */
+public class EntradaImagemInspecionada extends FilterInputStream {
+
+    private static final int TAMANHO_CABECALHO = 12;
+
+    private final MessageDigest digest;
+    private final long limiteBytes;
+    private final String tipoConteudo;
+    private long bytesLidos;
+    private boolean limiteExcedido;
+
+    private EntradaImagemInspecionada(InputStream origem, String tipoConteudo, long limiteBytes) {
+        super(origem);
+        this.tipoConteudo = tipoConteudo;
+        this.limiteBytes = limiteBytes;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Lê o cabeçalho do stream para identificar o formato e devolve o stream pronto para envio.
+     *
+     * @throws InvalidImageException se o conteúdo não for JPEG, PNG, GIF ou WebP
+     */
+    public static EntradaImagemInspecionada inspecionar(InputStream origem, long limiteBytes) throws IOException {
+        PushbackInputStream entrada = new PushbackInputStream(origem, TAMANHO_CABECALHO);
+        byte[] cabecalho = entrada.readNBytes(TAMANHO_CABECALHO);
+        String tipo = identificarTipo(cabecalho);
+        if (tipo == null) {
+            throw new InvalidImageException("O arquivo enviado não é uma imagem suportada (JPEG, PNG, GIF ou WebP)");
+        }
+        entrada.unread(cabecalho);
+        return new EntradaImagemInspecionada(entrada, tipo, limiteBytes);
+    }
+
+    private static String identificarTipo(byte[] c) {
+        if (c.length >= 3 && (c[0] & 0xFF) == 0xFF && (c[1] & 0xFF) == 0xD8 && (c[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (c.length >= 8 && (c[0] & 0xFF) == 0x89 && c[1] == 'P' && c[2] == 'N' && c[3] == 'G'
+                && c[4] == '\r' && c[5] == '\n' && c[6] == 0x1A && c[7] == '\n') {
+            return "image/png";
+        }
+        if (c.length >= 6 && c[0] == 'G' && c[1] == 'I' && c[2] == 'F' && c[3] == '8'
+                && (c[4] == '7' || c[4] == '9') && c[5] == 'a') {
+            return "image/gif";
+        }
+        if (c.length >= 12 && c[0] == 'R' && c[1] == 'I' && c[2] == 'F' && c[3] == 'F'
+                && c[8] == 'W' && c[9] == 'E' && c[10] == 'B' && c[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            digest.update((byte) b);
+            contabilizar(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            digest.update(b, off, n);
+            contabilizar(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Pular bytes deixaria o hash incompleto: consome pelo read
+        byte[] descarte = new byte[(int) Math.min(n, 8192)];
+        int lidos = read(descarte, 0, descarte.length);
+        return Math.max(lidos, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void contabilizar(int n) throws IOException {
+        bytesLidos += n;
+        if (bytesLidos > limiteBytes) {
+            limiteExcedido = true;
+            throw new IOException("Arquivo excede o limite de " + limiteBytes + " bytes");
+        }
+    }
+
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+
+    public long getBytesLidos() {
+        return bytesLidos;
+    }
+
+    public boolean isLimiteExcedido() {
+        return limiteExcedido;
+    }
+
+    /**
+     * SHA-256 em hexadecimal do conteúdo lido. Só deve ser chamado após o stream ser consumido.
+     */
+    public String getSha256() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,227 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seplag.artistalbum.domain.model.Album;
+import com.seplag.artistalbum.domain.model.Artista;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import com.seplag.artistalbum.infrastructure.exception.InvalidExportFormatException;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação do catálogo completo (artistas com os álbuns) como stream, em NDJSON (um artista por
+ * linha, com a lista de álbuns) ou CSV (um álbum por registro). Os dois formatos são aceitos de
+ * volta pela importação ({@link ImportacaoCatalogoService}).
+ * <p>
+ * A leitura é uma única consulta em transação somente leitura, percorrida por cursor somente de
+ * avanço (fetch size de {@link ArtistaRepository#percorrerCatalogo}); cada entidade é desanexada
+ * do contexto de persistência assim que escrita. O heap usado fica constante, qualquer que seja o
+ * tamanho do catálogo, e a resposta começa a sair antes de a consulta terminar.
+ */
+@Service
+public class ExportacaoCatalogoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacaoCatalogoService.class);
+
+    private final ArtistaRepository artistaRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transacao;
+
+    public ExportacaoCatalogoService(ArtistaRepository artistaRepository,
+                                     EntityManager entityManager,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager) {
+        this.artistaRepository = artistaRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transacao = new TransactionTemplate(transactionManager);
+        // Somente leitura: o Hibernate não guarda snapshots nem faz flush, e o PostgreSQL só usa o
+        // cursor (fetch size) com a conexão fora do autocommit
+        this.transacao.setReadOnly(true);
+    }
+
+    /**
+     * Verifica o formato antes de a resposta começar, para que o erro ainda possa ser um 400.
+     */
+    public void validarFormato(String formato) {
+        if (!ImportacaoCatalogoService.FORMATO_NDJSON.equals(formato)
+                && !ImportacaoCatalogoService.FORMATO_CSV.equals(formato)) {
+            throw new InvalidExportFormatException("Formato de exportação não suportado: " + formato
+                    + " (use " + ImportacaoCatalogoService.FORMATO_NDJSON + " ou " + ImportacaoCatalogoService.FORMATO_CSV + ")");
+        }
+    }
+
+    /**
+     * Escreve o catálogo na saída. Uma falha de escrita (cliente desconectado) interrompe a
+     * leitura e fecha o cursor.
+     */
+    public void exportar(String formato, OutputStream saida) throws IOException {
+        validarFormato(formato);
+        EscritorCatalogo escritor = ImportacaoCatalogoService.FORMATO_CSV.equals(formato)
+                ? new EscritorCsv(saida)
+                : new EscritorNdjson(objectMapper, saida);
+        long inicio = System.nanoTime();
+        long[] totais = new long[2];
+        try {
+            transacao.executeWithoutResult(status -> {
+                try (Stream<Object[]> linhas = artistaRepository.percorrerCatalogo()) {
+                    Iterator<Object[]> iterador = linhas.iterator();
+                    Artista atual = null;
+                    while (iterador.hasNext()) {
+                        Object[] linha = iterador.next();
+                        Artista artista = (Artista) linha[0];
+                        Album album = (Album) linha[1];
+                        if (atual == null || !atual.getId().equals(artista.getId())) {
+                            if (atual != null) {
+                                escritor.concluirArtista();
+                                entityManager.detach(atual);
+                            }
+                            escritor.iniciarArtista(artista);
+                            atual = artista;
+                            totais[0]++;
+                        }
+                        if (album != null) {
+                            escritor.escreverAlbum(album);
+                            entityManager.detach(album);
+                            totais[1]++;
+                        }
+                    }
+                    if (atual != null) {
+                        escritor.concluirArtista();
+                        entityManager.detach(atual);
+                    }
+                    escritor.concluir();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            logger.info("Exportação do catálogo interrompida após {} artistas: {}", totais[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+        logger.info("Exportação do catálogo ({}) concluída: {} artistas e {} álbuns em {} ms",
+                formato, totais[0], totais[1], (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private interface EscritorCatalogo {
+        void iniciarArtista(Artista artista) throws IOException;
+
+        void escreverAlbum(Album album) throws IOException;
+
+        void concluirArtista() throws IOException;
+
+        void concluir() throws IOException;
+    }
+
+    /**
+     * {@code {"id": 1, "nome": "...", "albuns": [{"id": 2, "titulo": "..."}]}} por linha, escrito
+     * incrementalmente: nem a lista de álbuns de um artista fica em memória.
+     */
+    private static final class EscritorNdjson implements EscritorCatalogo {
+
+        private final JsonGenerator gerador;
+
+        EscritorNdjson(ObjectMapper objectMapper, OutputStream saida) throws IOException {
+            this.gerador = objectMapper.getFactory().createGenerator(saida, JsonEncoding.UTF8);
+            this.gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Cada artista termina com a própria quebra de linha, sem o espaço entre valores raiz
+            this.gerador.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void iniciarArtista(Artista artista) throws IOException {
+            gerador.writeStartObject();
+            gerador.writeNumberField("id", artista.getId());
+            gerador.writeStringField("nome", artista.getNome());
+            gerador.writeArrayFieldStart("albuns");
+        }
+
+        @Override
+        public void escreverAlbum(Album album) throws IOException {
+            gerador.writeStartObject();
+            gerador.writeNumberField("id", album.getId());
+            gerador.writeStringField("titulo", album.getTitulo());
+            gerador.writeEndObject();
+        }
+
+        @Override
+        public void concluirArtista() throws IOException {
+            gerador.writeEndArray();
+            gerador.writeEndObject();
+            gerador.writeRaw('\n');
+        }
+
+        @Override
+        public void concluir() throws IOException {
+            gerador.close();
+        }
+    }
+
+    /**
+     * {@code artista_id,artista,album_id,album}, um álbum por registro; artista sem álbuns sai
+     * com as colunas do álbum vazias.
+     */
+    private static final class EscritorCsv implements EscritorCatalogo {
+
+        private final Writer escritor;
+        private Artista artista;
+        private boolean comAlbuns;
+
+        EscritorCsv(OutputStream saida) throws IOException {
+            this.escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 65536);
+            this.escritor.write("artista_id,artista,album_id,album\n");
+        }
+
+        @Override
+        public void iniciarArtista(Artista artista) {
+            this.artista = artista;
+            this.comAlbuns = false;
+        }
+
+        @Override
+        public void escreverAlbum(Album album) throws IOException {
+            escreverRegistro(String.valueOf(album.getId()), album.getTitulo());
+            comAlbuns = true;
+        }
+
+        @Override
+        public void concluirArtista() throws IOException {
+            if (!comAlbuns) {
+                escreverRegistro("", "");
+            }
+        }
+
+        @Override
+        public void concluir() throws IOException {
+            escritor.flush();
+        }
+
+        private void escreverRegistro(String idAlbum, String titulo) throws IOException {
+            escritor.write(String.valueOf(artista.getId()));
+            escritor.write(',');
+            escritor.write(FormatoCsv.escapar(artista.getNome()));
+            escritor.write(',');
+            escritor.write(idAlbum);
+            escritor.write(',');
+            escritor.write(FormatoCsv.escapar(titulo));
+            escritor.write('\n');
+        }
+    }
+}
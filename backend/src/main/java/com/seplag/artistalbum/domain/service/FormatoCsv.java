@@ -0,0 +1,77 @@
+package com.seplag.artistalbum.domain.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura e escrita de CSV (RFC 4180) para a importação e a exportação do catálogo: campos
+ * separados por vírgula, entre aspas quando contêm vírgula, aspas ou quebra de linha.
+ */
+public final class FormatoCsv {
+
+    private FormatoCsv() {}
+
+    /**
+     * Lê o próximo registro. Quebras de linha dentro de aspas fazem parte do campo; {@code \r}
+     * fora de aspas é ignorado, de modo que arquivos com CRLF são aceitos.
+     *
+     * @param entrada leitor com buffer (a leitura é feita caractere a caractere)
+     * @return os campos do registro, ou null no fim da entrada
+     */
+    public static List<String> lerRegistro(Reader entrada) throws IOException {
+        int caractere = entrada.read();
+        if (caractere == -1) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        while (caractere != -1) {
+            if (entreAspas) {
+                if (caractere == '"') {
+                    int seguinte = entrada.read();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        caractere = seguinte;
+                        continue;
+                    }
+                } else {
+                    campo.append((char) caractere);
+                }
+            } else if (caractere == '"' && campo.isEmpty()) {
+                entreAspas = true;
+            } else if (caractere == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (caractere == '\n') {
+                break;
+            } else if (caractere != '\r') {
+                campo.append((char) caractere);
+            }
+            caractere = entrada.read();
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Campo pronto para o CSV: entre aspas (com as aspas internas duplicadas) só quando necessário.
+     * Nulo vira campo vazio.
+     */
+    public static String escapar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            char caractere = valor.charAt(i);
+            if (caractere == ',' || caractere == '"' || caractere == '\n' || caractere == '\r') {
+                return '"' + valor.replace("\"", "\"\"") + '"';
+            }
+        }
+        return valor;
+    }
+}
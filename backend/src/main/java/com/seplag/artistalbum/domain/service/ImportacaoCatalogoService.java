@@ -0,0 +1,390 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoCatalogoDTO;
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoCatalogoDTO.FalhaLinha;
+import com.seplag.artistalbum.infrastructure.exception.InvalidImportSourceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importação em massa do catálogo: artistas com os respectivos álbuns, em NDJSON
+ * ({@code {"nome": "...", "albuns": ["...", ...]}} por linha) ou CSV (cabeçalho com as colunas
+ * {@code artista} e {@code album}, um álbum por registro; álbum vazio cadastra só o artista).
+ * <p>
+ * A entrada é lida como stream e gravada em transações de até {@code catalogo.importacao.tamanho-lote}
+ * linhas (artistas + álbuns). Cada lote custa poucos comandos, independentemente do tamanho: os ids
+ * são reservados em blocos nas sequências (uma consulta), os artistas entram em um único
+ * {@code INSERT ... SELECT unnest(...)} com {@code ON CONFLICT (nome) DO NOTHING} (nome já cadastrado
+ * reaproveita o artista existente, sem um {@code existsByNome} por linha) e os álbuns em outro, que
+ * descarta títulos que o artista já tem e atualiza {@code quantidade_albuns} no mesmo comando.
+ * <p>
+ * Linhas inválidas entram no relatório e a importação continua; um lote recusado pelo banco é
+ * desfeito inteiro e também é relatado.
+ */
+@Service
+public class ImportacaoCatalogoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoCatalogoService.class);
+
+    public static final String FORMATO_NDJSON = "ndjson";
+    public static final String FORMATO_CSV = "csv";
+
+    private static final int TAMANHO_MAXIMO_NOME = 255;
+
+    // Incremento das sequências (V13) e allocationSize das entidades: cada nextval vale 50 ids
+    private static final int BLOCO_IDS = 50;
+
+    private static final String SQL_ARTISTAS =
+            "INSERT INTO artist (id, nome) SELECT * FROM unnest(?::bigint[], ?::text[]) " +
+            "ON CONFLICT (nome) DO NOTHING RETURNING id, nome";
+
+    // Sem restrição única em (artist_id, titulo): a verificação usa o índice (artist_id, titulo, id)
+    private static final String SQL_ALBUNS =
+            "WITH entrada (id, titulo, artist_id) AS (SELECT * FROM unnest(?::bigint[], ?::text[], ?::bigint[])), " +
+            "inseridos AS (" +
+            "  INSERT INTO album (id, titulo, artist_id) SELECT e.id, e.titulo, e.artist_id FROM entrada e " +
+            "  WHERE NOT EXISTS (SELECT 1 FROM album a WHERE a.artist_id = e.artist_id AND a.titulo = e.titulo) " +
+            "  RETURNING id, titulo, artist_id), " +
+            "contagem AS (" +
+            "  UPDATE artist ar SET quantidade_albuns = ar.quantidade_albuns + c.quantidade " +
+            "  FROM (SELECT artist_id, COUNT(*) AS quantidade FROM inseridos GROUP BY artist_id) c " +
+            "  WHERE ar.id = c.artist_id) " +
+            "SELECT id, titulo, artist_id FROM inseridos";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final ObjectMapper objectMapper;
+    private final CacheCatalogoService cacheCatalogo;
+    private final IndiceSugestoesService indiceSugestoes;
+    private final Counter artistasCriados;
+    private final Counter albunsCriados;
+
+    @Value("${catalogo.importacao.tamanho-lote:10000}")
+    private int tamanhoLote = 10000;
+
+    @Value("${catalogo.importacao.maximo-falhas-relatorio:1000}")
+    private int maximoFalhasRelatorio = 1000;
+
+    public ImportacaoCatalogoService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     ObjectMapper objectMapper,
+                                     CacheCatalogoService cacheCatalogo,
+                                     IndiceSugestoesService indiceSugestoes,
+                                     MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.cacheCatalogo = cacheCatalogo;
+        this.indiceSugestoes = indiceSugestoes;
+        this.artistasCriados = meterRegistry.counter("catalogo.importacao.criados", "tipo", "artista");
+        this.albunsCriados = meterRegistry.counter("catalogo.importacao.criados", "tipo", "album");
+    }
+
+    /**
+     * Importa o conteúdo (UTF-8) no formato informado.
+     *
+     * @param formato {@value #FORMATO_NDJSON} ou {@value #FORMATO_CSV}
+     */
+    public RelatorioImportacaoCatalogoDTO importar(InputStream conteudo, String formato) {
+        Execucao execucao = new Execucao(formato);
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(conteudo, StandardCharsets.UTF_8), 65536);
+        try {
+            pularBom(leitor);
+            if (FORMATO_NDJSON.equals(formato)) {
+                lerNdjson(execucao, leitor);
+            } else if (FORMATO_CSV.equals(formato)) {
+                lerCsv(execucao, leitor);
+            } else {
+                throw new InvalidImportSourceException("Formato de importação não suportado: " + formato);
+            }
+        } catch (IOException e) {
+            // Conexão interrompida: o que já foi lido é gravado e o erro entra no relatório
+            logger.warn("Leitura da importação do catálogo interrompida na linha {}", execucao.linhas, e);
+            execucao.registrarFalha(execucao.linhas, "Leitura interrompida: " + e.getMessage());
+        }
+        gravarLote(execucao);
+        return concluir(execucao);
+    }
+
+    /**
+     * Descarta o BOM que planilhas e editores gravam no início do arquivo. Feito antes da leitura
+     * para que um cabeçalho CSV entre aspas ou a primeira linha NDJSON não o recebam como conteúdo.
+     */
+    private static void pularBom(BufferedReader leitor) throws IOException {
+        leitor.mark(1);
+        if (leitor.read() != '\uFEFF') {
+            leitor.reset();
+        }
+    }
+
+    private void lerNdjson(Execucao execucao, BufferedReader leitor) throws IOException {
+        String linha;
+        while ((linha = leitor.readLine()) != null) {
+            long numero = ++execucao.linhas;
+            if (linha.isBlank()) {
+                continue;
+            }
+            JsonNode registro;
+            try {
+                registro = objectMapper.readTree(linha);
+            } catch (JsonProcessingException e) {
+                execucao.registrarFalha(numero, "JSON inválido: " + e.getOriginalMessage());
+                continue;
+            }
+            JsonNode albuns = registro.path("albuns");
+            if (!albuns.isMissingNode() && !albuns.isNull() && !albuns.isArray()) {
+                execucao.registrarFalha(numero, "\"albuns\" deve ser uma lista");
+                continue;
+            }
+            List<String> titulos = new ArrayList<>();
+            for (JsonNode album : albuns) {
+                // Aceita o título direto ou um objeto {"titulo": "..."}
+                titulos.add(album.isObject() ? album.path("titulo").asText("") : album.asText(""));
+            }
+            adicionar(execucao, numero, registro.path("nome").asText(""), titulos);
+        }
+    }
+
+    private void lerCsv(Execucao execucao, BufferedReader leitor) throws IOException {
+        List<String> cabecalho = FormatoCsv.lerRegistro(leitor);
+        if (cabecalho == null) {
+            return;
+        }
+        execucao.linhas++;
+        int colunaArtista = -1;
+        int colunaAlbum = -1;
+        for (int i = 0; i < cabecalho.size(); i++) {
+            String coluna = cabecalho.get(i).trim().toLowerCase(Locale.ROOT);
+            if (coluna.equals("artista")) {
+                colunaArtista = i;
+            } else if (coluna.equals("album")) {
+                colunaAlbum = i;
+            }
+        }
+        if (colunaArtista < 0) {
+            throw new InvalidImportSourceException("O cabeçalho do CSV deve ter a coluna \"artista\" (e opcionalmente \"album\")");
+        }
+
+        List<String> registro;
+        while ((registro = FormatoCsv.lerRegistro(leitor)) != null) {
+            long numero = ++execucao.linhas;
+            if (registro.size() == 1 && registro.get(0).isBlank()) {
+                continue;
+            }
+            String nome = colunaArtista < registro.size() ? registro.get(colunaArtista) : "";
+            String titulo = colunaAlbum >= 0 && colunaAlbum < registro.size() ? registro.get(colunaAlbum) : "";
+            adicionar(execucao, numero, nome, titulo.isBlank() ? List.of() : List.of(titulo));
+        }
+    }
+
+    private void adicionar(Execucao execucao, long numero, String nome, List<String> titulos) {
+        nome = nome.trim();
+        if (nome.isEmpty()) {
+            execucao.registrarFalha(numero, "Nome do artista é obrigatório");
+            return;
+        }
+        if (nome.length() > TAMANHO_MAXIMO_NOME) {
+            execucao.registrarFalha(numero, "Nome do artista não deve exceder " + TAMANHO_MAXIMO_NOME + " caracteres");
+            return;
+        }
+        if (execucao.lote.isEmpty()) {
+            execucao.primeiraLinhaLote = numero;
+        }
+        Set<String> doArtista = execucao.lote.computeIfAbsent(nome, chave -> {
+            execucao.itensLote++;
+            return new LinkedHashSet<>();
+        });
+        for (String titulo : titulos) {
+            titulo = titulo.trim();
+            if (titulo.isEmpty() || titulo.length() > TAMANHO_MAXIMO_NOME) {
+                execucao.registrarFalha(numero, "Título de álbum vazio ou com mais de " + TAMANHO_MAXIMO_NOME + " caracteres");
+            } else if (doArtista.add(titulo)) {
+                execucao.itensLote++;
+            } else {
+                execucao.albunsIgnorados++;
+            }
+        }
+        if (execucao.itensLote >= tamanhoLote) {
+            gravarLote(execucao);
+        }
+    }
+
+    private void gravarLote(Execucao execucao) {
+        Map<String, Set<String>> lote = execucao.lote;
+        if (lote.isEmpty()) {
+            return;
+        }
+        long primeiraLinha = execucao.primeiraLinhaLote;
+        long ultimaLinha = execucao.linhas;
+        int totalAlbuns = execucao.itensLote - lote.size();
+        try {
+            long[] resultado = transacao.execute(status -> gravar(lote, totalAlbuns));
+            execucao.artistasCriados += resultado[0];
+            execucao.artistasExistentes += lote.size() - resultado[0];
+            execucao.albunsCriados += resultado[1];
+            execucao.albunsIgnorados += totalAlbuns - resultado[1];
+            artistasCriados.increment(resultado[0]);
+            albunsCriados.increment(resultado[1]);
+            cacheCatalogo.invalidarTudo();
+        } catch (Exception e) {
+            logger.warn("Lote das linhas {} a {} da importação do catálogo recusado", primeiraLinha, ultimaLinha, e);
+            execucao.registrarFalha(primeiraLinha, "Lote das linhas " + primeiraLinha + " a " + ultimaLinha
+                    + " não gravado: " + e.getMessage());
+        }
+        execucao.lote = new LinkedHashMap<>();
+        execucao.itensLote = 0;
+    }
+
+    /**
+     * Grava um lote na transação corrente.
+     *
+     * @return artistas criados e álbuns criados
+     */
+    private long[] gravar(Map<String, Set<String>> lote, int totalAlbuns) {
+        String[] nomes = lote.keySet().toArray(String[]::new);
+        Long[] idsArtistas = reservarIds("artist_id_seq", nomes.length);
+        List<Object[]> artistasInseridos = jdbcTemplate.query(SQL_ARTISTAS,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", idsArtistas));
+                    ps.setArray(2, ps.getConnection().createArrayOf("text", nomes));
+                },
+                (rs, linha) -> new Object[]{rs.getLong(1), rs.getString(2)});
+        for (Object[] artista : artistasInseridos) {
+            indiceSugestoes.registrarArtista((Long) artista[0], (String) artista[1]);
+        }
+        if (totalAlbuns == 0) {
+            return new long[]{artistasInseridos.size(), 0};
+        }
+
+        // Ids de todos os artistas do lote, criados agora ou já existentes
+        Map<String, Long> idPorNome = new HashMap<>(nomes.length * 2);
+        jdbcTemplate.query("SELECT id, nome FROM artist WHERE nome = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", nomes)),
+                rs -> {
+                    idPorNome.put(rs.getString(2), rs.getLong(1));
+                });
+
+        Long[] idsAlbuns = reservarIds("album_id_seq", totalAlbuns);
+        String[] titulos = new String[totalAlbuns];
+        Long[] artistasDosAlbuns = new Long[totalAlbuns];
+        int i = 0;
+        for (Map.Entry<String, Set<String>> artista : lote.entrySet()) {
+            Long idArtista = idPorNome.get(artista.getKey());
+            for (String titulo : artista.getValue()) {
+                titulos[i] = titulo;
+                artistasDosAlbuns[i] = idArtista;
+                i++;
+            }
+        }
+        List<Object[]> albunsInseridos = jdbcTemplate.query(SQL_ALBUNS,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", idsAlbuns));
+                    ps.setArray(2, ps.getConnection().createArrayOf("text", titulos));
+                    ps.setArray(3, ps.getConnection().createArrayOf("bigint", artistasDosAlbuns));
+                },
+                (rs, linha) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3)});
+        for (Object[] album : albunsInseridos) {
+            indiceSugestoes.registrarAlbum((Long) album[0], (String) album[1], (Long) album[2]);
+        }
+        return new long[]{artistasInseridos.size(), albunsInseridos.size()};
+    }
+
+    /**
+     * Reserva {@code quantidade} ids com uma consulta: cada nextval devolve o fim de um bloco de
+     * {@value #BLOCO_IDS} ids, a mesma convenção do otimizador pooled usado pelas entidades.
+     */
+    private Long[] reservarIds(String sequencia, int quantidade) {
+        int blocos = (quantidade + BLOCO_IDS - 1) / BLOCO_IDS;
+        List<Long> finais = jdbcTemplate.queryForList("SELECT nextval(?::regclass) FROM generate_series(1, ?)",
+                Long.class, sequencia, blocos);
+        Long[] ids = new Long[quantidade];
+        int i = 0;
+        for (Long fim : finais) {
+            for (long id = fim - BLOCO_IDS + 1; id <= fim && i < quantidade; id++) {
+                ids[i++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private RelatorioImportacaoCatalogoDTO concluir(Execucao execucao) {
+        long duracaoMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - execucao.inicio));
+        double segundos = duracaoMs / 1000.0;
+        RelatorioImportacaoCatalogoDTO relatorio = new RelatorioImportacaoCatalogoDTO(
+                execucao.formato,
+                execucao.linhas,
+                execucao.artistasCriados,
+                execucao.artistasExistentes,
+                execucao.albunsCriados,
+                execucao.albunsIgnorados,
+                execucao.falhas,
+                duracaoMs,
+                arredondar(execucao.linhas / segundos),
+                arredondar(execucao.albunsCriados / segundos),
+                execucao.detalhesFalhas
+        );
+        logger.info("Importação do catálogo ({}) concluída: {} linhas em {} ms, {} artistas e {} álbuns criados, {} falhas",
+                execucao.formato, execucao.linhas, duracaoMs, execucao.artistasCriados, execucao.albunsCriados,
+                execucao.falhas);
+        return relatorio;
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    /**
+     * Estado de uma importação; usado apenas pela thread da requisição.
+     */
+    private final class Execucao {
+        final String formato;
+        final long inicio = System.nanoTime();
+        final List<FalhaLinha> detalhesFalhas = new ArrayList<>();
+        // Nome do artista -> títulos do lote corrente, sem repetição
+        Map<String, Set<String>> lote = new LinkedHashMap<>();
+        int itensLote;
+        long primeiraLinhaLote;
+        long linhas;
+        long artistasCriados;
+        long artistasExistentes;
+        long albunsCriados;
+        long albunsIgnorados;
+        long falhas;
+
+        Execucao(String formato) {
+            this.formato = formato;
+        }
+
+        void registrarFalha(long linha, String motivo) {
+            falhas++;
+            if (detalhesFalhas.size() < maximoFalhasRelatorio) {
+                detalhesFalhas.add(new FalhaLinha(linha, motivo));
+            }
+        }
+    }
+}
@@ -0,0 +1,631 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoDTO;
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoDTO.FalhaImportacao;
+import com.seplag.artistalbum.application.dto.TarefaImagemDTO;
+import com.seplag.artistalbum.domain.port.AlbumRepository;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import com.seplag.artistalbum.infrastructure.exception.InvalidImportSourceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Importação em massa de capas de álbuns e fotos de artistas, a partir de um ZIP (lido como
+ * stream, sem guardar o arquivo inteiro) ou de um diretório montado no servidor.
+ * <p>
+ * O nome de cada arquivo identifica o destino: a pasta imediatamente acima define o tipo
+ * ({@code albuns/} ou {@code artistas/}) e o nome sem extensão é o id ou, se não for numérico,
+ * o título do álbum ou o nome do artista (sem diferenciar maiúsculas). Ex.: {@code albuns/42.jpg},
+ * {@code artistas/Serj Tankian.png}.
+ * <p>
+ * Os envios ao armazenamento e os marcadores (LQIP) rodam em um executor limitado; as entradas do
+ * ZIP são copiadas para arquivos temporários, no máximo duas por thread à frente dos envios.
+ * As colunas de imagem são gravadas em lotes JDBC de {@code imagens.importacao.tamanho-lote},
+ * com as imagens substituídas enfileiradas na outbox na mesma transação. Um arquivo com problema
+ * (nome sem destino, imagem inválida, falha no envio) entra no relatório e a importação continua.
+ */
+@Service
+public class ImportacaoImagensService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoImagensService.class);
+
+    private static final String PREFIXO_TEMPORARIO = "importacao-";
+    private static final Set<String> PASTAS_ALBUNS = Set.of("albuns", "albums");
+    private static final Set<String> PASTAS_ARTISTAS = Set.of("artistas", "artists");
+
+    // Marca, no índice por título, títulos compartilhados por mais de um álbum
+    private static final Long TITULO_AMBIGUO = -1L;
+
+    private static final Destino DESTINO_ALBUM = new Destino("album",
+            "url_imagem_capa", "marcador_imagem_capa", "largura_imagem_capa", "altura_imagem_capa");
+    private static final Destino DESTINO_ARTISTA = new Destino("artist",
+            "url_imagem_perfil", "marcador_imagem_perfil", "largura_imagem_perfil", "altura_imagem_perfil");
+
+    private final AlbumRepository albumRepository;
+    private final ArtistaRepository artistaRepository;
+    private final MinioService minioService;
+    private final RedimensionamentoImagemService redimensionamento;
+    private final OutboxArmazenamentoService outboxArmazenamento;
+    private final CacheCatalogoService cacheCatalogo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final ThreadPoolExecutor executor;
+    private final Path diretorioTemporario;
+    private final Path diretorioBase;
+    private final int paralelismo;
+    private final Counter itensImportados;
+    private final Counter itensComFalha;
+    private final Counter bytesImportados;
+
+    @Value("${imagens.importacao.tamanho-lote:200}")
+    private int tamanhoLote = 200;
+
+    @Value("${imagens.importacao.maximo-falhas-relatorio:1000}")
+    private int maximoFalhasRelatorio = 1000;
+
+    @Value("${minio.upload.tamanho-maximo:20971520}")
+    private long tamanhoMaximoUpload = 20971520;
+
+    public ImportacaoImagensService(
+            AlbumRepository albumRepository,
+            ArtistaRepository artistaRepository,
+            MinioService minioService,
+            RedimensionamentoImagemService redimensionamento,
+            OutboxArmazenamentoService outboxArmazenamento,
+            CacheCatalogoService cacheCatalogo,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${imagens.importacao.paralelismo:4}") int paralelismo,
+            @Value("${imagens.importacao.diretorio-base:/importacao}") String diretorioBase,
+            @Value("${imagens.importacao.diretorio-temporario:${java.io.tmpdir}/artist-album-importacao}") String diretorioTemporario
+    ) throws IOException {
+        this.albumRepository = albumRepository;
+        this.artistaRepository = artistaRepository;
+        this.minioService = minioService;
+        this.redimensionamento = redimensionamento;
+        this.outboxArmazenamento = outboxArmazenamento;
+        this.cacheCatalogo = cacheCatalogo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.paralelismo = paralelismo;
+        this.diretorioBase = Paths.get(diretorioBase).toAbsolutePath().normalize();
+        this.diretorioTemporario = Paths.get(diretorioTemporario);
+        // A fila não precisa de limite: cada importação limita os próprios arquivos em andamento
+        this.executor = new ThreadPoolExecutor(paralelismo, paralelismo, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "importacao-imagem");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.itensImportados = meterRegistry.counter("imagens.importacao.itens", "resultado", "sucesso");
+        this.itensComFalha = meterRegistry.counter("imagens.importacao.itens", "resultado", "falha");
+        this.bytesImportados = meterRegistry.counter("imagens.importacao.bytes");
+
+        Files.createDirectories(this.diretorioTemporario);
+        limparTemporarios();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Importa as imagens de um ZIP lido como stream. Um ZIP truncado encerra a leitura, mas o que
+     * já foi lido é importado e o erro entra no relatório.
+     *
+     * @param origem descrição da origem para o relatório e os logs
+     */
+    public RelatorioImportacaoDTO importarZip(InputStream conteudo, String origem) {
+        Execucao execucao = new Execucao(origem, carregarIndice());
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(conteudo))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                String nome = entrada.getName();
+                if (entrada.isDirectory() || ignorado(nome)) {
+                    continue;
+                }
+                Alvo alvo = resolver(execucao, nome);
+                if (alvo == null) {
+                    continue;
+                }
+                execucao.vagas.acquire();
+                Path arquivo = copiarEntrada(zip);
+                if (arquivo == null) {
+                    execucao.vagas.release();
+                    execucao.registrarFalha(nome, "O arquivo excede o tamanho máximo de " + tamanhoMaximoUpload + " bytes");
+                    continue;
+                }
+                enviar(execucao, nome, alvo, arquivo, true);
+            }
+        } catch (IOException e) {
+            logger.warn("Leitura do ZIP {} interrompida", origem, e);
+            execucao.registrarFalha(origem, "Leitura do ZIP interrompida: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            execucao.registrarFalha(origem, "Importação interrompida");
+        }
+        return concluir(execucao);
+    }
+
+    /**
+     * Importa um diretório informado pela API, que precisa estar dentro de
+     * {@code imagens.importacao.diretorio-base}.
+     */
+    public RelatorioImportacaoDTO importarDiretorioPermitido(String caminho) {
+        Path diretorio = diretorioBase.resolve(caminho).toAbsolutePath().normalize();
+        if (!diretorio.startsWith(diretorioBase)) {
+            throw new InvalidImportSourceException("O diretório precisa estar dentro de " + diretorioBase);
+        }
+        return importarDiretorio(diretorio);
+    }
+
+    /**
+     * Importa todos os arquivos do diretório e subdiretórios (links simbólicos não são seguidos).
+     * Os arquivos são enviados direto do disco, sem cópia temporária.
+     */
+    public RelatorioImportacaoDTO importarDiretorio(Path diretorio) {
+        if (!Files.isDirectory(diretorio)) {
+            throw new InvalidImportSourceException("Diretório não encontrado: " + diretorio);
+        }
+        Execucao execucao = new Execucao(diretorio.toString(), carregarIndice());
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            Iterator<Path> iterador = arquivos.filter(Files::isRegularFile).iterator();
+            while (iterador.hasNext()) {
+                Path arquivo = iterador.next();
+                String nome = diretorio.relativize(arquivo).toString().replace(File.separatorChar, '/');
+                if (ignorado(nome)) {
+                    continue;
+                }
+                Alvo alvo = resolver(execucao, nome);
+                if (alvo == null) {
+                    continue;
+                }
+                execucao.vagas.acquire();
+                enviar(execucao, nome, alvo, arquivo, false);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Leitura do diretório {} interrompida", diretorio, e);
+            execucao.registrarFalha(diretorio.toString(), "Leitura do diretório interrompida: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            execucao.registrarFalha(diretorio.toString(), "Importação interrompida");
+        }
+        return concluir(execucao);
+    }
+
+    /**
+     * Importa um ZIP ou diretório local (uso pela linha de comando).
+     */
+    public RelatorioImportacaoDTO importar(Path origem) throws IOException {
+        if (Files.isDirectory(origem)) {
+            return importarDiretorio(origem);
+        }
+        if (!Files.isRegularFile(origem)) {
+            throw new InvalidImportSourceException("Origem de importação não encontrada: " + origem);
+        }
+        try (InputStream conteudo = Files.newInputStream(origem)) {
+            return importarZip(conteudo, origem.toString());
+        }
+    }
+
+    /**
+     * Chamado pela thread leitora com uma vaga já reservada; a vaga é devolvida ao fim do envio.
+     */
+    private void enviar(Execucao execucao, String nome, Alvo alvo, Path arquivo, boolean temporario) {
+        try {
+            executor.execute(() -> processar(execucao, nome, alvo, arquivo, temporario));
+        } catch (RejectedExecutionException e) {
+            if (temporario) {
+                apagar(arquivo);
+            }
+            execucao.vagas.release();
+            execucao.registrarFalha(nome, "Importação encerrada");
+            return;
+        }
+        // A thread leitora é a única que grava no banco: os lotes nunca concorrem entre si
+        if (execucao.prontos.get() >= tamanhoLote) {
+            gravarLote(execucao);
+        }
+    }
+
+    private void processar(Execucao execucao, String nome, Alvo alvo, Path arquivo, boolean temporario) {
+        try {
+            long tamanho = Files.size(arquivo);
+            FileSystemResource fonte = new FileSystemResource(arquivo);
+            String nomeArquivo = nome.substring(nome.lastIndexOf('/') + 1);
+            String chaveLegada = (alvo.isAlbum() ? "album-covers/" : "artist-photos/")
+                    + alvo.id() + "/" + System.currentTimeMillis() + "-" + nomeArquivo;
+
+            MinioService.ImagemEnviada enviada = minioService.uploadImagem(chaveLegada, fonte, tamanho);
+            RedimensionamentoImagemService.MarcadorImagem marcador = redimensionamento.gerarMarcador(fonte);
+            execucao.concluidos.add(new ItemImportado(nome, alvo, enviada.chave(), enviada.tamanho(), marcador));
+            execucao.prontos.incrementAndGet();
+        } catch (Exception e) {
+            execucao.registrarFalha(nome, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            if (temporario) {
+                apagar(arquivo);
+            }
+            execucao.vagas.release();
+        }
+    }
+
+    private RelatorioImportacaoDTO concluir(Execucao execucao) {
+        // Espera os envios em andamento devolverem as vagas e grava o que restou
+        execucao.vagas.acquireUninterruptibly(execucao.totalVagas);
+        execucao.vagas.release(execucao.totalVagas);
+        while (!execucao.concluidos.isEmpty()) {
+            gravarLote(execucao);
+        }
+
+        long duracaoMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - execucao.inicio));
+        double segundos = duracaoMs / 1000.0;
+        int importadas = execucao.importadas.get();
+        long bytes = execucao.bytes.get();
+        RelatorioImportacaoDTO relatorio = new RelatorioImportacaoDTO(
+                execucao.origem,
+                execucao.totalArquivos.get(),
+                importadas,
+                execucao.falhas.get(),
+                bytes,
+                duracaoMs,
+                arredondar(importadas / segundos),
+                arredondar(bytes / 1048576.0 / segundos),
+                new ArrayList<>(execucao.detalhesFalhas)
+        );
+        logger.info("Importação de {} concluída: {} de {} arquivos em {} ms ({} itens/s, {} MB/s), {} falhas",
+                execucao.origem, importadas, relatorio.getTotalArquivos(), duracaoMs,
+                relatorio.getItensPorSegundo(), relatorio.getMegabytesPorSegundo(), relatorio.getFalhas());
+        return relatorio;
+    }
+
+    /**
+     * Grava um lote de imagens já enviadas: as chaves atuais são lidas com bloqueio, as colunas
+     * atualizadas com um único batch JDBC por tabela e as imagens substituídas entram na outbox,
+     * tudo na mesma transação.
+     */
+    private void gravarLote(Execucao execucao) {
+        List<ItemImportado> lote = new ArrayList<>(tamanhoLote);
+        ItemImportado item;
+        while (lote.size() < tamanhoLote && (item = execucao.concluidos.poll()) != null) {
+            lote.add(item);
+        }
+        execucao.prontos.addAndGet(-lote.size());
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        // O mesmo destino repetido no lote: vale o último arquivo e os anteriores são liberados
+        Map<Alvo, ItemImportado> porDestino = new LinkedHashMap<>();
+        List<String> liberar = new ArrayList<>();
+        List<FalhaImportacao> falhas = new ArrayList<>();
+        for (ItemImportado importado : lote) {
+            ItemImportado anterior = porDestino.put(importado.alvo(), importado);
+            if (anterior != null) {
+                liberar.add(anterior.chave());
+                falhas.add(new FalhaImportacao(anterior.nome(), "Substituído por " + importado.nome() + " na mesma importação"));
+            }
+        }
+        List<ItemImportado> albuns = new ArrayList<>();
+        List<ItemImportado> artistas = new ArrayList<>();
+        for (ItemImportado importado : porDestino.values()) {
+            (importado.alvo().isAlbum() ? albuns : artistas).add(importado);
+        }
+
+        List<ItemImportado> gravados = new ArrayList<>();
+        try {
+            transacao.executeWithoutResult(status -> {
+                gravarDestino(DESTINO_ALBUM, albuns, gravados, liberar, falhas);
+                gravarDestino(DESTINO_ARTISTA, artistas, gravados, liberar, falhas);
+                if (!liberar.isEmpty()) {
+                    jdbcTemplate.batchUpdate("INSERT INTO storage_outbox (chave) VALUES (?)", liberar, liberar.size(),
+                            (ps, chave) -> ps.setString(1, chave));
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("Falha ao gravar lote de {} imagens importadas", lote.size(), e);
+            for (ItemImportado importado : lote) {
+                execucao.registrarFalha(importado.nome(), "Falha ao gravar no banco: " + e.getMessage());
+            }
+            liberarAposFalha(lote);
+            return;
+        }
+
+        outboxArmazenamento.acordar();
+        cacheCatalogo.invalidarTudo();
+        for (FalhaImportacao falha : falhas) {
+            execucao.registrarFalha(falha.getArquivo(), falha.getMotivo());
+        }
+        for (ItemImportado gravado : gravados) {
+            execucao.importadas.incrementAndGet();
+            execucao.bytes.addAndGet(gravado.tamanho());
+            itensImportados.increment();
+            bytesImportados.increment(gravado.tamanho());
+        }
+    }
+
+    private void gravarDestino(Destino destino, List<ItemImportado> itens, List<ItemImportado> gravados,
+                               List<String> liberar, List<FalhaImportacao> falhas) {
+        if (itens.isEmpty()) {
+            return;
+        }
+        Map<Long, String> chavesAtuais = bloquearChavesAtuais(destino, itens);
+
+        int[][] contagens = jdbcTemplate.batchUpdate(
+                "UPDATE " + destino.tabela() + " SET " + destino.colunaChave() + " = ?, " + destino.colunaMarcador()
+                        + " = ?, " + destino.colunaLargura() + " = ?, " + destino.colunaAltura() + " = ? WHERE id = ?",
+                itens, itens.size(),
+                (ps, importado) -> {
+                    RedimensionamentoImagemService.MarcadorImagem marcador = importado.marcador();
+                    ps.setString(1, importado.chave());
+                    ps.setString(2, marcador != null ? marcador.dataUri() : null);
+                    ps.setObject(3, marcador != null ? marcador.largura() : null, Types.INTEGER);
+                    ps.setObject(4, marcador != null ? marcador.altura() : null, Types.INTEGER);
+                    ps.setLong(5, importado.alvo().id());
+                });
+
+        for (int i = 0; i < itens.size(); i++) {
+            ItemImportado importado = itens.get(i);
+            if (contagens[0][i] == 0) {
+                // Excluído depois que a importação começou: a imagem enviada não tem dono
+                liberar.add(importado.chave());
+                falhas.add(new FalhaImportacao(importado.nome(),
+                        (importado.alvo().isAlbum() ? "Álbum" : "Artista") + " excluído durante a importação"));
+                continue;
+            }
+            String chaveAnterior = chavesAtuais.get(importado.alvo().id());
+            if (MinioService.deveLiberarSubstituida(chaveAnterior, importado.chave())) {
+                liberar.add(chaveAnterior);
+            }
+            gravados.add(importado);
+        }
+    }
+
+    private Map<Long, String> bloquearChavesAtuais(Destino destino, List<ItemImportado> itens) {
+        Object[] ids = itens.stream().map(importado -> importado.alvo().id()).toArray();
+        String marcadores = String.join(", ", Collections.nCopies(ids.length, "?"));
+        Map<Long, String> chaves = new HashMap<>();
+        jdbcTemplate.query("SELECT id, " + destino.colunaChave() + " FROM " + destino.tabela()
+                        + " WHERE id IN (" + marcadores + ") FOR UPDATE",
+                rs -> {
+                    chaves.put(rs.getLong(1), rs.getString(2));
+                },
+                ids);
+        return chaves;
+    }
+
+    /**
+     * Lote não gravado: as referências criadas pelos envios são devolvidas em uma transação à
+     * parte. Melhor esforço; o que sobrar é recolhido pela reconciliação de órfãos.
+     */
+    private void liberarAposFalha(List<ItemImportado> lote) {
+        try {
+            transacao.executeWithoutResult(status -> lote.forEach(importado ->
+                    outboxArmazenamento.agendarRemocao(importado.chave())));
+        } catch (Exception e) {
+            logger.warn("Não foi possível liberar as imagens de um lote não gravado", e);
+        }
+    }
+
+    private Alvo resolver(Execucao execucao, String nome) {
+        execucao.totalArquivos.incrementAndGet();
+        String[] partes = nome.split("/");
+        if (partes.length < 2) {
+            execucao.registrarFalha(nome, "O arquivo deve estar em uma pasta albuns/ ou artistas/");
+            return null;
+        }
+        String pasta = partes[partes.length - 2].toLowerCase(Locale.ROOT);
+        String arquivo = partes[partes.length - 1];
+        int ponto = arquivo.lastIndexOf('.');
+        String base = ponto > 0 ? arquivo.substring(0, ponto) : arquivo;
+        boolean porId = base.matches("\\d{1,18}");
+        Indice indice = execucao.indice;
+
+        if (PASTAS_ALBUNS.contains(pasta)) {
+            Long id = porId ? Long.valueOf(base) : indice.albumPorTitulo().get(normalizar(base));
+            if (TITULO_AMBIGUO.equals(id)) {
+                execucao.registrarFalha(nome, "Há mais de um álbum com o título \"" + base + "\"; use o id");
+                return null;
+            }
+            if (id == null || !indice.albuns().contains(id)) {
+                execucao.registrarFalha(nome, "Álbum não encontrado: " + base);
+                return null;
+            }
+            return new Alvo(TarefaImagemDTO.TIPO_CAPA_ALBUM, id);
+        }
+        if (PASTAS_ARTISTAS.contains(pasta)) {
+            Long id = porId ? Long.valueOf(base) : indice.artistaPorNome().get(normalizar(base));
+            if (TITULO_AMBIGUO.equals(id)) {
+                execucao.registrarFalha(nome, "Há mais de um artista com o nome \"" + base + "\"; use o id");
+                return null;
+            }
+            if (id == null || !indice.artistas().contains(id)) {
+                execucao.registrarFalha(nome, "Artista não encontrado: " + base);
+                return null;
+            }
+            return new Alvo(TarefaImagemDTO.TIPO_FOTO_ARTISTA, id);
+        }
+        execucao.registrarFalha(nome, "Pasta desconhecida \"" + partes[partes.length - 2] + "\"; use albuns/ ou artistas/");
+        return null;
+    }
+
+    /**
+     * Ids e nomes carregados uma vez por importação, para resolver os arquivos sem uma consulta
+     * por item.
+     */
+    private Indice carregarIndice() {
+        Set<Long> albuns = new HashSet<>();
+        Map<String, Long> albumPorTitulo = new HashMap<>();
+        for (Object[] linha : albumRepository.listarIdsTitulosEArtistas()) {
+            Long id = (Long) linha[0];
+            albuns.add(id);
+            albumPorTitulo.merge(normalizar((String) linha[1]), id, (atual, novo) -> TITULO_AMBIGUO);
+        }
+        Set<Long> artistas = new HashSet<>();
+        Map<String, Long> artistaPorNome = new HashMap<>();
+        for (Object[] linha : artistaRepository.listarIdsENomes()) {
+            Long id = (Long) linha[0];
+            artistas.add(id);
+            artistaPorNome.merge(normalizar((String) linha[1]), id, (atual, novo) -> TITULO_AMBIGUO);
+        }
+        return new Indice(albuns, albumPorTitulo, artistas, artistaPorNome);
+    }
+
+    /**
+     * Copia a entrada corrente do ZIP para um arquivo temporário.
+     *
+     * @return o arquivo, ou null se a entrada exceder o tamanho máximo de upload
+     */
+    private Path copiarEntrada(InputStream entrada) throws IOException {
+        Path arquivo = Files.createTempFile(diretorioTemporario, PREFIXO_TEMPORARIO, ".img");
+        boolean excedeu = false;
+        try (OutputStream saida = Files.newOutputStream(arquivo)) {
+            byte[] buffer = new byte[65536];
+            long total = 0;
+            int lidos;
+            // Limite aplicado durante a leitura: o tamanho declarado no ZIP não é confiável
+            while ((lidos = entrada.read(buffer)) != -1) {
+                total += lidos;
+                if (total > tamanhoMaximoUpload) {
+                    excedeu = true;
+                    break;
+                }
+                saida.write(buffer, 0, lidos);
+            }
+        } catch (IOException e) {
+            apagar(arquivo);
+            throw e;
+        }
+        if (excedeu) {
+            apagar(arquivo);
+            return null;
+        }
+        return arquivo;
+    }
+
+    private static boolean ignorado(String nome) {
+        // Metadados de sistemas operacionais (.DS_Store, __MACOSX/) e arquivos ocultos
+        for (String parte : nome.split("/")) {
+            if (parte.startsWith(".") || parte.equals("__MACOSX")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalizar(String texto) {
+        return texto.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    private void limparTemporarios() throws IOException {
+        try (DirectoryStream<Path> restantes = Files.newDirectoryStream(diretorioTemporario, PREFIXO_TEMPORARIO + "*")) {
+            for (Path arquivo : restantes) {
+                apagar(arquivo);
+            }
+        }
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o arquivo temporário {}", arquivo, e);
+        }
+    }
+
+    private record Destino(String tabela, String colunaChave, String colunaMarcador,
+                           String colunaLargura, String colunaAltura) {}
+
+    private record Indice(Set<Long> albuns, Map<String, Long> albumPorTitulo,
+                          Set<Long> artistas, Map<String, Long> artistaPorNome) {}
+
+    private record Alvo(String tipo, Long id) {
+        boolean isAlbum() {
+            return TarefaImagemDTO.TIPO_CAPA_ALBUM.equals(tipo);
+        }
+    }
+
+    private record ItemImportado(String nome, Alvo alvo, String chave, long tamanho,
+                                 RedimensionamentoImagemService.MarcadorImagem marcador) {}
+
+    /**
+     * Estado de uma importação. Os contadores são atualizados pela thread leitora e pelos envios.
+     */
+    private final class Execucao {
+        final String origem;
+        final Indice indice;
+        final int totalVagas = paralelismo * 2;
+        // Arquivos lidos e ainda não enviados (cópias temporárias no caso do ZIP)
+        final Semaphore vagas = new Semaphore(totalVagas);
+        final ConcurrentLinkedQueue<ItemImportado> concluidos = new ConcurrentLinkedQueue<>();
+        final AtomicInteger prontos = new AtomicInteger();
+        final AtomicInteger totalArquivos = new AtomicInteger();
+        final AtomicInteger importadas = new AtomicInteger();
+        final AtomicInteger falhas = new AtomicInteger();
+        final AtomicLong bytes = new AtomicLong();
+        final List<FalhaImportacao> detalhesFalhas = Collections.synchronizedList(new ArrayList<>());
+        final long inicio = System.nanoTime();
+
+        Execucao(String origem, Indice indice) {
+            this.origem = origem;
+            this.indice = indice;
+        }
+
+        void registrarFalha(String arquivo, String motivo) {
+            falhas.incrementAndGet();
+            itensComFalha.increment();
+            if (detalhesFalhas.size() < maximoFalhasRelatorio) {
+                detalhesFalhas.add(new FalhaImportacao(arquivo, motivo));
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.seplag.artistalbum.application.dto.SugestaoDTO;
+import com.seplag.artistalbum.domain.port.AlbumRepository;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória de prefixos para autocompletar nomes de artistas e títulos de álbuns.
+ * Cada palavra do texto (sem acentos, minúsculo) vira uma chave ordenada, então a busca
+ * por prefixo é uma varredura de intervalo no mapa, sem acesso ao banco.
+ */
+@Service
+public class IndiceSugestoesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceSugestoesService.class);
+
+    public static final String TIPO_ARTISTA = "ARTISTA";
+    public static final String TIPO_ALBUM = "ALBUM";
+
+    // Limites de memória por entrada: palavras indexadas e tamanho da chave normalizada
+    private static final int MAXIMO_PALAVRAS = 8;
+    private static final int TAMANHO_MAXIMO_CHAVE = 64;
+    private static final int LIMITE_MAXIMO_RESULTADOS = 50;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ArtistaRepository artistaRepository;
+    private final AlbumRepository albumRepository;
+
+    // chave normalizada + identificador da entrada -> entrada
+    private final ConcurrentSkipListMap<String, Entrada> indice = new ConcurrentSkipListMap<>();
+    // identificador da entrada -> chaves que ela ocupa no índice
+    private final Map<String, List<String>> chavesPorEntrada = new ConcurrentHashMap<>();
+    // id do artista -> ids dos seus álbuns (para remover junto na exclusão em cascata)
+    private final Map<Long, Set<Long>> albunsPorArtista = new ConcurrentHashMap<>();
+    private final Map<Long, Long> artistaPorAlbum = new ConcurrentHashMap<>();
+
+    public IndiceSugestoesService(ArtistaRepository artistaRepository, AlbumRepository albumRepository) {
+        this.artistaRepository = artistaRepository;
+        this.albumRepository = albumRepository;
+    }
+
+    /**
+     * Constrói o índice a partir dos repositórios na inicialização da aplicação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void construirIndice() {
+        long inicio = System.nanoTime();
+        for (Object[] linha : artistaRepository.listarIdsENomes()) {
+            indexarArtista((Long) linha[0], (String) linha[1]);
+        }
+        for (Object[] linha : albumRepository.listarIdsTitulosEArtistas()) {
+            indexarAlbum((Long) linha[0], (String) linha[1], (Long) linha[2]);
+        }
+        logger.info("Índice de sugestões construído com {} entradas em {} ms",
+                chavesPorEntrada.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Busca sugestões cujo nome/título contém uma palavra iniciada pelo termo.
+     *
+     * @param termo prefixo digitado
+     * @param limite número máximo de sugestões
+     * @return sugestões de artistas e álbuns, sem repetição
+     */
+    public List<SugestaoDTO> sugerir(String termo, int limite) {
+        String prefixo = normalizar(termo);
+        if (prefixo.isEmpty()) {
+            return List.of();
+        }
+        if (prefixo.length() > TAMANHO_MAXIMO_CHAVE) {
+            prefixo = prefixo.substring(0, TAMANHO_MAXIMO_CHAVE);
+        }
+        int maximo = Math.min(Math.max(limite, 1), LIMITE_MAXIMO_RESULTADOS);
+
+        Map<String, SugestaoDTO> resultado = new LinkedHashMap<>();
+        for (Entrada entrada : indice.subMap(prefixo, true, prefixo + Character.MAX_VALUE, true).values()) {
+            resultado.putIfAbsent(entrada.identificador(),
+                    new SugestaoDTO(entrada.tipo(), entrada.id(), entrada.texto(), entrada.idArtista()));
+            if (resultado.size() >= maximo) {
+                break;
+            }
+        }
+        return new ArrayList<>(resultado.values());
+    }
+
+    public void registrarArtista(Long id, String nome) {
+        Transacoes.aposCommit(() -> indexarArtista(id, nome));
+    }
+
+    public void removerArtista(Long id) {
+        Transacoes.aposCommit(() -> {
+            remover(identificador(TIPO_ARTISTA, id));
+            Set<Long> albuns = albunsPorArtista.remove(id);
+            if (albuns != null) {
+                albuns.forEach(idAlbum -> {
+                    artistaPorAlbum.remove(idAlbum);
+                    remover(identificador(TIPO_ALBUM, idAlbum));
+                });
+            }
+        });
+    }
+
+    public void registrarAlbum(Long id, String titulo, Long idArtista) {
+        Transacoes.aposCommit(() -> indexarAlbum(id, titulo, idArtista));
+    }
+
+    public void removerAlbum(Long id, Long idArtista) {
+        Transacoes.aposCommit(() -> {
+            remover(identificador(TIPO_ALBUM, id));
+            artistaPorAlbum.remove(id);
+            Set<Long> albuns = albunsPorArtista.get(idArtista);
+            if (albuns != null) {
+                albuns.remove(id);
+            }
+        });
+    }
+
+    private void indexarArtista(Long id, String nome) {
+        indexar(new Entrada(TIPO_ARTISTA, id, nome, id));
+    }
+
+    private void indexarAlbum(Long id, String titulo, Long idArtista) {
+        // Um álbum que mudou de artista sai do conjunto do artista anterior
+        Long artistaAnterior = artistaPorAlbum.put(id, idArtista);
+        if (artistaAnterior != null && !artistaAnterior.equals(idArtista)) {
+            Set<Long> albunsAnteriores = albunsPorArtista.get(artistaAnterior);
+            if (albunsAnteriores != null) {
+                albunsAnteriores.remove(id);
+            }
+        }
+        albunsPorArtista.computeIfAbsent(idArtista, chave -> ConcurrentHashMap.newKeySet()).add(id);
+        indexar(new Entrada(TIPO_ALBUM, id, titulo, idArtista));
+    }
+
+    private void indexar(Entrada entrada) {
+        String normalizado = normalizar(entrada.texto());
+        String[] palavras = SEPARADORES.split(normalizado);
+        List<String> chaves = new ArrayList<>();
+        int posicao = 0;
+        for (String palavra : palavras) {
+            if (palavra.isEmpty()) {
+                continue;
+            }
+            // A chave começa na palavra e segue até o fim do texto, permitindo prefixos com várias palavras
+            int inicioPalavra = normalizado.indexOf(palavra, posicao);
+            posicao = inicioPalavra + palavra.length();
+            String sufixo = normalizado.substring(inicioPalavra);
+            if (sufixo.length() > TAMANHO_MAXIMO_CHAVE) {
+                sufixo = sufixo.substring(0, TAMANHO_MAXIMO_CHAVE);
+            }
+            chaves.add(sufixo + '\u0000' + entrada.identificador());
+            if (chaves.size() >= MAXIMO_PALAVRAS) {
+                break;
+            }
+        }
+        // Troca as chaves dentro do compute: atualizações concorrentes da mesma entrada não se
+        // intercalam e não deixam no índice chaves de um nome antigo
+        chavesPorEntrada.compute(entrada.identificador(), (identificador, anteriores) -> {
+            if (anteriores != null) {
+                anteriores.stream().filter(chave -> !chaves.contains(chave)).forEach(indice::remove);
+            }
+            chaves.forEach(chave -> indice.put(chave, entrada));
+            return chaves;
+        });
+    }
+
+    private void remover(String identificador) {
+        chavesPorEntrada.computeIfPresent(identificador, (chave, chaves) -> {
+            chaves.forEach(indice::remove);
+            return null;
+        });
+    }
+
+    private static String identificador(String tipo, Long id) {
+        return tipo + ":" + id;
+    }
+
+    /**
+     * Remove acentos, converte para minúsculas e compacta espaços.
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    private record Entrada(String tipo, Long id, String texto, Long idArtista) {
+        String identificador() {
+            return IndiceSugestoesService.identificador(tipo, id);
+        }
+    }
+}
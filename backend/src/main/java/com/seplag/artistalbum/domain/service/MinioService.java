@@ -1,132 +1,665 @@
 package com.seplag.artistalbum.domain.service;
 
-import io.minio.*;
-import io.minio.http.Method;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos.MetadadosObjeto;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos.ObjetoListado;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos.ParteGravada;
+import com.seplag.artistalbum.domain.port.ObjetoArmazenadoRepository;
+import com.seplag.artistalbum.infrastructure.exception.FileTooLargeException;
+import com.seplag.artistalbum.infrastructure.exception.InvalidImageException;
+import com.seplag.artistalbum.infrastructure.exception.InvalidUploadPartException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Serviço responsável por operações com arquivos no MinIO.
+ * Serviço responsável por operações com arquivos no armazenamento de objetos.
+ * <p>
+ * O nome é histórico: o acesso ao backend passa pela porta {@link ArmazenamentoObjetos}
+ * (MinIO ou sistema de arquivos local, conforme {@code armazenamento.backend}); aqui ficam o
+ * endereçamento por conteúdo, a contagem de referências, o cache em disco e o cache de URLs.
  */
 @Service
 public class MinioService {
 
-    private final MinioClient minioClient;
-    private final MinioClient minioClientPublic;
+    static final String PREFIXO_CONTEUDO = "conteudo/";
 
-    @Value("${minio.bucket-name}")
-    private String bucketName;
+    private final ArmazenamentoObjetos armazenamento;
+    private final CacheDiscoImagens cacheDisco;
+    private final ObjetoArmazenadoRepository objetoRepository;
+    private final TransactionTemplate transacao;
+
+    // Tamanho de cada parte do upload multipart (mínimo de 5 MB exigido pelo S3)
+    @Value("${minio.upload.tamanho-parte:5242880}")
+    private long tamanhoParteUpload;
+
+    @Value("${minio.upload.tamanho-maximo:20971520}")
+    private long tamanhoMaximoUpload;
+
+    @Value("${minio.armazenamento.enderecado-por-conteudo:true}")
+    private boolean enderecadoPorConteudo;
+
+    // Cada upload em andamento mantém no máximo uma parte em memória; o semáforo limita o total
+    private final Semaphore uploadsEmAndamento;
+
+    // Cache LRU de URLs pré-assinadas por chave de objeto (acesso protegido pelo próprio mapa)
+    private final Map<String, UrlPreAssinada> cacheUrlsPreAssinadas;
+    private final long margemSegurancaMillis;
+    private final Counter acertosCache;
+    private final Counter faltasCache;
+    private final Counter despejosCache;
 
     public MinioService(
-            @Value("${minio.endpoint}") String endpoint,
-            @Value("${minio.public-endpoint}") String publicEndpoint,
-            @Value("${minio.access-key}") String accessKey,
-            @Value("${minio.secret-key}") String secretKey
+            ArmazenamentoObjetos armazenamento,
+            @Value("${minio.presigned-cache.tamanho-maximo:10000}") int tamanhoMaximoCache,
+            @Value("${minio.presigned-cache.margem-seguranca-segundos:300}") long margemSegurancaSegundos,
+            @Value("${minio.upload.concorrencia-maxima:16}") int concorrenciaUpload,
+            MeterRegistry meterRegistry,
+            CacheDiscoImagens cacheDisco,
+            ObjetoArmazenadoRepository objetoRepository,
+            PlatformTransactionManager transactionManager
     ) {
-        this.minioClient = MinioClient.builder()
-                .endpoint(endpoint)
-                .credentials(accessKey, secretKey)
-                .region("us-east-1")
-                .build();
-        
-        this.minioClientPublic = MinioClient.builder()
-                .endpoint(publicEndpoint)
-                .credentials(accessKey, secretKey)
-                .region("us-east-1")
-                .build();
+        this.armazenamento = armazenamento;
+        this.cacheDisco = cacheDisco;
+        this.objetoRepository = objetoRepository;
+        // Transação própria: o bloqueio da contagem não se estende à transação de quem chama
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.uploadsEmAndamento = new Semaphore(concorrenciaUpload, true);
+        this.margemSegurancaMillis = TimeUnit.SECONDS.toMillis(margemSegurancaSegundos);
+        this.acertosCache = meterRegistry.counter("minio.presigned.cache", "resultado", "acerto");
+        this.faltasCache = meterRegistry.counter("minio.presigned.cache", "resultado", "falta");
+        this.despejosCache = meterRegistry.counter("minio.presigned.cache.despejos");
+        this.cacheUrlsPreAssinadas = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UrlPreAssinada> maisAntiga) {
+                if (size() > tamanhoMaximoCache) {
+                    despejosCache.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        meterRegistry.gauge("minio.presigned.cache.tamanho", cacheUrlsPreAssinadas, mapa -> {
+            synchronized (mapa) {
+                return mapa.size();
+            }
+        });
+    }
+
+    /**
+     * Resultado de um upload de imagem feito por streaming.
+     */
+    public record ImagemEnviada(String chave, long tamanho, String tipoConteudo, String sha256) {}
+
+    /**
+     * Forma de gravar a nova imagem de um álbum/artista a partir da chave legada que o serviço
+     * montou: upload por streaming ({@link #uploadImagem}) ou promoção de um upload retomável
+     * ({@link #promoverImagem}).
+     */
+    @FunctionalInterface
+    public interface EnvioImagem {
+        ImagemEnviada enviar(String chaveLegada) throws Exception;
+    }
+
+    /**
+     * Envia uma imagem ao bucket lendo o stream em partes de tamanho fixo, sem carregar o
+     * arquivo inteiro na memória. O tipo é identificado pelo conteúdo e o tamanho máximo é
+     * verificado durante a leitura.
+     * <p>
+     * No modo endereçado por conteúdo, a chave é derivada do SHA-256 ({@code conteudo/ab/<hash>.<ext>})
+     * e cada chamada registra uma referência em {@code stored_object}. O conteúdo é lido uma vez
+     * localmente para calcular o hash; se o objeto já existe, nenhum byte é reenviado ao armazenamento.
+     * A verificação de existência no armazenamento corre em paralelo com o registro da referência.
+     *
+     * @param chaveLegada chave usada quando o modo endereçado por conteúdo está desativado
+     * @param fonte origem dos bytes (pode ser aberta mais de uma vez, ex.: MultipartFile)
+     * @param tamanhoDeclarado tamanho informado pelo cliente, ou -1 se desconhecido
+     * @return chave final, tamanho, tipo real e SHA-256 do conteúdo
+     */
+    public ImagemEnviada uploadImagem(String chaveLegada, InputStreamSource fonte, long tamanhoDeclarado) throws Exception {
+        if (tamanhoDeclarado > tamanhoMaximoUpload) {
+            throw arquivoMuitoGrande();
+        }
+        if (!enderecadoPorConteudo) {
+            ImagemEnviada enviada = enviarInspecionando(chaveLegada, fonte);
+            // A chave pode ser reaproveitada (mesmo nome de arquivo): descarta versões anteriores
+            cacheDisco.invalidar(chaveLegada);
+            removerDerivados(chaveLegada);
+            return enviada;
+        }
+
+        // Primeira passada apenas local: hash, tipo e limite de tamanho
+        EntradaImagemInspecionada inspecao = null;
+        try (InputStream conteudo = fonte.getInputStream()) {
+            inspecao = EntradaImagemInspecionada.inspecionar(conteudo, tamanhoMaximoUpload);
+            inspecao.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            if (inspecao != null && inspecao.isLimiteExcedido()) {
+                throw arquivoMuitoGrande();
+            }
+            throw e;
+        }
+        String sha256 = inspecao.getSha256();
+        String chave = chavePorConteudo(sha256, inspecao.getTipoConteudo());
+
+        // A consulta ao armazenamento sai antes do registro no banco e as duas esperas se sobrepõem
+        CompletableFuture<Boolean> existente = armazenamento.existe(chave);
+        int referencias = objetoRepository.adicionarReferencia(chave, inspecao.getBytesLidos(), inspecao.getTipoConteudo());
+        // Conteúdo já conhecido: só envia se o objeto ainda não estiver no bucket (upload anterior falhou ou em andamento)
+        if (referencias == 1 || !aguardar(existente)) {
+            try {
+                enviarInspecionando(chave, fonte);
+            } catch (Exception e) {
+                deleteFile(chave);
+                throw e;
+            }
+        }
+        return new ImagemEnviada(chave, inspecao.getBytesLidos(), inspecao.getTipoConteudo(), sha256);
+    }
+
+    private ImagemEnviada enviarInspecionando(String objectKey, InputStreamSource fonte) throws Exception {
+        try (InputStream conteudo = fonte.getInputStream()) {
+            EntradaImagemInspecionada entrada = EntradaImagemInspecionada.inspecionar(conteudo, tamanhoMaximoUpload);
+
+            uploadsEmAndamento.acquire();
+            try {
+                armazenamento.gravar(objectKey, entrada, -1, tamanhoParteUpload, entrada.getTipoConteudo());
+            } catch (Exception e) {
+                if (entrada.isLimiteExcedido()) {
+                    throw arquivoMuitoGrande();
+                }
+                throw e;
+            } finally {
+                uploadsEmAndamento.release();
+            }
+            return new ImagemEnviada(objectKey, entrada.getBytesLidos(), entrada.getTipoConteudo(), entrada.getSha256());
+        }
+    }
+
+    /**
+     * Inicia o envio em partes de um upload retomável, em uma chave temporária.
+     *
+     * @return identificador do envio no armazenamento
+     */
+    public String iniciarEnvioEmPartes(String chaveTemporaria) throws Exception {
+        // O tipo real só é conhecido na conclusão; a promoção grava o tipo identificado
+        return armazenamento.iniciarEnvioEmPartes(chaveTemporaria, "application/octet-stream");
+    }
+
+    /**
+     * Lê exatamente {@code tamanho} bytes da parte, confere o SHA-256 e a grava no armazenamento.
+     * A parte é mantida em memória (no máximo o tamanho de parte configurado) para que uma parte
+     * corrompida seja recusada antes de chegar ao armazenamento; o total é limitado pelo mesmo
+     * semáforo dos uploads por streaming.
+     *
+     * @param sha256Esperado SHA-256 da parte em hexadecimal
+     * @return ETag da parte no armazenamento
+     */
+    public String gravarParte(String chaveTemporaria, String idEnvio, int numero, InputStream conteudo,
+                              int tamanho, String sha256Esperado) throws Exception {
+        uploadsEmAndamento.acquire();
+        try {
+            byte[] parte = new byte[tamanho];
+            int lidos = conteudo.readNBytes(parte, 0, tamanho);
+            if (lidos < tamanho || conteudo.read() >= 0) {
+                throw new InvalidUploadPartException("A parte " + numero + " deve ter exatamente " + tamanho + " bytes");
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String sha256 = HexFormat.of().formatHex(digest.digest(parte));
+            if (!sha256.equalsIgnoreCase(sha256Esperado)) {
+                throw new InvalidUploadPartException("Checksum SHA-256 da parte " + numero + " não confere");
+            }
+            return armazenamento.gravarParte(chaveTemporaria, idEnvio, numero, parte, tamanho);
+        } finally {
+            uploadsEmAndamento.release();
+        }
+    }
+
+    /**
+     * Junta as partes do envio no objeto temporário.
+     */
+    public void concluirEnvioEmPartes(String chaveTemporaria, String idEnvio, List<ParteGravada> partes) throws Exception {
+        armazenamento.concluirEnvioEmPartes(chaveTemporaria, idEnvio, partes);
+    }
+
+    /**
+     * Descarta um envio em partes não concluído.
+     */
+    public CompletableFuture<Void> abortarEnvioEmPartes(String chaveTemporaria, String idEnvio) {
+        return armazenamento.abortarEnvioEmPartes(chaveTemporaria, idEnvio);
+    }
+
+    /**
+     * Transforma o objeto temporário montado por um upload retomável em imagem definitiva, com as
+     * mesmas regras de {@link #uploadImagem}: o conteúdo é lido uma vez do armazenamento (tipo, limite
+     * e hash) e então movido para a chave final sem trafegar de novo pela aplicação, ou descartado
+     * se o mesmo conteúdo já estiver armazenado. Uma imagem recusada (tipo ou tamanho) tem o objeto
+     * temporário descartado; em falhas do armazenamento ele é mantido para uma nova tentativa.
+     *
+     * @param chaveLegada chave usada quando o modo endereçado por conteúdo está desativado
+     */
+    public ImagemEnviada promoverImagem(String chaveLegada, String chaveTemporaria) throws Exception {
+        EntradaImagemInspecionada inspecao = null;
+        try {
+            MetadadosObjeto metadados = obterMetadados(chaveTemporaria);
+            if (metadados.tamanho() > tamanhoMaximoUpload) {
+                throw arquivoMuitoGrande();
+            }
+            try (InputStream conteudo = armazenamento.abrirLeitura(chaveTemporaria, 0, metadados.tamanho())) {
+                inspecao = EntradaImagemInspecionada.inspecionar(conteudo, tamanhoMaximoUpload);
+                inspecao.transferTo(OutputStream.nullOutputStream());
+            }
+        } catch (InvalidImageException | FileTooLargeException e) {
+            aguardarSemFalha(armazenamento.remover(chaveTemporaria));
+            throw e;
+        } catch (IOException e) {
+            if (inspecao != null && inspecao.isLimiteExcedido()) {
+                aguardarSemFalha(armazenamento.remover(chaveTemporaria));
+                throw arquivoMuitoGrande();
+            }
+            throw e;
+        }
+        String tipo = inspecao.getTipoConteudo();
+        String sha256 = inspecao.getSha256();
+
+        if (!enderecadoPorConteudo) {
+            aguardar(armazenamento.mover(chaveTemporaria, chaveLegada, tipo));
+            cacheDisco.invalidar(chaveLegada);
+            removerDerivados(chaveLegada);
+            return new ImagemEnviada(chaveLegada, inspecao.getBytesLidos(), tipo, sha256);
+        }
+
+        String chave = chavePorConteudo(sha256, tipo);
+        CompletableFuture<Boolean> existente = armazenamento.existe(chave);
+        int referencias = objetoRepository.adicionarReferencia(chave, inspecao.getBytesLidos(), tipo);
+        if (referencias == 1 || !aguardar(existente)) {
+            try {
+                aguardar(armazenamento.mover(chaveTemporaria, chave, tipo));
+            } catch (Exception e) {
+                deleteFile(chave);
+                throw e;
+            }
+        } else {
+            aguardar(armazenamento.remover(chaveTemporaria));
+        }
+        return new ImagemEnviada(chave, inspecao.getBytesLidos(), tipo, sha256);
+    }
+
+    /**
+     * Origem que lê o objeto do armazenamento a cada abertura (ex.: para gerar o marcador de uma
+     * imagem que não passou pela requisição).
+     */
+    public InputStreamSource fonte(String objectKey) {
+        return () -> {
+            try {
+                return abrirLeitura(objectKey, 0, obterMetadados(objectKey).tamanho());
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Falha ao ler " + objectKey, e);
+            }
+        };
+    }
+
+    private static String chavePorConteudo(String sha256, String tipoConteudo) {
+        return PREFIXO_CONTEUDO + sha256.substring(0, 2) + "/" + sha256 + extensaoPorTipo(tipoConteudo);
+    }
+
+    private FileTooLargeException arquivoMuitoGrande() {
+        return new FileTooLargeException("O arquivo excede o tamanho máximo de " + tamanhoMaximoUpload + " bytes");
+    }
+
+    private static String extensaoPorTipo(String tipoConteudo) {
+        return switch (tipoConteudo) {
+            case "image/png" -> ".png";
+            case "image/gif" -> ".gif";
+            case "image/webp" -> ".webp";
+            default -> ".jpg";
+        };
+    }
+
+    /**
+     * Indica se a chave anterior de uma imagem substituída deve ser removida. Chaves endereçadas
+     * por conteúdo sempre liberam uma referência (mesmo que a nova seja igual, pois o upload
+     * registrou outra); chaves legadas só se a nova for diferente, já que o upload as sobrescreveu.
+     */
+    public static boolean deveLiberarSubstituida(String chaveAnterior, String chaveNova) {
+        if (chaveAnterior == null) {
+            return false;
+        }
+        return isEnderecadaPorConteudo(chaveAnterior) || !chaveAnterior.equals(chaveNova);
+    }
+
+    public static boolean isEnderecadaPorConteudo(String objectKey) {
+        return objectKey != null && objectKey.startsWith(PREFIXO_CONTEUDO);
+    }
+
+    /**
+     * Versão do conteúdo de uma chave, usada nas URLs de imagem ({@code ?v=}) e nos ETags.
+     * Chaves endereçadas por conteúdo já trazem o SHA-256; as legadas são únicas por upload,
+     * então o hash da própria chave também muda sempre que a imagem muda.
+     */
+    public static String versao(String objectKey) {
+        if (objectKey == null) {
+            return null;
+        }
+        if (isEnderecadaPorConteudo(objectKey)) {
+            String nome = objectKey.substring(objectKey.lastIndexOf('/') + 1);
+            int ponto = nome.indexOf('.');
+            String sha = ponto > 0 ? nome.substring(0, ponto) : nome;
+            return sha.substring(0, Math.min(16, sha.length()));
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
     }
 
     /**
      * Faz upload de um arquivo para o bucket.
      */
     public void uploadFile(String objectKey, byte[] data, String contentType) throws Exception {
-        garantirBucket();
-
-        minioClient.putObject(
-                PutObjectArgs.builder()
-                        .bucket(bucketName)
-                        .object(objectKey)
-                        .stream(new ByteArrayInputStream(data), data.length, -1)
-                        .contentType(contentType)
-                        .build()
-        );
+        armazenamento.gravar(objectKey, new ByteArrayInputStream(data), data.length, -1, contentType);
+        // A chave pode ser reaproveitada (mesmo nome de arquivo): descarta a versão anterior em disco
+        cacheDisco.invalidar(objectKey);
+        if (!objectKey.contains(RedimensionamentoImagemService.SUFIXO_DERIVADOS)) {
+            removerDerivados(objectKey);
+        }
     }
 
     /**
-     * Remove um arquivo do bucket.
+     * Remove um arquivo do bucket. Chaves endereçadas por conteúdo perdem uma referência e o
+     * objeto só é removido quando a última referência é liberada.
      */
     public void deleteFile(String objectKey) throws Exception {
-        minioClient.removeObject(
-                RemoveObjectArgs.builder()
-                        .bucket(bucketName)
-                        .object(objectKey)
-                        .build()
-        );
+        if (isEnderecadaPorConteudo(objectKey)) {
+            transacao.executeWithoutResult(status -> {
+                // A linha fica bloqueada até o commit: um upload concorrente do mesmo conteúdo
+                // espera a remoção terminar e então recria o objeto
+                Integer restantes = objetoRepository.liberarReferencia(objectKey);
+                if (restantes == null || restantes <= 0) {
+                    objetoRepository.removerSemReferencias(objectKey);
+                    try {
+                        removerObjeto(objectKey);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Falha ao remover objeto " + objectKey, e);
+                    }
+                }
+            });
+            return;
+        }
+        removerObjeto(objectKey);
+    }
+
+    /**
+     * Remove vários arquivos com a exclusão em lote do armazenamento (até 1000 chaves por requisição no MinIO).
+     * Chaves endereçadas por conteúdo seguem a mesma contagem de referências de {@link #deleteFile}.
+     * Variantes redimensionadas não são listadas aqui (seria uma chamada por chave); as que ficarem
+     * sem original são recolhidas pela reconciliação de órfãos.
+     * <p>
+     * Uma chave recusada pelo armazenamento volta a ter as referências liberadas nesta chamada, na
+     * mesma transação: a nova tentativa da outbox libera de novo e, se nesse meio tempo o mesmo
+     * conteúdo tiver sido enviado outra vez, a contagem continua acima de zero e o objeto fica.
+     *
+     * @param chaves chaves a remover (repetições liberam uma referência cada)
+     * @return chaves cuja remoção foi recusada pelo armazenamento
+     */
+    public Set<String> deleteFiles(Collection<String> chaves) throws Exception {
+        Set<String> falhas = new HashSet<>();
+        transacao.executeWithoutResult(status -> {
+            Set<String> remover = new LinkedHashSet<>();
+            // Referências liberadas por chave endereçada por conteúdo, para devolver em caso de recusa
+            Map<String, Integer> liberadas = new HashMap<>();
+            for (String chave : chaves) {
+                if (!isEnderecadaPorConteudo(chave)) {
+                    remover.add(chave);
+                    continue;
+                }
+                Integer restantes = objetoRepository.liberarReferencia(chave);
+                if (restantes != null) {
+                    liberadas.merge(chave, 1, Integer::sum);
+                }
+                if (restantes == null || restantes <= 0) {
+                    remover.add(chave);
+                }
+            }
+            // Remove com as linhas de contagem ainda bloqueadas (ver deleteFile)
+            try {
+                falhas.addAll(removerEmLote(remover));
+            } catch (Exception e) {
+                throw new IllegalStateException("Falha na remoção em lote", e);
+            }
+            for (String chave : remover) {
+                if (!liberadas.containsKey(chave)) {
+                    continue;
+                }
+                if (falhas.contains(chave)) {
+                    objetoRepository.restaurarReferencias(chave, liberadas.get(chave));
+                } else {
+                    objetoRepository.removerSemReferencias(chave);
+                }
+            }
+        });
+        return falhas;
+    }
+
+    /**
+     * Lista todo o armazenamento em ordem binária de chave. No MinIO a listagem é paginada
+     * (1000 chaves por requisição) e consumida sob demanda, sem materializar o bucket.
+     */
+    public Iterable<ObjetoListado> listarObjetos() {
+        return armazenamento.listar("");
+    }
+
+    /**
+     * Remove em lote objetos sem nenhuma referência no banco, sem passar pela contagem de
+     * referências (usado pela reconciliação de órfãos).
+     *
+     * @return chaves cuja remoção foi recusada pelo armazenamento
+     */
+    public Set<String> removerObjetosOrfaos(Collection<String> chaves) throws Exception {
+        return removerEmLote(chaves);
+    }
+
+    private Set<String> removerEmLote(Collection<String> chaves) throws Exception {
+        if (chaves.isEmpty()) {
+            return new HashSet<>();
+        }
+        for (String chave : chaves) {
+            invalidarUrlPreAssinada(chave);
+            cacheDisco.invalidar(chave);
+        }
+        return armazenamento.removerEmLote(chaves);
+    }
+
+    private void removerObjeto(String objectKey) throws Exception {
+        invalidarUrlPreAssinada(objectKey);
+        cacheDisco.invalidar(objectKey);
+        aguardar(armazenamento.remover(objectKey));
+        removerDerivados(objectKey);
+    }
+
+    /**
+     * Remove as variantes redimensionadas geradas a partir de um objeto. As remoções são
+     * disparadas juntas e aguardadas no fim, em vez de uma ida e volta por variante.
+     */
+    private void removerDerivados(String objectKey) throws Exception {
+        List<CompletableFuture<Void>> remocoes = new ArrayList<>();
+        for (ObjetoListado derivado : armazenamento.listar(objectKey + RedimensionamentoImagemService.SUFIXO_DERIVADOS)) {
+            cacheDisco.invalidar(derivado.chave());
+            remocoes.add(armazenamento.remover(derivado.chave()));
+        }
+        aguardar(CompletableFuture.allOf(remocoes.toArray(CompletableFuture[]::new)));
+    }
+
+    /**
+     * Indica se o backend de armazenamento gera URLs pré-assinadas; quando não gera, os chamadores
+     * deixam de pedi-las em vez de tratar a exceção de {@link #generatePresignedUrl}.
+     */
+    public boolean suportaUrlsPreAssinadas() {
+        return armazenamento.suportaUrlsPreAssinadas();
     }
 
     /**
      * Gera uma URL pré-assinada para download temporário usando o cliente público.
+     * A assinatura é feita localmente (região fixa, sem chamada de rede) e reaproveitada
+     * do cache até a margem de segurança anterior à sua expiração.
+     *
+     * @throws UnsupportedOperationException se o backend de armazenamento não servir objetos diretamente
      */
     public String generatePresignedUrl(String objectKey, int expirationMinutes) throws Exception {
-        return minioClientPublic.getPresignedObjectUrl(
-                GetPresignedObjectUrlArgs.builder()
-                        .method(Method.GET)
-                        .bucket(bucketName)
-                        .object(objectKey)
-                        .expiry(expirationMinutes, TimeUnit.MINUTES)
-                        .build()
-        );
+        long agora = System.currentTimeMillis();
+
+        UrlPreAssinada emCache;
+        synchronized (cacheUrlsPreAssinadas) {
+            emCache = cacheUrlsPreAssinadas.get(objectKey);
+        }
+        if (emCache != null && emCache.expiracaoMinutos() == expirationMinutes
+                && agora < emCache.expiraEm() - margemSegurancaMillis) {
+            acertosCache.increment();
+            return emCache.url();
+        }
+
+        faltasCache.increment();
+        String url = armazenamento.gerarUrlPreAssinada(objectKey, expirationMinutes);
+
+        long expiraEm = agora + TimeUnit.MINUTES.toMillis(expirationMinutes);
+        synchronized (cacheUrlsPreAssinadas) {
+            cacheUrlsPreAssinadas.put(objectKey, new UrlPreAssinada(url, expirationMinutes, expiraEm));
+        }
+        return url;
+    }
+
+    /**
+     * Descarta a URL pré-assinada em cache de um objeto.
+     */
+    public void invalidarUrlPreAssinada(String objectKey) {
+        synchronized (cacheUrlsPreAssinadas) {
+            cacheUrlsPreAssinadas.remove(objectKey);
+        }
     }
 
     /**
-     * Baixa o arquivo completo do bucket.
+     * Baixa o arquivo completo do armazenamento.
      */
     public byte[] downloadFile(String objectKey) throws Exception {
-        try (var stream = minioClient.getObject(
-                GetObjectArgs.builder()
-                        .bucket(bucketName)
-                        .object(objectKey)
-                        .build())) {
+        MetadadosObjeto metadados = obterMetadados(objectKey);
+        try (InputStream stream = armazenamento.abrirLeitura(objectKey, 0, metadados.tamanho())) {
             return stream.readAllBytes();
         }
     }
 
     /**
-     * Verifica se um arquivo existe no bucket.
+     * Obtém tamanho, tipo de conteúdo e ETag de um objeto sem baixar seu conteúdo.
      */
-    public boolean fileExists(String objectKey) throws Exception {
-        try {
-            minioClient.statObject(
-                    StatObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(objectKey)
-                            .build()
-            );
-            return true;
-        } catch (Exception e) {
-            return false;
+    public MetadadosObjeto obterMetadados(String objectKey) throws Exception {
+        return aguardar(armazenamento.obterMetadados(objectKey));
+    }
+
+    /**
+     * Obtém o objeto como arquivo local, com o canal de leitura já aberto. No backend de sistema de
+     * arquivos é o próprio arquivo armazenado (sem cópia para o cache); nos demais, o trecho do cache
+     * em disco, baixado do bucket em caso de falta. O chamador fecha o objeto retornado.
+     *
+     * @return o trecho local do objeto, ou null se o cache estiver desabilitado ou o objeto não couber nele
+     */
+    public CacheDiscoImagens.ObjetoLocal obterObjetoLocal(String objectKey) throws Exception {
+        Path arquivo = armazenamento.caminhoLocal(objectKey);
+        if (arquivo != null) {
+            MetadadosObjeto metadados = obterMetadados(objectKey);
+            FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+            return new CacheDiscoImagens.ObjetoLocal(canal, 0, metadados.tamanho(),
+                    metadados.tipoConteudo(), metadados.etag());
+        }
+        if (!cacheDisco.isHabilitado()) {
+            return null;
         }
+        CacheDiscoImagens.ObjetoLocal local = cacheDisco.buscar(objectKey);
+        if (local != null) {
+            return local;
+        }
+
+        MetadadosObjeto metadados = obterMetadados(objectKey);
+        if (!cacheDisco.aceita(metadados.tamanho())) {
+            return null;
+        }
+        try (InputStream conteudo = abrirLeitura(objectKey, 0, metadados.tamanho())) {
+            return cacheDisco.armazenar(objectKey, conteudo, metadados.tamanho(),
+                    metadados.tipoConteudo(), metadados.etag());
+        }
+    }
+
+    /**
+     * Abre um stream de leitura do objeto, opcionalmente limitado a um intervalo de bytes.
+     * O chamador é responsável por fechar o stream.
+     */
+    public InputStream abrirLeitura(String objectKey, long offset, long length) throws Exception {
+        return armazenamento.abrirLeitura(objectKey, offset, length);
+    }
+
+    /**
+     * Verifica se um arquivo existe no armazenamento.
+     */
+    public boolean fileExists(String objectKey) throws Exception {
+        return aguardar(armazenamento.existe(objectKey));
     }
 
     /**
-     * Garante que o bucket existe, criando-o caso não exista.
+     * Espera o futuro da porta de armazenamento, repassando a causa original da falha.
      */
-    private void garantirBucket() throws Exception {
-        boolean existe = minioClient.bucketExists(
-                BucketExistsArgs.builder()
-                        .bucket(bucketName)
-                        .build()
-        );
+    private static <T> T aguardar(CompletableFuture<T> futuro) throws Exception {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
 
-        if (!existe) {
-            minioClient.makeBucket(
-                    MakeBucketArgs.builder()
-                            .bucket(bucketName)
-                            .build()
-            );
+    private static void aguardarSemFalha(CompletableFuture<?> futuro) {
+        try {
+            futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Melhor esforço: a reconciliação de órfãos recolhe o que ficar para trás
         }
     }
+
+    private record UrlPreAssinada(String url, int expiracaoMinutos, long expiraEm) {}
 }
@@ -0,0 +1,189 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.seplag.artistalbum.domain.model.RemocaoPendente;
+import com.seplag.artistalbum.domain.port.RemocaoPendenteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox das remoções no MinIO.
+ * <p>
+ * As operações de escrita apenas registram a chave a remover na mesma transação da alteração
+ * no catálogo; a chamada ao MinIO acontece depois do commit, em segundo plano, em lotes e com
+ * novas tentativas (backoff exponencial). Assim a latência da escrita não inclui I/O de rede e
+ * uma transação desfeita não remove nada.
+ */
+@Service
+public class OutboxArmazenamentoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxArmazenamentoService.class);
+
+    private final RemocaoPendenteRepository remocaoRepository;
+    private final MinioService minioService;
+    private final TransactionTemplate transacao;
+    private final ExecutorService executor;
+    private final AtomicBoolean agendado = new AtomicBoolean(false);
+    private final AtomicLong atrasoSegundos = new AtomicLong();
+    private final Counter remocoesConcluidas;
+    private final Counter remocoesComFalha;
+
+    @Value("${armazenamento.outbox.tamanho-lote:100}")
+    private int tamanhoLote = 100;
+
+    @Value("${armazenamento.outbox.espera-inicial-segundos:5}")
+    private long esperaInicialSegundos = 5;
+
+    @Value("${armazenamento.outbox.espera-maxima-segundos:3600}")
+    private long esperaMaximaSegundos = 3600;
+
+    public OutboxArmazenamentoService(RemocaoPendenteRepository remocaoRepository,
+                                      MinioService minioService,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.remocaoRepository = remocaoRepository;
+        this.minioService = minioService;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.executor = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "outbox-armazenamento");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.remocoesConcluidas = meterRegistry.counter("armazenamento.outbox.processadas", "resultado", "sucesso");
+        this.remocoesComFalha = meterRegistry.counter("armazenamento.outbox.processadas", "resultado", "falha");
+        meterRegistry.gauge("armazenamento.outbox.atraso.segundos", atrasoSegundos);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Registra a remoção de um objeto na transação corrente. O worker é acordado após o commit.
+     *
+     * @param chave chave do objeto no MinIO (ignorada se nula)
+     */
+    public void agendarRemocao(String chave) {
+        if (chave == null) {
+            return;
+        }
+        remocaoRepository.save(new RemocaoPendente(chave));
+        Transacoes.aposCommit(this::acordar);
+    }
+
+    /**
+     * Registra, em um único comando, a remoção da foto do artista e das capas de todos os seus
+     * álbuns. Deve ser chamado antes de excluir o artista.
+     *
+     * @return quantidade de objetos enfileirados
+     */
+    public int agendarRemocaoImagensDoArtista(Long idArtista) {
+        int agendadas = remocaoRepository.agendarImagensDoArtista(idArtista);
+        if (agendadas > 0) {
+            Transacoes.aposCommit(this::acordar);
+        }
+        return agendadas;
+    }
+
+    /**
+     * Processa a outbox fora da thread da requisição. Chamadas repetidas enquanto já há
+     * uma execução na fila são agrupadas.
+     */
+    public void acordar() {
+        if (agendado.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                agendado.set(false);
+                processarPendentes();
+            });
+        }
+    }
+
+    /**
+     * Varredura periódica: cobre novas tentativas vencidas e remoções de instâncias que caíram
+     * antes de processar a própria outbox.
+     */
+    @Scheduled(fixedDelayString = "${armazenamento.outbox.intervalo-ms:10000}")
+    public void varrer() {
+        acordar();
+    }
+
+    void processarPendentes() {
+        try {
+            int processadas;
+            do {
+                processadas = transacao.execute(status -> processarLote());
+            } while (processadas == tamanhoLote);
+        } catch (Exception e) {
+            logger.error("Falha ao processar a outbox de armazenamento", e);
+        } finally {
+            atualizarAtraso();
+        }
+    }
+
+    private int processarLote() {
+        List<RemocaoPendente> lote = remocaoRepository.bloquearLoteVencido(tamanhoLote);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        // Um lote inteiro vira uma única exclusão em lote no MinIO
+        Set<String> falhas;
+        try {
+            falhas = minioService.deleteFiles(lote.stream().map(RemocaoPendente::getChave).toList());
+        } catch (Exception e) {
+            logger.warn("Falha ao remover lote de {} objetos", lote.size(), e);
+            lote.forEach(remocao -> reagendar(remocao, String.valueOf(e.getMessage())));
+            return lote.size();
+        }
+
+        List<RemocaoPendente> concluidas = new ArrayList<>(lote.size());
+        for (RemocaoPendente remocao : lote) {
+            if (falhas.contains(remocao.getChave())) {
+                reagendar(remocao, "Remoção recusada pelo MinIO");
+            } else {
+                concluidas.add(remocao);
+            }
+        }
+        remocaoRepository.deleteAllInBatch(concluidas);
+        remocoesConcluidas.increment(concluidas.size());
+        return lote.size();
+    }
+
+    private void reagendar(RemocaoPendente remocao, String erro) {
+        int tentativas = remocao.getTentativas() + 1;
+        long espera = Math.min(esperaMaximaSegundos, esperaInicialSegundos << Math.min(tentativas - 1, 20));
+        remocao.setTentativas(tentativas);
+        remocao.setProximaTentativa(LocalDateTime.now().plusSeconds(espera));
+        remocao.setUltimoErro(erro.length() > 1000 ? erro.substring(0, 1000) : erro);
+        remocoesComFalha.increment();
+        logger.warn("Falha ao remover {} (tentativa {}), nova tentativa em {}s", remocao.getChave(), tentativas, espera);
+    }
+
+    private void atualizarAtraso() {
+        try {
+            atrasoSegundos.set(remocaoRepository.buscarCriacaoMaisAntiga()
+                    .map(criacao -> Math.max(0, Duration.between(criacao, LocalDateTime.now()).getSeconds()))
+                    .orElse(0L));
+        } catch (Exception e) {
+            logger.debug("Não foi possível calcular o atraso da outbox", e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.seplag.artistalbum.application.dto.PaginaCursor;
+import com.seplag.artistalbum.infrastructure.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginação por cursor (keyset) sobre uma chave ordenável e o ID como desempate.
+ * Cada página busca por {@code (chave, id) > / < (cursor)} usando o índice composto,
+ * então páginas profundas custam o mesmo que a primeira.
+ */
+public final class PaginacaoCursor {
+
+    private static final String PROXIMO = "p";
+    private static final String ANTERIOR = "a";
+
+    /**
+     * Maior página aceita; valores acima são reduzidos (o LIMIT e a chave do cache ficam limitados).
+     */
+    public static final int TAMANHO_MAXIMO = 100;
+
+    private PaginacaoCursor() {}
+
+    @FunctionalInterface
+    public interface ConsultaInicio<E> {
+        List<E> buscar(int limite);
+    }
+
+    @FunctionalInterface
+    public interface ConsultaPorChave<E> {
+        List<E> buscar(String chave, Long id, int limite);
+    }
+
+    /**
+     * Consultas de uma entidade: início ascendente/descendente e busca após
+     * (ascendente) ou antes (descendente) de uma posição.
+     */
+    public record Consultas<E>(ConsultaInicio<E> inicioAsc,
+                               ConsultaInicio<E> inicioDesc,
+                               ConsultaPorChave<E> maioresAsc,
+                               ConsultaPorChave<E> menoresDesc) {}
+
+    private record Posicao(boolean anterior, String chave, Long id) {}
+
+    /**
+     * Monta uma página a partir do cursor recebido.
+     *
+     * @param cursor cursor opaco recebido do cliente, ou null para a primeira página
+     * @param descendente true para ordenação decrescente
+     * @param tamanho número máximo de itens (entre 1 e {@value #TAMANHO_MAXIMO})
+     * @param consultas consultas keyset da entidade
+     * @param chave extrai a chave de ordenação da entidade
+     * @param id extrai o ID da entidade
+     * @param conversor converte a entidade para DTO
+     * @return página com cursores de próxima e anterior
+     */
+    public static <E, D> PaginaCursor<D> paginar(String cursor, boolean descendente, int tamanho,
+                                                 Consultas<E> consultas,
+                                                 Function<E, String> chave,
+                                                 Function<E, Long> id,
+                                                 Function<E, D> conversor) {
+        int limite = limitarTamanho(tamanho);
+        Posicao posicao = (cursor == null || cursor.isBlank()) ? null : decodificar(cursor);
+
+        // Navegar para trás equivale a percorrer no sentido inverso e reverter o resultado
+        boolean inverter = posicao != null && posicao.anterior();
+        boolean buscarDescendente = descendente != inverter;
+
+        List<E> itens;
+        if (posicao == null) {
+            itens = buscarDescendente
+                    ? consultas.inicioDesc().buscar(limite + 1)
+                    : consultas.inicioAsc().buscar(limite + 1);
+        } else {
+            itens = buscarDescendente
+                    ? consultas.menoresDesc().buscar(posicao.chave(), posicao.id(), limite + 1)
+                    : consultas.maioresAsc().buscar(posicao.chave(), posicao.id(), limite + 1);
+        }
+
+        boolean haMais = itens.size() > limite;
+        List<E> pagina = new ArrayList<>(haMais ? itens.subList(0, limite) : itens);
+        if (inverter) {
+            Collections.reverse(pagina);
+        }
+
+        String proximo = null;
+        String anterior = null;
+        if (!pagina.isEmpty()) {
+            E primeiro = pagina.get(0);
+            E ultimo = pagina.get(pagina.size() - 1);
+            if (inverter || haMais) {
+                proximo = codificar(PROXIMO, chave.apply(ultimo), id.apply(ultimo));
+            }
+            if (posicao != null && (!inverter || haMais)) {
+                anterior = codificar(ANTERIOR, chave.apply(primeiro), id.apply(primeiro));
+            }
+        }
+
+        List<D> conteudo = pagina.stream().map(conversor).toList();
+        return new PaginaCursor<>(conteudo, proximo, anterior, conteudo.size());
+    }
+
+    /**
+     * Tamanho de página efetivo: entre 1 e {@value #TAMANHO_MAXIMO}.
+     */
+    public static int limitarTamanho(int tamanho) {
+        return Math.min(TAMANHO_MAXIMO, Math.max(1, tamanho));
+    }
+
+    /**
+     * Cursor que continua a listagem ascendente logo após a posição informada.
+     */
+    public static String cursorApos(String chave, Long id) {
+        return codificar(PROXIMO, chave, id);
+    }
+
+    private static String codificar(String direcao, String chave, Long id) {
+        String bruto = direcao + ":" + id + ":" + chave;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Posicao decodificar(String cursor) {
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = bruto.split(":", 3);
+            if (partes.length != 3 || !(PROXIMO.equals(partes[0]) || ANTERIOR.equals(partes[0]))) {
+                throw new InvalidCursorException("Cursor de paginação inválido");
+            }
+            return new Posicao(ANTERIOR.equals(partes[0]), partes[2], Long.parseLong(partes[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor de paginação inválido", e);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seplag.artistalbum.application.dto.TarefaImagemDTO;
+import com.seplag.artistalbum.domain.port.AlbumRepository;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import com.seplag.artistalbum.infrastructure.exception.ProcessingQueueFullException;
+import com.seplag.artistalbum.infrastructure.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fila de processamento de imagens em segundo plano.
+ * <p>
+ * O upload assíncrono apenas grava os bytes em um diretório de staging local e devolve 202 com o id
+ * da tarefa; a validação, o envio ao MinIO, o marcador (LQIP) e a gravação do álbum/artista rodam
+ * em um executor limitado. Com a fila cheia o upload é recusado com 503, antes de gravar o staging.
+ * <p>
+ * A conclusão é publicada nos tópicos existentes ({@code /topic/albums} e {@code /topic/artists})
+ * com o cabeçalho STOMP {@value #CABECALHO_TAREFA}: em caso de sucesso a mensagem é o próprio DTO
+ * atualizado; em caso de falha, o DTO da tarefa com o cabeçalho {@value #CABECALHO_STATUS_TAREFA}.
+ * O estado das tarefas fica em memória por {@code imagens.processamento.retencao-minutos}; tarefas
+ * pendentes não sobrevivem a um reinício (o staging é limpo na subida).
+ */
+@Service
+public class ProcessamentoImagemService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessamentoImagemService.class);
+
+    public static final String CABECALHO_TAREFA = "tarefa";
+    public static final String CABECALHO_STATUS_TAREFA = "tarefa-status";
+
+    private static final String PREFIXO_STAGING = "tarefa-";
+
+    private final AlbumService albumService;
+    private final ArtistaService artistaService;
+    private final AlbumRepository albumRepository;
+    private final ArtistaRepository artistaRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Path diretorioStaging;
+    private final Cache<String, TarefaImagemDTO> tarefas;
+
+    public ProcessamentoImagemService(
+            AlbumService albumService,
+            ArtistaService artistaService,
+            AlbumRepository albumRepository,
+            ArtistaRepository artistaRepository,
+            SimpMessagingTemplate messagingTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${imagens.processamento.threads:2}") int threads,
+            @Value("${imagens.processamento.fila:50}") int tamanhoFila,
+            @Value("${imagens.processamento.diretorio:${java.io.tmpdir}/artist-album-staging}") String diretorio,
+            @Value("${imagens.processamento.retencao-minutos:60}") long retencaoMinutos
+    ) throws IOException {
+        this.albumService = albumService;
+        this.artistaService = artistaService;
+        this.albumRepository = albumRepository;
+        this.artistaRepository = artistaRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.diretorioStaging = Paths.get(diretorio);
+        this.tarefas = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(retencaoMinutos))
+                .build();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "processamento-imagem");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Files.createDirectories(diretorioStaging);
+        limparStaging();
+
+        Gauge.builder("imagens.processamento.fila", executor, e -> e.getQueue().size())
+                .description("Tarefas de imagem aguardando processamento")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Enfileira o processamento da nova capa do álbum.
+     *
+     * @return tarefa criada, com status {@code PENDENTE}
+     */
+    public TarefaImagemDTO enfileirarCapaAlbum(Long idAlbum, InputStreamSource conteudo, String nomeArquivo) {
+        if (!albumRepository.existsById(idAlbum)) {
+            throw new ResourceNotFoundException("Álbum não encontrado com id: " + idAlbum);
+        }
+        return enfileirar(TarefaImagemDTO.TIPO_CAPA_ALBUM, idAlbum, conteudo, nomeArquivo);
+    }
+
+    /**
+     * Enfileira o processamento da nova foto de perfil do artista.
+     *
+     * @return tarefa criada, com status {@code PENDENTE}
+     */
+    public TarefaImagemDTO enfileirarFotoArtista(Long idArtista, InputStreamSource conteudo, String nomeArquivo) {
+        if (!artistaRepository.existsById(idArtista)) {
+            throw new ResourceNotFoundException("Artista não encontrado com id: " + idArtista);
+        }
+        return enfileirar(TarefaImagemDTO.TIPO_FOTO_ARTISTA, idArtista, conteudo, nomeArquivo);
+    }
+
+    /**
+     * Obtém o estado atual de uma tarefa.
+     */
+    public TarefaImagemDTO obterTarefa(String id) {
+        TarefaImagemDTO tarefa = tarefas.getIfPresent(id);
+        if (tarefa == null) {
+            throw new ResourceNotFoundException("Tarefa não encontrada com id: " + id);
+        }
+        return tarefa;
+    }
+
+    private TarefaImagemDTO enfileirar(String tipo, Long idRecurso, InputStreamSource conteudo, String nomeArquivo) {
+        // Recusa cedo, sem gravar o staging, quando não há espaço na fila
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new ProcessingQueueFullException("Fila de processamento de imagens cheia; tente novamente em instantes");
+        }
+
+        Path arquivo;
+        try {
+            arquivo = Files.createTempFile(diretorioStaging, PREFIXO_STAGING, ".upload");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar o arquivo de staging", e);
+        }
+        try (InputStream entrada = conteudo.getInputStream()) {
+            Files.copy(entrada, arquivo, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            apagar(arquivo);
+            throw new UncheckedIOException("Falha ao gravar a imagem no staging", e);
+        }
+
+        TarefaImagemDTO tarefa = new TarefaImagemDTO(UUID.randomUUID().toString(), tipo, idRecurso,
+                TarefaImagemDTO.STATUS_PENDENTE, LocalDateTime.now());
+        tarefas.put(tarefa.getId(), tarefa);
+
+        try {
+            executor.execute(() -> processar(tarefa, arquivo, nomeArquivo));
+        } catch (RejectedExecutionException e) {
+            tarefas.invalidate(tarefa.getId());
+            apagar(arquivo);
+            throw new ProcessingQueueFullException("Fila de processamento de imagens cheia; tente novamente em instantes");
+        }
+        return tarefa;
+    }
+
+    private void processar(TarefaImagemDTO tarefa, Path arquivo, String nomeArquivo) {
+        atualizar(tarefa, TarefaImagemDTO.STATUS_PROCESSANDO, null);
+        try {
+            long tamanho = Files.size(arquivo);
+            FileSystemResource fonte = new FileSystemResource(arquivo);
+            if (TarefaImagemDTO.TIPO_CAPA_ALBUM.equals(tarefa.getTipo())) {
+                albumService.fazerUploadImagemCapa(tarefa.getIdRecurso(), fonte, tamanho, nomeArquivo, tarefa.getId());
+            } else {
+                artistaService.fazerUploadFotoPerfil(tarefa.getIdRecurso(), fonte, tamanho, nomeArquivo, tarefa.getId());
+            }
+            atualizar(tarefa, TarefaImagemDTO.STATUS_CONCLUIDA, null);
+        } catch (Exception e) {
+            logger.warn("Falha na tarefa de imagem {} ({} {})", tarefa.getId(), tarefa.getTipo(), tarefa.getIdRecurso(), e);
+            TarefaImagemDTO falha = atualizar(tarefa, TarefaImagemDTO.STATUS_FALHA, e.getMessage());
+            String topico = TarefaImagemDTO.TIPO_CAPA_ALBUM.equals(tarefa.getTipo()) ? "/topic/albums" : "/topic/artists";
+            messagingTemplate.convertAndSend(topico, falha,
+                    Map.<String, Object>of(CABECALHO_TAREFA, tarefa.getId(), CABECALHO_STATUS_TAREFA, TarefaImagemDTO.STATUS_FALHA));
+        } finally {
+            apagar(arquivo);
+        }
+    }
+
+    /**
+     * Substitui a entrada da tarefa por uma cópia com o novo status (as leituras nunca veem um
+     * objeto sendo alterado).
+     */
+    private TarefaImagemDTO atualizar(TarefaImagemDTO tarefa, String status, String mensagemErro) {
+        TarefaImagemDTO atualizada = new TarefaImagemDTO(tarefa.getId(), tarefa.getTipo(), tarefa.getIdRecurso(),
+                status, tarefa.getDataCriacao());
+        atualizada.setMensagemErro(mensagemErro);
+        if (TarefaImagemDTO.STATUS_CONCLUIDA.equals(status) || TarefaImagemDTO.STATUS_FALHA.equals(status)) {
+            atualizada.setDataConclusao(LocalDateTime.now());
+        }
+        tarefas.put(atualizada.getId(), atualizada);
+        return atualizada;
+    }
+
+    private void limparStaging() throws IOException {
+        try (DirectoryStream<Path> restantes = Files.newDirectoryStream(diretorioStaging, PREFIXO_STAGING + "*")) {
+            for (Path arquivo : restantes) {
+                apagar(arquivo);
+            }
+        }
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o arquivo de staging {}", arquivo, e);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.port.ObjetoArmazenadoRepository;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reconciliação entre o bucket do MinIO e as chaves referenciadas no banco.
+ * <p>
+ * A listagem do bucket e as chaves referenciadas (álbuns, artistas, contagens ativas e a outbox)
+ * são percorridas em paralelo, ambas em ordem binária e em trechos, e comparadas numa passada de
+ * intercalação: um objeto sem chave correspondente é órfão. Variantes redimensionadas são órfãs
+ * quando o original não é mais referenciado (verificado em lotes). A memória usada depende apenas
+ * dos tamanhos de trecho e de lote, não do tamanho do bucket.
+ * <p>
+ * Objetos modificados dentro do período de carência são ignorados, pois o upload grava no MinIO
+ * antes de gravar a chave no banco. Em modo simulação nada é removido; as métricas indicam o que
+ * seria recuperado.
+ */
+@Service
+public class ReconciliacaoOrfaosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliacaoOrfaosService.class);
+
+    private final MinioService minioService;
+    private final ObjetoArmazenadoRepository objetoRepository;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean emExecucao = new AtomicBoolean(false);
+
+    @Value("${armazenamento.reconciliacao.habilitado:true}")
+    private boolean habilitado = true;
+
+    @Value("${armazenamento.reconciliacao.simulacao:true}")
+    private boolean simulacao = true;
+
+    @Value("${armazenamento.reconciliacao.tamanho-trecho:1000}")
+    private int tamanhoTrecho = 1000;
+
+    @Value("${armazenamento.reconciliacao.tamanho-lote:500}")
+    private int tamanhoLote = 500;
+
+    @Value("${armazenamento.reconciliacao.lotes-por-segundo:2}")
+    private int lotesPorSegundo = 2;
+
+    @Value("${armazenamento.reconciliacao.carencia-minutos:60}")
+    private long carenciaMinutos = 60;
+
+    public ReconciliacaoOrfaosService(MinioService minioService,
+                                      ObjetoArmazenadoRepository objetoRepository,
+                                      MeterRegistry meterRegistry) {
+        this.minioService = minioService;
+        this.objetoRepository = objetoRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Resumo de uma execução da reconciliação.
+     */
+    public record ResultadoReconciliacao(long objetosVerificados, long orfaos, long bytesRecuperados, boolean simulacao) {}
+
+    @Scheduled(cron = "${armazenamento.reconciliacao.cron:0 30 3 * * *}")
+    public void reconciliarAgendado() {
+        if (habilitado) {
+            reconciliar(simulacao);
+        }
+    }
+
+    /**
+     * Executa a reconciliação. Execuções concorrentes são descartadas.
+     *
+     * @param apenasSimular se verdadeiro, apenas contabiliza os órfãos sem removê-los
+     * @return resumo da execução, ou null se já havia uma em andamento
+     */
+    public ResultadoReconciliacao reconciliar(boolean apenasSimular) {
+        if (!emExecucao.compareAndSet(false, true)) {
+            logger.info("Reconciliação de órfãos já em andamento; execução ignorada");
+            return null;
+        }
+        try {
+            Execucao execucao = new Execucao(apenasSimular);
+            execucao.executar();
+            ResultadoReconciliacao resultado = new ResultadoReconciliacao(
+                    execucao.verificados, execucao.orfaos, execucao.bytesRecuperados, apenasSimular);
+            logger.info("Reconciliação de órfãos concluída: {}", resultado);
+            return resultado;
+        } catch (Exception e) {
+            logger.error("Falha na reconciliação de órfãos", e);
+            return null;
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    /**
+     * Estado de uma execução: cursor das chaves referenciadas e lotes pendentes.
+     */
+    private class Execucao {
+
+        private final boolean apenasSimular;
+        private final Instant limiteCarencia = Instant.now().minus(Duration.ofMinutes(carenciaMinutos));
+        private final Bucket limitador = Bucket.builder()
+                .addLimit(Bandwidth.classic(lotesPorSegundo, Refill.greedy(lotesPorSegundo, Duration.ofSeconds(1))))
+                .build();
+        private final Counter contadorBytes;
+        private final Counter contadorObjetos;
+
+        private List<String> trecho = List.of();
+        private int posicao;
+        private String ultimaReferencia = "";
+        private boolean referenciasEsgotadas;
+
+        private final List<ArmazenamentoObjetos.ObjetoListado> orfaosPendentes = new ArrayList<>();
+        private final List<ArmazenamentoObjetos.ObjetoListado> derivadosPendentes = new ArrayList<>();
+
+        private long verificados;
+        private long orfaos;
+        private long bytesRecuperados;
+
+        Execucao(boolean apenasSimular) {
+            this.apenasSimular = apenasSimular;
+            String modo = apenasSimular ? "simulacao" : "execucao";
+            this.contadorBytes = meterRegistry.counter("armazenamento.reconciliacao.bytes.recuperados", "modo", modo);
+            this.contadorObjetos = meterRegistry.counter("armazenamento.reconciliacao.orfaos", "modo", modo);
+        }
+
+        void executar() throws Exception {
+            for (ArmazenamentoObjetos.ObjetoListado objeto : minioService.listarObjetos()) {
+                verificados++;
+                if (objeto.modificadoEm().isAfter(limiteCarencia)) {
+                    continue;
+                }
+                if (objeto.chave().contains(RedimensionamentoImagemService.SUFIXO_DERIVADOS)) {
+                    // A ordem das variantes não acompanha a do original: verificação por lote
+                    derivadosPendentes.add(objeto);
+                    if (derivadosPendentes.size() >= tamanhoLote) {
+                        verificarDerivados();
+                    }
+                } else if (!referenciada(objeto.chave())) {
+                    adicionarOrfao(objeto);
+                }
+            }
+            verificarDerivados();
+            removerPendentes();
+        }
+
+        /**
+         * Avança o cursor das chaves referenciadas até a chave do objeto (ambas crescentes).
+         */
+        private boolean referenciada(String chave) {
+            while (true) {
+                String atual = referenciaAtual();
+                if (atual == null) {
+                    return false;
+                }
+                int comparacao = compararBinario(atual, chave);
+                if (comparacao == 0) {
+                    return true;
+                }
+                if (comparacao > 0) {
+                    return false;
+                }
+                posicao++;
+            }
+        }
+
+        private String referenciaAtual() {
+            if (posicao >= trecho.size()) {
+                if (referenciasEsgotadas) {
+                    return null;
+                }
+                trecho = objetoRepository.listarChavesReferenciadasApos(ultimaReferencia, tamanhoTrecho);
+                posicao = 0;
+                if (trecho.size() < tamanhoTrecho) {
+                    referenciasEsgotadas = true;
+                }
+                if (trecho.isEmpty()) {
+                    return null;
+                }
+                ultimaReferencia = trecho.get(trecho.size() - 1);
+            }
+            return trecho.get(posicao);
+        }
+
+        private void verificarDerivados() throws Exception {
+            if (derivadosPendentes.isEmpty()) {
+                return;
+            }
+            Set<String> originais = new LinkedHashSet<>();
+            for (ArmazenamentoObjetos.ObjetoListado derivado : derivadosPendentes) {
+                originais.add(chaveOriginal(derivado.chave()));
+            }
+            Set<String> referenciados = Set.copyOf(objetoRepository.filtrarChavesReferenciadas(originais));
+            for (ArmazenamentoObjetos.ObjetoListado derivado : derivadosPendentes) {
+                if (!referenciados.contains(chaveOriginal(derivado.chave()))) {
+                    adicionarOrfao(derivado);
+                }
+            }
+            derivadosPendentes.clear();
+        }
+
+        private void adicionarOrfao(ArmazenamentoObjetos.ObjetoListado objeto) throws Exception {
+            orfaosPendentes.add(objeto);
+            if (orfaosPendentes.size() >= tamanhoLote) {
+                removerPendentes();
+            }
+        }
+
+        private void removerPendentes() throws Exception {
+            if (orfaosPendentes.isEmpty()) {
+                return;
+            }
+            Set<String> falhas = Set.of();
+            if (!apenasSimular) {
+                limitador.asBlocking().consume(1);
+                falhas = minioService.removerObjetosOrfaos(
+                        orfaosPendentes.stream().map(ArmazenamentoObjetos.ObjetoListado::chave).toList());
+            }
+            for (ArmazenamentoObjetos.ObjetoListado objeto : orfaosPendentes) {
+                if (falhas.contains(objeto.chave())) {
+                    logger.warn("Não foi possível remover o objeto órfão {}", objeto.chave());
+                    continue;
+                }
+                orfaos++;
+                bytesRecuperados += objeto.tamanho();
+                contadorObjetos.increment();
+                contadorBytes.increment(objeto.tamanho());
+                if (apenasSimular) {
+                    logger.debug("Objeto órfão (simulação): {}", objeto.chave());
+                }
+            }
+            orfaosPendentes.clear();
+        }
+    }
+
+    private static String chaveOriginal(String chaveDerivada) {
+        return chaveDerivada.substring(0, chaveDerivada.indexOf(RedimensionamentoImagemService.SUFIXO_DERIVADOS));
+    }
+
+    /**
+     * Compara por code point, equivalente à ordem binária UTF-8 do MinIO e da collation "C".
+     * ({@link String#compareTo} compara unidades UTF-16 e diverge para caracteres fora do BMP.)
+     */
+    static int compararBinario(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+}
@@ -0,0 +1,312 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gera variantes redimensionadas de imagens (miniaturas) sob demanda.
+ * <p>
+ * O original é decodificado uma única vez, a variante é gravada de volta no MinIO sob uma chave
+ * derivada ({@code <chave original>.derivados/<largura>x<altura>}) e as próximas requisições apenas
+ * a buscam. Os redimensionamentos rodam em um executor limitado; com a fila cheia, o chamador
+ * recebe o original.
+ * <p>
+ * As dimensões pedidas são arredondadas para cima até a próxima de uma lista curta
+ * ({@code imagens.redimensionamento.dimensoes}), de modo que cada original tenha poucas variantes
+ * possíveis, e a existência de cada variante já gerada fica em cache local, sem um HEAD ao
+ * armazenamento por requisição. Originais com mais pixels que o limite configurado são recusados
+ * pelo cabeçalho, antes de decodificar.
+ * <p>
+ * Também gera, no upload, o marcador de baixa qualidade (LQIP) embutido nos DTOs: um PNG de
+ * poucos pixels em data URI que o frontend amplia com desfoque enquanto a imagem real carrega.
+ */
+@Service
+public class RedimensionamentoImagemService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedimensionamentoImagemService.class);
+
+    public static final String SUFIXO_DERIVADOS = ".derivados/";
+
+    private static final int TAMANHO_CACHE_VARIANTES = 10_000;
+    private static final Duration VALIDADE_CACHE_VARIANTES = Duration.ofMinutes(30);
+
+    /**
+     * Marcador de baixa qualidade e dimensões da imagem original.
+     */
+    public record MarcadorImagem(String dataUri, int largura, int altura) {}
+
+    private final MinioService minioService;
+    private final ThreadPoolExecutor executor;
+    private final int dimensaoMaxima;
+    private final int[] dimensoes;
+    private final long pixelsMaximos;
+    private final long tempoLimiteSegundos;
+    private final int dimensaoMarcador;
+    private final int tamanhoMaximoMarcador;
+
+    // Evita redimensionar a mesma variante em paralelo
+    private final Map<String, CompletableFuture<String>> emAndamento = new ConcurrentHashMap<>();
+
+    // Variantes já confirmadas no armazenamento; as chaves são versionadas e nunca mudam de conteúdo
+    private final Cache<String, Boolean> variantesExistentes = Caffeine.newBuilder()
+            .maximumSize(TAMANHO_CACHE_VARIANTES)
+            .expireAfterWrite(VALIDADE_CACHE_VARIANTES)
+            .build();
+
+    public RedimensionamentoImagemService(
+            MinioService minioService,
+            @Value("${imagens.redimensionamento.threads:2}") int threads,
+            @Value("${imagens.redimensionamento.fila:32}") int tamanhoFila,
+            @Value("${imagens.redimensionamento.dimensao-maxima:1024}") int dimensaoMaxima,
+            @Value("${imagens.redimensionamento.dimensoes:64,128,256,512,1024}") int[] dimensoes,
+            @Value("${imagens.redimensionamento.pixels-maximos:25000000}") long pixelsMaximos,
+            @Value("${imagens.redimensionamento.tempo-limite-segundos:10}") long tempoLimiteSegundos,
+            @Value("${imagens.marcador.dimensao:12}") int dimensaoMarcador,
+            @Value("${imagens.marcador.tamanho-maximo:1024}") int tamanhoMaximoMarcador
+    ) {
+        this.minioService = minioService;
+        this.dimensaoMaxima = dimensaoMaxima;
+        this.dimensoes = Arrays.stream(dimensoes).filter(d -> d > 0 && d <= dimensaoMaxima).sorted().toArray();
+        this.pixelsMaximos = pixelsMaximos;
+        this.tempoLimiteSegundos = tempoLimiteSegundos;
+        this.dimensaoMarcador = dimensaoMarcador;
+        this.tamanhoMaximoMarcador = tamanhoMaximoMarcador;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "redimensionamento-imagem");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Obtém a chave da variante redimensionada, gerando-a se ainda não existir.
+     *
+     * @param chaveOriginal chave do objeto original
+     * @param largura largura máxima desejada (opcional)
+     * @param altura altura máxima desejada (opcional)
+     * @return chave da variante, ou a chave original se não for possível redimensionar
+     */
+    public String obterChaveVariante(String chaveOriginal, Integer largura, Integer altura) {
+        if (chaveOriginal == null || (largura == null && altura == null)) {
+            return chaveOriginal;
+        }
+        int larguraAlvo = limitar(largura);
+        int alturaAlvo = limitar(altura);
+        String chaveDerivada = chaveOriginal + SUFIXO_DERIVADOS + larguraAlvo + "x" + alturaAlvo;
+
+        try {
+            if (variantesExistentes.getIfPresent(chaveDerivada) != null) {
+                return chaveDerivada;
+            }
+            if (minioService.fileExists(chaveDerivada)) {
+                variantesExistentes.put(chaveDerivada, Boolean.TRUE);
+                return chaveDerivada;
+            }
+
+            CompletableFuture<String> novo = new CompletableFuture<>();
+            CompletableFuture<String> existente = emAndamento.putIfAbsent(chaveDerivada, novo);
+            if (existente != null) {
+                return existente.get(tempoLimiteSegundos, TimeUnit.SECONDS);
+            }
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        String gerada = gerarVariante(chaveOriginal, chaveDerivada, larguraAlvo, alturaAlvo);
+                        if (gerada.equals(chaveDerivada)) {
+                            variantesExistentes.put(chaveDerivada, Boolean.TRUE);
+                        }
+                        novo.complete(gerada);
+                    } catch (Exception e) {
+                        novo.completeExceptionally(e);
+                    } finally {
+                        emAndamento.remove(chaveDerivada, novo);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                emAndamento.remove(chaveDerivada, novo);
+                logger.debug("Fila de redimensionamento cheia; servindo original {}", chaveOriginal);
+                return chaveOriginal;
+            }
+            return novo.get(tempoLimiteSegundos, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("Falha ao redimensionar {} para {}x{}; servindo original", chaveOriginal, larguraAlvo, alturaAlvo, e);
+            return chaveOriginal;
+        }
+    }
+
+    private String gerarVariante(String chaveOriginal, String chaveDerivada, int larguraAlvo, int alturaAlvo) throws Exception {
+        ArmazenamentoObjetos.MetadadosObjeto metadados = minioService.obterMetadados(chaveOriginal);
+        BufferedImage original;
+        int largura;
+        int altura;
+        try (InputStream entrada = minioService.abrirLeitura(chaveOriginal, 0, metadados.tamanho());
+             ImageInputStream imagemEntrada = ImageIO.createImageInputStream(entrada)) {
+            Iterator<ImageReader> leitores = ImageIO.getImageReaders(imagemEntrada);
+            if (!leitores.hasNext()) {
+                // Formato não suportado pelo ImageIO: mantém o original
+                return chaveOriginal;
+            }
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(imagemEntrada, true, true);
+                int larguraOriginal = leitor.getWidth(0);
+                int alturaOriginal = leitor.getHeight(0);
+                // Dimensões lidas do cabeçalho: uma imagem pequena em bytes e enorme em pixels é
+                // recusada antes de o decodificador alocar o raster
+                if ((long) larguraOriginal * alturaOriginal > pixelsMaximos) {
+                    logger.warn("Imagem {} com {}x{} pixels excede o limite de {}; servindo original",
+                            chaveOriginal, larguraOriginal, alturaOriginal, pixelsMaximos);
+                    return chaveOriginal;
+                }
+
+                // Encaixa na caixa pedida preservando a proporção, sem ampliar
+                double escala = 1.0;
+                if (larguraAlvo > 0) {
+                    escala = Math.min(escala, (double) larguraAlvo / larguraOriginal);
+                }
+                if (alturaAlvo > 0) {
+                    escala = Math.min(escala, (double) alturaAlvo / alturaOriginal);
+                }
+                largura = Math.max(1, (int) Math.round(larguraOriginal * escala));
+                altura = Math.max(1, (int) Math.round(alturaOriginal * escala));
+
+                // Decodifica com subamostragem, mantendo ao menos o dobro do tamanho final
+                ImageReadParam parametros = leitor.getDefaultReadParam();
+                int passo = Math.max(1, (int) (1 / (escala * 2)));
+                parametros.setSourceSubsampling(passo, passo, 0, 0);
+                original = leitor.read(0, parametros);
+            } finally {
+                leitor.dispose();
+            }
+        }
+
+        boolean png = metadados.tipoConteudo() != null
+                && (metadados.tipoConteudo().contains("png") || metadados.tipoConteudo().contains("gif"));
+        String formato = png ? "png" : "jpg";
+        String tipoConteudo = png ? "image/png" : "image/jpeg";
+
+        BufferedImage redimensionada = new BufferedImage(largura, altura,
+                png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graficos = redimensionada.createGraphics();
+        try {
+            graficos.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graficos.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graficos.drawImage(original, 0, 0, largura, altura, null);
+        } finally {
+            graficos.dispose();
+        }
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(redimensionada, formato, saida);
+        minioService.uploadFile(chaveDerivada, saida.toByteArray(), tipoConteudo);
+        return chaveDerivada;
+    }
+
+    /**
+     * Gera o marcador de baixa qualidade de uma imagem já validada no upload.
+     * <p>
+     * O decodificador lê a imagem com subamostragem, então mesmo originais grandes ocupam
+     * poucos kilobytes de heap. Falhas não impedem o upload: o resultado é apenas opcional.
+     *
+     * @param conteudo conteúdo da imagem (relido a partir da fonte)
+     * @return marcador e dimensões, ou null se o formato não for decodificável
+     */
+    public MarcadorImagem gerarMarcador(InputStreamSource conteudo) {
+        try (InputStream entrada = conteudo.getInputStream();
+             ImageInputStream imagemEntrada = ImageIO.createImageInputStream(entrada)) {
+            Iterator<ImageReader> leitores = ImageIO.getImageReaders(imagemEntrada);
+            if (!leitores.hasNext()) {
+                return null;
+            }
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(imagemEntrada, true, true);
+                int largura = leitor.getWidth(0);
+                int altura = leitor.getHeight(0);
+
+                // Decodifica só o suficiente para uma média de área decente no tamanho final
+                ImageReadParam parametros = leitor.getDefaultReadParam();
+                int passo = Math.max(1, Math.max(largura, altura) / (dimensaoMarcador * 8));
+                parametros.setSourceSubsampling(passo, passo, 0, 0);
+                BufferedImage reduzida = leitor.read(0, parametros);
+
+                double escala = Math.min(1.0, (double) dimensaoMarcador / Math.max(largura, altura));
+                int larguraMarcador = Math.max(1, (int) Math.round(largura * escala));
+                int alturaMarcador = Math.max(1, (int) Math.round(altura * escala));
+
+                BufferedImage marcador = new BufferedImage(larguraMarcador, alturaMarcador, BufferedImage.TYPE_INT_RGB);
+                Graphics2D graficos = marcador.createGraphics();
+                try {
+                    graficos.drawImage(reduzida.getScaledInstance(larguraMarcador, alturaMarcador, Image.SCALE_AREA_AVERAGING),
+                            0, 0, null);
+                } finally {
+                    graficos.dispose();
+                }
+
+                ByteArrayOutputStream saida = new ByteArrayOutputStream();
+                ImageIO.write(marcador, "png", saida);
+                String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(saida.toByteArray());
+                return new MarcadorImagem(dataUri.length() <= tamanhoMaximoMarcador ? dataUri : null, largura, altura);
+            } finally {
+                leitor.dispose();
+            }
+        } catch (Exception e) {
+            logger.warn("Falha ao gerar marcador de imagem", e);
+            return null;
+        }
+    }
+
+    /**
+     * Normaliza a dimensão pedida: ausente vira 0 (livre) e o restante é arredondado para cima até
+     * a próxima dimensão permitida, limitado ao máximo.
+     */
+    private int limitar(Integer dimensao) {
+        if (dimensao == null || dimensao <= 0) {
+            return 0;
+        }
+        for (int permitida : dimensoes) {
+            if (permitida >= dimensao) {
+                return permitida;
+            }
+        }
+        return dimensoes.length > 0 ? dimensoes[dimensoes.length - 1] : Math.min(dimensao, dimensaoMaxima);
+    }
+}
@@ -0,0 +1,29 @@
+package com.seplag.artistalbum.domain.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilitários para efeitos colaterais que dependem do resultado da transação corrente.
+ */
+public final class Transacoes {
+
+    private Transacoes() {}
+
+    /**
+     * Executa a ação somente após o commit da transação corrente, ou imediatamente
+     * se não houver transação ativa. Uma transação desfeita descarta a ação.
+     */
+    public static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.seplag.artistalbum.domain.service;
+
+import com.seplag.artistalbum.application.dto.SessaoUploadDTO;
+import com.seplag.artistalbum.application.dto.TarefaImagemDTO;
+import com.seplag.artistalbum.domain.model.ParteUpload;
+import com.seplag.artistalbum.domain.model.SessaoUpload;
+import com.seplag.artistalbum.domain.port.AlbumRepository;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos.ParteGravada;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import com.seplag.artistalbum.domain.port.ParteUploadRepository;
+import com.seplag.artistalbum.domain.port.SessaoUploadRepository;
+import com.seplag.artistalbum.infrastructure.exception.FileTooLargeException;
+import com.seplag.artistalbum.infrastructure.exception.InvalidImageException;
+import com.seplag.artistalbum.infrastructure.exception.InvalidUploadPartException;
+import com.seplag.artistalbum.infrastructure.exception.ResourceNotFoundException;
+import com.seplag.artistalbum.infrastructure.exception.UploadSessionConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Upload retomável das imagens de álbuns e artistas.
+ * <p>
+ * O cliente cria uma sessão informando o tamanho do arquivo, envia as partes numeradas
+ * ({@code PUT}, cada uma com offset e SHA-256) em qualquer ordem e conclui a sessão. Cada parte
+ * vira uma parte do multipart upload no armazenamento assim que é recebida, então uma conexão
+ * perdida custa apenas a parte em andamento: a sessão informa as partes já recebidas e só as
+ * ausentes são reenviadas. Uma sessão recebe uma parte por vez, de modo que a memória por sessão
+ * fica limitada ao tamanho de parte.
+ * <p>
+ * Na conclusão as partes são juntas em um objeto temporário, que é validado como nos demais
+ * uploads e movido para a chave definitiva. Sessões sem atividade por
+ * {@code imagens.envio.validade-minutos} são descartadas, junto com as partes já gravadas.
+ */
+@Service
+public class UploadRetomavelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadRetomavelService.class);
+
+    private static final String PREFIXO_TEMPORARIO = "envios/";
+
+    private final SessaoUploadRepository sessaoRepository;
+    private final ParteUploadRepository parteRepository;
+    private final AlbumRepository albumRepository;
+    private final ArtistaRepository artistaRepository;
+    private final AlbumService albumService;
+    private final ArtistaService artistaService;
+    private final MinioService minioService;
+    private final TransactionTemplate transacao;
+
+    // Sessões com uma parte sendo recebida neste nó
+    private final Set<String> partesEmAndamento = ConcurrentHashMap.newKeySet();
+
+    // Partes com menos de 5 MB só são aceitas pelo S3 como última parte
+    @Value("${imagens.envio.tamanho-parte:5242880}")
+    private int tamanhoParte = 5242880;
+
+    @Value("${imagens.envio.validade-minutos:60}")
+    private long validadeMinutos = 60;
+
+    @Value("${imagens.envio.tamanho-lote-limpeza:100}")
+    private int tamanhoLoteLimpeza = 100;
+
+    @Value("${minio.upload.tamanho-maximo:20971520}")
+    private long tamanhoMaximoUpload = 20971520;
+
+    public UploadRetomavelService(SessaoUploadRepository sessaoRepository,
+                                  ParteUploadRepository parteRepository,
+                                  AlbumRepository albumRepository,
+                                  ArtistaRepository artistaRepository,
+                                  AlbumService albumService,
+                                  ArtistaService artistaService,
+                                  MinioService minioService,
+                                  PlatformTransactionManager transactionManager) {
+        this.sessaoRepository = sessaoRepository;
+        this.parteRepository = parteRepository;
+        this.albumRepository = albumRepository;
+        this.artistaRepository = artistaRepository;
+        this.albumService = albumService;
+        this.artistaService = artistaService;
+        this.minioService = minioService;
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Cria uma sessão de upload retomável para a capa do álbum.
+     */
+    public SessaoUploadDTO iniciarCapaAlbum(Long idAlbum, String nomeArquivo, long tamanho) {
+        if (!albumRepository.existsById(idAlbum)) {
+            throw new ResourceNotFoundException("Álbum não encontrado com id: " + idAlbum);
+        }
+        return iniciar(TarefaImagemDTO.TIPO_CAPA_ALBUM, idAlbum, nomeArquivo, tamanho);
+    }
+
+    /**
+     * Cria uma sessão de upload retomável para a foto de perfil do artista.
+     */
+    public SessaoUploadDTO iniciarFotoArtista(Long idArtista, String nomeArquivo, long tamanho) {
+        if (!artistaRepository.existsById(idArtista)) {
+            throw new ResourceNotFoundException("Artista não encontrado com id: " + idArtista);
+        }
+        return iniciar(TarefaImagemDTO.TIPO_FOTO_ARTISTA, idArtista, nomeArquivo, tamanho);
+    }
+
+    /**
+     * Estado da sessão, com as partes já recebidas (as demais devem ser enviadas).
+     */
+    public SessaoUploadDTO obterSessao(String id) {
+        return converterParaDTO(carregar(id));
+    }
+
+    /**
+     * Recebe uma parte. Reenviar uma parte já recebida a substitui.
+     *
+     * @param numero número da parte, a partir de 1
+     * @param offset posição da parte no arquivo; deve ser {@code (numero - 1) * tamanhoParte}
+     * @param sha256 SHA-256 da parte em hexadecimal
+     */
+    public void receberParte(String id, int numero, long offset, String sha256, InputStream conteudo) {
+        SessaoUpload sessao = carregar(id);
+        if (numero < 1 || numero > sessao.getTotalPartes()) {
+            throw new InvalidUploadPartException("Número de parte inválido: " + numero
+                    + " (a sessão tem " + sessao.getTotalPartes() + " partes)");
+        }
+        long offsetEsperado = (long) (numero - 1) * sessao.getTamanhoParte();
+        if (offset != offsetEsperado) {
+            throw new InvalidUploadPartException("A parte " + numero + " começa no offset " + offsetEsperado);
+        }
+        if (sha256 == null || !sha256.matches("[0-9a-fA-F]{64}")) {
+            throw new InvalidUploadPartException("Informe o SHA-256 da parte em hexadecimal");
+        }
+        if (sessaoRepository.renovar(id, LocalDateTime.now().plusMinutes(validadeMinutos)) == 0) {
+            throw new UploadSessionConflictException("A sessão de upload não aceita mais partes");
+        }
+        if (!partesEmAndamento.add(id)) {
+            throw new UploadSessionConflictException("Já há uma parte desta sessão sendo recebida");
+        }
+        try {
+            int tamanho = sessao.getTamanhoEsperado(numero);
+            String etag = minioService.gravarParte(sessao.getChaveTemporaria(), sessao.getIdEnvio(), numero,
+                    conteudo, tamanho, sha256);
+            parteRepository.registrar(id, numero, tamanho, sha256.toLowerCase(), etag);
+        } catch (InvalidUploadPartException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Falha ao gravar a parte " + numero + " do upload", e);
+        } finally {
+            partesEmAndamento.remove(id);
+        }
+    }
+
+    /**
+     * Conclui a sessão: junta as partes, valida a imagem e a associa ao álbum ou artista.
+     * Falhas do armazenamento devolvem a sessão ao estado aberto para uma nova tentativa;
+     * uma imagem recusada encerra a sessão.
+     *
+     * @return o álbum ou o artista atualizado
+     */
+    public Object concluir(String id) {
+        SessaoUpload sessao = carregar(id);
+        if (sessaoRepository.reservarConclusao(id) == 0) {
+            throw new UploadSessionConflictException("A sessão de upload já está sendo concluída");
+        }
+        boolean montada = sessao.getMontada();
+        try {
+            if (!montada) {
+                List<ParteUpload> partes = parteRepository.findByIdSessaoOrderByNumero(id);
+                List<Integer> ausentes = partesAusentes(sessao, partes);
+                if (!ausentes.isEmpty()) {
+                    sessaoRepository.reabrir(id, false);
+                    throw new UploadSessionConflictException("Partes ainda não recebidas: " + ausentes);
+                }
+                minioService.concluirEnvioEmPartes(sessao.getChaveTemporaria(), sessao.getIdEnvio(),
+                        partes.stream().map(parte -> new ParteGravada(parte.getNumero(), parte.getEtag())).toList());
+                montada = true;
+            }
+
+            Object resultado;
+            if (TarefaImagemDTO.TIPO_CAPA_ALBUM.equals(sessao.getTipo())) {
+                resultado = albumService.concluirUploadImagemCapa(sessao.getIdRecurso(),
+                        sessao.getChaveTemporaria(), sessao.getNomeArquivo());
+            } else {
+                resultado = artistaService.concluirUploadFotoPerfil(sessao.getIdRecurso(),
+                        sessao.getChaveTemporaria(), sessao.getNomeArquivo());
+            }
+            sessaoRepository.deleteById(id);
+            return resultado;
+        } catch (UploadSessionConflictException e) {
+            throw e;
+        } catch (InvalidImageException | FileTooLargeException | ResourceNotFoundException e) {
+            // Definitivo: repetir a conclusão não mudaria o resultado
+            descartar(sessao, montada);
+            throw e;
+        } catch (Exception e) {
+            sessaoRepository.reabrir(id, montada);
+            throw new RuntimeException("Falha ao concluir o upload", e);
+        }
+    }
+
+    /**
+     * Cancela a sessão e descarta as partes já gravadas.
+     */
+    public void cancelar(String id) {
+        SessaoUpload sessao = carregar(id);
+        if (sessaoRepository.reservarConclusao(id) == 0) {
+            throw new UploadSessionConflictException("A sessão de upload já está sendo concluída");
+        }
+        descartar(sessao, sessao.getMontada());
+    }
+
+    /**
+     * Descarta sessões abandonadas: as linhas vencidas são removidas em lote (SKIP LOCKED, para
+     * várias instâncias) e os envios em partes são abortados no armazenamento depois do commit.
+     */
+    @Scheduled(fixedDelayString = "${imagens.envio.intervalo-limpeza-ms:300000}")
+    public void descartarExpiradas() {
+        try {
+            List<SessaoUpload> expiradas;
+            do {
+                expiradas = transacao.execute(status -> {
+                    List<SessaoUpload> lote = sessaoRepository.bloquearLoteExpirado(tamanhoLoteLimpeza);
+                    sessaoRepository.deleteAllInBatch(lote);
+                    return lote;
+                });
+                List<CompletableFuture<Void>> abortos = new ArrayList<>();
+                for (SessaoUpload sessao : expiradas) {
+                    abortos.add(liberarArmazenamento(sessao, sessao.getMontada()));
+                }
+                CompletableFuture.allOf(abortos.toArray(CompletableFuture[]::new)).join();
+                if (!expiradas.isEmpty()) {
+                    logger.info("{} sessões de upload expiradas descartadas", expiradas.size());
+                }
+            } while (expiradas.size() == tamanhoLoteLimpeza);
+        } catch (Exception e) {
+            logger.error("Falha ao descartar sessões de upload expiradas", e);
+        }
+    }
+
+    private SessaoUploadDTO iniciar(String tipo, Long idRecurso, String nomeArquivo, long tamanho) {
+        if (tamanho > tamanhoMaximoUpload) {
+            throw new FileTooLargeException("O arquivo excede o tamanho máximo de " + tamanhoMaximoUpload + " bytes");
+        }
+        String id = UUID.randomUUID().toString();
+        String chaveTemporaria = PREFIXO_TEMPORARIO + id;
+        String idEnvio;
+        try {
+            idEnvio = minioService.iniciarEnvioEmPartes(chaveTemporaria);
+        } catch (Exception e) {
+            throw new RuntimeException("Falha ao iniciar o upload", e);
+        }
+        SessaoUpload sessao = sessaoRepository.save(new SessaoUpload(id, tipo, idRecurso, nomeArquivo, tamanho,
+                tamanhoParte, chaveTemporaria, idEnvio, LocalDateTime.now().plusMinutes(validadeMinutos)));
+        return converterParaDTO(sessao);
+    }
+
+    private SessaoUpload carregar(String id) {
+        SessaoUpload sessao = sessaoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Sessão de upload não encontrada com id: " + id));
+        if (sessao.getExpiraEm().isBefore(LocalDateTime.now())) {
+            throw new ResourceNotFoundException("Sessão de upload expirada: " + id);
+        }
+        return sessao;
+    }
+
+    private static List<Integer> partesAusentes(SessaoUpload sessao, List<ParteUpload> partes) {
+        List<Integer> ausentes = new ArrayList<>();
+        int indice = 0;
+        for (int numero = 1; numero <= sessao.getTotalPartes(); numero++) {
+            if (indice < partes.size() && partes.get(indice).getNumero() == numero) {
+                indice++;
+            } else {
+                ausentes.add(numero);
+            }
+        }
+        return ausentes;
+    }
+
+    private void descartar(SessaoUpload sessao, boolean montada) {
+        sessaoRepository.deleteById(sessao.getId());
+        liberarArmazenamento(sessao, montada).join();
+    }
+
+    /**
+     * Aborta o envio em partes ou, se já montado, remove o objeto temporário. Melhor esforço:
+     * o que ficar para trás é recolhido pela reconciliação de órfãos.
+     */
+    private CompletableFuture<Void> liberarArmazenamento(SessaoUpload sessao, boolean montada) {
+        CompletableFuture<Void> liberacao;
+        if (montada) {
+            try {
+                minioService.deleteFile(sessao.getChaveTemporaria());
+                liberacao = CompletableFuture.completedFuture(null);
+            } catch (Exception e) {
+                liberacao = CompletableFuture.failedFuture(e);
+            }
+        } else {
+            liberacao = minioService.abortarEnvioEmPartes(sessao.getChaveTemporaria(), sessao.getIdEnvio());
+        }
+        return liberacao.exceptionally(erro -> {
+            logger.warn("Não foi possível liberar o upload {} no armazenamento", sessao.getId(), erro);
+            return null;
+        });
+    }
+
+    private SessaoUploadDTO converterParaDTO(SessaoUpload sessao) {
+        return new SessaoUploadDTO(
+                sessao.getId(),
+                sessao.getTipo(),
+                sessao.getIdRecurso(),
+                sessao.getNomeArquivo(),
+                sessao.getTamanhoTotal(),
+                sessao.getTamanhoParte(),
+                sessao.getTotalPartes(),
+                parteRepository.listarNumeros(sessao.getId()),
+                sessao.getStatus(),
+                sessao.getExpiraEm()
+        );
+    }
+}
@@ -0,0 +1,64 @@
+package com.seplag.artistalbum.domain.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Acompanha se o endpoint público do MinIO (o das URLs pré-assinadas) está respondendo.
+ * A verificação roda em segundo plano; as requisições apenas leem o último resultado, sem
+ * pagar a latência do teste.
+ */
+@Component
+public class VerificadorEndpointPublico {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerificadorEndpointPublico.class);
+
+    private final HttpClient cliente;
+    private final URI urlVerificacao;
+    private final Duration tempoLimite;
+    private volatile boolean disponivel;
+
+    public VerificadorEndpointPublico(
+            @Value("${minio.public-endpoint}") String publicEndpoint,
+            // Quando o host público não é resolvível de dentro da API (ex.: docker), aponte para uma rota equivalente
+            @Value("${imagens.entrega.url-verificacao:}") String urlVerificacao,
+            @Value("${imagens.entrega.tempo-limite-verificacao-ms:1000}") long tempoLimiteMs) {
+        this.tempoLimite = Duration.ofMillis(tempoLimiteMs);
+        this.cliente = HttpClient.newBuilder().connectTimeout(tempoLimite).build();
+        this.urlVerificacao = URI.create(urlVerificacao.isBlank()
+                ? publicEndpoint.replaceAll("/+$", "") + "/minio/health/live"
+                : urlVerificacao);
+    }
+
+    @Scheduled(fixedDelayString = "${imagens.entrega.intervalo-verificacao-ms:15000}")
+    public void verificar() {
+        boolean anterior = disponivel;
+        try {
+            HttpResponse<Void> resposta = cliente.send(
+                    HttpRequest.newBuilder(urlVerificacao).timeout(tempoLimite).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            disponivel = resposta.statusCode() < 500;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            disponivel = false;
+        } catch (Exception e) {
+            disponivel = false;
+        }
+        if (anterior != disponivel) {
+            logger.info("Endpoint público do MinIO {} ({})", disponivel ? "disponível" : "indisponível", urlVerificacao);
+        }
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+}
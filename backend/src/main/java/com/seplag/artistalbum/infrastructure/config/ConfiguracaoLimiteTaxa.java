@@ -14,10 +14,15 @@ public class ConfiguracaoLimiteTaxa {
     @Bean
     public Bucket criarNovoBucket() {
         // 10 requisições por minuto
+        return porMinuto(10);
+    }
+
+    /**
+     * Bucket próprio para rotas que não devem disputar o limite global (ver {@link ConfiguracaoWeb}).
+     */
+    public static Bucket porMinuto(long requisicoes) {
         return Bucket.builder()
-                .addLimit(Bandwidth.classic(10, Refill.greedy(10, Duration.ofMinutes(1))))
+                .addLimit(Bandwidth.classic(requisicoes, Refill.greedy(requisicoes, Duration.ofMinutes(1))))
                 .build();
     }
 }
-
-
@@ -1,6 +1,7 @@
 package com.seplag.artistalbum.infrastructure.config;
 
 import com.seplag.artistalbum.infrastructure.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -39,13 +40,17 @@ public class ConfiguracaoSeguranca {
             .cors(cors -> cors.configurationSource(fonteConfiguracaoCors()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authz -> authz
+                // Conclusão das respostas em stream: a requisição original já foi autorizada
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers("/ws/**").permitAll()
                 .requestMatchers("/v1/albuns/capa/**").permitAll()
                 .requestMatchers("/v1/artistas/foto/**").permitAll()
+                .requestMatchers("/v1/albuns/capas", "/v1/artistas/fotos").permitAll()
                 .requestMatchers("/").permitAll()
+                .requestMatchers("/v1/imagens/importacoes/**", "/v1/catalogo/importacoes/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
 
             )
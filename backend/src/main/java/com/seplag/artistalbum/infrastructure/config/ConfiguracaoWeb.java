@@ -1,5 +1,6 @@
 package com.seplag.artistalbum.infrastructure.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -8,9 +9,15 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class ConfiguracaoWeb implements WebMvcConfigurer {
 
     private final InterceptadorLimiteTaxa interceptadorLimiteTaxa;
+    private final long partesUploadPorMinuto;
+    private final long sugestoesPorMinuto;
 
-    public ConfiguracaoWeb(InterceptadorLimiteTaxa interceptadorLimiteTaxa) {
+    public ConfiguracaoWeb(InterceptadorLimiteTaxa interceptadorLimiteTaxa,
+                           @Value("${limite-taxa.partes-upload.por-minuto:120}") long partesUploadPorMinuto,
+                           @Value("${limite-taxa.sugestoes.por-minuto:300}") long sugestoesPorMinuto) {
         this.interceptadorLimiteTaxa = interceptadorLimiteTaxa;
+        this.partesUploadPorMinuto = partesUploadPorMinuto;
+        this.sugestoesPorMinuto = sugestoesPorMinuto;
     }
 
     @Override
@@ -26,8 +33,27 @@ public class ConfiguracaoWeb implements WebMvcConfigurer {
                     "/v1/albuns/capa/**",
                     "/api/v1/albuns/capa/**",
                     "/v1/artistas/foto/**",
-                    "/api/v1/artistas/foto/**"
+                    "/api/v1/artistas/foto/**",
+                    "/v1/albuns/capas",
+                    "/api/v1/albuns/capas",
+                    "/v1/artistas/fotos",
+                    "/api/v1/artistas/fotos",
+                    // Partes de um upload retomável: bucket próprio, abaixo
+                    "/v1/imagens/envios/*/partes/**",
+                    "/api/v1/imagens/envios/*/partes/**",
+                    // Autocompletar: uma requisição por tecla, bucket próprio, abaixo
+                    "/v1/busca/sugestoes",
+                    "/api/v1/busca/sugestoes"
                 );
+        // Uma imagem chega em várias partes (e reenvios): com o limite global, um único upload esgotaria
+        // o minuto de todos os clientes. As partes têm um bucket próprio, que também limita reenvios.
+        registro.addInterceptor(new InterceptadorLimiteTaxa(
+                        ConfiguracaoLimiteTaxa.porMinuto(partesUploadPorMinuto), partesUploadPorMinuto))
+                .addPathPatterns("/v1/imagens/envios/*/partes/**", "/api/v1/imagens/envios/*/partes/**");
+        // Sugestões saem do índice em memória, sem banco: o limite só protege contra abuso
+        registro.addInterceptor(new InterceptadorLimiteTaxa(
+                        ConfiguracaoLimiteTaxa.porMinuto(sugestoesPorMinuto), sugestoesPorMinuto))
+                .addPathPatterns("/v1/busca/sugestoes", "/api/v1/busca/sugestoes");
     }
 }
 
@@ -0,0 +1,41 @@
+package com.seplag.artistalbum.infrastructure.config;
+
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoDTO;
+import com.seplag.artistalbum.domain.service.ImportacaoImagensService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * Importação de imagens pela linha de comando: com {@code --imagens.importacao.origem=<zip ou diretório>}
+ * a importação roda na subida da aplicação e o relatório vai para o log.
+ */
+@Component
+@ConditionalOnProperty(name = "imagens.importacao.origem")
+public class ImportacaoImagensRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoImagensRunner.class);
+
+    private final ImportacaoImagensService importacaoImagens;
+    private final String origem;
+
+    public ImportacaoImagensRunner(ImportacaoImagensService importacaoImagens,
+                                   @Value("${imagens.importacao.origem}") String origem) {
+        this.importacaoImagens = importacaoImagens;
+        this.origem = origem;
+    }
+
+    @Override
+    public void run(ApplicationArguments argumentos) throws Exception {
+        RelatorioImportacaoDTO relatorio = importacaoImagens.importar(Paths.get(origem));
+        for (RelatorioImportacaoDTO.FalhaImportacao falha : relatorio.getDetalhesFalhas()) {
+            logger.warn("Falha na importação de {}: {}", falha.getArquivo(), falha.getMotivo());
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.seplag.artistalbum.infrastructure.config;
 
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -12,13 +14,24 @@ import org.springframework.web.servlet.HandlerInterceptor;
 public class InterceptadorLimiteTaxa implements HandlerInterceptor {
 
     private final Bucket bucket;
+    private final long limitePorMinuto;
 
+    @Autowired
     public InterceptadorLimiteTaxa(Bucket bucket) {
+        this(bucket, 10);
+    }
+
+    public InterceptadorLimiteTaxa(Bucket bucket, long limitePorMinuto) {
         this.bucket = bucket;
+        this.limitePorMinuto = limitePorMinuto;
     }
 
     @Override
     public boolean preHandle(HttpServletRequest requisicao, HttpServletResponse resposta, Object manipulador) throws Exception {
+        // Conclusão de uma resposta em stream: a requisição já foi contada no despacho original
+        if (requisicao.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
         ConsumptionProbe sonda = bucket.tryConsumeAndReturnRemaining(1);
 
         if (sonda.isConsumed()) {
@@ -29,7 +42,9 @@ public class InterceptadorLimiteTaxa implements HandlerInterceptor {
             resposta.addHeader("X-Rate-Limit-Retry-After-Seconds", String.valueOf(aguardarReabastecimento));
             resposta.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             resposta.setContentType("application/json;charset=UTF-8");
-            resposta.getWriter().write("{\"mensagem\": \"Rate limit de 10 requisições alcançada, tente novamente em 1 minuto\"}");
+            resposta.getWriter().write(String.format(
+                    "{\"mensagem\": \"Rate limit de %d requisições alcançada, tente novamente em 1 minuto\"}",
+                    limitePorMinuto));
             return false;
         }
     }
@@ -0,0 +1,8 @@
+package com.seplag.artistalbum.infrastructure.exception;
+
+public class InvalidBatchSizeException extends RuntimeException {
+
+    public InvalidBatchSizeException(String message) {
+        super(message);
+    }
+}
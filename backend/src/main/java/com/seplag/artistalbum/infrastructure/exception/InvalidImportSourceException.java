@@ -0,0 +1,8 @@
+package com.seplag.artistalbum.infrastructure.exception;
+
+public class InvalidImportSourceException extends RuntimeException {
+
+    public InvalidImportSourceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.seplag.artistalbum.infrastructure.exception;
+
+public class InvalidUploadPartException extends RuntimeException {
+
+    public InvalidUploadPartException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.seplag.artistalbum.infrastructure.exception;
+
+public class ProcessingQueueFullException extends RuntimeException {
+
+    public ProcessingQueueFullException(String message) {
+        super(message);
+    }
+}
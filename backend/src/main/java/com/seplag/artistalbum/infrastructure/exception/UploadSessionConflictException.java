@@ -0,0 +1,8 @@
+package com.seplag.artistalbum.infrastructure.exception;
+
+public class UploadSessionConflictException extends RuntimeException {
+
+    public UploadSessionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,325 @@
+package com.seplag.artistalbum.infrastructure.storage;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import io.minio.BucketExistsArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.Directive;
+import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.UploadPartResponse;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import io.minio.messages.Part;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backend MinIO/S3 da porta de armazenamento, com o cliente assíncrono: metadados, existência e
+ * remoções retornam futuros que o chamador pode combinar sem bloquear uma thread por requisição.
+ */
+@Component
+@ConditionalOnProperty(name = "armazenamento.backend", havingValue = "minio", matchIfMissing = true)
+public class ArmazenamentoMinio implements ArmazenamentoObjetos {
+
+    private final ClienteMinio cliente;
+    private final MinioAsyncClient clientePublico;
+    private final String bucketName;
+
+    // O bucket só é verificado (e criado, se preciso) na primeira gravação
+    private volatile boolean bucketVerificado;
+
+    public ArmazenamentoMinio(
+            @Value("${minio.endpoint}") String endpoint,
+            @Value("${minio.public-endpoint}") String publicEndpoint,
+            @Value("${minio.access-key}") String accessKey,
+            @Value("${minio.secret-key}") String secretKey,
+            @Value("${minio.bucket-name}") String bucketName
+    ) {
+        this.bucketName = bucketName;
+        this.cliente = new ClienteMinio(MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .region("us-east-1")
+                .build());
+        // Assina URLs com o host visto pelo navegador; a assinatura é local (região fixa)
+        this.clientePublico = MinioAsyncClient.builder()
+                .endpoint(publicEndpoint)
+                .credentials(accessKey, secretKey)
+                .region("us-east-1")
+                .build();
+    }
+
+    @Override
+    public void gravar(String chave, InputStream conteudo, long tamanho, long tamanhoParte, String tipoConteudo) throws Exception {
+        garantirBucket();
+        aguardar(cliente.putObject(
+                PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(chave)
+                        .stream(conteudo, tamanho, tamanho >= 0 ? -1 : tamanhoParte)
+                        .contentType(tipoConteudo)
+                        .build()
+        ));
+    }
+
+    @Override
+    public String iniciarEnvioEmPartes(String chave, String tipoConteudo) throws Exception {
+        garantirBucket();
+        return aguardar(cliente.criarEnvio(bucketName, chave, tipoConteudo));
+    }
+
+    @Override
+    public String gravarParte(String chave, String idEnvio, int numero, byte[] conteudo, int tamanho) throws Exception {
+        return aguardar(cliente.enviarParte(bucketName, chave, idEnvio, numero, conteudo, tamanho));
+    }
+
+    @Override
+    public void concluirEnvioEmPartes(String chave, String idEnvio, List<ParteGravada> partes) throws Exception {
+        Part[] partesS3 = partes.stream()
+                .map(parte -> new Part(parte.numero(), parte.etag()))
+                .toArray(Part[]::new);
+        aguardar(cliente.concluirEnvio(bucketName, chave, idEnvio, partesS3));
+    }
+
+    @Override
+    public CompletableFuture<Void> abortarEnvioEmPartes(String chave, String idEnvio) {
+        return assincrono(() -> cliente.abortarEnvio(bucketName, chave, idEnvio));
+    }
+
+    @Override
+    public CompletableFuture<Void> mover(String origem, String destino, String tipoConteudo) {
+        // O S3 não renomeia: cópia no servidor (com o tipo real no lugar do provisório) e remoção
+        return assincrono(() -> cliente.copyObject(
+                CopyObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(destino)
+                        .source(CopySource.builder().bucket(bucketName).object(origem).build())
+                        .headers(Map.of("Content-Type", tipoConteudo))
+                        .metadataDirective(Directive.REPLACE)
+                        .build()
+        )).thenCompose(copia -> remover(origem));
+    }
+
+    @Override
+    public CompletableFuture<MetadadosObjeto> obterMetadados(String chave) {
+        return assincrono(() -> cliente.statObject(
+                StatObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(chave)
+                        .build()
+        )).thenApply(stat -> new MetadadosObjeto(stat.size(), stat.contentType(), stat.etag()));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existe(String chave) {
+        return obterMetadados(chave)
+                .thenApply(metadados -> true)
+                .exceptionally(erro -> false);
+    }
+
+    @Override
+    public InputStream abrirLeitura(String chave, long offset, long tamanho) throws Exception {
+        return aguardar(cliente.getObject(
+                GetObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(chave)
+                        .offset(offset)
+                        .length(tamanho)
+                        .build()
+        ));
+    }
+
+    @Override
+    public CompletableFuture<Void> remover(String chave) {
+        return assincrono(() -> cliente.removeObject(
+                RemoveObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(chave)
+                        .build()
+        ));
+    }
+
+    @Override
+    public Set<String> removerEmLote(Collection<String> chaves) throws Exception {
+        Set<String> falhas = new HashSet<>();
+        if (chaves.isEmpty()) {
+            return falhas;
+        }
+        List<DeleteObject> objetos = new ArrayList<>(chaves.size());
+        for (String chave : chaves) {
+            objetos.add(new DeleteObject(chave));
+        }
+        // O iterável é preguiçoso: as requisições (até 1000 chaves cada) só acontecem ao percorrê-lo
+        Iterable<Result<DeleteError>> erros = cliente.removeObjects(
+                RemoveObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .objects(objetos)
+                        .build()
+        );
+        for (Result<DeleteError> erro : erros) {
+            falhas.add(erro.get().objectName());
+        }
+        return falhas;
+    }
+
+    @Override
+    public Iterable<ObjetoListado> listar(String prefixo) {
+        Iterable<Result<Item>> itens = cliente.listObjects(
+                ListObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .prefix(prefixo)
+                        .recursive(true)
+                        .build()
+        );
+        return () -> new Iterator<>() {
+            private final Iterator<Result<Item>> iterador = itens.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterador.hasNext();
+            }
+
+            @Override
+            public ObjetoListado next() {
+                try {
+                    Item item = iterador.next().get();
+                    return new ObjetoListado(item.objectName(), item.size(), item.lastModified().toInstant());
+                } catch (Exception e) {
+                    throw new IllegalStateException("Falha ao listar o bucket " + bucketName, e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean suportaUrlsPreAssinadas() {
+        return true;
+    }
+
+    @Override
+    public String gerarUrlPreAssinada(String chave, int expiracaoMinutos) throws Exception {
+        return clientePublico.getPresignedObjectUrl(
+                GetPresignedObjectUrlArgs.builder()
+                        .method(Method.GET)
+                        .bucket(bucketName)
+                        .object(chave)
+                        .expiry(expiracaoMinutos, TimeUnit.MINUTES)
+                        .build()
+        );
+    }
+
+    @Override
+    public Path caminhoLocal(String chave) {
+        return null;
+    }
+
+    private void garantirBucket() throws Exception {
+        if (bucketVerificado) {
+            return;
+        }
+        boolean existe = aguardar(cliente.bucketExists(
+                BucketExistsArgs.builder()
+                        .bucket(bucketName)
+                        .build()
+        ));
+        if (!existe) {
+            aguardar(cliente.makeBucket(
+                    MakeBucketArgs.builder()
+                            .bucket(bucketName)
+                            .build()
+            ));
+        }
+        bucketVerificado = true;
+    }
+
+    /**
+     * As chamadas de multipart upload de baixo nível são protegidas no cliente; esta subclasse as
+     * expõe ao adaptador, para que cada parte do upload retomável vire uma parte no S3.
+     */
+    private static final class ClienteMinio extends MinioAsyncClient {
+
+        ClienteMinio(MinioAsyncClient cliente) {
+            super(cliente);
+        }
+
+        CompletableFuture<String> criarEnvio(String bucket, String chave, String tipoConteudo) throws Exception {
+            return createMultipartUploadAsync(bucket, null, chave,
+                    ImmutableMultimap.of("Content-Type", tipoConteudo), ImmutableMultimap.of())
+                    .thenApply(resposta -> resposta.result().uploadId());
+        }
+
+        CompletableFuture<String> enviarParte(String bucket, String chave, String idEnvio, int numero,
+                                              byte[] conteudo, int tamanho) throws Exception {
+            return uploadPartAsync(bucket, null, chave, conteudo, tamanho, idEnvio, numero,
+                    ImmutableMultimap.of(), ImmutableMultimap.of())
+                    .thenApply(UploadPartResponse::etag);
+        }
+
+        CompletableFuture<ObjectWriteResponse> concluirEnvio(String bucket, String chave, String idEnvio,
+                                                             Part[] partes) throws Exception {
+            return completeMultipartUploadAsync(bucket, null, chave, idEnvio, partes,
+                    ImmutableMultimap.of(), ImmutableMultimap.of());
+        }
+
+        CompletableFuture<Void> abortarEnvio(String bucket, String chave, String idEnvio) throws Exception {
+            return abortMultipartUploadAsync(bucket, null, chave, idEnvio,
+                    ImmutableMultimap.of(), ImmutableMultimap.of())
+                    .thenApply(resposta -> null);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChamadaAssincrona<T> {
+        CompletableFuture<T> executar() throws Exception;
+    }
+
+    /**
+     * O cliente assíncrono ainda declara exceções verificadas na montagem da requisição;
+     * elas viram um futuro com falha, como os erros de rede.
+     */
+    private static <T> CompletableFuture<T> assincrono(ChamadaAssincrona<T> chamada) {
+        try {
+            return chamada.executar();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> futuro) throws Exception {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.seplag.artistalbum.infrastructure.storage;
+
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.service.EntradaImagemInspecionada;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Backend de sistema de arquivos da porta de armazenamento, para implantações de um só nó.
+ * <p>
+ * A chave do objeto é o caminho relativo ao diretório raiz. A gravação vai para um arquivo
+ * temporário no mesmo diretório, é sincronizada em disco e só então renomeada atomicamente sobre o
+ * destino, de modo que leitores nunca veem conteúdo parcial. As leituras expõem o próprio arquivo
+ * ({@link #caminhoLocal}), que o proxy de imagens entrega por {@link FileChannel#transferTo}
+ * sem passar pelo cache em disco nem por HTTP. Não há URLs pré-assinadas: o modo de entrega por
+ * redirecionamento recai no proxy.
+ * <p>
+ * O tipo de conteúdo informado na gravação fica num arquivo irmão oculto ({@code .<nome>.tipo}),
+ * gravado antes de o objeto aparecer no destino; os metadados o leem de lá, sem abrir o objeto.
+ * <p>
+ * Envios em partes ficam em {@code .partes/<id>/}, uma parte por arquivo; a conclusão as concatena
+ * com {@link FileChannel#transferTo} e renomeia o resultado como em {@link #gravar}. Caminhos
+ * iniciados por ponto não são objetos e ficam fora da listagem.
+ */
+@Component
+@ConditionalOnProperty(name = "armazenamento.backend", havingValue = "local")
+public class ArmazenamentoSistemaArquivos implements ArmazenamentoObjetos {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArmazenamentoSistemaArquivos.class);
+
+    private static final String PREFIXO_TEMPORARIO = ".gravando-";
+    private static final String DIRETORIO_PARTES = ".partes";
+    private static final String SUFIXO_TIPO = ".tipo";
+    private static final String ARQUIVO_TIPO_ENVIO = "tipo";
+    private static final String TIPO_DESCONHECIDO = "application/octet-stream";
+
+    // Ordem binária UTF-8, a mesma do S3 e de COLLATE "C"
+    private static final Comparator<String> ORDEM_BINARIA =
+            (a, b) -> Arrays.compareUnsigned(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+
+    private final Path raiz;
+
+    public ArmazenamentoSistemaArquivos(
+            @Value("${armazenamento.local.diretorio:${java.io.tmpdir}/artist-album-objetos}") String diretorio
+    ) throws IOException {
+        this.raiz = Paths.get(diretorio).toAbsolutePath().normalize();
+        Files.createDirectories(raiz);
+        logger.info("Armazenamento de objetos em sistema de arquivos: {}", raiz);
+    }
+
+    @Override
+    public void gravar(String chave, InputStream conteudo, long tamanho, long tamanhoParte, String tipoConteudo) throws Exception {
+        Path destino = resolver(chave);
+        Files.createDirectories(destino.getParent());
+        Path temporario = Files.createTempFile(destino.getParent(), PREFIXO_TEMPORARIO, null);
+        try {
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+                OutputStream saida = Channels.newOutputStream(canal);
+                conteudo.transferTo(saida);
+                canal.force(true);
+            }
+            gravarTipo(destino, tipoConteudo);
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+    }
+
+    @Override
+    public String iniciarEnvioEmPartes(String chave, String tipoConteudo) throws IOException {
+        String idEnvio = UUID.randomUUID().toString();
+        Path diretorio = Files.createDirectories(diretorioPartes(idEnvio));
+        if (tipoConteudo != null) {
+            // Partes são arquivos numerados; o tipo fica ao lado até a conclusão
+            Files.writeString(diretorio.resolve(ARQUIVO_TIPO_ENVIO), tipoConteudo, StandardCharsets.UTF_8);
+        }
+        return idEnvio;
+    }
+
+    @Override
+    public String gravarParte(String chave, String idEnvio, int numero, byte[] conteudo, int tamanho) throws IOException {
+        Path diretorio = diretorioPartes(idEnvio);
+        if (!Files.isDirectory(diretorio)) {
+            throw new NoSuchFileException("Envio em partes inexistente: " + idEnvio);
+        }
+        Path temporario = Files.createTempFile(diretorio, PREFIXO_TEMPORARIO, null);
+        try {
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+                Channels.newOutputStream(canal).write(conteudo, 0, tamanho);
+                canal.force(true);
+            }
+            Files.move(temporario, diretorio.resolve(Integer.toString(numero)),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+        return Integer.toString(numero) + "-" + Integer.toHexString(tamanho);
+    }
+
+    @Override
+    public void concluirEnvioEmPartes(String chave, String idEnvio, List<ParteGravada> partes) throws IOException {
+        Path diretorio = diretorioPartes(idEnvio);
+        Path destino = resolver(chave);
+        Files.createDirectories(destino.getParent());
+        Path temporario = Files.createTempFile(destino.getParent(), PREFIXO_TEMPORARIO, null);
+        try {
+            try (FileChannel saida = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+                for (ParteGravada parte : partes) {
+                    try (FileChannel entrada = FileChannel.open(diretorio.resolve(Integer.toString(parte.numero())),
+                            StandardOpenOption.READ)) {
+                        long posicao = 0;
+                        long tamanho = entrada.size();
+                        while (posicao < tamanho) {
+                            posicao += entrada.transferTo(posicao, tamanho - posicao, saida);
+                        }
+                    }
+                }
+                saida.force(true);
+            }
+            Path tipo = diretorio.resolve(ARQUIVO_TIPO_ENVIO);
+            gravarTipo(destino, Files.exists(tipo) ? Files.readString(tipo, StandardCharsets.UTF_8) : null);
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+        apagarDiretorio(diretorio);
+    }
+
+    @Override
+    public CompletableFuture<Void> abortarEnvioEmPartes(String chave, String idEnvio) {
+        try {
+            apagarDiretorio(diretorioPartes(idEnvio));
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> mover(String origem, String destino, String tipoConteudo) {
+        try {
+            Path arquivoOrigem = resolver(origem);
+            Path arquivoDestino = resolver(destino);
+            Files.createDirectories(arquivoDestino.getParent());
+            gravarTipo(arquivoDestino, tipoConteudo != null ? tipoConteudo : lerTipo(arquivoOrigem));
+            Files.move(arquivoOrigem, arquivoDestino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(arquivoTipo(arquivoOrigem));
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<MetadadosObjeto> obterMetadados(String chave) {
+        try {
+            Path arquivo = resolver(chave);
+            BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+            if (!atributos.isRegularFile()) {
+                throw new NoSuchFileException(chave);
+            }
+            String etag = Long.toHexString(atributos.size()) + "-" + Long.toHexString(atributos.lastModifiedTime().toMillis());
+            return CompletableFuture.completedFuture(new MetadadosObjeto(atributos.size(), lerTipo(arquivo), etag));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existe(String chave) {
+        try {
+            return CompletableFuture.completedFuture(Files.isRegularFile(resolver(chave)));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    @Override
+    public InputStream abrirLeitura(String chave, long offset, long tamanho) throws Exception {
+        FileChannel canal = FileChannel.open(resolver(chave), StandardOpenOption.READ);
+        canal.position(offset);
+        InputStream entrada = Channels.newInputStream(canal);
+        return new InputStream() {
+            private long restante = tamanho;
+
+            @Override
+            public int read() throws IOException {
+                if (restante <= 0) {
+                    return -1;
+                }
+                int lido = entrada.read();
+                if (lido >= 0) {
+                    restante--;
+                }
+                return lido;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (restante <= 0) {
+                    return -1;
+                }
+                int lidos = entrada.read(b, off, (int) Math.min(len, restante));
+                if (lidos > 0) {
+                    restante -= lidos;
+                }
+                return lidos;
+            }
+
+            @Override
+            public void close() throws IOException {
+                canal.close();
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<Void> remover(String chave) {
+        try {
+            Path arquivo = resolver(chave);
+            Files.deleteIfExists(arquivo);
+            Files.deleteIfExists(arquivoTipo(arquivo));
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public Set<String> removerEmLote(Collection<String> chaves) {
+        Set<String> falhas = new HashSet<>();
+        for (String chave : chaves) {
+            try {
+                Path arquivo = resolver(chave);
+                Files.deleteIfExists(arquivo);
+                Files.deleteIfExists(arquivoTipo(arquivo));
+            } catch (Exception e) {
+                logger.warn("Falha ao remover {}", chave, e);
+                falhas.add(chave);
+            }
+        }
+        return falhas;
+    }
+
+    /**
+     * Percorre a árvore sob demanda, um diretório por vez, e entrega as chaves já em ordem binária:
+     * cada diretório é ordenado pelo nome, com {@code /} ao fim dos subdiretórios, que é a ordem das
+     * chaves completas abaixo dele. A memória usada é a de um diretório por nível, como na listagem
+     * paginada do S3, e subdiretórios fora do prefixo não são lidos.
+     */
+    @Override
+    public Iterable<ObjetoListado> listar(String prefixo) {
+        return () -> new Iterator<>() {
+            private final Deque<Iterator<EntradaDiretorio>> pendentes = new ArrayDeque<>(List.of(lerDiretorio(raiz, prefixo)));
+            private ObjetoListado proximo = avancar();
+
+            @Override
+            public boolean hasNext() {
+                return proximo != null;
+            }
+
+            @Override
+            public ObjetoListado next() {
+                if (proximo == null) {
+                    throw new NoSuchElementException();
+                }
+                ObjetoListado atual = proximo;
+                proximo = avancar();
+                return atual;
+            }
+
+            private ObjetoListado avancar() {
+                while (!pendentes.isEmpty()) {
+                    Iterator<EntradaDiretorio> diretorio = pendentes.peek();
+                    if (!diretorio.hasNext()) {
+                        pendentes.pop();
+                        continue;
+                    }
+                    EntradaDiretorio entrada = diretorio.next();
+                    if (entrada.objeto() != null) {
+                        return entrada.objeto();
+                    }
+                    pendentes.push(lerDiretorio(entrada.caminho(), prefixo));
+                }
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public boolean suportaUrlsPreAssinadas() {
+        return false;
+    }
+
+    @Override
+    public String gerarUrlPreAssinada(String chave, int expiracaoMinutos) {
+        throw new UnsupportedOperationException("O armazenamento local não gera URLs pré-assinadas");
+    }
+
+    @Override
+    public Path caminhoLocal(String chave) {
+        try {
+            Path arquivo = resolver(chave);
+            return Files.isRegularFile(arquivo) ? arquivo : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Subdiretório (objeto nulo) ou arquivo de um diretório, com a chave usada para ordenar.
+     */
+    private record EntradaDiretorio(String chave, Path caminho, ObjetoListado objeto) {}
+
+    /**
+     * Entradas de um diretório que podem conter objetos com o prefixo, em ordem binária de chave.
+     * Arquivos removidos durante a leitura são ignorados.
+     */
+    private Iterator<EntradaDiretorio> lerDiretorio(Path diretorio, String prefixo) {
+        List<EntradaDiretorio> entradas = new ArrayList<>();
+        try (DirectoryStream<Path> conteudo = Files.newDirectoryStream(diretorio)) {
+            for (Path caminho : conteudo) {
+                if (caminho.getFileName().toString().startsWith(".")) {
+                    continue;
+                }
+                BasicFileAttributes atributos;
+                try {
+                    atributos = Files.readAttributes(caminho, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (atributos.isDirectory()) {
+                    String chave = chaveDe(caminho) + "/";
+                    if (chave.startsWith(prefixo) || prefixo.startsWith(chave)) {
+                        entradas.add(new EntradaDiretorio(chave, caminho, null));
+                    }
+                } else if (atributos.isRegularFile()) {
+                    String chave = chaveDe(caminho);
+                    if (chave.startsWith(prefixo)) {
+                        entradas.add(new EntradaDiretorio(chave, caminho,
+                                new ObjetoListado(chave, atributos.size(), atributos.lastModifiedTime().toInstant())));
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return Collections.emptyIterator();
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao listar " + diretorio, e);
+        }
+        entradas.sort(Comparator.comparing(EntradaDiretorio::chave, ORDEM_BINARIA));
+        return entradas.iterator();
+    }
+
+    private Path diretorioPartes(String idEnvio) {
+        Path diretorio = raiz.resolve(DIRETORIO_PARTES).resolve(idEnvio).normalize();
+        if (!diretorio.getParent().equals(raiz.resolve(DIRETORIO_PARTES))) {
+            throw new IllegalArgumentException("Envio inválido: " + idEnvio);
+        }
+        return diretorio;
+    }
+
+    private static void apagarDiretorio(Path diretorio) throws IOException {
+        if (!Files.isDirectory(diretorio)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : arquivos.toList()) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+        Files.deleteIfExists(diretorio);
+    }
+
+    private String chaveDe(Path arquivo) {
+        return raiz.relativize(arquivo).toString().replace(arquivo.getFileSystem().getSeparator(), "/");
+    }
+
+    /**
+     * Resolve a chave dentro da raiz, recusando chaves que escapem dela.
+     */
+    private Path resolver(String chave) {
+        Path arquivo = raiz.resolve(chave).normalize();
+        if (!arquivo.startsWith(raiz) || arquivo.equals(raiz)) {
+            throw new IllegalArgumentException("Chave de objeto inválida: " + chave);
+        }
+        return arquivo;
+    }
+
+    private static Path arquivoTipo(Path arquivo) {
+        return arquivo.resolveSibling("." + arquivo.getFileName() + SUFIXO_TIPO);
+    }
+
+    /**
+     * Grava (ou remove, se desconhecido) o tipo do objeto. Chamado antes de o objeto ser movido
+     * para o destino, para que um leitor nunca encontre o objeto novo com o tipo antigo.
+     */
+    private static void gravarTipo(Path arquivo, String tipoConteudo) throws IOException {
+        Path tipo = arquivoTipo(arquivo);
+        if (tipoConteudo == null) {
+            Files.deleteIfExists(tipo);
+            return;
+        }
+        Path temporario = Files.createTempFile(arquivo.getParent(), PREFIXO_TEMPORARIO, null);
+        try {
+            Files.writeString(temporario, tipoConteudo, StandardCharsets.UTF_8);
+            Files.move(temporario, tipo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+    }
+
+    /**
+     * Tipo guardado na gravação. Objetos gravados sem tipo (ou antes de o tipo ser guardado) têm o
+     * cabeçalho inspecionado uma única vez, e o resultado passa a ser guardado.
+     */
+    private String lerTipo(Path arquivo) {
+        try {
+            return Files.readString(arquivoTipo(arquivo), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            String tipo = identificarTipo(arquivo);
+            try {
+                gravarTipo(arquivo, tipo);
+            } catch (IOException falha) {
+                logger.debug("Não foi possível guardar o tipo de {}", arquivo, falha);
+            }
+            return tipo;
+        } catch (IOException e) {
+            return identificarTipo(arquivo);
+        }
+    }
+
+    private static String identificarTipo(Path arquivo) {
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            return EntradaImagemInspecionada.inspecionar(entrada, Long.MAX_VALUE).getTipoConteudo();
+        } catch (Exception e) {
+            return TIPO_DESCONHECIDO;
+        }
+    }
+}
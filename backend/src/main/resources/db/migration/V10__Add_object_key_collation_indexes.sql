@@ -0,0 +1,9 @@
+-- Índices em ordem binária (collation "C", a mesma da listagem do MinIO) para a reconciliação
+-- de órfãos percorrer as chaves referenciadas em trechos ordenados, sem ordenar as tabelas inteiras.
+CREATE INDEX idx_album_url_imagem_capa_c ON album ((url_imagem_capa COLLATE "C"))
+    WHERE url_imagem_capa IS NOT NULL;
+CREATE INDEX idx_artist_url_imagem_perfil_c ON artist ((url_imagem_perfil COLLATE "C"))
+    WHERE url_imagem_perfil IS NOT NULL;
+CREATE INDEX idx_stored_object_chave_c ON stored_object ((chave COLLATE "C"))
+    WHERE referencias > 0;
+CREATE INDEX idx_storage_outbox_chave_c ON storage_outbox ((chave COLLATE "C"));
@@ -0,0 +1,9 @@
+-- Marcador de baixa qualidade (data URI de poucas centenas de bytes) e dimensões das imagens,
+-- calculados no upload e devolvidos junto com álbuns e artistas
+ALTER TABLE album ADD COLUMN marcador_imagem_capa VARCHAR(1024);
+ALTER TABLE album ADD COLUMN largura_imagem_capa INTEGER;
+ALTER TABLE album ADD COLUMN altura_imagem_capa INTEGER;
+
+ALTER TABLE artist ADD COLUMN marcador_imagem_perfil VARCHAR(1024);
+ALTER TABLE artist ADD COLUMN largura_imagem_perfil INTEGER;
+ALTER TABLE artist ADD COLUMN altura_imagem_perfil INTEGER;
@@ -0,0 +1,28 @@
+-- Uploads retomáveis: a sessão guarda o envio em partes aberto no armazenamento (multipart
+-- upload no MinIO) e cada parte recebida, para que o cliente reenvie só as que faltam.
+-- Sessões abandonadas são descartadas após expira_em (renovado a cada parte).
+CREATE TABLE upload_session (
+    id VARCHAR(36) PRIMARY KEY,
+    tipo VARCHAR(20) NOT NULL,
+    id_recurso BIGINT NOT NULL,
+    nome_arquivo VARCHAR(255) NOT NULL,
+    tamanho_total BIGINT NOT NULL,
+    tamanho_parte INTEGER NOT NULL,
+    chave_temporaria VARCHAR(500) NOT NULL,
+    id_envio VARCHAR(500) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ABERTA',
+    montada BOOLEAN NOT NULL DEFAULT FALSE,
+    data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expira_em TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_upload_session_expira_em ON upload_session(expira_em);
+
+CREATE TABLE upload_session_part (
+    session_id VARCHAR(36) NOT NULL REFERENCES upload_session(id) ON DELETE CASCADE,
+    numero INTEGER NOT NULL,
+    tamanho INTEGER NOT NULL,
+    sha256 CHAR(64) NOT NULL,
+    etag VARCHAR(255) NOT NULL,
+    PRIMARY KEY (session_id, numero)
+);
@@ -0,0 +1,9 @@
+-- Ids por sequência com alocação em blocos: cada nextval reserva 50 ids (allocationSize das
+-- entidades, otimizador pooled do Hibernate), o que libera o batching de INSERTs do JDBC e permite
+-- à importação do catálogo reservar milhares de ids em uma única consulta.
+ALTER SEQUENCE artist_id_seq INCREMENT BY 50;
+ALTER SEQUENCE album_id_seq INCREMENT BY 50;
+
+-- O bloco de um nextval é (valor - 49 .. valor): o próximo valor fica 50 acima do maior id atual
+SELECT setval('artist_id_seq', GREATEST((SELECT MAX(id) FROM artist), 1));
+SELECT setval('album_id_seq', GREATEST((SELECT MAX(id) FROM album), 1));
@@ -0,0 +1,6 @@
+-- Contador desnormalizado de álbuns por artista, evitando um COUNT por linha nas listagens
+ALTER TABLE artist ADD COLUMN quantidade_albuns INTEGER NOT NULL DEFAULT 0;
+
+-- Preenche o contador a partir dos álbuns já existentes
+UPDATE artist a
+SET quantidade_albuns = (SELECT COUNT(*) FROM album al WHERE al.artist_id = a.id);
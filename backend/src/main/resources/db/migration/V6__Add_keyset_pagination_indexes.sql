@@ -0,0 +1,3 @@
+-- Índices compostos para paginação por cursor (keyset): buscas por (chave, id) > / < cursor
+CREATE INDEX idx_artist_nome_id ON artist(nome, id);
+CREATE INDEX idx_album_artist_titulo_id ON album(artist_id, titulo, id);
@@ -0,0 +1,12 @@
+-- Busca de artistas por nome indexada, sem distinção de acentos e maiúsculas/minúsculas
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() é STABLE; o wrapper IMMUTABLE com dicionário explícito permite usá-lo em índice
+CREATE OR REPLACE FUNCTION f_unaccent(text)
+RETURNS text AS $$
+    SELECT public.unaccent('public.unaccent'::regdictionary, $1)
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+-- Índice trigram sobre o nome normalizado: atende LIKE '%termo%' e os operadores de similaridade
+CREATE INDEX idx_artist_nome_normalizado_trgm ON artist USING gin (lower(f_unaccent(nome)) gin_trgm_ops);
@@ -0,0 +1,10 @@
+-- Objetos de imagem endereçados por conteúdo (chave derivada do SHA-256).
+-- Cada artista/álbum que aponta para a chave conta uma referência; o objeto no MinIO
+-- só é removido quando a última referência é liberada.
+CREATE TABLE stored_object (
+    chave VARCHAR(500) PRIMARY KEY,
+    referencias INTEGER NOT NULL CHECK (referencias >= 0),
+    tamanho BIGINT NOT NULL,
+    tipo_conteudo VARCHAR(100) NOT NULL,
+    data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,12 @@
+-- Outbox de remoções no MinIO: gravada na mesma transação da alteração no catálogo e
+-- processada após o commit por um worker em segundo plano, com novas tentativas.
+CREATE TABLE storage_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    chave VARCHAR(500) NOT NULL,
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ultimo_erro VARCHAR(1000),
+    data_criacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_storage_outbox_proxima_tentativa ON storage_outbox(proxima_tentativa, id);
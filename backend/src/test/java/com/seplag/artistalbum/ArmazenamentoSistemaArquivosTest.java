@@ -0,0 +1,228 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos.ObjetoListado;
+import com.seplag.artistalbum.infrastructure.storage.ArmazenamentoSistemaArquivos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArmazenamentoSistemaArquivosTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 16, 'J', 'F', 'I', 'F', 0, 1};
+
+    @TempDir
+    Path raiz;
+
+    private ArmazenamentoSistemaArquivos armazenamento;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        armazenamento = new ArmazenamentoSistemaArquivos(raiz.toString());
+    }
+
+    @Test
+    void listar_DeveEntregarEmOrdemBinariaDaChaveCompleta() throws Exception {
+        // Dado: "-" e "." vêm antes de "/" e os dígitos depois; a ordem por nome de diretório
+        // ("a" < "a-x") não é a ordem das chaves ("a-x" < "a.txt" < "a/b")
+        List<String> chaves = List.of("b", "a/b/c", "a.txt", "ab/c", "a-x", "a0", "a/b.png",
+                "conteudo/ff/ffff.png", "conteudo/0a/0aaa.png");
+        for (String chave : chaves) {
+            gravar(chave, "x");
+        }
+
+        // Quando
+        List<String> listadas = chaves(armazenamento.listar(""));
+
+        // Então
+        List<String> esperadas = new ArrayList<>(chaves);
+        esperadas.sort((x, y) -> Arrays.compareUnsigned(x.getBytes(StandardCharsets.UTF_8), y.getBytes(StandardCharsets.UTF_8)));
+        assertThat(listadas).isEqualTo(esperadas);
+        assertThat(listadas).startsWith("a-x", "a.txt", "a/b.png", "a/b/c", "a0", "ab/c", "b");
+    }
+
+    @Test
+    void listar_DeveFiltrarPorPrefixo_SemEntrarEmOutrosDiretorios() throws Exception {
+        // Dado
+        gravar("conteudo/aa/1.png", "x");
+        gravar("conteudo/ab/2.png", "x");
+        gravar("conteudo/b/3.png", "x");
+        gravar("legado/1.png", "x");
+
+        // Quando / Então
+        assertThat(chaves(armazenamento.listar("conteudo/a"))).containsExactly("conteudo/aa/1.png", "conteudo/ab/2.png");
+        assertThat(chaves(armazenamento.listar("conteudo/aa/"))).containsExactly("conteudo/aa/1.png");
+        assertThat(chaves(armazenamento.listar("legado/1.png"))).containsExactly("legado/1.png");
+        assertThat(chaves(armazenamento.listar("inexistente/"))).isEmpty();
+    }
+
+    @Test
+    void listar_DeveOmitirTemporariosEPartesDeEnvio() throws Exception {
+        // Dado
+        gravar("capas/1.png", "x");
+        Files.writeString(raiz.resolve("capas/.gravando-123"), "parcial");
+        String idEnvio = armazenamento.iniciarEnvioEmPartes("capas/2.png", "image/png");
+        armazenamento.gravarParte("capas/2.png", idEnvio, 1, new byte[]{1, 2}, 2);
+
+        // Quando / Então
+        assertThat(chaves(armazenamento.listar(""))).containsExactly("capas/1.png");
+    }
+
+    @Test
+    void listar_DeveInformarTamanho_ESerRepetivel() throws Exception {
+        // Dado
+        gravar("capas/1.png", "12345");
+        Iterable<ObjetoListado> listagem = armazenamento.listar("");
+
+        // Quando
+        Iterator<ObjetoListado> primeira = listagem.iterator();
+        ObjetoListado objeto = primeira.next();
+
+        // Então
+        assertThat(objeto.tamanho()).isEqualTo(5);
+        assertThat(objeto.modificadoEm()).isNotNull();
+        assertThat(primeira.hasNext()).isFalse();
+        assertThatThrownBy(primeira::next).isInstanceOf(NoSuchElementException.class);
+        assertThat(chaves(listagem)).containsExactly("capas/1.png");
+    }
+
+    @Test
+    void listar_ArvoreVazia_DeveSerVazia() {
+        assertThat(armazenamento.listar("")).isEmpty();
+    }
+
+    @Test
+    void obterMetadados_DeveUsarOTipoInformadoNaGravacao_SemInspecionarOConteudo() throws Exception {
+        // Dado: o cabeçalho é de PNG, mas o tipo informado é outro; prevalece o guardado
+        armazenamento.gravar("capas/1.png", new ByteArrayInputStream(PNG), PNG.length, PNG.length, "image/webp");
+
+        // Quando
+        ArmazenamentoObjetos.MetadadosObjeto metadados = armazenamento.obterMetadados("capas/1.png").get();
+
+        // Então
+        assertThat(metadados.tipoConteudo()).isEqualTo("image/webp");
+        assertThat(metadados.tamanho()).isEqualTo(PNG.length);
+        assertThat(Files.readString(raiz.resolve("capas/.1.png.tipo"))).isEqualTo("image/webp");
+        assertThat(chaves(armazenamento.listar(""))).containsExactly("capas/1.png");
+    }
+
+    @Test
+    void obterMetadados_ObjetoSemTipoGuardado_DeveInspecionarUmaVezEGuardar() throws Exception {
+        // Dado: objeto gravado antes de o tipo ser guardado
+        Files.createDirectories(raiz.resolve("legado"));
+        Files.write(raiz.resolve("legado/a.png"), PNG);
+
+        // Quando
+        String tipo = armazenamento.obterMetadados("legado/a.png").get().tipoConteudo();
+
+        // Então
+        assertThat(tipo).isEqualTo("image/png");
+        assertThat(Files.readString(raiz.resolve("legado/.a.png.tipo"))).isEqualTo("image/png");
+    }
+
+    @Test
+    void gravar_SemTipo_DeveDescartarOTipoAnterior() throws Exception {
+        // Dado
+        armazenamento.gravar("capas/1.png", new ByteArrayInputStream(PNG), PNG.length, PNG.length, "image/webp");
+
+        // Quando
+        armazenamento.gravar("capas/1.png", new ByteArrayInputStream(JPEG), JPEG.length, JPEG.length, null);
+
+        // Então
+        assertThat(armazenamento.obterMetadados("capas/1.png").get().tipoConteudo()).isEqualTo("image/jpeg");
+    }
+
+    @Test
+    void envioEmPartes_DeveConcatenarAsPartes_EGuardarOTipo() throws Exception {
+        // Dado
+        String idEnvio = armazenamento.iniciarEnvioEmPartes("capas/1.png", "image/png");
+        armazenamento.gravarParte("capas/1.png", idEnvio, 2, new byte[]{3, 4}, 2);
+        armazenamento.gravarParte("capas/1.png", idEnvio, 1, new byte[]{1, 2, 9}, 2);
+
+        // Quando
+        armazenamento.concluirEnvioEmPartes("capas/1.png", idEnvio,
+                List.of(new ArmazenamentoObjetos.ParteGravada(1, "1"), new ArmazenamentoObjetos.ParteGravada(2, "2")));
+
+        // Então
+        assertThat(Files.readAllBytes(raiz.resolve("capas/1.png"))).containsExactly(1, 2, 3, 4);
+        assertThat(armazenamento.obterMetadados("capas/1.png").get().tipoConteudo()).isEqualTo("image/png");
+        assertThat(raiz.resolve(".partes").resolve(idEnvio)).doesNotExist();
+    }
+
+    @Test
+    void mover_DeveLevarOTipoParaODestino() throws Exception {
+        // Dado
+        armazenamento.gravar("envios/tmp", new ByteArrayInputStream(PNG), PNG.length, PNG.length, "image/png");
+
+        // Quando
+        armazenamento.mover("envios/tmp", "conteudo/ab/abc.png", null).get();
+
+        // Então
+        assertThat(raiz.resolve("envios/tmp")).doesNotExist();
+        assertThat(raiz.resolve("envios/.tmp.tipo")).doesNotExist();
+        assertThat(armazenamento.obterMetadados("conteudo/ab/abc.png").get().tipoConteudo()).isEqualTo("image/png");
+    }
+
+    @Test
+    void remover_DeveApagarObjetoETipo() throws Exception {
+        // Dado
+        armazenamento.gravar("capas/1.png", new ByteArrayInputStream(PNG), PNG.length, PNG.length, "image/png");
+        armazenamento.gravar("capas/2.png", new ByteArrayInputStream(PNG), PNG.length, PNG.length, "image/png");
+
+        // Quando
+        armazenamento.remover("capas/1.png").get();
+        Set<String> falhas = armazenamento.removerEmLote(List.of("capas/2.png", "capas/inexistente.png"));
+
+        // Então
+        assertThat(falhas).isEmpty();
+        try (Stream<Path> restantes = Files.list(raiz.resolve("capas"))) {
+            assertThat(restantes).isEmpty();
+        }
+    }
+
+    @Test
+    void abrirLeitura_DeveLerSoOTrechoPedido() throws Exception {
+        // Dado
+        gravar("capas/1.txt", "0123456789");
+
+        // Quando
+        try (InputStream entrada = armazenamento.abrirLeitura("capas/1.txt", 2, 4)) {
+            // Então
+            assertThat(new String(entrada.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("2345");
+        }
+    }
+
+    @Test
+    void chaveForaDaRaiz_DeveSerRecusada() {
+        assertThatThrownBy(() -> armazenamento.gravar("../fora.png", new ByteArrayInputStream(PNG), PNG.length, PNG.length, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(armazenamento.caminhoLocal("../fora.png")).isNull();
+    }
+
+    private void gravar(String chave, String conteudo) throws Exception {
+        byte[] bytes = conteudo.getBytes(StandardCharsets.UTF_8);
+        armazenamento.gravar(chave, new ByteArrayInputStream(bytes), bytes.length, bytes.length, null);
+    }
+
+    private static List<String> chaves(Iterable<ObjetoListado> listagem) {
+        return StreamSupport.stream(listagem.spliterator(), false).map(ObjetoListado::chave).toList();
+    }
+}
@@ -5,6 +5,9 @@ import com.seplag.artistalbum.domain.model.Artista;
 import com.seplag.artistalbum.domain.port.ArtistaRepository;
 import com.seplag.artistalbum.domain.port.AlbumRepository;
 import com.seplag.artistalbum.domain.service.ArtistaService;
+import com.seplag.artistalbum.domain.service.CacheCatalogoService;
+import com.seplag.artistalbum.domain.service.IndiceSugestoesService;
+import com.seplag.artistalbum.domain.service.OutboxArmazenamentoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +21,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,6 +41,15 @@ class ArtistaServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Mock
+    private IndiceSugestoesService indiceSugestoes;
+
+    @Mock
+    private CacheCatalogoService cacheCatalogo;
+
+    @Mock
+    private OutboxArmazenamentoService outboxArmazenamento;
+
     @InjectMocks
     private ArtistaService artistaService;
 
@@ -58,7 +71,7 @@ class ArtistaServiceTest {
 
         // O serviço agora chama findAll(Pageable) internamente, aplicando a ordenação
         when(artistaRepository.findAll(any(Pageable.class))).thenReturn(paginaArtista);
-        when(albumRepository.countByArtistaId(1L)).thenReturn(5L);
+        artista.setQuantidadeAlbuns(5);
 
         // Quando
         Page<com.seplag.artistalbum.application.dto.ArtistaDTO> resultado = artistaService.obterTodosArtistas(paginacao, "asc");
@@ -71,21 +84,87 @@ class ArtistaServiceTest {
     }
 
     @Test
-    void obterArtistaPorId_DeveRetornarArtista_QuandoExiste() {
+    void obterTodosArtistas_DeveManterNumeroDeConsultasConstante_AoAumentarTamanhoDaPagina() {
+        for (int tamanho : new int[]{10, 100}) {
+            // Dado
+            reset(artistaRepository, albumRepository);
+            Pageable paginacao = PageRequest.of(0, tamanho);
+            List<Artista> artistas = new java.util.ArrayList<>();
+            for (long i = 1; i <= tamanho; i++) {
+                Artista a = new Artista("Artista " + i);
+                a.setId(i);
+                a.setQuantidadeAlbuns((int) i);
+                artistas.add(a);
+            }
+            when(artistaRepository.findAll(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(artistas, paginacao, tamanho));
+
+            // Quando
+            Page<com.seplag.artistalbum.application.dto.ArtistaDTO> resultado = artistaService.obterTodosArtistas(paginacao, "asc");
+
+            // Então: uma única consulta da página, nenhuma contagem por linha
+            assertThat(resultado.getContent()).hasSize(tamanho);
+            assertThat(resultado.getContent().get(tamanho - 1).getQuantidadeAlbuns()).isEqualTo(tamanho);
+            verify(artistaRepository, times(1)).findAll(any(Pageable.class));
+            verifyNoMoreInteractions(artistaRepository);
+            verifyNoInteractions(albumRepository);
+        }
+    }
+
+    @Test
+    void obterArtistasPorCursor_DeveBuscarAposUltimoItem_AoUsarProximoCursor() {
         // Dado
-        // Adicionamos álbuns fictícios à lista do artista para o size() retornar 3
-        com.seplag.artistalbum.domain.model.Album album1 = new com.seplag.artistalbum.domain.model.Album();
-        album1.setArtista(artista);
-        com.seplag.artistalbum.domain.model.Album album2 = new com.seplag.artistalbum.domain.model.Album();
-        album2.setArtista(artista);
-        com.seplag.artistalbum.domain.model.Album album3 = new com.seplag.artistalbum.domain.model.Album();
-        album3.setArtista(artista);
-
-        artista.getAlbuns().add(album1);
-        artista.getAlbuns().add(album2);
-        artista.getAlbuns().add(album3);
+        Artista segundo = new Artista("Banda B");
+        segundo.setId(2L);
+        Artista terceiro = new Artista("Banda C");
+        terceiro.setId(3L);
+        when(artistaRepository.buscarInicioPorNomeAsc(3)).thenReturn(List.of(artista, segundo, terceiro));
+        when(artistaRepository.buscarAposPorNomeAsc("Banda B", 2L, 3)).thenReturn(List.of(terceiro));
 
-        when(artistaRepository.findById(1L)).thenReturn(Optional.of(artista));
+        // Quando
+        com.seplag.artistalbum.application.dto.PaginaCursor<com.seplag.artistalbum.application.dto.ArtistaDTO> primeira =
+                artistaService.obterArtistasPorCursor(null, 2, "asc");
+        com.seplag.artistalbum.application.dto.PaginaCursor<com.seplag.artistalbum.application.dto.ArtistaDTO> segunda =
+                artistaService.obterArtistasPorCursor(primeira.getProximoCursor(), 2, "asc");
+
+        // Então
+        assertThat(primeira.getConteudo()).hasSize(2);
+        assertThat(primeira.getCursorAnterior()).isNull();
+        assertThat(primeira.getProximoCursor()).isNotNull();
+        assertThat(segunda.getConteudo()).extracting("nome").containsExactly("Banda C");
+        assertThat(segunda.getProximoCursor()).isNull();
+        assertThat(segunda.getCursorAnterior()).isNotNull();
+    }
+
+    @Test
+    void obterArtistasPorCursor_DeveLimitarTamanhoDaPagina() {
+        // Dado
+        when(artistaRepository.buscarInicioPorNomeAsc(101)).thenReturn(List.of(artista));
+
+        // Quando
+        com.seplag.artistalbum.application.dto.PaginaCursor<com.seplag.artistalbum.application.dto.ArtistaDTO> pagina =
+                artistaService.obterArtistasPorCursor(null, 1_000_000, "asc");
+
+        // Então: LIMIT de no máximo 100 itens + 1 para detectar a próxima página
+        assertThat(pagina.getConteudo()).hasSize(1);
+        verify(artistaRepository).buscarInicioPorNomeAsc(101);
+    }
+
+    @Test
+    void obterArtistaPorId_DeveRetornarArtista_QuandoExiste() {
+        // Dado
+        // A consulta única retorna uma linha por álbum embutido; o total vem do contador do artista
+        java.time.LocalDateTime agora = java.time.LocalDateTime.now();
+        String marcadorFoto = "data:image/png;base64,Zm90bw==";
+        List<Object[]> linhas = List.of(
+                new Object[]{1L, "Artista de Teste", null, 3, agora, agora, 10L, "Álbum A", null, agora, agora,
+                        marcadorFoto, 1200, 800, "data:image/png;base64,QQ==", 600, 600},
+                new Object[]{1L, "Artista de Teste", null, 3, agora, agora, 11L, "Álbum B", null, agora, agora,
+                        marcadorFoto, 1200, 800, null, null, null},
+                new Object[]{1L, "Artista de Teste", null, 3, agora, agora, 12L, "Álbum C", null, agora, agora,
+                        marcadorFoto, 1200, 800, "data:image/png;base64,Qw==", 640, 480}
+        );
+        when(artistaRepository.buscarDetalheComAlbuns(1L, 51)).thenReturn(linhas);
 
         // Quando
         com.seplag.artistalbum.application.dto.ArtistaDTO resultado = artistaService.obterArtistaPorId(1L);
@@ -93,12 +172,46 @@ class ArtistaServiceTest {
         // Então
         assertThat(resultado.getNome()).isEqualTo("Artista de Teste");
         assertThat(resultado.getQuantidadeAlbuns()).isEqualTo(3);
+        assertThat(resultado.getAlbuns()).hasSize(3);
+        assertThat(resultado.getProximoCursorAlbuns()).isNull();
+        // Marcadores e dimensões vêm das colunas 11 a 16 da mesma linha
+        assertThat(resultado.getMarcadorImagemPerfil()).isEqualTo(marcadorFoto);
+        assertThat(resultado.getLarguraImagemPerfil()).isEqualTo(1200);
+        assertThat(resultado.getAlturaImagemPerfil()).isEqualTo(800);
+        assertThat(resultado.getAlbuns().get(0).getMarcadorImagemCapa()).isEqualTo("data:image/png;base64,QQ==");
+        assertThat(resultado.getAlbuns().get(0).getLarguraImagemCapa()).isEqualTo(600);
+        assertThat(resultado.getAlbuns().get(0).getAlturaImagemCapa()).isEqualTo(600);
+        assertThat(resultado.getAlbuns().get(1).getMarcadorImagemCapa()).isNull();
+        assertThat(resultado.getAlbuns().get(1).getLarguraImagemCapa()).isNull();
+        assertThat(resultado.getAlbuns().get(2).getLarguraImagemCapa()).isEqualTo(640);
+        assertThat(resultado.getAlbuns().get(2).getAlturaImagemCapa()).isEqualTo(480);
+        verify(artistaRepository, never()).findById(any());
+    }
+
+    @Test
+    void obterArtistaPorId_DeveLimitarAlbunsEmbutidos_EInformarCursor() {
+        // Dado: mais álbuns do que o limite embutido no detalhe
+        java.time.LocalDateTime agora = java.time.LocalDateTime.now();
+        List<Object[]> linhas = new java.util.ArrayList<>();
+        for (long i = 1; i <= 51; i++) {
+            linhas.add(new Object[]{1L, "Artista de Teste", null, 100_000, agora, agora, i, String.format("Álbum %03d", i), null, agora, agora,
+                    null, null, null, null, null, null});
+        }
+        when(artistaRepository.buscarDetalheComAlbuns(1L, 51)).thenReturn(linhas);
+
+        // Quando
+        com.seplag.artistalbum.application.dto.ArtistaDTO resultado = artistaService.obterArtistaPorId(1L);
+
+        // Então
+        assertThat(resultado.getAlbuns()).hasSize(50);
+        assertThat(resultado.getQuantidadeAlbuns()).isEqualTo(100_000);
+        assertThat(resultado.getProximoCursorAlbuns()).isNotNull();
     }
 
     @Test
     void obterArtistaPorId_DeveLancarExcecao_QuandoNaoExiste() {
         // Dado
-        when(artistaRepository.findById(1L)).thenReturn(Optional.empty());
+        when(artistaRepository.buscarDetalheComAlbuns(1L, 51)).thenReturn(List.of());
 
         // Quando & Então
         assertThatThrownBy(() -> artistaService.obterArtistaPorId(1L))
@@ -127,14 +240,19 @@ class ArtistaServiceTest {
     @Test
     void excluirArtista_DeveExcluir_QuandoExiste() {
         // Dado
+        artista.setQuantidadeAlbuns(2);
         when(artistaRepository.findById(1L)).thenReturn(Optional.of(artista));
 
         // Quando
         artistaService.excluirArtista(1L);
 
-        // Então
-        verify(artistaRepository).deleteById(1L);
-        verify(messagingTemplate).convertAndSend(eq("/topic/artists/delete"), eq("1"));
+        // Então: imagens para a outbox e exclusão em cascata em um único comando
+        verify(outboxArmazenamento).agendarRemocaoImagensDoArtista(1L);
+        verify(artistaRepository).excluirComAlbuns(1L);
+        verify(artistaRepository, never()).deleteById(any());
+        verify(indiceSugestoes).removerArtista(1L);
+        verify(cacheCatalogo).invalidarArtista(1L);
+        verify(messagingTemplate).convertAndSend("/topic/artists/delete", Map.of("id", 1L, "albunsRemovidos", 2));
     }
 
     @Test
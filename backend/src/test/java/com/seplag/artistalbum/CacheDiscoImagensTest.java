@@ -0,0 +1,202 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.domain.service.CacheDiscoImagens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheDiscoImagensTest {
+
+    private static final long TAMANHO_SEGMENTO = 100;
+    private static final int TAMANHO_OBJETO = 60;
+
+    @TempDir
+    Path diretorio;
+
+    private final List<CacheDiscoImagens> abertos = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        abertos.forEach(CacheDiscoImagens::encerrar);
+    }
+
+    @Test
+    void buscar_DeveDevolverOConteudoArmazenado() throws IOException {
+        // Dado
+        CacheDiscoImagens cache = iniciar(1_000);
+        armazenar(cache, "a", conteudo('a'));
+
+        // Quando
+        try (CacheDiscoImagens.ObjetoLocal local = cache.buscar("a")) {
+            // Então
+            assertThat(local).isNotNull();
+            assertThat(local.tipoConteudo()).isEqualTo("image/png");
+            assertThat(local.etag()).isEqualTo("etag-a");
+            assertThat(ler(local)).isEqualTo(conteudo('a'));
+        }
+        assertThat(cache.buscar("inexistente")).isNull();
+    }
+
+    @Test
+    void inicializar_DeveReproduzirJournal_ComInclusoesERemocoes() throws IOException {
+        // Dado
+        CacheDiscoImagens cache = iniciar(1_000);
+        armazenar(cache, "a", conteudo('a'));
+        armazenar(cache, "b", conteudo('b'));
+        armazenar(cache, "c", conteudo('c'));
+        cache.invalidar("b");
+        cache.encerrar();
+
+        // Quando: nova instância no mesmo diretório (reinício)
+        CacheDiscoImagens reiniciado = iniciar(1_000);
+
+        // Então
+        try (CacheDiscoImagens.ObjetoLocal a = reiniciado.buscar("a");
+             CacheDiscoImagens.ObjetoLocal c = reiniciado.buscar("c")) {
+            assertThat(ler(a)).isEqualTo(conteudo('a'));
+            assertThat(ler(c)).isEqualTo(conteudo('c'));
+        }
+        assertThat(reiniciado.buscar("b")).isNull();
+    }
+
+    @Test
+    void inicializar_DeveCompactarJournal_MantendoSoEntradasVivas() throws IOException {
+        // Dado: a mesma chave regravada várias vezes e outra removida
+        CacheDiscoImagens cache = iniciar(10_000);
+        for (int i = 0; i < 5; i++) {
+            armazenar(cache, "a", conteudo('a'));
+        }
+        armazenar(cache, "b", conteudo('b'));
+        cache.invalidar("b");
+        cache.encerrar();
+
+        // Quando
+        CacheDiscoImagens reiniciado = iniciar(10_000);
+
+        // Então: uma única linha P para a entrada viva, sem remoções nem descartes
+        List<String> linhas = Files.readAllLines(diretorio.resolve("indice.log"), StandardCharsets.UTF_8);
+        assertThat(linhas).hasSize(1);
+        assertThat(linhas.get(0)).startsWith("P\t");
+        try (CacheDiscoImagens.ObjetoLocal a = reiniciado.buscar("a")) {
+            assertThat(ler(a)).isEqualTo(conteudo('a'));
+        }
+    }
+
+    @Test
+    void inicializar_DeveDescartarEntradasDeSegmentoTruncado() throws IOException {
+        // Dado
+        CacheDiscoImagens cache = iniciar(1_000);
+        armazenar(cache, "a", conteudo('a'));
+        cache.encerrar();
+        try (FileChannel segmento = FileChannel.open(diretorio.resolve("segmento-1.dat"), StandardOpenOption.WRITE)) {
+            segmento.truncate(TAMANHO_OBJETO / 2);
+        }
+
+        // Quando
+        CacheDiscoImagens reiniciado = iniciar(1_000);
+
+        // Então
+        assertThat(reiniciado.buscar("a")).isNull();
+    }
+
+    @Test
+    void armazenar_AcimaDoOrcamento_DeveDescartarSegmentoMenosUsado() throws IOException {
+        // Dado: um objeto por segmento; o orçamento comporta quatro
+        CacheDiscoImagens cache = iniciar(4 * TAMANHO_OBJETO + 10);
+        armazenar(cache, "a", conteudo('a'));
+        armazenar(cache, "b", conteudo('b'));
+        armazenar(cache, "c", conteudo('c'));
+        armazenar(cache, "d", conteudo('d'));
+        // "a" acessado por último: o menos usado passa a ser "b"
+        cache.buscar("a").close();
+
+        // Quando
+        armazenar(cache, "e", conteudo('e'));
+
+        // Então
+        assertThat(cache.buscar("b")).isNull();
+        assertThat(Files.exists(diretorio.resolve("segmento-2.dat"))).isFalse();
+        for (String chave : List.of("a", "c", "d", "e")) {
+            try (CacheDiscoImagens.ObjetoLocal local = cache.buscar(chave)) {
+                assertThat(local).as(chave).isNotNull();
+                assertThat(ler(local)).isEqualTo(conteudo(chave.charAt(0)));
+            }
+        }
+    }
+
+    @Test
+    void buscar_CanalAberto_DeveContinuarLegivelAposDescarteDoSegmento() throws IOException {
+        // Dado
+        CacheDiscoImagens cache = iniciar(1_000);
+        armazenar(cache, "a", conteudo('a'));
+        armazenar(cache, "b", conteudo('b'));
+
+        try (CacheDiscoImagens.ObjetoLocal local = cache.buscar("a")) {
+            // Quando: o segmento de "a" fica vazio e é apagado durante a entrega
+            cache.invalidar("a");
+            assertThat(Files.exists(diretorio.resolve("segmento-1.dat"))).isFalse();
+
+            // Então: a leitura pelo canal obtido na busca continua íntegra
+            assertThat(ler(local)).isEqualTo(conteudo('a'));
+        }
+        assertThat(cache.buscar("a")).isNull();
+    }
+
+    @Test
+    void aceita_DeveRecusarObjetosMaioresQueOSegmento() {
+        CacheDiscoImagens cache = iniciar(1_000);
+
+        assertThat(cache.aceita(TAMANHO_SEGMENTO)).isTrue();
+        assertThat(cache.aceita(TAMANHO_SEGMENTO + 1)).isFalse();
+        assertThat(cache.aceita(0)).isFalse();
+    }
+
+    private CacheDiscoImagens iniciar(long orcamentoBytes) {
+        CacheDiscoImagens cache = new CacheDiscoImagens(true, diretorio.toString(), orcamentoBytes,
+                TAMANHO_SEGMENTO, 1_000, new SimpleMeterRegistry());
+        cache.inicializar();
+        abertos.add(cache);
+        return cache;
+    }
+
+    private static void armazenar(CacheDiscoImagens cache, String chave, byte[] dados) throws IOException {
+        CacheDiscoImagens.ObjetoLocal local = cache.armazenar(chave, new ByteArrayInputStream(dados), dados.length,
+                "image/png", "etag-" + chave);
+        assertThat(local).isNotNull();
+        local.close();
+    }
+
+    private static byte[] conteudo(char marcador) {
+        byte[] dados = new byte[TAMANHO_OBJETO];
+        Arrays.fill(dados, (byte) marcador);
+        return dados;
+    }
+
+    private static byte[] ler(CacheDiscoImagens.ObjetoLocal local) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) local.tamanho());
+        long posicao = local.offset();
+        while (buffer.hasRemaining()) {
+            int lidos = local.canal().read(buffer, posicao);
+            if (lidos < 0) {
+                break;
+            }
+            posicao += lidos;
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+}
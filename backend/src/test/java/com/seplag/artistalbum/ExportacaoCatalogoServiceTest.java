@@ -0,0 +1,226 @@
+package com.seplag.artistalbum;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seplag.artistalbum.domain.model.Album;
+import com.seplag.artistalbum.domain.model.Artista;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import com.seplag.artistalbum.domain.service.ExportacaoCatalogoService;
+import com.seplag.artistalbum.infrastructure.exception.InvalidExportFormatException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacaoCatalogoServiceTest {
+
+    @Mock
+    private ArtistaRepository artistaRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExportacaoCatalogoService exportacaoService;
+
+    @BeforeEach
+    void setUp() {
+        exportacaoService = new ExportacaoCatalogoService(artistaRepository, entityManager, objectMapper, transactionManager);
+    }
+
+    @Test
+    void exportar_Ndjson_DeveEscreverUmArtistaPorLinhaComOsAlbuns() throws Exception {
+        // Dado
+        Artista serj = artista(1L, "Serj Tankian");
+        Artista mike = artista(2L, "Mike Shinoda");
+        when(artistaRepository.percorrerCatalogo()).thenReturn(Stream.of(
+                linha(serj, album(10L, "Harakiri", serj)),
+                linha(serj, album(11L, "Elect the Dead", serj)),
+                linha(mike, null)));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Quando
+        exportacaoService.exportar("ndjson", saida);
+
+        // Então
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(linhas).hasSize(3);
+        assertThat(linhas[2]).isEmpty();
+        JsonNode primeiro = objectMapper.readTree(linhas[0]);
+        assertThat(primeiro.get("id").asLong()).isEqualTo(1L);
+        assertThat(primeiro.get("nome").asText()).isEqualTo("Serj Tankian");
+        assertThat(primeiro.get("albuns")).hasSize(2);
+        assertThat(primeiro.get("albuns").get(1).get("titulo").asText()).isEqualTo("Elect the Dead");
+        JsonNode segundo = objectMapper.readTree(linhas[1]);
+        assertThat(segundo.get("nome").asText()).isEqualTo("Mike Shinoda");
+        assertThat(segundo.get("albuns")).isEmpty();
+    }
+
+    @Test
+    void exportar_Csv_DeveEscreverUmAlbumPorRegistro() throws Exception {
+        // Dado
+        Artista serj = artista(1L, "Serj Tankian");
+        Artista mike = artista(2L, "Mike Shinoda");
+        when(artistaRepository.percorrerCatalogo()).thenReturn(Stream.of(
+                linha(serj, album(10L, "Harakiri", serj)),
+                linha(mike, null)));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Quando
+        exportacaoService.exportar("csv", saida);
+
+        // Então
+        assertThat(saida.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "artista_id,artista,album_id,album\n"
+                        + "1,Serj Tankian,10,Harakiri\n"
+                        + "2,Mike Shinoda,,\n");
+    }
+
+    @Test
+    void exportar_Csv_DeveEscaparAspasSeparadoresEQuebrasDeLinha() throws Exception {
+        // Dado
+        Artista artista = artista(1L, "Guns N' Roses, \"GNR\"");
+        when(artistaRepository.percorrerCatalogo()).thenReturn(Stream.<Object[]>of(
+                linha(artista, album(10L, "Use Your Illusion\nI", artista))));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Quando
+        exportacaoService.exportar("csv", saida);
+
+        // Então
+        assertThat(saida.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "artista_id,artista,album_id,album\n"
+                        + "1,\"Guns N' Roses, \"\"GNR\"\"\",10,\"Use Your Illusion\nI\"\n");
+    }
+
+    @Test
+    void exportar_DeveEscreverAntesDeConsumirTodasAsLinhas_EDesanexarAsEntidades() throws Exception {
+        for (String formato : List.of("ndjson", "csv")) {
+            // Dado
+            int total = 20_000;
+            AtomicInteger consumidas = new AtomicInteger();
+            AtomicInteger consumidasNaPrimeiraEscrita = new AtomicInteger(-1);
+            reset(entityManager);
+            when(artistaRepository.percorrerCatalogo()).thenReturn(IntStream.range(0, total)
+                    .mapToObj(i -> {
+                        consumidas.incrementAndGet();
+                        Artista artista = artista((long) i, "Artista " + i);
+                        return linha(artista, album((long) i, "Álbum " + i, artista));
+                    }));
+            OutputStream saida = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    registrarEscrita();
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    registrarEscrita();
+                }
+
+                private void registrarEscrita() {
+                    consumidasNaPrimeiraEscrita.compareAndSet(-1, consumidas.get());
+                }
+            };
+
+            // Quando
+            exportacaoService.exportar(formato, saida);
+
+            // Então
+            assertThat(consumidas).hasValue(total);
+            assertThat(consumidasNaPrimeiraEscrita.get()).isBetween(0, total - 1);
+            verify(entityManager, times(2 * total)).detach(any());
+        }
+    }
+
+    @Test
+    void exportar_DeveFecharOCursor_EInterromper_QuandoAEscritaFalha() {
+        // Dado
+        AtomicInteger consumidas = new AtomicInteger();
+        AtomicBoolean fechado = new AtomicBoolean();
+        when(artistaRepository.percorrerCatalogo()).thenReturn(IntStream.range(0, 1_000_000)
+                .mapToObj(i -> {
+                    consumidas.incrementAndGet();
+                    Artista artista = artista((long) i, "Artista " + i);
+                    return linha(artista, album((long) i, "Álbum " + i, artista));
+                })
+                .onClose(() -> fechado.set(true)));
+        OutputStream desconectado = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // Quando / Então
+        assertThatThrownBy(() -> exportacaoService.exportar("csv", desconectado))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+        assertThat(fechado).isTrue();
+        assertThat(consumidas.get()).isLessThan(1_000_000);
+    }
+
+    @Test
+    void exportar_DeveDesanexarOArtistaAntesDoProximo() throws Exception {
+        // Dado
+        Artista serj = artista(1L, "Serj Tankian");
+        Artista mike = artista(2L, "Mike Shinoda");
+        Album harakiri = album(10L, "Harakiri", serj);
+        List<Object> desanexados = new ArrayList<>();
+        doAnswer(invocacao -> desanexados.add(invocacao.getArgument(0))).when(entityManager).detach(any());
+        when(artistaRepository.percorrerCatalogo()).thenReturn(Stream.of(linha(serj, harakiri), linha(mike, null)));
+
+        // Quando
+        exportacaoService.exportar("ndjson", new ByteArrayOutputStream());
+
+        // Então
+        assertThat(desanexados).containsExactly(harakiri, serj, mike);
+    }
+
+    @Test
+    void validarFormato_DeveRecusarFormatoDesconhecido() {
+        assertThatThrownBy(() -> exportacaoService.validarFormato("xml"))
+                .isInstanceOf(InvalidExportFormatException.class);
+        verifyNoInteractions(artistaRepository, transactionManager);
+    }
+
+    private static Artista artista(Long id, String nome) {
+        Artista artista = new Artista(nome);
+        artista.setId(id);
+        return artista;
+    }
+
+    private static Album album(Long id, String titulo, Artista artista) {
+        Album album = new Album(titulo, artista);
+        album.setId(id);
+        return album;
+    }
+
+    private static Object[] linha(Artista artista, Album album) {
+        return new Object[]{artista, album};
+    }
+}
@@ -0,0 +1,66 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.domain.service.FormatoCsv;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FormatoCsvTest {
+
+    @Test
+    void lerRegistro_CamposEntreAspas_DevemPreservarVirgulaAspasEQuebraDeLinha() throws IOException {
+        // Dado
+        BufferedReader entrada = leitor("a,\"b, c\",\"d \"\"e\"\"\",\"linha 1\nlinha 2\"\r\nx,y\n");
+
+        // Quando & Então
+        assertThat(FormatoCsv.lerRegistro(entrada)).containsExactly("a", "b, c", "d \"e\"", "linha 1\nlinha 2");
+        assertThat(FormatoCsv.lerRegistro(entrada)).containsExactly("x", "y");
+        assertThat(FormatoCsv.lerRegistro(entrada)).isNull();
+    }
+
+    @Test
+    void lerRegistro_CamposVaziosESemQuebraFinal_DevemSerMantidos() throws IOException {
+        // Dado
+        BufferedReader entrada = leitor(",meio,\r\n\"\",fim");
+
+        // Quando & Então: \r fora de aspas é descartado
+        assertThat(FormatoCsv.lerRegistro(entrada)).containsExactly("", "meio", "");
+        assertThat(FormatoCsv.lerRegistro(entrada)).containsExactly("", "fim");
+        assertThat(FormatoCsv.lerRegistro(entrada)).isNull();
+    }
+
+    @Test
+    void lerRegistro_AspasNoMeioDoCampo_DevemSerLiterais() throws IOException {
+        // Só abre aspas no início do campo
+        assertThat(FormatoCsv.lerRegistro(leitor("12\" LP,b\n"))).containsExactly("12\" LP", "b");
+    }
+
+    @Test
+    void escapar_DeveUsarAspasSoQuandoNecessario() {
+        assertThat(FormatoCsv.escapar("simples")).isEqualTo("simples");
+        assertThat(FormatoCsv.escapar(null)).isEmpty();
+        assertThat(FormatoCsv.escapar("a,b")).isEqualTo("\"a,b\"");
+        assertThat(FormatoCsv.escapar("diz \"oi\"")).isEqualTo("\"diz \"\"oi\"\"\"");
+        assertThat(FormatoCsv.escapar("a\r\nb")).isEqualTo("\"a\r\nb\"");
+    }
+
+    @Test
+    void escapar_SeguidoDeLerRegistro_DeveDevolverOsMesmosCampos() throws IOException {
+        // Dado
+        List<String> campos = List.of("Daft Punk, o duo", "O \"Álbum\"", "várias\nlinhas\r\n", "", "fim");
+        String linha = campos.stream().map(FormatoCsv::escapar).collect(Collectors.joining(",")) + "\r\n";
+
+        // Quando & Então
+        assertThat(FormatoCsv.lerRegistro(leitor(linha))).isEqualTo(campos);
+    }
+
+    private static BufferedReader leitor(String conteudo) {
+        return new BufferedReader(new StringReader(conteudo));
+    }
+}
@@ -0,0 +1,225 @@
+package com.seplag.artistalbum;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoCatalogoDTO;
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoCatalogoDTO.FalhaLinha;
+import com.seplag.artistalbum.domain.service.CacheCatalogoService;
+import com.seplag.artistalbum.domain.service.ImportacaoCatalogoService;
+import com.seplag.artistalbum.domain.service.IndiceSugestoesService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacaoCatalogoServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheCatalogoService cacheCatalogo;
+
+    @Mock
+    private IndiceSugestoesService indiceSugestoes;
+
+    @Mock
+    private PreparedStatement ps;
+
+    @Mock
+    private Connection conexao;
+
+    private ImportacaoCatalogoService importacao;
+
+    // Arrays passados aos comandos unnest, na ordem em que o preenchedor os cria
+    private final List<Object[]> arrays = new ArrayList<>();
+    private final List<List<String>> lotesArtistas = new ArrayList<>();
+    private final List<List<String>> lotesAlbuns = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        importacao = new ImportacaoCatalogoService(jdbcTemplate, transactionManager, new ObjectMapper(),
+                cacheCatalogo, indiceSugestoes, new SimpleMeterRegistry());
+
+        lenient().when(ps.getConnection()).thenReturn(conexao);
+        lenient().when(conexao.createArrayOf(anyString(), any(Object[].class))).thenAnswer(invocacao -> {
+            arrays.add(invocacao.getArgument(1));
+            return null;
+        });
+        // Um bloco de 50 ids por sequência
+        lenient().when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString(), anyInt()))
+                .thenReturn(List.of(50L));
+    }
+
+    @Test
+    void importar_CsvComBomECabecalhoEntreAspas_DeveLerCamposEntreAspas() {
+        // Dado
+        inserirArtistasExceto(Set.of());
+        inserirAlbunsExceto(Set.of());
+        String csv = "\uFEFF\"Artista\",\"Album\"\r\n"
+                + "System of a Down,Toxicity\r\n"
+                + "\"Daft Punk, o duo\",\"Discovery \"\"Deluxe\"\"\"\r\n";
+
+        // Quando
+        RelatorioImportacaoCatalogoDTO relatorio = importacao.importar(conteudo(csv), ImportacaoCatalogoService.FORMATO_CSV);
+
+        // Então
+        assertThat(relatorio.getFalhas()).isZero();
+        assertThat(relatorio.getLinhas()).isEqualTo(3);
+        assertThat(lotesArtistas).containsExactly(List.of("System of a Down", "Daft Punk, o duo"));
+        assertThat(lotesAlbuns).containsExactly(List.of("Toxicity", "Discovery \"Deluxe\""));
+        assertThat(relatorio.getArtistasCriados()).isEqualTo(2);
+        assertThat(relatorio.getAlbunsCriados()).isEqualTo(2);
+    }
+
+    @Test
+    void importar_NdjsonComBom_DeveLerPrimeiraLinha() {
+        // Dado
+        inserirArtistasExceto(Set.of());
+        inserirAlbunsExceto(Set.of());
+        String ndjson = "\uFEFF{\"nome\": \"Serj Tankian\", \"albuns\": [\"Elect the Dead\"]}\n";
+
+        // Quando
+        RelatorioImportacaoCatalogoDTO relatorio = importacao.importar(conteudo(ndjson), ImportacaoCatalogoService.FORMATO_NDJSON);
+
+        // Então
+        assertThat(relatorio.getFalhas()).isZero();
+        assertThat(lotesArtistas).containsExactly(List.of("Serj Tankian"));
+        assertThat(lotesAlbuns).containsExactly(List.of("Elect the Dead"));
+    }
+
+    @Test
+    void importar_VariosLotes_DeveContabilizarCriadosExistentesEIgnorados() {
+        // Dado: lotes de 3 itens; "B" e o álbum "Y" já estão cadastrados
+        ReflectionTestUtils.setField(importacao, "tamanhoLote", 3);
+        inserirArtistasExceto(Set.of("B"));
+        inserirAlbunsExceto(Set.of("Y"));
+        String csv = "artista,album\n"
+                + "A,X\n"       // linha 2
+                + "A,X\n"       // linha 3: repetido no lote, ignorado
+                + "B,Y\n"       // linha 4: completa o primeiro lote
+                + ",Z\n"        // linha 5: sem artista
+                + "C,\n";       // linha 6: só o artista, gravado no fim
+
+        // Quando
+        RelatorioImportacaoCatalogoDTO relatorio = importacao.importar(conteudo(csv), ImportacaoCatalogoService.FORMATO_CSV);
+
+        // Então
+        assertThat(lotesArtistas).containsExactly(List.of("A", "B"), List.of("C"));
+        assertThat(lotesAlbuns).containsExactly(List.of("X", "Y"));
+        assertThat(relatorio.getLinhas()).isEqualTo(6);
+        assertThat(relatorio.getArtistasCriados()).isEqualTo(2);
+        assertThat(relatorio.getArtistasExistentes()).isEqualTo(1);
+        assertThat(relatorio.getAlbunsCriados()).isEqualTo(1);
+        assertThat(relatorio.getAlbunsIgnorados()).isEqualTo(2);
+        assertThat(relatorio.getFalhas()).isEqualTo(1);
+        assertThat(relatorio.getDetalhesFalhas()).extracting(FalhaLinha::getLinha).containsExactly(5L);
+        verify(cacheCatalogo, times(2)).invalidarTudo();
+        verify(indiceSugestoes).registrarArtista(anyLong(), eq("A"));
+        verify(indiceSugestoes).registrarArtista(anyLong(), eq("C"));
+        verify(indiceSugestoes, never()).registrarArtista(anyLong(), eq("B"));
+    }
+
+    @Test
+    void importar_LoteRecusadoPeloBanco_DeveRelatarIntervaloDeLinhasSemContabilizar() {
+        // Dado
+        when(jdbcTemplate.query(startsWith("INSERT INTO artist"), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenThrow(new DataIntegrityViolationException("violação de restrição"));
+        String csv = "artista,album\nA,X\nB,Y\n";
+
+        // Quando
+        RelatorioImportacaoCatalogoDTO relatorio = importacao.importar(conteudo(csv), ImportacaoCatalogoService.FORMATO_CSV);
+
+        // Então
+        assertThat(relatorio.getArtistasCriados()).isZero();
+        assertThat(relatorio.getAlbunsCriados()).isZero();
+        assertThat(relatorio.getFalhas()).isEqualTo(1);
+        FalhaLinha falha = relatorio.getDetalhesFalhas().get(0);
+        assertThat(falha.getLinha()).isEqualTo(2L);
+        assertThat(falha.getMotivo()).startsWith("Lote das linhas 2 a 3 não gravado");
+        verify(cacheCatalogo, never()).invalidarTudo();
+    }
+
+    /**
+     * Simula o INSERT de artistas: grava como criados os nomes que não estão em {@code existentes}.
+     */
+    @SuppressWarnings("unchecked")
+    private void inserirArtistasExceto(Set<String> existentes) {
+        when(jdbcTemplate.query(startsWith("INSERT INTO artist"), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenAnswer(invocacao -> {
+                    List<Object[]> colunas = aplicarPreenchedor(invocacao);
+                    Long[] ids = (Long[]) colunas.get(0);
+                    String[] nomes = (String[]) colunas.get(1);
+                    lotesArtistas.add(List.of(nomes));
+                    List<Object[]> criados = new ArrayList<>();
+                    for (int i = 0; i < nomes.length; i++) {
+                        if (!existentes.contains(nomes[i])) {
+                            criados.add(new Object[]{ids[i], nomes[i]});
+                        }
+                    }
+                    return criados;
+                });
+    }
+
+    /**
+     * Simula o INSERT de álbuns: grava como criados os títulos que não estão em {@code existentes}.
+     */
+    @SuppressWarnings("unchecked")
+    private void inserirAlbunsExceto(Set<String> existentes) {
+        lenient().when(jdbcTemplate.query(startsWith("WITH entrada"), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenAnswer(invocacao -> {
+                    List<Object[]> colunas = aplicarPreenchedor(invocacao);
+                    Long[] ids = (Long[]) colunas.get(0);
+                    String[] titulos = (String[]) colunas.get(1);
+                    lotesAlbuns.add(List.of(titulos));
+                    List<Object[]> criados = new ArrayList<>();
+                    for (int i = 0; i < titulos.length; i++) {
+                        if (!existentes.contains(titulos[i])) {
+                            criados.add(new Object[]{ids[i], titulos[i], 1L});
+                        }
+                    }
+                    return criados;
+                });
+    }
+
+    private List<Object[]> aplicarPreenchedor(InvocationOnMock invocacao) throws SQLException {
+        arrays.clear();
+        PreparedStatementSetter preenchedor = invocacao.getArgument(1);
+        preenchedor.setValues(ps);
+        return new ArrayList<>(arrays);
+    }
+
+    private static ByteArrayInputStream conteudo(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,210 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoDTO;
+import com.seplag.artistalbum.application.dto.RelatorioImportacaoDTO.FalhaImportacao;
+import com.seplag.artistalbum.domain.port.AlbumRepository;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import com.seplag.artistalbum.domain.service.CacheCatalogoService;
+import com.seplag.artistalbum.domain.service.ImportacaoImagensService;
+import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.OutboxArmazenamentoService;
+import com.seplag.artistalbum.domain.service.RedimensionamentoImagemService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacaoImagensServiceTest {
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    @Mock
+    private ArtistaRepository artistaRepository;
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private RedimensionamentoImagemService redimensionamento;
+
+    @Mock
+    private OutboxArmazenamentoService outboxArmazenamento;
+
+    @Mock
+    private CacheCatalogoService cacheCatalogo;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path diretorio;
+
+    private ImportacaoImagensService importacao;
+
+    // Chave gravada por id, como no UPDATE em lote de cada tabela
+    private final Map<Long, String> capasGravadas = new ConcurrentHashMap<>();
+    private final Map<Long, String> fotosGravadas = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        importacao = new ImportacaoImagensService(albumRepository, artistaRepository, minioService, redimensionamento,
+                outboxArmazenamento, cacheCatalogo, jdbcTemplate, transactionManager, new SimpleMeterRegistry(),
+                2, diretorio.toString(), diretorio.resolve("tmp").toString());
+
+        // Cada envio devolve uma chave derivada da chave legada, que contém o nome do arquivo
+        lenient().when(minioService.uploadImagem(anyString(), any(), anyLong())).thenAnswer(invocacao ->
+                new MinioService.ImagemEnviada("conteudo/" + invocacao.getArgument(0, String.class),
+                        invocacao.getArgument(2, Long.class), "image/png", null));
+        lenient().when(jdbcTemplate.batchUpdate(startsWith("UPDATE album "), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocacao -> gravar(invocacao, capasGravadas));
+        lenient().when(jdbcTemplate.batchUpdate(startsWith("UPDATE artist "), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocacao -> gravar(invocacao, fotosGravadas));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importacao.encerrar();
+    }
+
+    @Test
+    void importarDiretorio_DeveResolverPorIdEPorNome_SemDiferenciarMaiusculas() throws Exception {
+        // Dado
+        when(albumRepository.listarIdsTitulosEArtistas()).thenReturn(List.of(
+                new Object[]{10L, "Mezmerize", 1L},
+                new Object[]{11L, "Toxicity", 1L}));
+        when(artistaRepository.listarIdsENomes()).thenReturn(List.<Object[]>of(new Object[]{1L, "Serj Tankian"}));
+        arquivo("albuns/10.jpg");
+        arquivo("albuns/TOXICITY.png");
+        arquivo("artistas/serj tankian.png");
+
+        // Quando
+        RelatorioImportacaoDTO relatorio = importacao.importarDiretorio(diretorio.resolve("origem"));
+
+        // Então
+        assertThat(relatorio.getTotalArquivos()).isEqualTo(3);
+        assertThat(relatorio.getImportadas()).isEqualTo(3);
+        assertThat(relatorio.getFalhas()).isZero();
+        assertThat(capasGravadas).containsOnlyKeys(10L, 11L);
+        assertThat(capasGravadas.get(10L)).endsWith("-10.jpg");
+        assertThat(capasGravadas.get(11L)).endsWith("-TOXICITY.png");
+        assertThat(fotosGravadas).containsOnlyKeys(1L);
+        assertThat(fotosGravadas.get(1L)).startsWith("conteudo/artist-photos/1/");
+        verify(cacheCatalogo).invalidarTudo();
+    }
+
+    @Test
+    void importarDiretorio_TituloAmbiguoOuInexistente_DeveRegistrarFalhaSemEnviar() throws Exception {
+        // Dado: dois álbuns com o mesmo título (após normalização)
+        when(albumRepository.listarIdsTitulosEArtistas()).thenReturn(List.of(
+                new Object[]{10L, "Hits", 1L},
+                new Object[]{11L, " hits", 2L}));
+        when(artistaRepository.listarIdsENomes()).thenReturn(List.of());
+        arquivo("albuns/Hits.png");
+        arquivo("albuns/Inexistente.png");
+        arquivo("albuns/99.png");
+        arquivo("albuns/11.png");
+
+        // Quando
+        RelatorioImportacaoDTO relatorio = importacao.importarDiretorio(diretorio.resolve("origem"));
+
+        // Então: o id desfaz a ambiguidade
+        assertThat(relatorio.getTotalArquivos()).isEqualTo(4);
+        assertThat(relatorio.getImportadas()).isEqualTo(1);
+        assertThat(relatorio.getFalhas()).isEqualTo(3);
+        assertThat(relatorio.getDetalhesFalhas()).extracting(FalhaImportacao::getMotivo).containsExactlyInAnyOrder(
+                "Há mais de um álbum com o título \"Hits\"; use o id",
+                "Álbum não encontrado: Inexistente",
+                "Álbum não encontrado: 99");
+        assertThat(capasGravadas).containsOnlyKeys(11L);
+        verify(minioService, times(1)).uploadImagem(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void importarDiretorio_MesmoDestinoDuasVezesNoLote_DeveGravarUmaVezELiberarOAnterior() throws Exception {
+        // Dado: o mesmo álbum pelo id e pelo título
+        when(albumRepository.listarIdsTitulosEArtistas()).thenReturn(List.<Object[]>of(new Object[]{10L, "Mezmerize", 1L}));
+        when(artistaRepository.listarIdsENomes()).thenReturn(List.of());
+        arquivo("albuns/10.png");
+        arquivo("albuns/Mezmerize.png");
+
+        // Quando
+        RelatorioImportacaoDTO relatorio = importacao.importarDiretorio(diretorio.resolve("origem"));
+
+        // Então: vale um dos arquivos; o outro é informado e sua imagem vai para a outbox
+        assertThat(relatorio.getTotalArquivos()).isEqualTo(2);
+        assertThat(relatorio.getImportadas()).isEqualTo(1);
+        assertThat(relatorio.getFalhas()).isEqualTo(1);
+        assertThat(relatorio.getDetalhesFalhas().get(0).getMotivo()).startsWith("Substituído por albuns/");
+        assertThat(capasGravadas).containsOnlyKeys(10L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> liberadas = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO storage_outbox"), liberadas.capture(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(liberadas.getValue()).hasSize(1).doesNotContain(capasGravadas.get(10L));
+        assertThat(liberadas.getValue().iterator().next()).startsWith("conteudo/album-covers/10/");
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE album "), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private void arquivo(String nome) throws Exception {
+        Path arquivo = diretorio.resolve("origem").resolve(nome);
+        Files.createDirectories(arquivo.getParent());
+        Files.write(arquivo, new byte[]{1, 2, 3, 4});
+    }
+
+    /**
+     * Aplica o preenchedor do batch a um PreparedStatement simulado e guarda chave e id de cada item.
+     */
+    @SuppressWarnings("unchecked")
+    private static int[][] gravar(InvocationOnMock invocacao, Map<Long, String> gravadas) throws SQLException {
+        Collection<Object> itens = invocacao.getArgument(1);
+        ParameterizedPreparedStatementSetter<Object> preenchedor = invocacao.getArgument(3);
+        int[] contagens = new int[itens.size()];
+        int i = 0;
+        for (Object item : itens) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            preenchedor.setValues(ps, item);
+            ArgumentCaptor<String> chave = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<Long> id = ArgumentCaptor.forClass(Long.class);
+            verify(ps).setString(eq(1), chave.capture());
+            verify(ps).setLong(eq(5), id.capture());
+            gravadas.put(id.getValue(), chave.getValue());
+            contagens[i++] = 1;
+        }
+        return new int[][]{contagens};
+    }
+}
@@ -0,0 +1,167 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.application.dto.SugestaoDTO;
+import com.seplag.artistalbum.domain.port.AlbumRepository;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import com.seplag.artistalbum.domain.service.IndiceSugestoesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceSugestoesServiceTest {
+
+    @Mock
+    private ArtistaRepository artistaRepository;
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    private IndiceSugestoesService indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceSugestoesService(artistaRepository, albumRepository);
+        when(artistaRepository.listarIdsENomes()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, "Serj Tankian"},
+                new Object[]{2L, "Guns N' Roses"},
+                new Object[]{3L, "Mike Shinoda"}));
+        when(albumRepository.listarIdsTitulosEArtistas()).thenReturn(List.<Object[]>of(
+                new Object[]{10L, "Ação e Reação", 1L},
+                new Object[]{11L, "Harakiri", 1L},
+                new Object[]{12L, "Use Your Illusion I", 2L}));
+        indice.construirIndice();
+    }
+
+    @Test
+    void sugerir_DeveIgnorarAcentosEMaiusculas_NoTermoENoTexto() {
+        assertThat(textos(indice.sugerir("acao", 10))).containsExactly("Ação e Reação");
+        assertThat(textos(indice.sugerir("AÇÃO", 10))).containsExactly("Ação e Reação");
+        assertThat(textos(indice.sugerir("  REAC", 10))).containsExactly("Ação e Reação");
+    }
+
+    @Test
+    void sugerir_DeveEncontrarPrefixoDeQualquerPalavra() {
+        // Quando
+        List<SugestaoDTO> sugestoes = indice.sugerir("tank", 10);
+
+        // Então
+        assertThat(sugestoes).hasSize(1);
+        assertThat(sugestoes.get(0).getTipo()).isEqualTo(IndiceSugestoesService.TIPO_ARTISTA);
+        assertThat(sugestoes.get(0).getId()).isEqualTo(1L);
+        assertThat(sugestoes.get(0).getIdArtista()).isEqualTo(1L);
+    }
+
+    @Test
+    void sugerir_DeveAceitarPrefixoComVariasPalavras() {
+        assertThat(textos(indice.sugerir("serj  tan", 10))).containsExactly("Serj Tankian");
+        assertThat(textos(indice.sugerir("your illu", 10))).containsExactly("Use Your Illusion I");
+        assertThat(indice.sugerir("serj x", 10)).isEmpty();
+    }
+
+    @Test
+    void sugerir_NaoDeveCasarNoMeioDaPalavra() {
+        assertThat(indice.sugerir("ankian", 10)).isEmpty();
+    }
+
+    @Test
+    void sugerir_DeveRespeitarLimite_ESemRepetirEntrada() {
+        // Dado: "Rock Rockers" ocupa duas chaves com o prefixo "rock"
+        indice.registrarArtista(4L, "Rock Rockers");
+        indice.registrarArtista(5L, "Rockabilly");
+
+        // Quando / Então
+        assertThat(textos(indice.sugerir("rock", 10))).containsExactlyInAnyOrder("Rock Rockers", "Rockabilly");
+        assertThat(indice.sugerir("rock", 1)).hasSize(1);
+        assertThat(indice.sugerir("", 10)).isEmpty();
+    }
+
+    @Test
+    void registrarArtista_Renomeado_DeveTrocarAsChaves() {
+        // Quando
+        indice.registrarArtista(1L, "System of a Down");
+
+        // Então
+        assertThat(indice.sugerir("serj", 10)).isEmpty();
+        assertThat(indice.sugerir("tank", 10)).isEmpty();
+        assertThat(textos(indice.sugerir("down", 10))).containsExactly("System of a Down");
+    }
+
+    @Test
+    void removerArtista_DeveRemoverOsAlbunsJunto() {
+        // Quando
+        indice.removerArtista(1L);
+
+        // Então
+        assertThat(indice.sugerir("serj", 10)).isEmpty();
+        assertThat(indice.sugerir("acao", 10)).isEmpty();
+        assertThat(indice.sugerir("hara", 10)).isEmpty();
+        assertThat(textos(indice.sugerir("guns", 10))).containsExactly("Guns N' Roses");
+    }
+
+    @Test
+    void registrarAlbum_MovidoDeArtista_NaoDeveSairComOArtistaAnterior() {
+        // Dado
+        indice.registrarAlbum(11L, "Harakiri", 3L);
+
+        // Quando
+        indice.removerArtista(1L);
+
+        // Então
+        assertThat(textos(indice.sugerir("hara", 10))).containsExactly("Harakiri");
+    }
+
+    @Test
+    void registrarArtista_RenomeacoesConcorrentes_DevemDeixarApenasAsChavesDoUltimoNome() throws Exception {
+        // Dado
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String nome = "Nome" + t + " Sobrenome" + t;
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 2_000; i++) {
+                    indice.registrarArtista(1L, nome);
+                }
+                return null;
+            }));
+        }
+
+        // Quando
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        // Então: um só nome continua no índice, com as duas palavras
+        int nomesEncontrados = 0;
+        for (int t = 0; t < threads; t++) {
+            boolean nome = !indice.sugerir("nome" + t, 10).isEmpty();
+            boolean sobrenome = !indice.sugerir("sobrenome" + t, 10).isEmpty();
+            assertThat(sobrenome).isEqualTo(nome);
+            if (nome) {
+                nomesEncontrados++;
+            }
+        }
+        assertThat(nomesEncontrados).isEqualTo(1);
+    }
+
+    private static List<String> textos(List<SugestaoDTO> sugestoes) {
+        return sugestoes.stream().map(SugestaoDTO::getTexto).toList();
+    }
+}
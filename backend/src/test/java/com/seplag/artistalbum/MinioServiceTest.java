@@ -0,0 +1,258 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.port.ObjetoArmazenadoRepository;
+import com.seplag.artistalbum.domain.service.CacheDiscoImagens;
+import com.seplag.artistalbum.domain.service.MinioService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MinioServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+    private static final byte[] OUTRO_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'X'};
+
+    @Mock
+    private ArmazenamentoObjetos armazenamento;
+
+    @Mock
+    private CacheDiscoImagens cacheDisco;
+
+    @Mock
+    private ObjetoArmazenadoRepository objetoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MinioService minioService;
+
+    @BeforeEach
+    void setUp() {
+        minioService = new MinioService(armazenamento, 100, 300, 4, new SimpleMeterRegistry(),
+                cacheDisco, objetoRepository, transactionManager);
+        ReflectionTestUtils.setField(minioService, "tamanhoMaximoUpload", 20_971_520L);
+        ReflectionTestUtils.setField(minioService, "tamanhoParteUpload", 5_242_880L);
+        ReflectionTestUtils.setField(minioService, "enderecadoPorConteudo", true);
+        // Remoções e listagem de derivados: sempre concluídas, sem variantes
+        lenient().when(armazenamento.remover(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(armazenamento.listar(anyString())).thenReturn(List.of());
+    }
+
+    @Test
+    void uploadImagem_MesmoConteudoDuasVezes_DeveEnviarUmaVezERegistrarDuasReferencias() throws Exception {
+        // Dado
+        when(armazenamento.existe(anyString())).thenReturn(CompletableFuture.completedFuture(true));
+        when(objetoRepository.adicionarReferencia(anyString(), anyLong(), eq("image/png"))).thenReturn(1, 2);
+
+        // Quando
+        MinioService.ImagemEnviada primeira = minioService.uploadImagem("legado/a.png", new ByteArrayResource(PNG), PNG.length);
+        MinioService.ImagemEnviada segunda = minioService.uploadImagem("legado/b.png", new ByteArrayResource(PNG), PNG.length);
+
+        // Então: mesma chave endereçada por conteúdo, bytes enviados só na primeira
+        assertThat(primeira.chave()).startsWith("conteudo/").endsWith(".png");
+        assertThat(segunda.chave()).isEqualTo(primeira.chave());
+        verify(objetoRepository, times(2)).adicionarReferencia(eq(primeira.chave()), eq((long) PNG.length), eq("image/png"));
+        verify(armazenamento, times(1)).gravar(eq(primeira.chave()), any(), anyLong(), anyLong(), eq("image/png"));
+    }
+
+    @Test
+    void uploadImagem_ConteudoConhecidoAusenteNoArmazenamento_DeveReenviar() throws Exception {
+        // Dado: a referência existe, mas o upload anterior não chegou ao armazenamento
+        when(armazenamento.existe(anyString())).thenReturn(CompletableFuture.completedFuture(false));
+        when(objetoRepository.adicionarReferencia(anyString(), anyLong(), anyString())).thenReturn(2);
+
+        // Quando
+        MinioService.ImagemEnviada enviada = minioService.uploadImagem("legado/a.png", new ByteArrayResource(PNG), PNG.length);
+
+        // Então
+        verify(armazenamento).gravar(eq(enviada.chave()), any(), anyLong(), anyLong(), eq("image/png"));
+    }
+
+    @Test
+    void substituirPorConteudoIdentico_DeveLiberarSoAReferenciaAnterior_SemRemoverObjeto() throws Exception {
+        // Dado: a imagem atual é reenviada; o upload registrou a segunda referência
+        when(armazenamento.existe(anyString())).thenReturn(CompletableFuture.completedFuture(true));
+        when(objetoRepository.adicionarReferencia(anyString(), anyLong(), anyString())).thenReturn(1, 2);
+        String atual = minioService.uploadImagem("legado/a.png", new ByteArrayResource(PNG), PNG.length).chave();
+        String nova = minioService.uploadImagem("legado/a.png", new ByteArrayResource(PNG), PNG.length).chave();
+        when(objetoRepository.liberarReferencia(atual)).thenReturn(1);
+
+        // Quando
+        boolean liberar = MinioService.deveLiberarSubstituida(atual, nova);
+        if (liberar) {
+            minioService.deleteFile(atual);
+        }
+
+        // Então: a contagem volta a 1 e o objeto, ainda referenciado, continua no armazenamento
+        assertThat(nova).isEqualTo(atual);
+        assertThat(liberar).isTrue();
+        verify(objetoRepository).liberarReferencia(atual);
+        verify(objetoRepository, never()).removerSemReferencias(anyString());
+        verify(armazenamento, never()).remover(anyString());
+    }
+
+    @Test
+    void deveLiberarSubstituida_DeveSeguirOTipoDeChave() {
+        // Chave endereçada por conteúdo: sempre libera, mesmo quando igual à nova
+        assertThat(MinioService.deveLiberarSubstituida("conteudo/ab/abc.png", "conteudo/ab/abc.png")).isTrue();
+        // Chave legada sobrescrita pelo próprio upload: não libera
+        assertThat(MinioService.deveLiberarSubstituida("album-covers/1/capa.png", "album-covers/1/capa.png")).isFalse();
+        assertThat(MinioService.deveLiberarSubstituida("album-covers/1/capa.png", "conteudo/ab/abc.png")).isTrue();
+        // Sem imagem anterior
+        assertThat(MinioService.deveLiberarSubstituida(null, "conteudo/ab/abc.png")).isFalse();
+    }
+
+    @Test
+    void uploadImagem_FalhaNoEnvioAposRegistrarReferencia_DeveLiberarReferenciaERemoverObjeto() throws Exception {
+        // Dado
+        when(armazenamento.existe(anyString())).thenReturn(CompletableFuture.completedFuture(false));
+        when(objetoRepository.adicionarReferencia(anyString(), anyLong(), anyString())).thenReturn(1);
+        doThrow(new IOException("armazenamento indisponível"))
+                .when(armazenamento).gravar(anyString(), any(), anyLong(), anyLong(), anyString());
+        when(objetoRepository.liberarReferencia(anyString())).thenReturn(0);
+
+        // Quando & Então
+        assertThatThrownBy(() -> minioService.uploadImagem("legado/a.png", new ByteArrayResource(PNG), PNG.length))
+                .isInstanceOf(IOException.class)
+                .hasMessage("armazenamento indisponível");
+        verify(objetoRepository).liberarReferencia(startsWith("conteudo/"));
+        verify(objetoRepository).removerSemReferencias(startsWith("conteudo/"));
+        verify(armazenamento).remover(startsWith("conteudo/"));
+    }
+
+    @Test
+    void promoverImagem_ConteudoJaArmazenado_DeveDescartarTemporarioSemMover() throws Exception {
+        // Dado
+        when(armazenamento.obterMetadados("tmp/envio-1"))
+                .thenReturn(CompletableFuture.completedFuture(new ArmazenamentoObjetos.MetadadosObjeto(PNG.length, "application/octet-stream", "e")));
+        when(armazenamento.abrirLeitura("tmp/envio-1", 0, PNG.length)).thenReturn(new ByteArrayInputStream(PNG));
+        when(armazenamento.existe(anyString())).thenReturn(CompletableFuture.completedFuture(true));
+        when(objetoRepository.adicionarReferencia(anyString(), anyLong(), anyString())).thenReturn(2);
+
+        // Quando
+        MinioService.ImagemEnviada promovida = minioService.promoverImagem("legado/a.png", "tmp/envio-1");
+
+        // Então
+        assertThat(promovida.chave()).startsWith("conteudo/");
+        verify(armazenamento).remover("tmp/envio-1");
+        verify(armazenamento, never()).mover(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void promoverImagem_ConteudoNovo_DeveMoverParaChaveDefinitiva() throws Exception {
+        // Dado
+        when(armazenamento.obterMetadados("tmp/envio-1"))
+                .thenReturn(CompletableFuture.completedFuture(new ArmazenamentoObjetos.MetadadosObjeto(PNG.length, "application/octet-stream", "e")));
+        when(armazenamento.abrirLeitura("tmp/envio-1", 0, PNG.length)).thenReturn(new ByteArrayInputStream(PNG));
+        when(armazenamento.existe(anyString())).thenReturn(CompletableFuture.completedFuture(false));
+        when(objetoRepository.adicionarReferencia(anyString(), anyLong(), anyString())).thenReturn(1);
+        when(armazenamento.mover(eq("tmp/envio-1"), anyString(), eq("image/png"))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Quando
+        MinioService.ImagemEnviada promovida = minioService.promoverImagem("legado/a.png", "tmp/envio-1");
+
+        // Então
+        verify(armazenamento).mover("tmp/envio-1", promovida.chave(), "image/png");
+        verify(armazenamento, never()).remover("tmp/envio-1");
+    }
+
+    @Test
+    void deleteFiles_ChavesRepetidas_DeveLiberarUmaReferenciaPorOcorrenciaERemoverUmaVez() throws Exception {
+        // Dado: "a" aparece duas vezes e perde as duas referências; "b" continua referenciada
+        String a = "conteudo/aa/aaaa.png";
+        String b = "conteudo/bb/bbbb.png";
+        String legada = "album-covers/1/capa.png";
+        when(objetoRepository.liberarReferencia(a)).thenReturn(1, 0);
+        when(objetoRepository.liberarReferencia(b)).thenReturn(2);
+        when(armazenamento.removerEmLote(anyCollection())).thenReturn(Set.of());
+
+        // Quando
+        Set<String> falhas = minioService.deleteFiles(List.of(a, b, legada, a, legada));
+
+        // Então
+        assertThat(falhas).isEmpty();
+        verify(objetoRepository, times(2)).liberarReferencia(a);
+        verify(objetoRepository).liberarReferencia(b);
+        verify(objetoRepository, never()).liberarReferencia(legada);
+        verify(objetoRepository).removerSemReferencias(a);
+        verify(objetoRepository, never()).removerSemReferencias(b);
+        verify(armazenamento).removerEmLote(argThat(chaves -> List.copyOf(chaves).equals(List.of(legada, a))));
+    }
+
+    @Test
+    void deleteFiles_RemocaoRecusada_DeveDevolverAsReferenciasEManterARegistro() throws Exception {
+        // Dado: "a" e "b" perdem a última referência, mas o armazenamento recusa "a"
+        String a = "conteudo/aa/aaaa.png";
+        String b = "conteudo/bb/bbbb.png";
+        when(objetoRepository.liberarReferencia(a)).thenReturn(1, 0);
+        when(objetoRepository.liberarReferencia(b)).thenReturn(0);
+        when(armazenamento.removerEmLote(anyCollection())).thenReturn(Set.of(a));
+
+        // Quando
+        Set<String> falhas = minioService.deleteFiles(List.of(a, b, a));
+
+        // Então: as duas referências liberadas de "a" voltam e só "b" perde o registro
+        assertThat(falhas).containsExactly(a);
+        verify(objetoRepository).restaurarReferencias(a, 2);
+        verify(objetoRepository, never()).removerSemReferencias(a);
+        verify(objetoRepository).removerSemReferencias(b);
+        verify(objetoRepository, never()).restaurarReferencias(eq(b), anyInt());
+    }
+
+    @Test
+    void deleteFiles_NovaTentativaAposReenvio_NaoDeveRemoverObjetoAindaReferenciado() throws Exception {
+        // Dado: a primeira remoção de "a" é recusada; antes da nova tentativa, um álbum envia o
+        // mesmo conteúdo e a contagem restaurada (1) sobe para 2
+        String a = "conteudo/aa/aaaa.png";
+        when(objetoRepository.liberarReferencia(a)).thenReturn(0, 1);
+        when(armazenamento.removerEmLote(anyCollection())).thenReturn(Set.of(a));
+        assertThat(minioService.deleteFiles(List.of(a))).containsExactly(a);
+        verify(objetoRepository).restaurarReferencias(a, 1);
+
+        // Quando: a outbox tenta de novo
+        Set<String> falhas = minioService.deleteFiles(List.of(a));
+
+        // Então: a referência do reenvio segura o objeto
+        assertThat(falhas).isEmpty();
+        verify(armazenamento, times(1)).removerEmLote(anyCollection());
+        verify(objetoRepository, never()).removerSemReferencias(a);
+    }
+
+    @Test
+    void uploadImagem_ConteudosDiferentes_DevemGerarChavesDiferentes() throws Exception {
+        // Dado
+        when(armazenamento.existe(anyString())).thenReturn(CompletableFuture.completedFuture(false));
+        when(objetoRepository.adicionarReferencia(anyString(), anyLong(), anyString())).thenReturn(1);
+
+        // Quando
+        String primeira = minioService.uploadImagem("legado/a.png", new ByteArrayResource(PNG), PNG.length).chave();
+        String segunda = minioService.uploadImagem("legado/b.png", new ByteArrayResource(OUTRO_PNG), OUTRO_PNG.length).chave();
+
+        // Então
+        assertThat(segunda).isNotEqualTo(primeira);
+    }
+}
@@ -0,0 +1,150 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.domain.model.RemocaoPendente;
+import com.seplag.artistalbum.domain.port.RemocaoPendenteRepository;
+import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.OutboxArmazenamentoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxArmazenamentoServiceTest {
+
+    private static final long TEMPO_LIMITE_MS = 2000;
+
+    @Mock
+    private RemocaoPendenteRepository remocaoRepository;
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxArmazenamentoService outbox;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new OutboxArmazenamentoService(remocaoRepository, minioService, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.encerrar();
+    }
+
+    @Test
+    void processar_DeveRemoverLoteEmUmaChamada_EApagarRegistrosConcluidos() throws Exception {
+        // Dado
+        RemocaoPendente a = new RemocaoPendente("conteudo/aa/a.png");
+        RemocaoPendente b = new RemocaoPendente("conteudo/bb/b.png");
+        when(remocaoRepository.bloquearLoteVencido(anyInt())).thenReturn(List.of(a, b));
+        when(minioService.deleteFiles(anyCollection())).thenReturn(Set.of());
+
+        // Quando
+        outbox.varrer();
+
+        // Então
+        verify(remocaoRepository, timeout(TEMPO_LIMITE_MS)).buscarCriacaoMaisAntiga();
+        verify(minioService).deleteFiles(List.of("conteudo/aa/a.png", "conteudo/bb/b.png"));
+        verify(remocaoRepository).deleteAllInBatch(List.of(a, b));
+        assertThat(a.getTentativas()).isZero();
+        assertThat(b.getTentativas()).isZero();
+    }
+
+    @Test
+    void processar_RemocaoRecusada_DeveReagendarSoAChaveRecusada() throws Exception {
+        // Dado
+        RemocaoPendente aceita = new RemocaoPendente("conteudo/aa/a.png");
+        RemocaoPendente recusada = new RemocaoPendente("conteudo/bb/b.png");
+        when(remocaoRepository.bloquearLoteVencido(anyInt())).thenReturn(List.of(aceita, recusada));
+        when(minioService.deleteFiles(anyCollection())).thenReturn(Set.of("conteudo/bb/b.png"));
+        LocalDateTime antes = LocalDateTime.now();
+
+        // Quando
+        outbox.varrer();
+
+        // Então: primeira falha espera o intervalo inicial (5s)
+        verify(remocaoRepository, timeout(TEMPO_LIMITE_MS)).buscarCriacaoMaisAntiga();
+        verify(remocaoRepository).deleteAllInBatch(List.of(aceita));
+        assertThat(recusada.getTentativas()).isEqualTo(1);
+        assertThat(recusada.getUltimoErro()).isEqualTo("Remoção recusada pelo MinIO");
+        assertThat(recusada.getProximaTentativa()).isBetween(antes.plusSeconds(5), LocalDateTime.now().plusSeconds(5));
+        assertThat(aceita.getTentativas()).isZero();
+    }
+
+    @Test
+    void processar_FalhaDoArmazenamento_DeveReagendarLoteComBackoffExponencial() throws Exception {
+        // Dado: terceira falha anterior, a próxima espera é 5s << 3
+        RemocaoPendente remocao = new RemocaoPendente("conteudo/aa/a.png");
+        remocao.setTentativas(3);
+        when(remocaoRepository.bloquearLoteVencido(anyInt())).thenReturn(List.of(remocao));
+        when(minioService.deleteFiles(anyCollection())).thenThrow(new IllegalStateException("MinIO indisponível"));
+        LocalDateTime antes = LocalDateTime.now();
+
+        // Quando
+        outbox.varrer();
+
+        // Então
+        verify(remocaoRepository, timeout(TEMPO_LIMITE_MS)).buscarCriacaoMaisAntiga();
+        assertThat(remocao.getTentativas()).isEqualTo(4);
+        assertThat(remocao.getUltimoErro()).isEqualTo("MinIO indisponível");
+        assertThat(remocao.getProximaTentativa()).isBetween(antes.plusSeconds(40), LocalDateTime.now().plusSeconds(40));
+        verify(remocaoRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void processar_MuitasFalhas_DeveLimitarEsperaAoMaximo() throws Exception {
+        // Dado
+        RemocaoPendente remocao = new RemocaoPendente("conteudo/aa/a.png");
+        remocao.setTentativas(40);
+        when(remocaoRepository.bloquearLoteVencido(anyInt())).thenReturn(List.of(remocao));
+        when(minioService.deleteFiles(anyCollection())).thenReturn(Set.of("conteudo/aa/a.png"));
+        LocalDateTime antes = LocalDateTime.now();
+
+        // Quando
+        outbox.varrer();
+
+        // Então: espera-maxima-segundos (3600), sem estouro do deslocamento
+        verify(remocaoRepository, timeout(TEMPO_LIMITE_MS)).buscarCriacaoMaisAntiga();
+        assertThat(remocao.getTentativas()).isEqualTo(41);
+        assertThat(remocao.getProximaTentativa()).isBetween(antes.plusSeconds(3600), LocalDateTime.now().plusSeconds(3600));
+    }
+
+    @Test
+    void processar_LoteCheio_DeveBuscarProximoLote() throws Exception {
+        // Dado
+        ReflectionTestUtils.setField(outbox, "tamanhoLote", 2);
+        RemocaoPendente a = new RemocaoPendente("conteudo/aa/a.png");
+        RemocaoPendente b = new RemocaoPendente("conteudo/bb/b.png");
+        RemocaoPendente c = new RemocaoPendente("conteudo/cc/c.png");
+        when(remocaoRepository.bloquearLoteVencido(2)).thenReturn(List.of(a, b), List.of(c));
+        when(minioService.deleteFiles(anyCollection())).thenReturn(Set.of());
+
+        // Quando
+        outbox.varrer();
+
+        // Então: o segundo lote veio incompleto e encerra a rodada
+        verify(remocaoRepository, timeout(TEMPO_LIMITE_MS)).buscarCriacaoMaisAntiga();
+        verify(remocaoRepository, times(2)).bloquearLoteVencido(2);
+        verify(remocaoRepository).deleteAllInBatch(List.of(a, b));
+        verify(remocaoRepository).deleteAllInBatch(List.of(c));
+    }
+}
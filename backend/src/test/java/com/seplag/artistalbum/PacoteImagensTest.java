@@ -0,0 +1,163 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.application.controller.AlbumController;
+import com.seplag.artistalbum.application.controller.PacoteImagens;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.service.AlbumService;
+import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.RedimensionamentoImagemService;
+import com.seplag.artistalbum.infrastructure.exception.InvalidBatchSizeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PacoteImagensTest {
+
+    private static final String CAPA_1 = "conteudo/aa/aaaa.png";
+    private static final String CAPA_2 = "conteudo/bb/bbbb.png";
+    private static final String CAPA_3 = "conteudo/cc/cccc.png";
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private RedimensionamentoImagemService redimensionamento;
+
+    @Mock
+    private AlbumService albumService;
+
+    private PacoteImagens pacoteImagens;
+
+    @BeforeEach
+    void setUp() {
+        pacoteImagens = new PacoteImagens(minioService, redimensionamento, 2, 2, 3, 256, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pacoteImagens.encerrar();
+    }
+
+    @Test
+    void entregar_DeveEscreverUmaPartePorIdEFecharAFronteira() throws Exception {
+        // Dado
+        miniatura(CAPA_1, "png-1".getBytes(StandardCharsets.US_ASCII));
+        miniatura(CAPA_2, "png-dois".getBytes(StandardCharsets.US_ASCII));
+        Map<Long, String> chaves = new LinkedHashMap<>();
+        chaves.put(1L, CAPA_1);
+        chaves.put(2L, CAPA_2);
+
+        // Quando
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        pacoteImagens.entregar(chaves, null, null, resposta);
+
+        // Então: partes na ordem de conclusão, cada uma com os próprios cabeçalhos
+        assertThat(resposta.getStatus()).isEqualTo(200);
+        assertThat(resposta.getContentType()).startsWith("multipart/mixed; boundary=");
+        String fronteira = resposta.getContentType().substring("multipart/mixed; boundary=".length());
+        String corpo = resposta.getContentAsString(StandardCharsets.ISO_8859_1);
+        assertThat(corpo).endsWith("--" + fronteira + "--\r\n");
+
+        Map<String, String> partes = partesPorId(corpo, fronteira);
+        assertThat(partes).containsOnlyKeys("<1>", "<2>");
+        assertThat(partes.get("<1>")).isEqualTo("Content-Type: image/png\r\n"
+                + "Content-Length: 5\r\n"
+                + "Content-ID: <1>\r\n"
+                + "ETag: \"aaaa-256x\"\r\n"
+                + "\r\n"
+                + "png-1\r\n");
+        assertThat(partes.get("<2>")).contains("Content-Length: 8\r\n", "ETag: \"bbbb-256x\"\r\n")
+                .endsWith("\r\n\r\npng-dois\r\n");
+    }
+
+    @Test
+    void entregar_DeveOmitirIdsComFalhaOuAcimaDoTamanhoMaximo() throws Exception {
+        // Dado: 2 falha na leitura e 3 passa do tamanho máximo por item
+        miniatura(CAPA_1, "png-1".getBytes(StandardCharsets.US_ASCII));
+        when(redimensionamento.obterChaveVariante(CAPA_2, 256, null)).thenReturn(CAPA_2 + "@256");
+        when(minioService.obterMetadados(CAPA_2 + "@256")).thenThrow(new IllegalStateException("indisponível"));
+        when(redimensionamento.obterChaveVariante(CAPA_3, 256, null)).thenReturn(CAPA_3 + "@256");
+        when(minioService.obterMetadados(CAPA_3 + "@256"))
+                .thenReturn(new ArmazenamentoObjetos.MetadadosObjeto(4096, "image/png", "etag"));
+        Map<Long, String> chaves = new LinkedHashMap<>();
+        chaves.put(1L, CAPA_1);
+        chaves.put(2L, CAPA_2);
+        chaves.put(3L, CAPA_3);
+
+        // Quando
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        pacoteImagens.entregar(chaves, null, null, resposta);
+
+        // Então
+        String fronteira = resposta.getContentType().substring("multipart/mixed; boundary=".length());
+        String corpo = resposta.getContentAsString(StandardCharsets.ISO_8859_1);
+        assertThat(partesPorId(corpo, fronteira)).containsOnlyKeys("<1>");
+        assertThat(corpo).endsWith("--" + fronteira + "--\r\n");
+        verify(minioService, never()).abrirLeitura(eq(CAPA_3 + "@256"), anyLong(), anyLong());
+    }
+
+    @Test
+    void validarQuantidade_AcimaDoMaximo_DeveLancarExcecao() {
+        // Quando / Então
+        pacoteImagens.validarQuantidade(3);
+        assertThatThrownBy(() -> pacoteImagens.validarQuantidade(4))
+                .isInstanceOf(InvalidBatchSizeException.class)
+                .hasMessage("Quantidade de ids excede o máximo de 3 por requisição");
+    }
+
+    @Test
+    void obterPacoteImagensCapa_AcimaDoMaximo_NaoDeveConsultarOBanco() {
+        // Dado
+        AlbumController controller = new AlbumController(albumService, null, null, pacoteImagens, null, null);
+        List<Long> ids = LongStream.rangeClosed(1, 4).boxed().toList();
+
+        // Quando / Então
+        assertThatThrownBy(() -> controller.obterPacoteImagensCapa(ids, null, null, new MockHttpServletResponse()))
+                .isInstanceOf(InvalidBatchSizeException.class);
+        verifyNoInteractions(albumService);
+    }
+
+    private void miniatura(String original, byte[] conteudo) throws Exception {
+        String variante = original + "@256";
+        when(redimensionamento.obterChaveVariante(original, 256, null)).thenReturn(variante);
+        when(minioService.obterMetadados(variante))
+                .thenReturn(new ArmazenamentoObjetos.MetadadosObjeto(conteudo.length, "image/png", "etag"));
+        when(minioService.abrirLeitura(variante, 0, conteudo.length)).thenReturn(new ByteArrayInputStream(conteudo));
+    }
+
+    /**
+     * Separa o corpo multipart pelas fronteiras e indexa cada parte (cabeçalhos e conteúdo) pelo Content-ID.
+     */
+    private static Map<String, String> partesPorId(String corpo, String fronteira) {
+        Map<String, String> partes = new HashMap<>();
+        String[] trechos = corpo.split("--" + fronteira);
+        for (int i = 1; i < trechos.length - 1; i++) {
+            String parte = trechos[i];
+            assertThat(parte).startsWith("\r\n");
+            parte = parte.substring(2);
+            int inicio = parte.indexOf("Content-ID: ") + "Content-ID: ".length();
+            partes.put(parte.substring(inicio, parte.indexOf("\r\n", inicio)), parte);
+        }
+        assertThat(trechos[trechos.length - 1]).isEqualTo("--\r\n");
+        return partes;
+    }
+}
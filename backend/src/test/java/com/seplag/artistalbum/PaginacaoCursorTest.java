@@ -0,0 +1,133 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.application.dto.PaginaCursor;
+import com.seplag.artistalbum.domain.service.PaginacaoCursor;
+import com.seplag.artistalbum.infrastructure.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaginacaoCursorTest {
+
+    private record Item(String nome, Long id) {}
+
+    private static final Comparator<Item> ORDEM =
+            Comparator.comparing(Item::nome).thenComparing(Item::id);
+
+    private static final List<Item> ITENS = List.of(
+            new Item("A", 1L), new Item("B", 2L), new Item("B", 3L),
+            new Item("C", 4L), new Item("D", 5L));
+
+    private final PaginacaoCursor.Consultas<Item> consultas = new PaginacaoCursor.Consultas<>(
+            limite -> ITENS.stream().sorted(ORDEM).limit(limite).toList(),
+            limite -> ITENS.stream().sorted(ORDEM.reversed()).limit(limite).toList(),
+            (chave, id, limite) -> ITENS.stream()
+                    .filter(i -> ORDEM.compare(i, new Item(chave, id)) > 0)
+                    .sorted(ORDEM).limit(limite).toList(),
+            (chave, id, limite) -> ITENS.stream()
+                    .filter(i -> ORDEM.compare(i, new Item(chave, id)) < 0)
+                    .sorted(ORDEM.reversed()).limit(limite).toList());
+
+    private PaginaCursor<Long> paginar(String cursor, boolean descendente, int tamanho) {
+        return PaginacaoCursor.paginar(cursor, descendente, tamanho, consultas, Item::nome, Item::id, Item::id);
+    }
+
+    @Test
+    void paginar_PrimeiraPagina_DeveTerApenasProximoCursor() {
+        // Quando
+        PaginaCursor<Long> pagina = paginar(null, false, 2);
+
+        // Então
+        assertThat(pagina.getConteudo()).containsExactly(1L, 2L);
+        assertThat(pagina.getProximoCursor()).isNotNull();
+        assertThat(pagina.getCursorAnterior()).isNull();
+    }
+
+    @Test
+    void paginar_Ascendente_DevePercorrerTodasAsPaginasSemRepetir() {
+        // Quando
+        PaginaCursor<Long> primeira = paginar(null, false, 2);
+        PaginaCursor<Long> segunda = paginar(primeira.getProximoCursor(), false, 2);
+        PaginaCursor<Long> ultima = paginar(segunda.getProximoCursor(), false, 2);
+
+        // Então
+        assertThat(segunda.getConteudo()).containsExactly(3L, 4L);
+        assertThat(segunda.getCursorAnterior()).isNotNull();
+        assertThat(ultima.getConteudo()).containsExactly(5L);
+        assertThat(ultima.getProximoCursor()).isNull();
+        assertThat(ultima.getCursorAnterior()).isNotNull();
+    }
+
+    @Test
+    void paginar_Descendente_DeveInverterAOrdem() {
+        // Quando
+        PaginaCursor<Long> primeira = paginar(null, true, 2);
+        PaginaCursor<Long> segunda = paginar(primeira.getProximoCursor(), true, 2);
+
+        // Então
+        assertThat(primeira.getConteudo()).containsExactly(5L, 4L);
+        assertThat(segunda.getConteudo()).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void paginar_CursorAnterior_DeveVoltarParaAPaginaAnterior() {
+        // Dado
+        PaginaCursor<Long> primeira = paginar(null, false, 2);
+        PaginaCursor<Long> segunda = paginar(primeira.getProximoCursor(), false, 2);
+        PaginaCursor<Long> terceira = paginar(segunda.getProximoCursor(), false, 2);
+
+        // Quando
+        PaginaCursor<Long> voltaSegunda = paginar(terceira.getCursorAnterior(), false, 2);
+        PaginaCursor<Long> voltaPrimeira = paginar(voltaSegunda.getCursorAnterior(), false, 2);
+
+        // Então
+        assertThat(voltaSegunda.getConteudo()).containsExactly(3L, 4L);
+        assertThat(voltaSegunda.getProximoCursor()).isNotNull();
+        assertThat(voltaPrimeira.getConteudo()).containsExactly(1L, 2L);
+        assertThat(voltaPrimeira.getCursorAnterior()).isNull();
+        assertThat(voltaPrimeira.getProximoCursor()).isNotNull();
+    }
+
+    @Test
+    void paginar_ChaveComSeparador_DeveSobreviverAoCursor() {
+        // Dado
+        String cursor = PaginacaoCursor.cursorApos("B:x", 2L);
+
+        // Quando
+        PaginaCursor<Long> pagina = paginar(cursor, false, 10);
+
+        // Então
+        assertThat(pagina.getConteudo()).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void paginar_TamanhoForaDosLimites_DeveSerAjustado() {
+        assertThat(PaginacaoCursor.limitarTamanho(0)).isEqualTo(1);
+        assertThat(PaginacaoCursor.limitarTamanho(1_000_000)).isEqualTo(PaginacaoCursor.TAMANHO_MAXIMO);
+        assertThat(paginar(null, false, 0).getConteudo()).containsExactly(1L);
+    }
+
+    @Test
+    void paginar_CursorInvalido_DeveLancarInvalidCursorException() {
+        String naoBase64 = "%%%";
+        String direcaoDesconhecida = codificar("x:1:A");
+        String idNaoNumerico = codificar("p:abc:A");
+        String semPartes = codificar("p");
+
+        for (String cursor : List.of(naoBase64, direcaoDesconhecida, idNaoNumerico, semPartes)) {
+            assertThatThrownBy(() -> paginar(cursor, false, 2))
+                    .isInstanceOf(InvalidCursorException.class)
+                    .hasMessage("Cursor de paginação inválido");
+        }
+    }
+
+    private static String codificar(String bruto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,135 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.application.dto.AlbumDTO;
+import com.seplag.artistalbum.application.dto.TarefaImagemDTO;
+import com.seplag.artistalbum.domain.model.Album;
+import com.seplag.artistalbum.domain.model.Artista;
+import com.seplag.artistalbum.domain.port.AlbumRepository;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import com.seplag.artistalbum.domain.service.AlbumService;
+import com.seplag.artistalbum.domain.service.CacheCatalogoService;
+import com.seplag.artistalbum.domain.service.IndiceSugestoesService;
+import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.OutboxArmazenamentoService;
+import com.seplag.artistalbum.domain.service.ProcessamentoImagemService;
+import com.seplag.artistalbum.domain.service.RedimensionamentoImagemService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessamentoImagemServiceTest {
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    @Mock
+    private ArtistaRepository artistaRepository;
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private IndiceSugestoesService indiceSugestoes;
+
+    @Mock
+    private CacheCatalogoService cacheCatalogo;
+
+    @Mock
+    private OutboxArmazenamentoService outboxArmazenamento;
+
+    @Mock
+    private RedimensionamentoImagemService redimensionamento;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path diretorioStaging;
+
+    private ProcessamentoImagemService processamento;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AlbumService albumService = new AlbumService(albumRepository, artistaRepository, minioService, messagingTemplate,
+                indiceSugestoes, cacheCatalogo, outboxArmazenamento, redimensionamento, transactionManager);
+        processamento = new ProcessamentoImagemService(albumService, null, albumRepository, artistaRepository,
+                messagingTemplate, new SimpleMeterRegistry(), 1, 5, diretorioStaging.toString(), 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processamento.encerrar();
+    }
+
+    @Test
+    void enfileirarCapaAlbum_DeveConcluirNaThreadDaFila_SemCarregarArtistaPreguicosamente() throws Exception {
+        // Dado: fora de uma sessão, o artista de um álbum lido por findById é um proxy não inicializado
+        Artista naoInicializado = mock(Artista.class);
+        lenient().when(naoInicializado.getNome()).thenThrow(new LazyInitializationException("could not initialize proxy - no Session"));
+        Album desanexado = new Album("Álbum de Teste", naoInicializado);
+        desanexado.setId(10L);
+        lenient().when(albumRepository.findById(10L)).thenReturn(Optional.of(desanexado));
+
+        Artista artista = new Artista("Artista de Teste");
+        artista.setId(1L);
+        Album album = new Album("Álbum de Teste", artista, "album-covers/10/capa.png");
+        album.setId(10L);
+
+        when(albumRepository.existsById(10L)).thenReturn(true);
+        when(minioService.uploadImagem(anyString(), any(), anyLong()))
+                .thenReturn(new MinioService.ImagemEnviada("album-covers/10/capa.png", 4, "image/png", null));
+        when(albumRepository.bloquearChaveImagemCapa(10L)).thenReturn(List.<Object[]>of(new Object[]{10L, null}));
+        when(albumRepository.buscarComArtista(10L)).thenReturn(Optional.of(album));
+
+        // Quando
+        TarefaImagemDTO tarefa = processamento.enfileirarCapaAlbum(10L, new ByteArrayResource(new byte[]{1, 2, 3, 4}), "capa.png");
+        TarefaImagemDTO concluida = aguardarConclusao(tarefa.getId());
+
+        // Então
+        assertThat(concluida.getStatus()).isEqualTo(TarefaImagemDTO.STATUS_CONCLUIDA);
+        assertThat(concluida.getMensagemErro()).isNull();
+        ArgumentCaptor<Object> mensagem = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/albums"), mensagem.capture(), anyMap());
+        assertThat(((AlbumDTO) mensagem.getValue()).getNomeArtista()).isEqualTo("Artista de Teste");
+        verify(albumRepository).atualizarImagemCapa(eq(10L), eq("album-covers/10/capa.png"), any(), any(), any());
+    }
+
+    private TarefaImagemDTO aguardarConclusao(String id) throws InterruptedException {
+        long limite = System.nanoTime() + 5_000_000_000L;
+        TarefaImagemDTO tarefa = processamento.obterTarefa(id);
+        while (!TarefaImagemDTO.STATUS_CONCLUIDA.equals(tarefa.getStatus())
+                && !TarefaImagemDTO.STATUS_FALHA.equals(tarefa.getStatus())
+                && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            tarefa = processamento.obterTarefa(id);
+        }
+        return tarefa;
+    }
+}
@@ -0,0 +1,201 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.application.controller.ProxyImagem;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.RedimensionamentoImagemService;
+import com.seplag.artistalbum.domain.service.VerificadorEndpointPublico;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProxyImagemTest {
+
+    private static final String CHAVE = "capas/capa.jpg";
+    private static final byte[] CONTEUDO = "0123456789".getBytes();
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private VerificadorEndpointPublico endpointPublico;
+
+    @Mock
+    private RedimensionamentoImagemService redimensionamento;
+
+    private ProxyImagem proxyImagem;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        proxyImagem = new ProxyImagem(minioService, endpointPublico, redimensionamento,
+                new SimpleMeterRegistry(), "proxy", 60);
+        lenient().when(redimensionamento.obterChaveVariante(CHAVE, null, null)).thenReturn(CHAVE);
+        lenient().when(minioService.obterMetadados(CHAVE))
+                .thenReturn(new ArmazenamentoObjetos.MetadadosObjeto(CONTEUDO.length, "image/jpeg", "etag"));
+        lenient().when(minioService.abrirLeitura(eq(CHAVE), anyLong(), anyLong())).thenAnswer(invocacao -> {
+            int inicio = Math.toIntExact(invocacao.<Long>getArgument(1));
+            int quantidade = Math.toIntExact(invocacao.<Long>getArgument(2));
+            return new ByteArrayInputStream(Arrays.copyOfRange(CONTEUDO, inicio, inicio + quantidade));
+        });
+    }
+
+    @Test
+    void entregar_DeveResponderCompleto_SemRange() throws Exception {
+        // Quando
+        MockHttpServletResponse resposta = entregar(requisicao("GET"));
+
+        // Então
+        assertThat(resposta.getStatus()).isEqualTo(200);
+        assertThat(resposta.getContentType()).isEqualTo("image/jpeg");
+        assertThat(resposta.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(resposta.getHeader(HttpHeaders.ETAG)).isEqualTo(etag());
+        assertThat(resposta.getContentAsByteArray()).isEqualTo(CONTEUDO);
+    }
+
+    @Test
+    void entregar_DeveResponder206_ComFaixaUnica() throws Exception {
+        // Dado
+        MockHttpServletRequest requisicao = requisicao("GET");
+        requisicao.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        // Quando
+        MockHttpServletResponse resposta = entregar(requisicao);
+
+        // Então
+        assertThat(resposta.getStatus()).isEqualTo(206);
+        assertThat(resposta.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(resposta.getContentLengthLong()).isEqualTo(4);
+        assertThat(resposta.getContentAsString()).isEqualTo("2345");
+        verify(minioService).abrirLeitura(CHAVE, 2, 4);
+    }
+
+    @Test
+    void entregar_DeveResponder206_ComSufixo() throws Exception {
+        // Dado
+        MockHttpServletRequest requisicao = requisicao("GET");
+        requisicao.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        // Quando
+        MockHttpServletResponse resposta = entregar(requisicao);
+
+        // Então
+        assertThat(resposta.getStatus()).isEqualTo(206);
+        assertThat(resposta.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(resposta.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void entregar_DeveResponder416_QuandoFaixaComecaAposOFim() throws Exception {
+        // Dado
+        MockHttpServletRequest requisicao = requisicao("GET");
+        requisicao.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+
+        // Quando
+        MockHttpServletResponse resposta = entregar(requisicao);
+
+        // Então
+        assertThat(resposta.getStatus()).isEqualTo(416);
+        assertThat(resposta.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        verify(minioService, never()).abrirLeitura(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void entregar_DeveIgnorarRangeMalformado_EResponderCompleto() throws Exception {
+        // Dado
+        MockHttpServletRequest requisicao = requisicao("GET");
+        requisicao.addHeader(HttpHeaders.RANGE, "bytes=5-2");
+
+        // Quando
+        MockHttpServletResponse resposta = entregar(requisicao);
+
+        // Então
+        assertThat(resposta.getStatus()).isEqualTo(200);
+        assertThat(resposta.getContentAsByteArray()).isEqualTo(CONTEUDO);
+    }
+
+    @Test
+    void entregar_DeveResponderCompleto_ComMultiplasFaixas() throws Exception {
+        // Dado
+        MockHttpServletRequest requisicao = requisicao("GET");
+        requisicao.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+        // Quando
+        MockHttpServletResponse resposta = entregar(requisicao);
+
+        // Então
+        assertThat(resposta.getStatus()).isEqualTo(200);
+        assertThat(resposta.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(resposta.getContentAsByteArray()).isEqualTo(CONTEUDO);
+        verify(minioService).abrirLeitura(CHAVE, 0, CONTEUDO.length);
+    }
+
+    @Test
+    void entregar_Head_DeveEnviarCabecalhosSemCorpo() throws Exception {
+        // Quando
+        MockHttpServletResponse resposta = entregar(requisicao("HEAD"));
+
+        // Então
+        assertThat(resposta.getStatus()).isEqualTo(200);
+        assertThat(resposta.getContentLengthLong()).isEqualTo(CONTEUDO.length);
+        assertThat(resposta.getContentAsByteArray()).isEmpty();
+        verify(minioService, never()).abrirLeitura(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void entregar_DeveResponder304_QuandoIfNoneMatchCorresponde() throws Exception {
+        // Dado
+        MockHttpServletRequest requisicao = requisicao("GET");
+        requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, "W/" + etag());
+
+        // Quando
+        MockHttpServletResponse resposta = entregar(requisicao);
+
+        // Então
+        assertThat(resposta.getStatus()).isEqualTo(304);
+        assertThat(resposta.getHeader(HttpHeaders.ETAG)).isEqualTo(etag());
+        assertThat(resposta.getContentAsByteArray()).isEmpty();
+        verifyNoInteractions(minioService);
+    }
+
+    @Test
+    void entregar_DeveMarcarComoImutavel_ApenasNaVersaoAtual() throws Exception {
+        // Dado
+        MockHttpServletRequest atual = requisicao("GET");
+        atual.setParameter("v", MinioService.versao(CHAVE));
+        MockHttpServletRequest antiga = requisicao("GET");
+        antiga.setParameter("v", "antiga");
+
+        // Quando / Então
+        assertThat(entregar(atual).getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+        assertThat(entregar(antiga).getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+    }
+
+    private MockHttpServletResponse entregar(MockHttpServletRequest requisicao) throws Exception {
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        proxyImagem.entregar(CHAVE, null, null, requisicao, resposta);
+        return resposta;
+    }
+
+    private static MockHttpServletRequest requisicao(String metodo) {
+        return new MockHttpServletRequest(metodo, "/v1/imagens/capa");
+    }
+
+    private static String etag() {
+        return "\"" + MinioService.versao(CHAVE) + "\"";
+    }
+}
@@ -0,0 +1,179 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos.ObjetoListado;
+import com.seplag.artistalbum.domain.port.ObjetoArmazenadoRepository;
+import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.ReconciliacaoOrfaosService;
+import com.seplag.artistalbum.domain.service.ReconciliacaoOrfaosService.ResultadoReconciliacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliacaoOrfaosServiceTest {
+
+    private static final Instant ANTIGO = Instant.now().minus(Duration.ofDays(1));
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private ObjetoArmazenadoRepository objetoRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReconciliacaoOrfaosService reconciliacao;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciliacao = new ReconciliacaoOrfaosService(minioService, objetoRepository, meterRegistry);
+        // Trecho de uma chave: a intercalação precisa buscar o próximo trecho várias vezes
+        ReflectionTestUtils.setField(reconciliacao, "tamanhoTrecho", 1);
+        ReflectionTestUtils.setField(reconciliacao, "lotesPorSegundo", 1000);
+    }
+
+    @Test
+    void reconciliar_DeveRemoverObjetosSemReferencia_IntercalandoListagemEBanco() throws Exception {
+        // Dado: listagem e referências em ordem binária; "b" e "d" são referenciados
+        when(minioService.listarObjetos()).thenReturn(List.of(
+                objeto("a", 10), objeto("b", 20), objeto("c", 30), objeto("d", 40), objeto("e", 50)));
+        referencias("b", "d");
+        when(minioService.removerObjetosOrfaos(anyCollection())).thenReturn(Set.of());
+
+        // Quando
+        ResultadoReconciliacao resultado = reconciliacao.reconciliar(false);
+
+        // Então
+        verify(minioService).removerObjetosOrfaos(List.of("a", "c", "e"));
+        assertThat(resultado.objetosVerificados()).isEqualTo(5);
+        assertThat(resultado.orfaos()).isEqualTo(3);
+        assertThat(resultado.bytesRecuperados()).isEqualTo(90);
+        assertThat(resultado.simulacao()).isFalse();
+    }
+
+    @Test
+    void reconciliar_DeveIgnorarObjetosDentroDaCarencia() throws Exception {
+        // Dado: "novo" acabou de ser gravado e a chave ainda não chegou ao banco
+        when(minioService.listarObjetos()).thenReturn(List.of(
+                objeto("antigo", 10), new ObjetoListado("novo", 20, Instant.now())));
+        referencias();
+        when(minioService.removerObjetosOrfaos(anyCollection())).thenReturn(Set.of());
+
+        // Quando
+        ResultadoReconciliacao resultado = reconciliacao.reconciliar(false);
+
+        // Então
+        verify(minioService).removerObjetosOrfaos(List.of("antigo"));
+        assertThat(resultado.objetosVerificados()).isEqualTo(2);
+        assertThat(resultado.orfaos()).isEqualTo(1);
+    }
+
+    @Test
+    void reconciliar_Simulacao_DeveContabilizarSemRemover() throws Exception {
+        // Dado
+        when(minioService.listarObjetos()).thenReturn(List.of(objeto("a", 10), objeto("b", 20)));
+        referencias("b");
+
+        // Quando
+        ResultadoReconciliacao resultado = reconciliacao.reconciliar(true);
+
+        // Então
+        verify(minioService, never()).removerObjetosOrfaos(anyCollection());
+        assertThat(resultado.orfaos()).isEqualTo(1);
+        assertThat(resultado.bytesRecuperados()).isEqualTo(10);
+        assertThat(resultado.simulacao()).isTrue();
+        assertThat(meterRegistry.counter("armazenamento.reconciliacao.orfaos", "modo", "simulacao").count()).isEqualTo(1);
+    }
+
+    @Test
+    void reconciliar_DeveRemoverDerivadosSoQuandoOOriginalNaoEReferenciado() throws Exception {
+        // Dado: as variantes de "a.png" ficam, as de "c.png" (sem referência) saem
+        String derivadoMantido = "conteudo/a.png.derivados/256x.png";
+        String derivadoOrfao = "conteudo/c.png.derivados/256x.png";
+        when(minioService.listarObjetos()).thenReturn(List.of(
+                objeto("conteudo/a.png", 100), objeto(derivadoMantido, 5), objeto(derivadoOrfao, 7)));
+        referencias("conteudo/a.png");
+        when(objetoRepository.filtrarChavesReferenciadas(anyCollection())).thenReturn(List.of("conteudo/a.png"));
+        when(minioService.removerObjetosOrfaos(anyCollection())).thenReturn(Set.of());
+
+        // Quando
+        ResultadoReconciliacao resultado = reconciliacao.reconciliar(false);
+
+        // Então
+        verify(objetoRepository).filtrarChavesReferenciadas(Set.of("conteudo/a.png", "conteudo/c.png"));
+        verify(minioService).removerObjetosOrfaos(List.of(derivadoOrfao));
+        assertThat(resultado.orfaos()).isEqualTo(1);
+        assertThat(resultado.bytesRecuperados()).isEqualTo(7);
+    }
+
+    @Test
+    void reconciliar_DeveRemoverEmLotes_ENaoContarRemocoesRecusadas() throws Exception {
+        // Dado: lote de dois; "c" é recusada pelo armazenamento
+        ReflectionTestUtils.setField(reconciliacao, "tamanhoLote", 2);
+        when(minioService.listarObjetos()).thenReturn(List.of(objeto("a", 1), objeto("b", 2), objeto("c", 4)));
+        referencias();
+        when(minioService.removerObjetosOrfaos(anyCollection())).thenReturn(Set.of(), Set.of("c"));
+
+        // Quando
+        ResultadoReconciliacao resultado = reconciliacao.reconciliar(false);
+
+        // Então
+        verify(minioService).removerObjetosOrfaos(List.of("a", "b"));
+        verify(minioService).removerObjetosOrfaos(List.of("c"));
+        assertThat(resultado.orfaos()).isEqualTo(2);
+        assertThat(resultado.bytesRecuperados()).isEqualTo(3);
+    }
+
+    @Test
+    void reconciliar_DeveCompararEmOrdemBinaria_ForaDoBmp() throws Exception {
+        // Dado: U+1F600 vem depois de U+FFFD em UTF-8, embora venha antes em UTF-16
+        String emoji = "capa-\uD83D\uDE00.png";
+        String substituto = "capa-\uFFFD.png";
+        when(minioService.listarObjetos()).thenReturn(List.of(objeto(substituto, 1), objeto(emoji, 2)));
+        referencias(substituto, emoji);
+
+        // Quando
+        ResultadoReconciliacao resultado = reconciliacao.reconciliar(false);
+
+        // Então
+        assertThat(resultado.orfaos()).isZero();
+        verify(minioService, never()).removerObjetosOrfaos(anyCollection());
+    }
+
+    private static ObjetoListado objeto(String chave, long tamanho) {
+        return new ObjetoListado(chave, tamanho, ANTIGO);
+    }
+
+    /**
+     * Simula a consulta paginada das chaves referenciadas, um trecho por vez.
+     */
+    private void referencias(String... chaves) {
+        lenient().when(objetoRepository.listarChavesReferenciadasApos(anyString(), anyInt())).thenAnswer(invocacao -> {
+            byte[] apos = invocacao.<String>getArgument(0).getBytes(StandardCharsets.UTF_8);
+            int limite = invocacao.getArgument(1);
+            return Stream.of(chaves)
+                    .filter(chave -> Arrays.compareUnsigned(chave.getBytes(StandardCharsets.UTF_8), apos) > 0)
+                    .limit(limite)
+                    .toList();
+        });
+    }
+}
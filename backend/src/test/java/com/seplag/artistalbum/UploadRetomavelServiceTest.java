@@ -0,0 +1,269 @@
+package com.seplag.artistalbum;
+
+import com.seplag.artistalbum.application.dto.AlbumDTO;
+import com.seplag.artistalbum.application.dto.TarefaImagemDTO;
+import com.seplag.artistalbum.domain.model.ParteUpload;
+import com.seplag.artistalbum.domain.model.SessaoUpload;
+import com.seplag.artistalbum.domain.port.AlbumRepository;
+import com.seplag.artistalbum.domain.port.ArmazenamentoObjetos;
+import com.seplag.artistalbum.domain.port.ArtistaRepository;
+import com.seplag.artistalbum.domain.port.ObjetoArmazenadoRepository;
+import com.seplag.artistalbum.domain.port.ParteUploadRepository;
+import com.seplag.artistalbum.domain.port.SessaoUploadRepository;
+import com.seplag.artistalbum.domain.service.AlbumService;
+import com.seplag.artistalbum.domain.service.ArtistaService;
+import com.seplag.artistalbum.domain.service.CacheDiscoImagens;
+import com.seplag.artistalbum.domain.service.MinioService;
+import com.seplag.artistalbum.domain.service.UploadRetomavelService;
+import com.seplag.artistalbum.infrastructure.exception.InvalidImageException;
+import com.seplag.artistalbum.infrastructure.exception.InvalidUploadPartException;
+import com.seplag.artistalbum.infrastructure.exception.UploadSessionConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UploadRetomavelServiceTest {
+
+    private static final String ID = "sessao-1";
+    private static final String CHAVE_TEMPORARIA = "envios/sessao-1";
+    private static final String ID_ENVIO = "envio-1";
+
+    @Mock
+    private SessaoUploadRepository sessaoRepository;
+
+    @Mock
+    private ParteUploadRepository parteRepository;
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    @Mock
+    private ArtistaRepository artistaRepository;
+
+    @Mock
+    private AlbumService albumService;
+
+    @Mock
+    private ArtistaService artistaService;
+
+    @Mock
+    private ArmazenamentoObjetos armazenamento;
+
+    @Mock
+    private CacheDiscoImagens cacheDisco;
+
+    @Mock
+    private ObjetoArmazenadoRepository objetoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UploadRetomavelService uploadRetomavel;
+
+    private SessaoUpload sessao;
+
+    @BeforeEach
+    void setUp() {
+        // MinioService real: a conferência de tamanho e SHA-256 da parte acontece nele
+        MinioService minioService = new MinioService(armazenamento, 100, 300, 4, new SimpleMeterRegistry(),
+                cacheDisco, objetoRepository, transactionManager);
+        uploadRetomavel = new UploadRetomavelService(sessaoRepository, parteRepository, albumRepository,
+                artistaRepository, albumService, artistaService, minioService, transactionManager);
+
+        // 12 bytes em partes de 5: partes 1 e 2 com 5 bytes, parte 3 com 2
+        sessao = new SessaoUpload(ID, TarefaImagemDTO.TIPO_CAPA_ALBUM, 10L, "capa.png", 12L, 5,
+                CHAVE_TEMPORARIA, ID_ENVIO, LocalDateTime.now().plusMinutes(60));
+        when(sessaoRepository.findById(ID)).thenReturn(Optional.of(sessao));
+    }
+
+    @Test
+    void receberParte_OffsetIncorreto_DeveRecusarSemGravar() throws Exception {
+        // Quando & Então
+        assertThatThrownBy(() -> uploadRetomavel.receberParte(ID, 2, 4, sha256(bytes(5)), new ByteArrayInputStream(bytes(5))))
+                .isInstanceOf(InvalidUploadPartException.class)
+                .hasMessage("A parte 2 começa no offset 5");
+        verify(sessaoRepository, never()).renovar(anyString(), any());
+        verify(armazenamento, never()).gravarParte(anyString(), anyString(), anyInt(), any(), anyInt());
+        verify(parteRepository, never()).registrar(anyString(), anyInt(), anyInt(), anyString(), anyString());
+    }
+
+    @Test
+    void receberParte_NumeroForaDaSessao_DeveRecusar() {
+        // Quando & Então
+        assertThatThrownBy(() -> uploadRetomavel.receberParte(ID, 4, 15, sha256(bytes(5)), new ByteArrayInputStream(bytes(5))))
+                .isInstanceOf(InvalidUploadPartException.class)
+                .hasMessageContaining("a sessão tem 3 partes");
+    }
+
+    @Test
+    void receberParte_ChecksumDivergente_DeveRecusarAntesDoArmazenamento() throws Exception {
+        // Dado
+        when(sessaoRepository.renovar(eq(ID), any())).thenReturn(1);
+        byte[] parte = bytes(5);
+        String outroSha256 = sha256(new byte[]{9, 9, 9, 9, 9});
+
+        // Quando & Então
+        assertThatThrownBy(() -> uploadRetomavel.receberParte(ID, 1, 0, outroSha256, new ByteArrayInputStream(parte)))
+                .isInstanceOf(InvalidUploadPartException.class)
+                .hasMessage("Checksum SHA-256 da parte 1 não confere");
+        verify(armazenamento, never()).gravarParte(anyString(), anyString(), anyInt(), any(), anyInt());
+        verify(parteRepository, never()).registrar(anyString(), anyInt(), anyInt(), anyString(), anyString());
+    }
+
+    @Test
+    void receberParte_UltimaParteComTamanhoErrado_DeveRecusar() throws Exception {
+        // Dado: a parte 3 deve ter 2 bytes
+        when(sessaoRepository.renovar(eq(ID), any())).thenReturn(1);
+        byte[] parte = bytes(3);
+
+        // Quando & Então
+        assertThatThrownBy(() -> uploadRetomavel.receberParte(ID, 3, 10, sha256(parte), new ByteArrayInputStream(parte)))
+                .isInstanceOf(InvalidUploadPartException.class)
+                .hasMessage("A parte 3 deve ter exatamente 2 bytes");
+        verify(armazenamento, never()).gravarParte(anyString(), anyString(), anyInt(), any(), anyInt());
+    }
+
+    @Test
+    void receberParte_Valida_DeveGravarERegistrarEtag() throws Exception {
+        // Dado
+        when(sessaoRepository.renovar(eq(ID), any())).thenReturn(1);
+        byte[] parte = bytes(5);
+        String sha256 = sha256(parte).toUpperCase();
+        when(armazenamento.gravarParte(CHAVE_TEMPORARIA, ID_ENVIO, 2, parte, 5)).thenReturn("etag-2");
+
+        // Quando
+        uploadRetomavel.receberParte(ID, 2, 5, sha256, new ByteArrayInputStream(parte));
+
+        // Então
+        verify(parteRepository).registrar(ID, 2, 5, sha256.toLowerCase(), "etag-2");
+    }
+
+    @Test
+    void receberParte_SessaoEmConclusao_DeveRecusarComConflito() {
+        // Dado
+        when(sessaoRepository.renovar(eq(ID), any())).thenReturn(0);
+        byte[] parte = bytes(5);
+
+        // Quando & Então
+        assertThatThrownBy(() -> uploadRetomavel.receberParte(ID, 1, 0, sha256(parte), new ByteArrayInputStream(parte)))
+                .isInstanceOf(UploadSessionConflictException.class);
+    }
+
+    @Test
+    void concluir_ComPartesAusentes_DeveReabrirSessaoEInformarAusentes() throws Exception {
+        // Dado
+        when(sessaoRepository.reservarConclusao(ID)).thenReturn(1);
+        when(parteRepository.findByIdSessaoOrderByNumero(ID)).thenReturn(List.of(parte(1), parte(3)));
+
+        // Quando & Então
+        assertThatThrownBy(() -> uploadRetomavel.concluir(ID))
+                .isInstanceOf(UploadSessionConflictException.class)
+                .hasMessage("Partes ainda não recebidas: [2]");
+        verify(sessaoRepository).reabrir(ID, false);
+        verify(armazenamento, never()).concluirEnvioEmPartes(anyString(), anyString(), any());
+        verify(sessaoRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void concluir_FalhaDoArmazenamentoAoJuntar_DeveReabrirSemDescartarPartes() throws Exception {
+        // Dado
+        when(sessaoRepository.reservarConclusao(ID)).thenReturn(1);
+        when(parteRepository.findByIdSessaoOrderByNumero(ID)).thenReturn(List.of(parte(1), parte(2), parte(3)));
+        doThrow(new IOException("armazenamento indisponível"))
+                .when(armazenamento).concluirEnvioEmPartes(eq(CHAVE_TEMPORARIA), eq(ID_ENVIO), any());
+
+        // Quando & Então
+        assertThatThrownBy(() -> uploadRetomavel.concluir(ID))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Falha ao concluir o upload")
+                .hasRootCauseMessage("armazenamento indisponível");
+        verify(sessaoRepository).reabrir(ID, false);
+        verify(sessaoRepository, never()).deleteById(anyString());
+        verify(armazenamento, never()).abortarEnvioEmPartes(anyString(), anyString());
+    }
+
+    @Test
+    void concluir_FalhaAposMontagem_DeveReabrirComoMontada_ENovaTentativaNaoJuntaDeNovo() throws Exception {
+        // Dado: as partes são juntas, mas a promoção falha por erro transitório
+        when(sessaoRepository.reservarConclusao(ID)).thenReturn(1);
+        when(parteRepository.findByIdSessaoOrderByNumero(ID)).thenReturn(List.of(parte(1), parte(2), parte(3)));
+        AlbumDTO album = new AlbumDTO();
+        when(albumService.concluirUploadImagemCapa(10L, CHAVE_TEMPORARIA, "capa.png"))
+                .thenThrow(new IllegalStateException("MinIO indisponível"))
+                .thenReturn(album);
+
+        assertThatThrownBy(() -> uploadRetomavel.concluir(ID)).isInstanceOf(RuntimeException.class);
+        verify(sessaoRepository).reabrir(ID, true);
+        // Estado gravado por reabrir(id, true)
+        ReflectionTestUtils.setField(sessao, "montada", true);
+
+        // Quando
+        Object resultado = uploadRetomavel.concluir(ID);
+
+        // Então
+        assertThat(resultado).isSameAs(album);
+        verify(armazenamento, times(1)).concluirEnvioEmPartes(eq(CHAVE_TEMPORARIA), eq(ID_ENVIO), any());
+        verify(sessaoRepository).deleteById(ID);
+    }
+
+    @Test
+    void concluir_ImagemRecusada_DeveEncerrarSessaoERemoverObjetoTemporario() throws Exception {
+        // Dado
+        when(sessaoRepository.reservarConclusao(ID)).thenReturn(1);
+        when(parteRepository.findByIdSessaoOrderByNumero(ID)).thenReturn(List.of(parte(1), parte(2), parte(3)));
+        when(albumService.concluirUploadImagemCapa(10L, CHAVE_TEMPORARIA, "capa.png"))
+                .thenThrow(new InvalidImageException("Arquivo não é uma imagem"));
+        when(armazenamento.remover(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        when(armazenamento.listar(anyString())).thenReturn(List.of());
+
+        // Quando & Então
+        assertThatThrownBy(() -> uploadRetomavel.concluir(ID)).isInstanceOf(InvalidImageException.class);
+        verify(sessaoRepository).deleteById(ID);
+        verify(armazenamento).remover(CHAVE_TEMPORARIA);
+        verify(sessaoRepository, never()).reabrir(anyString(), anyBoolean());
+    }
+
+    private static ParteUpload parte(int numero) {
+        ParteUpload parte = new ParteUpload();
+        ReflectionTestUtils.setField(parte, "idSessao", ID);
+        ReflectionTestUtils.setField(parte, "numero", numero);
+        ReflectionTestUtils.setField(parte, "etag", "etag-" + numero);
+        return parte;
+    }
+
+    private static byte[] bytes(int tamanho) {
+        byte[] dados = new byte[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            dados[i] = (byte) (i + 1);
+        }
+        return dados;
+    }
+
+    private static String sha256(byte[] dados) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(dados));
+    }
+}
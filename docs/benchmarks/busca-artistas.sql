@@ -0,0 +1,44 @@
+-- Benchmark da pesquisa de artistas por nome (GET /v1/artistas/pesquisa).
+--
+-- Uso (banco descartável com as migrations aplicadas):
+--   psql -v qtd=10000   -f docs/benchmarks/busca-artistas.sql artist_album_db
+--   psql -v qtd=5000000 -f docs/benchmarks/busca-artistas.sql artist_album_db
+--
+-- Compare o "Execution Time" das consultas em cada volume: com o índice
+-- idx_artist_nome_normalizado_trgm o plano deve ser Bitmap Index Scan e a
+-- latência praticamente constante; sem ele (DROP INDEX) vira Seq Scan e cresce
+-- linearmente com a tabela.
+
+\timing on
+
+BEGIN;
+
+INSERT INTO artist (nome)
+SELECT 'Artista ' || md5(g::text) || ' ' || g
+FROM generate_series(1, :qtd) AS g
+ON CONFLICT (nome) DO NOTHING;
+
+INSERT INTO artist (nome) VALUES ('Michel Teló Benchmark') ON CONFLICT (nome) DO NOTHING;
+
+ANALYZE artist;
+
+SELECT set_config('pg_trgm.word_similarity_threshold', '0.4', true);
+
+-- Substring sem acento encontrando nome acentuado
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM artist
+WHERE lower(f_unaccent(nome)) LIKE '%' || lower(f_unaccent('telo')) || '%'
+   OR lower(f_unaccent('telo')) <% lower(f_unaccent(nome))
+ORDER BY (lower(f_unaccent(nome)) LIKE lower(f_unaccent('telo')) || '%') DESC,
+         word_similarity(lower(f_unaccent('telo')), lower(f_unaccent(nome))) DESC, nome ASC, id ASC
+LIMIT 10;
+
+-- Termo com erro de digitação (similaridade)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM artist
+WHERE lower(f_unaccent(nome)) LIKE '%' || lower(f_unaccent('michl telo')) || '%'
+   OR lower(f_unaccent('michl telo')) <% lower(f_unaccent(nome))
+ORDER BY word_similarity(lower(f_unaccent('michl telo')), lower(f_unaccent(nome))) DESC, nome ASC, id ASC
+LIMIT 10;
+
+ROLLBACK;
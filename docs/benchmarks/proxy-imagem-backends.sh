@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Comparação do proxy de imagens (GET /v1/artistas/foto/{id}) entre os backends de armazenamento.
+#
+# Uso (rodar uma vez com a API em cada backend, com o mesmo artista e foto cadastrados):
+#   ARMAZENAMENTO_BACKEND=minio ... ; ARTISTA_ID=1 ./docs/benchmarks/proxy-imagem-backends.sh 2000 50
+#   ARMAZENAMENTO_BACKEND=local ... ; ARTISTA_ID=1 ./docs/benchmarks/proxy-imagem-backends.sh 2000 50
+#
+# Dispara N requisições com C em paralelo, sem ETag (toda resposta é 200 com o corpo completo),
+# e imprime a distribuição de status, o tempo total, a vazão e os percentis de latência. No backend
+# local o arquivo armazenado é enviado por sendfile, sem a ida ao MinIO nem a cópia para o cache em
+# disco; com o cache em disco aquecido a diferença fica restrita às faltas e às imagens grandes.
+#
+# Mantenha imagens.entrega.modo=proxy (padrão) para não medir redirecionamentos; o rate limit não
+# se aplica às imagens.
+
+set -euo pipefail
+
+TOTAL=${1:-2000}
+CONCORRENCIA=${2:-50}
+API=${API:-http://localhost:8080/api}
+ARTISTA_ID=${ARTISTA_ID:-1}
+URL="$API/v1/artistas/foto/$ARTISTA_ID"
+
+RESULTADOS=$(mktemp)
+trap 'rm -f "$RESULTADOS"' EXIT
+
+# Aquecimento: garante a foto no cache em disco (backend minio) antes da medição
+curl -s -o /dev/null "$URL"
+
+inicio=$(date +%s.%N)
+seq "$TOTAL" | xargs -P "$CONCORRENCIA" -I{} \
+  curl -s -o /dev/null -w '%{http_code} %{time_total} %{size_download}\n' "$URL" \
+  > "$RESULTADOS"
+fim=$(date +%s.%N)
+
+echo "Status:"
+awk '{ print $1 }' "$RESULTADOS" | sort | uniq -c
+awk -v inicio="$inicio" -v fim="$fim" -v total="$TOTAL" '
+  { bytes += $3 }
+  END {
+    duracao = fim - inicio
+    printf "Tempo total: %.2fs  Vazão: %.0f req/s  %.1f MB/s\n", duracao, total / duracao, bytes / duracao / 1048576
+  }' "$RESULTADOS"
+awk '{ print $2 }' "$RESULTADOS" | sort -n | awk '
+  { latencias[NR] = $1 }
+  END {
+    printf "Latência p50=%.1fms p95=%.1fms p99=%.1fms\n",
+      latencias[int(NR * 0.50)] * 1000, latencias[int(NR * 0.95)] * 1000, latencias[int(NR * 0.99)] * 1000
+  }'
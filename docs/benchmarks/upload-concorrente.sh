@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Teste de carga do upload de capa (POST /v1/albuns/{id}/capa) com uploads simultâneos.
+#
+# Uso (API local, MinIO e banco de pé, com ao menos um álbum cadastrado):
+#   TOKEN=<jwt> ALBUM_ID=1 ./docs/benchmarks/upload-concorrente.sh 200 20
+#
+# Gera um JPEG sintético de N MB e dispara os uploads em paralelo enquanto amostra
+# jvm.memory.used (heap) pelo actuator. Com o envio por streaming o heap deve ficar
+# estável (partes de 5 MB limitadas por minio.upload.concorrencia-maxima), em vez de
+# crescer ~N MB por upload em andamento como acontecia com MultipartFile.getBytes().
+#
+# O rate limit de /v1/** (10 req/min) precisa ser desativado ou elevado para o teste.
+
+set -euo pipefail
+
+CONCORRENCIA=${1:-200}
+TAMANHO_MB=${2:-20}
+API=${API:-http://localhost:8080/api}
+ALBUM_ID=${ALBUM_ID:-1}
+: "${TOKEN:?defina TOKEN com um JWT válido}"
+
+ARQUIVO=$(mktemp --suffix=.jpg)
+trap 'rm -f "$ARQUIVO"; kill "$AMOSTRADOR" 2>/dev/null || true' EXIT
+
+# Cabeçalho JPEG seguido de bytes aleatórios: basta para a identificação do tipo
+printf '\xff\xd8\xff\xe0' > "$ARQUIVO"
+head -c $((TAMANHO_MB * 1024 * 1024 - 4)) /dev/urandom >> "$ARQUIVO"
+
+amostrar_heap() {
+  while true; do
+    curl -s "$API/actuator/metrics/jvm.memory.used?tag=area:heap" \
+      | sed -n 's/.*"value":\([0-9.E+]*\).*/\1/p' \
+      | awk '{ printf "%s heap=%.0f MB\n", strftime("%H:%M:%S"), $1 / 1048576 }'
+    sleep 1
+  done
+}
+amostrar_heap &
+AMOSTRADOR=$!
+
+inicio=$(date +%s)
+seq "$CONCORRENCIA" | xargs -P "$CONCORRENCIA" -I{} \
+  curl -s -o /dev/null -w '%{http_code}\n' \
+    -H "Authorization: Bearer $TOKEN" \
+    -F "arquivo=@$ARQUIVO;type=image/jpeg;filename=carga-{}.jpg" \
+    "$API/v1/albuns/$ALBUM_ID/capa" \
+  | sort | uniq -c
+echo "Tempo total: $(( $(date +%s) - inicio ))s"
@@ -21,7 +21,13 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({ chil
 
   useEffect(() => {
     // Conectar ao WebSocket para notificações de álbuns e artistas
-    const handleWebSocketMessage = (topic: string, data: any) => {
+    const handleWebSocketMessage = (topic: string, data: any, headers?: Record<string, string>) => {
+      // Falha de um upload processado em segundo plano: a mensagem traz a tarefa, não o DTO
+      if (headers?.['tarefa-status'] === 'FALHA') {
+        addNotification(`Falha ao processar imagem: ${data.mensagemErro ?? 'erro desconhecido'}`, 'error');
+        return;
+      }
+
       if (topic === '/topic/albums') {
         const album = data as Album;
         addNotification(`Álbum atualizado: ${album.titulo}`, 'info');
@@ -39,8 +45,17 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({ chil
         }
         appFacade.handleWebSocketArtistCreate(artist);
       } else if (topic === '/topic/artists/delete') {
-        const artistId = typeof data === 'number' ? data : parseInt(data);
-        addNotification(`Artista excluído com sucesso`, 'success');
+        // Evento único com o artista e a quantidade de álbuns removidos em cascata
+        const artistId = typeof data === 'object' && data !== null
+          ? Number(data.id)
+          : typeof data === 'number' ? data : parseInt(data);
+        const removedAlbums = typeof data === 'object' && data !== null ? Number(data.albunsRemovidos) : 0;
+        addNotification(
+          removedAlbums > 0
+            ? `Artista excluído com sucesso (${removedAlbums} álbuns removidos)`
+            : `Artista excluído com sucesso`,
+          'success'
+        );
         appFacade.handleWebSocketArtistDelete(artistId);
       }
     };
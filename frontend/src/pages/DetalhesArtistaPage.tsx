@@ -164,6 +164,9 @@ const DetalhesArtistaPage: React.FC = () => {
                 {artist.urlImagemPerfilAssinada ? (
                   <img 
                     src={artist.urlImagemPerfilAssinada} 
+                    width={artist.larguraImagemPerfil}
+                    height={artist.alturaImagemPerfil}
+                    style={appFacade.getPlaceholderStyle(artist.marcadorImagemPerfil)}
                     alt={artist.nome} 
                     className="h-full w-full object-cover"
                   />
@@ -258,7 +261,11 @@ const DetalhesArtistaPage: React.FC = () => {
                 <div className="aspect-square w-full relative overflow-hidden bg-[#282828] rounded-md mb-4 shadow-lg">
                   {album.urlImagemCapaAssinada ? (
                     <img
-                      src={album.urlImagemCapaAssinada}
+                      src={appFacade.getAlbumThumbnailUrl(album, appFacade.ALBUM_THUMBNAIL_WIDTH)}
+                      loading="lazy"
+                      width={album.larguraImagemCapa}
+                      height={album.alturaImagemCapa}
+                      style={appFacade.getPlaceholderStyle(album.marcadorImagemCapa)}
                       alt={`Capa de ${album.titulo}`}
                       className="w-full h-full object-cover group-hover:scale-105 transition-transform duration-500"
                     />
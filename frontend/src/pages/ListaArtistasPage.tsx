@@ -114,7 +114,11 @@ const ListaArtistasPage: React.FC = () => {
                 <div className="h-32 w-32 rounded-full bg-[#282828] group-hover:bg-[#333] flex items-center justify-center mb-6 shadow-2xl transition-all duration-300 transform group-hover:scale-105 overflow-hidden">
                   {artist.urlImagemPerfilAssinada ? (
                     <img 
-                      src={artist.urlImagemPerfilAssinada} 
+                      src={appFacade.getArtistThumbnailUrl(artist, appFacade.ARTIST_THUMBNAIL_WIDTH)}
+                      loading="lazy"
+                      width={artist.larguraImagemPerfil}
+                      height={artist.alturaImagemPerfil}
+                      style={appFacade.getPlaceholderStyle(artist.marcadorImagemPerfil)}
                       alt={artist.nome} 
                       className="h-full w-full object-cover"
                     />
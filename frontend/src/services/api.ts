@@ -1,7 +1,14 @@
 import axios, { AxiosInstance } from 'axios';
-import { LoginRequest, LoginResponse, Artist, Album, CreateArtistRequest, CreateAlbumRequest, PaginatedResponse } from '../types';
+import { LoginRequest, LoginResponse, Artist, Album, CreateArtistRequest, CreateAlbumRequest, PaginatedResponse, UploadSession } from '../types';
 import { triggerGlobalRateLimit } from '../context/RateLimitContext';
 
+// Arquivos maiores que isso usam o upload retomável (partes reenviadas individualmente após falhas)
+const RESUMABLE_UPLOAD_THRESHOLD = 5 * 1024 * 1024;
+const MAX_CHUNK_ATTEMPTS = 3;
+
+const toHex = (buffer: ArrayBuffer) =>
+  Array.from(new Uint8Array(buffer)).map(b => b.toString(16).padStart(2, '0')).join('');
+
 class ApiService {
   private api: AxiosInstance;
 
@@ -107,6 +114,9 @@ class ApiService {
   }
 
   async uploadArtistPhoto(artistId: number, file: File): Promise<Artist> {
+    if (file.size > RESUMABLE_UPLOAD_THRESHOLD) {
+      return this.uploadResumable<Artist>(`/v1/artistas/${artistId}/foto/envios`, file);
+    }
     const formData = new FormData();
     formData.append('arquivo', file);
 
@@ -149,12 +159,105 @@ class ApiService {
   }
 
   async uploadAlbumCover(albumId: number, file: File): Promise<Album> {
+    if (file.size > RESUMABLE_UPLOAD_THRESHOLD) {
+      return this.uploadResumable<Album>(`/v1/albuns/${albumId}/capa/envios`, file);
+    }
     const formData = new FormData();
     formData.append('arquivo', file);
 
     const response = await this.api.post<Album>(`/v1/albuns/${albumId}/capa`, formData);
     return response.data;
   }
+
+  /**
+   * Upload retomável: cria a sessão, envia só as partes que o servidor ainda não tem (cada uma com
+   * offset e SHA-256) e conclui. Uma parte que falha é reenviada sozinha; antes de desistir, o
+   * estado da sessão é consultado de novo para não repetir partes já recebidas.
+   */
+  private async uploadResumable<T>(sessionPath: string, file: File): Promise<T> {
+    let session = (await this.api.post<UploadSession>(sessionPath, {
+      nomeArquivo: file.name,
+      tamanho: file.size,
+    })).data;
+
+    for (let attempt = 1; ; attempt++) {
+      const received = new Set(session.partesRecebidas);
+      try {
+        for (let part = 1; part <= session.totalPartes; part++) {
+          if (received.has(part)) {
+            continue;
+          }
+          const offset = (part - 1) * session.tamanhoParte;
+          const chunk = await file.slice(offset, offset + session.tamanhoParte).arrayBuffer();
+          const checksum = toHex(await crypto.subtle.digest('SHA-256', chunk));
+          await this.api.put(`/v1/imagens/envios/${session.id}/partes/${part}`, chunk, {
+            headers: {
+              'Content-Type': 'application/octet-stream',
+              'Upload-Offset': offset.toString(),
+              'Upload-Checksum-SHA256': checksum,
+            },
+            timeout: 60000,
+          });
+        }
+        break;
+      } catch (error) {
+        if (attempt >= MAX_CHUNK_ATTEMPTS) {
+          throw error;
+        }
+        session = (await this.api.get<UploadSession>(`/v1/imagens/envios/${session.id}`)).data;
+      }
+    }
+
+    const response = await this.api.post<T>(`/v1/imagens/envios/${session.id}/conclusao`, null, { timeout: 60000 });
+    return response.data;
+  }
+
+  /**
+   * Busca as miniaturas de vários artistas ou álbuns em uma única resposta multipart/mixed.
+   * Retorna as imagens por id; ids sem imagem (ou omitidos pelo servidor) ficam de fora.
+   */
+  async getThumbnailBundle(kind: 'artistas' | 'albuns', ids: number[], width: number): Promise<Map<number, Blob>> {
+    const path = kind === 'artistas' ? '/v1/artistas/fotos' : '/v1/albuns/capas';
+    const response = await this.api.get<ArrayBuffer>(`${path}?ids=${ids.join(',')}&w=${width}`, {
+      responseType: 'arraybuffer',
+    });
+    const boundary = /boundary=([^;]+)/.exec(response.headers['content-type'] ?? '')?.[1];
+    return boundary ? this.parseMultipart(new Uint8Array(response.data), boundary) : new Map();
+  }
+
+  private parseMultipart(bytes: Uint8Array, boundary: string): Map<number, Blob> {
+    const decoder = new TextDecoder('ascii');
+    const parts = new Map<number, Blob>();
+    const readLine = (from: number): [string, number] => {
+      let end = from;
+      while (end + 1 < bytes.length && !(bytes[end] === 13 && bytes[end + 1] === 10)) end++;
+      return [decoder.decode(bytes.subarray(from, end)), end + 2];
+    };
+
+    let pos = 0;
+    while (pos < bytes.length) {
+      const [delimiter, afterDelimiter] = readLine(pos);
+      if (delimiter !== `--${boundary}`) break;
+
+      const headers: Record<string, string> = {};
+      let line: string;
+      pos = afterDelimiter;
+      do {
+        [line, pos] = readLine(pos);
+        const separator = line.indexOf(':');
+        if (separator > 0) headers[line.slice(0, separator).trim().toLowerCase()] = line.slice(separator + 1).trim();
+      } while (line !== '' && pos < bytes.length);
+
+      const length = Number(headers['content-length']);
+      const id = Number(headers['content-id']?.replace(/[<>]/g, ''));
+      if (!Number.isFinite(length) || pos + length > bytes.length) break;
+      if (Number.isFinite(id)) {
+        parts.set(id, new Blob([bytes.subarray(pos, pos + length)], { type: headers['content-type'] }));
+      }
+      pos += length + 2;
+    }
+    return parts;
+  }
 }
 
 export const apiService = new ApiService();
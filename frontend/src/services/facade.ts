@@ -22,6 +22,12 @@ class AppFacade {
   private albumsCache = new Map<string, { data: Album[], timestamp: number }>();
   private CACHE_TTL = 2 * 60 * 1000; // 2 minutos em milissegundos
 
+  // Miniaturas obtidas em lote (blob URLs), por URL versionada da miniatura
+  private thumbnailBlobs = new Map<string, string>();
+  private THUMBNAIL_CACHE_LIMIT = 200;
+  public readonly ARTIST_THUMBNAIL_WIDTH = 256;
+  public readonly ALBUM_THUMBNAIL_WIDTH = 400;
+
   // Observables públicos
   public artists$: Observable<Artist[]> = this.artistsSubject.asObservable();
   public paginatedArtists$: Observable<PaginatedResponse<Artist> | null> = this.paginatedArtistsSubject.asObservable();
@@ -42,6 +48,7 @@ class AppFacade {
       const data = await apiService.getArtists(page, size, sort, search);
       this.paginatedArtistsSubject.next(data);
       this.artistsSubject.next(data.content);
+      this.loadArtistThumbnails(data.content);
     } catch (error: any) {
       // Se for erro de Rate Limit, não loga como erro de carregamento para evitar confusão
       if (error.response?.status !== 429) {
@@ -53,6 +60,82 @@ class AppFacade {
     }
   }
 
+  /**
+   * URL da miniatura servida pelo proxy do backend (redimensionada sob demanda).
+   * Parte da URL versionada da API (?v=), que o navegador guarda como imutável.
+   */
+  getArtistThumbnailUrl(artist: Artist, width: number): string {
+    const url = this.withWidth(artist.urlImagemPerfilAssinada ?? `/api/v1/artistas/foto/${artist.id}`, width);
+    return this.thumbnailBlobs.get(url) ?? url;
+  }
+
+  getAlbumThumbnailUrl(album: Album, width: number): string {
+    const url = this.withWidth(album.urlImagemCapaAssinada ?? `/api/v1/albuns/capa/${album.id}`, width);
+    return this.thumbnailBlobs.get(url) ?? url;
+  }
+
+  /**
+   * Busca as miniaturas de uma página de artistas em uma única requisição e republica a página
+   * para que a lista passe a usar as imagens já baixadas. Falhas apenas mantêm as URLs individuais.
+   */
+  private async loadArtistThumbnails(artists: Artist[]) {
+    const pending = artists.filter(a => a.urlImagemPerfilAssinada
+      && !this.thumbnailBlobs.has(this.withWidth(a.urlImagemPerfilAssinada, this.ARTIST_THUMBNAIL_WIDTH)));
+    if (pending.length === 0) return;
+    try {
+      const blobs = await apiService.getThumbnailBundle('artistas', pending.map(a => a.id), this.ARTIST_THUMBNAIL_WIDTH);
+      pending.forEach(a => this.storeThumbnail(
+        this.withWidth(a.urlImagemPerfilAssinada!, this.ARTIST_THUMBNAIL_WIDTH), blobs.get(a.id)));
+
+      const currentPaginated = this.paginatedArtistsSubject.value;
+      if (currentPaginated && blobs.size > 0) {
+        this.paginatedArtistsSubject.next({ ...currentPaginated });
+      }
+    } catch (error) {
+      console.warn('Miniaturas em lote indisponíveis; usando URLs individuais:', error);
+    }
+  }
+
+  private async loadAlbumThumbnails(albums: Album[]) {
+    const pending = albums.filter(a => a.urlImagemCapaAssinada
+      && !this.thumbnailBlobs.has(this.withWidth(a.urlImagemCapaAssinada, this.ALBUM_THUMBNAIL_WIDTH)));
+    if (pending.length === 0) return;
+    try {
+      const blobs = await apiService.getThumbnailBundle('albuns', pending.map(a => a.id), this.ALBUM_THUMBNAIL_WIDTH);
+      pending.forEach(a => this.storeThumbnail(
+        this.withWidth(a.urlImagemCapaAssinada!, this.ALBUM_THUMBNAIL_WIDTH), blobs.get(a.id)));
+
+      if (blobs.size > 0) {
+        this.albumsSubject.next([...this.albumsSubject.value]);
+      }
+    } catch (error) {
+      console.warn('Capas em lote indisponíveis; usando URLs individuais:', error);
+    }
+  }
+
+  private storeThumbnail(url: string, blob?: Blob) {
+    if (!blob) return;
+    // Descarta as mais antigas (ordem de inserção do Map) para limitar a memória
+    if (this.thumbnailBlobs.size >= this.THUMBNAIL_CACHE_LIMIT) {
+      const [oldestUrl, oldestBlobUrl] = this.thumbnailBlobs.entries().next().value as [string, string];
+      URL.revokeObjectURL(oldestBlobUrl);
+      this.thumbnailBlobs.delete(oldestUrl);
+    }
+    this.thumbnailBlobs.set(url, URL.createObjectURL(blob));
+  }
+
+  /**
+   * Estilo de fundo com o marcador de baixa qualidade (LQIP) embutido no DTO:
+   * pintado imediatamente, sem requisição, até a imagem real carregar por cima.
+   */
+  getPlaceholderStyle(placeholder?: string): { backgroundImage?: string; backgroundSize?: string } {
+    return placeholder ? { backgroundImage: `url(${placeholder})`, backgroundSize: 'cover' } : {};
+  }
+
+  private withWidth(url: string, width: number): string {
+    return `${url}${url.includes('?') ? '&' : '?'}w=${width}`;
+  }
+
   async getArtistById(id: number): Promise<Artist> {
     const artist = await apiService.getArtist(id);
     this.currentArtistSubject.next(artist);
@@ -86,11 +169,8 @@ class AppFacade {
     // 1. Limpa o cache de artistas para que a próxima carga venha fresca
     this.paginatedArtistsSubject.next(null);
 
+    // A URL da imagem já traz a versão do conteúdo (?v=): um novo upload gera uma nova URL
     const updatedArtist = { ...updated };
-    // Adiciona timestamp para forçar o refresh da imagem no navegador
-    if (updatedArtist.urlImagemPerfilAssinada) {
-      updatedArtist.urlImagemPerfilAssinada = `${updatedArtist.urlImagemPerfilAssinada}?t=${Date.now()}`;
-    }
 
     // 2. Atualiza o artista atual se for o mesmo
     if (this.currentArtistSubject.value?.id === artistId) {
@@ -118,6 +198,7 @@ class AppFacade {
     // Se tiver no cache e não expirou, usa o cache
     if (cached && (now - cached.timestamp < this.CACHE_TTL)) {
       this.albumsSubject.next(cached.data);
+      this.loadAlbumThumbnails(cached.data);
       return;
     }
 
@@ -130,6 +211,7 @@ class AppFacade {
       this.albumsCache.set(cacheKey, { data, timestamp: now });
       
       this.albumsSubject.next(data);
+      this.loadAlbumThumbnails(data);
     } catch (error) {
       console.error('Erro ao carregar álbuns:', error);
       throw error;
@@ -182,12 +264,8 @@ class AppFacade {
     const index = currentAlbums.findIndex(a => a.id === albumId);
     
     if (index !== -1) {
-      // Atualiza o objeto do álbum na lista reativa com o resultado da API (que já tem a nova URL)
-      // Adicionamos um timestamp na URL para forçar o navegador a ignorar o cache da imagem antiga
+      // Atualiza o objeto do álbum na lista reativa com o resultado da API (a URL versionada já é a nova)
       const updatedAlbum = { ...result };
-      if (updatedAlbum.urlImagemCapaAssinada) {
-        updatedAlbum.urlImagemCapaAssinada = `${updatedAlbum.urlImagemCapaAssinada}?t=${Date.now()}`;
-      }
       
       currentAlbums[index] = updatedAlbum;
       this.albumsSubject.next(currentAlbums);
@@ -228,10 +306,6 @@ class AppFacade {
     const index = currentArtists.findIndex(a => a.id === artist.id);
     
     const updatedArtist = { ...artist };
-    // Adiciona timestamp se houver imagem para bypassar cache do navegador no websocket
-    if (updatedArtist.urlImagemPerfilAssinada) {
-      updatedArtist.urlImagemPerfilAssinada = `${updatedArtist.urlImagemPerfilAssinada}?t=${Date.now()}`;
-    }
 
     if (index !== -1) {
       currentArtists[index] = updatedArtist;
@@ -298,10 +372,6 @@ class AppFacade {
     const index = currentAlbums.findIndex(a => a.id === album.id);
     
     const updatedAlbum = { ...album };
-    // Adiciona timestamp para bypassar cache do navegador no websocket
-    if (updatedAlbum.urlImagemCapaAssinada) {
-      updatedAlbum.urlImagemCapaAssinada = `${updatedAlbum.urlImagemCapaAssinada}?t=${Date.now()}`;
-    }
 
     // Verifica se a lista atual pertence ao artista do álbum recebido
     const isSameArtist = currentAlbums.length === 0 || currentAlbums[0].idArtista === album.idArtista;
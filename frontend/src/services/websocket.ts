@@ -5,7 +5,7 @@ export class WebSocketService {
   private stompClient: any = null;
   private connected = false;
 
-  connect(onMessageReceived: (topic: string, data: any) => void): void {
+  connect(onMessageReceived: (topic: string, data: any, headers?: Record<string, string>) => void): void {
     const socket = new SockJS('/ws');
     this.stompClient = Stomp.over(socket);
 
@@ -17,9 +17,9 @@ export class WebSocketService {
         this.stompClient.subscribe(topic, (message: any) => {
           try {
             const data = JSON.parse(message.body);
-            onMessageReceived(topic, data);
+            onMessageReceived(topic, data, message.headers);
           } catch (e) {
-            onMessageReceived(topic, message.body);
+            onMessageReceived(topic, message.body, message.headers);
           }
         });
       };
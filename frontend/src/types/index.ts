@@ -3,6 +3,9 @@ export interface Artist {
   nome: string;
   urlImagemPerfil?: string;
   urlImagemPerfilAssinada?: string;
+  marcadorImagemPerfil?: string;
+  larguraImagemPerfil?: number;
+  alturaImagemPerfil?: number;
   urlS3Presigned?: string;
   quantidadeAlbuns?: number;
   albuns?: Album[];
@@ -17,6 +20,9 @@ export interface Album {
   nomeArtista?: string;
   urlImagemCapa?: string;
   urlImagemCapaAssinada?: string;
+  marcadorImagemCapa?: string;
+  larguraImagemCapa?: number;
+  alturaImagemCapa?: number;
   urlS3Presigned?: string;
   dataCriacao?: string;
   dataAtualizacao?: string;
@@ -58,6 +64,19 @@ export interface PaginatedResponse<T> {
   last: boolean;
 }
 
+export interface UploadSession {
+  id: string;
+  tipo: string;
+  idRecurso: number;
+  nomeArquivo: string;
+  tamanhoTotal: number;
+  tamanhoParte: number;
+  totalPartes: number;
+  partesRecebidas: number[];
+  status: string;
+  expiraEm: string;
+}
+
 export interface NotificationMessage {
   message: string;
   type: 'success' | 'error' | 'info';